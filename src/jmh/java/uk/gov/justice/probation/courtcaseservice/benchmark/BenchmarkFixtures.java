@@ -0,0 +1,124 @@
+package uk.gov.justice.probation.courtcaseservice.benchmark;
+
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.AddressPropertiesEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtCaseEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.DefendantEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.DefendantType;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingDayEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingDefendantEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEventType;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.JudicialResultEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.NamePropertiesEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenceEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderProbationStatus;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.PhoneNumberEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.Sex;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.SourceType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Hearings shaped like those imported from Common Platform: several defendants, each with a few offences and judicial
+ * results, over a couple of hearing days.
+ */
+public final class BenchmarkFixtures {
+    public static final String COURT_CODE = "B10JQ";
+    public static final LocalDate HEARING_DATE = LocalDate.of(2022, 11, 1);
+
+    private BenchmarkFixtures() {
+    }
+
+    public static HearingEntity aHearing(String hearingId, int defendantCount, int offencesPerDefendant) {
+        final var hearing = HearingEntity.builder()
+            .hearingId(hearingId)
+            .hearingEventType(HearingEventType.CONFIRMED_OR_UPDATED)
+            .hearingType("Sentence")
+            .listNo("1st")
+            .firstCreated(LocalDateTime.now())
+            .courtCase(CourtCaseEntity.builder()
+                .caseId("case-" + hearingId)
+                .caseNo("100" + hearingId.hashCode())
+                .urn("URN" + hearingId.hashCode())
+                .sourceType(SourceType.COMMON_PLATFORM)
+                .build())
+            .hearingDays(new ArrayList<>(List.of(
+                aHearingDay(HEARING_DATE, LocalTime.of(9, 30)),
+                aHearingDay(HEARING_DATE.plusDays(1), LocalTime.of(14, 0)))))
+            .hearingDefendants(IntStream.range(0, defendantCount)
+                .mapToObj(i -> aHearingDefendant(hearingId + "-defendant-" + i, "X" + (100000 + i), offencesPerDefendant))
+                .collect(Collectors.toCollection(ArrayList::new)))
+            .build();
+        hearing.getHearingDays().forEach(hearingDay -> hearingDay.setHearing(hearing));
+        hearing.getHearingDefendants().forEach(hearingDefendant -> hearingDefendant.setHearing(hearing));
+        return hearing;
+    }
+
+    private static HearingDayEntity aHearingDay(LocalDate day, LocalTime time) {
+        return HearingDayEntity.builder()
+            .day(day)
+            .time(time)
+            .courtCode(COURT_CODE)
+            .courtRoom("Courtroom 01")
+            .build();
+    }
+
+    private static HearingDefendantEntity aHearingDefendant(String defendantId, String crn, int offenceCount) {
+        final var name = NamePropertiesEntity.builder()
+            .title("Mr")
+            .forename1("Arthur")
+            .forename2("Stanley")
+            .surname("Morgan-" + crn)
+            .build();
+        final var hearingDefendant = HearingDefendantEntity.builder()
+            .defendantId(defendantId)
+            .defendant(DefendantEntity.builder()
+                .defendantId(defendantId)
+                .personId("person-" + defendantId)
+                .name(name)
+                .defendantName(name.getFullName())
+                .type(DefendantType.PERSON)
+                .crn(crn)
+                .cro("CRO/" + crn)
+                .pnc("PNC/" + crn)
+                .dateOfBirth(LocalDate.of(1975, 1, 1))
+                .sex(Sex.MALE)
+                .nationality1("British")
+                .address(new AddressPropertiesEntity("27", "Elm Place", "AB21 3ES", "Bangor", null, null))
+                .phoneNumber(PhoneNumberEntity.builder().home("07000000013").mobile("07000000015").build())
+                .offender(OffenderEntity.builder()
+                    .crn(crn)
+                    .probationStatus(OffenderProbationStatus.CURRENT)
+                    .awaitingPsr(true)
+                    .previouslyKnownTerminationDate(LocalDate.of(2020, 2, 27))
+                    .build())
+                .build())
+            .offences(IntStream.rangeClosed(1, offenceCount)
+                .mapToObj(BenchmarkFixtures::anOffence)
+                .collect(Collectors.toCollection(ArrayList::new)))
+            .build();
+        hearingDefendant.getOffences().forEach(offence -> offence.setHearingDefendant(hearingDefendant));
+        return hearingDefendant;
+    }
+
+    private static OffenceEntity anOffence(int sequence) {
+        final var offence = OffenceEntity.builder()
+            .sequence(sequence)
+            .title("Theft from a shop")
+            .summary("On 01/01/2022 at Town, stole Article, to the value of £100.00, belonging to Shop.")
+            .act("Contrary to section 1(1) and 7 of the Theft Act 1968.")
+            .judicialResults(new ArrayList<>(List.of(
+                JudicialResultEntity.builder().label("Remanded on conditional bail").judicialResultTypeId("remand").build(),
+                JudicialResultEntity.builder().label("Adjourned").judicialResultTypeId("adjourn").build())))
+            .build();
+        offence.getJudicialResults().forEach(judicialResult -> judicialResult.setOffence(offence));
+        return offence;
+    }
+}
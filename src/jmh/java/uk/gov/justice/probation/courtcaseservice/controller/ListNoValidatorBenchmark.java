@@ -0,0 +1,37 @@
+package uk.gov.justice.probation.courtcaseservice.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.justice.probation.courtcaseservice.benchmark.BenchmarkFixtures;
+import uk.gov.justice.probation.courtcaseservice.controller.model.ExtendedHearingRequestResponse;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListNoValidatorBenchmark {
+
+    @Param({"1", "10"})
+    public int defendants;
+
+    private final ListNoValidator validator = new ListNoValidator();
+    private ExtendedHearingRequestResponse request;
+
+    @Setup
+    public void setUp() {
+        // The list number is on the hearing days only, so the request is valid and the context is not used
+        request = ExtendedHearingRequestResponse.of(BenchmarkFixtures.aHearing("hearing", defendants, 3));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(request, null);
+    }
+}
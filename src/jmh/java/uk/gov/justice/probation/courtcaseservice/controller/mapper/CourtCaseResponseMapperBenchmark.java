@@ -0,0 +1,45 @@
+package uk.gov.justice.probation.courtcaseservice.controller.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.justice.probation.courtcaseservice.benchmark.BenchmarkFixtures;
+import uk.gov.justice.probation.courtcaseservice.controller.model.CourtCaseResponse;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingDefendantEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CourtCaseResponseMapperBenchmark {
+
+    @Param({"1", "5"})
+    public int defendants;
+
+    private HearingEntity hearing;
+    private HearingDefendantEntity lastDefendant;
+
+    @Setup
+    public void setUp() {
+        hearing = BenchmarkFixtures.aHearing("hearing", defendants, 3);
+        lastDefendant = hearing.getHearingDefendants().get(defendants - 1);
+    }
+
+    @Benchmark
+    public CourtCaseResponse mapFromDefendantId() {
+        return CourtCaseResponseMapper.mapFrom(hearing, lastDefendant.getDefendantId(), 2, Collections.emptyList());
+    }
+
+    @Benchmark
+    public CourtCaseResponse mapFromHearingDefendant() {
+        return CourtCaseResponseMapper.mapFrom(hearing, lastDefendant, 2, BenchmarkFixtures.HEARING_DATE);
+    }
+}
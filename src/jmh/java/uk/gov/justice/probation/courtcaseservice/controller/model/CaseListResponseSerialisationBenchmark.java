@@ -0,0 +1,54 @@
+package uk.gov.justice.probation.courtcaseservice.controller.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.justice.probation.courtcaseservice.benchmark.BenchmarkFixtures;
+import uk.gov.justice.probation.courtcaseservice.controller.mapper.CourtCaseResponseMapper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Serialises a case list of 500 rows, from 100 hearings of 5 defendants, as a busy court would return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CaseListResponseSerialisationBenchmark {
+    private static final int HEARINGS = 100;
+    private static final int DEFENDANTS_PER_HEARING = 5;
+
+    private ObjectWriter writer;
+    private CaseListResponse caseList;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build()
+            .writerFor(CaseListResponse.class);
+        caseList = CaseListResponse.builder()
+            .cases(IntStream.range(0, HEARINGS)
+                .mapToObj(i -> BenchmarkFixtures.aHearing("hearing-" + i, DEFENDANTS_PER_HEARING, 3))
+                .flatMap(hearing -> hearing.getHearingDefendants().stream()
+                    .map(defendant -> CourtCaseResponseMapper.mapFrom(hearing, defendant, 1, BenchmarkFixtures.HEARING_DATE)))
+                .collect(Collectors.toList()))
+            .build();
+    }
+
+    @Benchmark
+    public byte[] writeCaseList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(caseList);
+    }
+}
@@ -0,0 +1,42 @@
+package uk.gov.justice.probation.courtcaseservice.controller.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.justice.probation.courtcaseservice.benchmark.BenchmarkFixtures;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExtendedHearingRequestResponseBenchmark {
+
+    @Param({"1", "10"})
+    public int defendants;
+
+    private HearingEntity hearing;
+    private ExtendedHearingRequestResponse request;
+
+    @Setup
+    public void setUp() {
+        hearing = BenchmarkFixtures.aHearing("hearing", defendants, 3);
+        request = ExtendedHearingRequestResponse.of(hearing);
+    }
+
+    @Benchmark
+    public ExtendedHearingRequestResponse of() {
+        return ExtendedHearingRequestResponse.of(hearing);
+    }
+
+    @Benchmark
+    public HearingEntity asHearingEntity() {
+        return request.asHearingEntity();
+    }
+}
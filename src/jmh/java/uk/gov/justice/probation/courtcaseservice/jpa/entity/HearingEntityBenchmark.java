@@ -0,0 +1,40 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.justice.probation.courtcaseservice.benchmark.BenchmarkFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates an existing hearing with a resent copy of itself, the usual case for Common Platform imports. The update
+ * leaves the hearing unchanged, so it can be repeated without setting up each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HearingEntityBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int defendants;
+
+    private HearingEntity existing;
+    private HearingEntity update;
+
+    @Setup
+    public void setUp() {
+        existing = BenchmarkFixtures.aHearing("hearing", defendants, 3);
+        update = BenchmarkFixtures.aHearing("hearing", defendants, 3);
+    }
+
+    @Benchmark
+    public HearingEntity update() {
+        return existing.update(update);
+    }
+}
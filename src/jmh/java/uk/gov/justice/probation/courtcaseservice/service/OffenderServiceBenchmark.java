@@ -0,0 +1,66 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.justice.probation.courtcaseservice.service.model.KeyValue;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.ConvictionDocuments;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.DocumentType;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.OffenderDocumentDetail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OffenderServiceBenchmark {
+    private static final List<DocumentType> DOCUMENT_TYPES = List.of(DocumentType.COURT_REPORT_DOCUMENT, DocumentType.CONVICTION_DOCUMENT);
+
+    @Param({"5", "50"})
+    public int convictions;
+
+    private OffenderService offenderService;
+    private List<ConvictionDocuments> convictionDocuments;
+
+    @Setup
+    public void setUp() {
+        // Only the document filter is needed, the clients are not called
+        offenderService = new OffenderService(null, null, null, null,
+            new DocumentTypeFilter(List.of(DocumentType.COURT_REPORT_DOCUMENT), List.of("CJF", "CJO", "PSR")), null);
+        convictionDocuments = IntStream.range(0, convictions)
+            .mapToObj(conviction -> ConvictionDocuments.builder()
+                .convictionId(String.valueOf(2500000000L + conviction))
+                .documents(IntStream.range(0, 10)
+                    .mapToObj(document -> OffenderDocumentDetail.builder()
+                        .documentId(conviction + "-" + document)
+                        .documentName("document-" + document + ".pdf")
+                        .author("Author")
+                        .type(DOCUMENT_TYPES.get(document % DOCUMENT_TYPES.size()))
+                        .subType(new KeyValue(document % 3 == 0 ? "PSR" : "OTHER", "Sub type"))
+                        .createdAt(LocalDateTime.of(2022, 1, 1, 9, 0))
+                        .build())
+                    .collect(Collectors.toList()))
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public ConcurrentMap<String, List<OffenderDocumentDetail>> groupFilteredDocuments() {
+        return offenderService.groupFilteredDocuments(convictionDocuments, true);
+    }
+
+    @Benchmark
+    public ConcurrentMap<String, List<OffenderDocumentDetail>> groupUnfilteredDocuments() {
+        return offenderService.groupFilteredDocuments(convictionDocuments, false);
+    }
+}
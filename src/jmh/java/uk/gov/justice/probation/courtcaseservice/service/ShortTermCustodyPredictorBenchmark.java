@@ -0,0 +1,83 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import uk.gov.justice.probation.courtcaseservice.config.H2oModelLoader;
+import uk.gov.justice.probation.courtcaseservice.service.ShortTermCustodyPredictorService.ModelScores;
+import uk.gov.justice.probation.courtcaseservice.service.ShortTermCustodyPredictorService.ScoringKey;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Scores rows made from the court names, ages and offence codes the model was trained on. Run against a new model
+ * before rolling it out with -PjmhModel=file:/path/to/model.zip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ShortTermCustodyPredictorBenchmark {
+
+    @Param({"classpath:h2o/20221207_model.zip"})
+    public String model;
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private Resource modelResource;
+    private H2oModelLoader modelLoader;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ShortTermCustodyPredictorService predictorService;
+    private List<ScoringKey> keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        modelResource = new DefaultResourceLoader().getResource(model);
+        modelLoader = new H2oModelLoader(modelResource);
+        final var genModel = modelLoader.swap(modelResource).getWrapper().m;
+        final var courtNames = genModel.getDomainValues("court_name");
+        final var offenceCodes = genModel.getDomainValues("offence_code");
+        final var ages = Arrays.stream(genModel.getDomainValues("offender_age"))
+            .filter(NumberUtils::isDigits)
+            .map(Integer::valueOf)
+            .toList();
+        // Rows cycle through each domain, so few of them repeat and the batch scores nearly all of them
+        keys = IntStream.range(0, rows)
+            .mapToObj(row -> new ScoringKey(courtNames[row % courtNames.length], ages.get(row % ages.size()), offenceCodes[row % offenceCodes.length]))
+            .toList();
+        predictorService = new ShortTermCustodyPredictorService(modelLoader, meterRegistry, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public double scoreRow() {
+        final var key = keys.get(next++ % keys.size());
+        return predictorService.calculateShortTermCustodyPredictorScore(key.getCourtName(), key.getOffenderAge(), key.getOffenceCode());
+    }
+
+    @Benchmark
+    public ModelScores scoreCaseList() {
+        // A new service each time, so that no scores are kept from the last case list
+        return new ShortTermCustodyPredictorService(modelLoader, meterRegistry, Integer.MAX_VALUE)
+            .calculateShortTermCustodyPredictorScores(keys);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public H2oModelLoader.VersionedModel loadModel() {
+        return modelLoader.swap(modelResource);
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.justice.probation.courtcaseservice.application
 
+import io.micrometer.core.instrument.MeterRegistry
 import org.slf4j.LoggerFactory
 import org.springframework.retry.RetryCallback
 import org.springframework.retry.RetryContext
@@ -7,9 +8,11 @@ import org.springframework.retry.RetryListener
 import org.springframework.stereotype.Component
 
 @Component
-class ApplicationRetryListener : RetryListener {
+class ApplicationRetryListener(private val meterRegistry: MeterRegistry) : RetryListener {
     companion object {
         private val log = LoggerFactory.getLogger(ApplicationRetryListener::class.java)
+        const val RETRY_ATTEMPTS_METRIC = "retry.attempts.failed"
+        const val RETRY_EXHAUSTED_METRIC = "retry.exhausted"
     }
 
     override fun <T : Any?, E : Throwable?> open(context: RetryContext?, callback: RetryCallback<T, E>?): Boolean {
@@ -23,6 +26,7 @@ class ApplicationRetryListener : RetryListener {
         throwable: Throwable?
     ) {
         log.warn("Retry attempt {} failed with error", context?.retryCount, throwable)
+        meterRegistry.counter(RETRY_ATTEMPTS_METRIC, "name", retryName(context), "exception", exceptionName(throwable)).increment()
     }
 
     override fun <T : Any?, E : Throwable?> close(
@@ -31,5 +35,15 @@ class ApplicationRetryListener : RetryListener {
         throwable: Throwable?
     ) {
         log.warn("Retried {} times", context?.retryCount, throwable)
+        if (throwable != null) {
+            meterRegistry.counter(RETRY_EXHAUSTED_METRIC, "name", retryName(context), "exception", exceptionName(throwable)).increment()
+        }
     }
+
+    // For @Retryable this is the method signature
+    private fun retryName(context: RetryContext?): String =
+        context?.getAttribute(RetryContext.NAME)?.toString() ?: "unknown"
+
+    private fun exceptionName(throwable: Throwable?): String =
+        throwable?.javaClass?.simpleName ?: "none"
 }
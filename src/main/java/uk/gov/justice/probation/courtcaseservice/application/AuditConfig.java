@@ -0,0 +1,28 @@
+package uk.gov.justice.probation.courtcaseservice.application;
+
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.justice.probation.courtcaseservice.jpa.AuditChangeLogIntegrator;
+
+import java.util.List;
+
+@Configuration
+public class AuditConfig {
+
+    /**
+     * With audit.mode set to change-log, turns Envers off and writes changes to audited entities to audit_change_log
+     * instead, one row per transaction. The _AUD and REVINFO tables are left as they are, and stop being written to.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "audit.mode", havingValue = "change-log")
+    public HibernatePropertiesCustomizer auditChangeLogCustomizer() {
+        return properties -> {
+            properties.put("hibernate.integration.envers.enabled", false);
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.<Integrator>of(new AuditChangeLogIntegrator()));
+        };
+    }
+}
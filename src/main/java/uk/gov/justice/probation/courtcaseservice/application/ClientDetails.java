@@ -3,6 +3,8 @@ package uk.gov.justice.probation.courtcaseservice.application;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Component;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 
 import java.util.Optional;
 
@@ -10,12 +12,16 @@ import java.util.Optional;
  * Client details extracted from incoming token before oauth token validation.
  *
  * Note that these details are Thread scoped and so must not be accessed by Reactor operations which may run on a
- * separate thread. If you need to access these values from within a reactive context, pass them using the Reactor
- * Context API.
+ * separate thread. Pipelines built on the request thread should write {@link #currentContext()} to their Reactor
+ * Context, and operations within them read the details back with {@link #getUsername(ContextView)} and
+ * {@link #getClientId(ContextView)}.
  */
 @Component
 @Slf4j
 public class ClientDetails implements AuditorAware<String> {
+    private static final String CLIENT_ID_KEY = ClientDetails.class.getName() + ".clientId";
+    private static final String USERNAME_KEY = ClientDetails.class.getName() + ".username";
+
     private final static ThreadLocal<String> clientId = new ThreadLocal<>();
     private final static ThreadLocal<String> username = new ThreadLocal<>();
 
@@ -32,6 +38,33 @@ public class ClientDetails implements AuditorAware<String> {
         ClientDetails.username.set(username);
     }
 
+    public void clear() {
+        ClientDetails.clientId.remove();
+        ClientDetails.username.remove();
+    }
+
+    /**
+     * The details for the current thread as a Reactor Context, to be written to pipelines built on the request thread.
+     */
+    public static Context currentContext() {
+        var context = Context.empty();
+        if (clientId.get() != null) {
+            context = context.put(CLIENT_ID_KEY, clientId.get());
+        }
+        if (username.get() != null) {
+            context = context.put(USERNAME_KEY, username.get());
+        }
+        return context;
+    }
+
+    public static Optional<String> getClientId(ContextView context) {
+        return context.getOrEmpty(CLIENT_ID_KEY);
+    }
+
+    public static Optional<String> getUsername(ContextView context) {
+        return context.getOrEmpty(USERNAME_KEY);
+    }
+
     @Override
     public Optional<String> getCurrentAuditor() {
         if (clientId.get() == null && username.get() == null){
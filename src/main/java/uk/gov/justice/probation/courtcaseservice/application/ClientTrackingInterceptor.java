@@ -8,7 +8,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.util.StringUtils;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -18,7 +18,7 @@ import java.util.Optional;
 @Configuration
 @Slf4j
 @AllArgsConstructor
-public class ClientTrackingInterceptor implements HandlerInterceptor {
+public class ClientTrackingInterceptor implements AsyncHandlerInterceptor {
 
     private final ClientDetails clientDetails;
 
@@ -45,6 +45,20 @@ public class ClientTrackingInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    /**
+     * Async handlers release the request thread before they complete, so the details must not be left for the next
+     * request to use that thread. They are set again when the async result is dispatched.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        clientDetails.clear();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler, Exception ex) {
+        clientDetails.clear();
+    }
+
     private JWTClaimsSet getClaimsFromJWT(String token) throws ParseException {
         var signedJWT = SignedJWT.parse(token.replace("Bearer ", ""));
         return signedJWT.getJWTClaimsSet();
@@ -0,0 +1,19 @@
+package uk.gov.justice.probation.courtcaseservice.application;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Enables @Timed on Spring beans, such as {@link uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingRepositoryFacade}.
+     * Controller endpoints, repository interfaces and the Hikari pool are timed by Spring Boot already.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package uk.gov.justice.probation.courtcaseservice.application;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.gov.justice.probation.courtcaseservice.jpa.ReplicaRoutingDataSource;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Lets the read-only transactions of GET requests use the replica. Requests which write always use the primary, as do
+ * GETs with the X-Read-Your-Writes header, which callers send when they must see a write they have just made, e.g.
+ * reading a hearing straight after PUTting it.
+ */
+public class ReplicaReadFilter extends OncePerRequestFilter {
+    public static final String READ_YOUR_WRITES_HEADER = "X-Read-Your-Writes";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD");
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !READ_METHODS.contains(request.getMethod()) || request.getHeader(READ_YOUR_WRITES_HEADER) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+        ReplicaRoutingDataSource.allowReplica();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clear();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package uk.gov.justice.probation.courtcaseservice.application;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.probation.courtcaseservice.jpa.SqlStatementRecorder;
+import uk.gov.justice.probation.courtcaseservice.jpa.SqlStatementRecorder.Recording;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Counts the SQL statements run for each HTTP request and queue message, and warns when an operation runs more than
+ * its budget or repeats the same statement often enough to suggest an N+1. Disabled in prod.
+ */
+@Slf4j
+@Component
+@ConfigurationProperties(prefix = "sql-statement-budget")
+@Getter
+@Setter
+public class SqlStatementBudget {
+
+    private boolean enabled = false;
+
+    private int defaultBudget = 50;
+
+    /**
+     * Number of times one statement may be run for an operation before it is reported as a possible N+1
+     */
+    private int repeatedStatementThreshold = 10;
+
+    /**
+     * Budgets by operation, e.g. "[GET /court/{courtCode}/cases]": 10
+     */
+    private final Map<String, Integer> operations = new HashMap<>();
+
+    public int getBudget(String operation) {
+        return operations.getOrDefault(operation, defaultBudget);
+    }
+
+    /**
+     * @return a recording of the statements run on this thread, or null when disabled
+     */
+    public Recording start() {
+        return enabled ? SqlStatementRecorder.start() : null;
+    }
+
+    /**
+     * Stop the recording and log it against the budget for the operation.
+     *
+     * @return whether the operation stayed within its budget
+     */
+    public boolean finish(String operation, Recording recording) {
+        if (recording == null) {
+            return true;
+        }
+        recording.stop();
+        final var budget = getBudget(operation);
+        final var statements = recording.getStatementCount();
+        final var databaseMs = recording.getDatabaseTime().toMillis();
+        final var withinBudget = statements <= budget;
+        if (withinBudget) {
+            log.debug("SQL statements for {}: {}", operation, statements,
+                kv("operation", operation), kv("sqlStatements", statements), kv("sqlTimeMs", databaseMs), kv("sqlStatementBudget", budget));
+        } else {
+            log.warn("SQL statement budget exceeded for {}: {} statements, budget {}", operation, statements, budget,
+                kv("operation", operation), kv("sqlStatements", statements), kv("sqlTimeMs", databaseMs), kv("sqlStatementBudget", budget));
+        }
+        recording.getMostRepeatedStatement()
+            .filter(entry -> entry.getValue() >= repeatedStatementThreshold)
+            .ifPresent(entry -> log.warn("Possible N+1 for {}: statement run {} times: {}", operation, entry.getValue(), entry.getKey(),
+                kv("operation", operation), kv("sqlRepeats", entry.getValue())));
+        return withinBudget;
+    }
+}
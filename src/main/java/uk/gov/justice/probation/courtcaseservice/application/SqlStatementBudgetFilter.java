@@ -0,0 +1,129 @@
+package uk.gov.justice.probation.courtcaseservice.application;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import uk.gov.justice.probation.courtcaseservice.jpa.SqlStatementRecorder.Recording;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Optional;
+
+/**
+ * Records the SQL statements run for each request against the {@link SqlStatementBudget}, and reports them in the
+ * X-SQL-Statements, X-SQL-Time-Ms and X-SQL-Statement-Budget response headers. The headers are added just before the
+ * body is written, so count the statements run up to that point. Handlers returning a Mono are counted and logged
+ * against their budget for the statements run on the request thread, e.g. saving a hearing before Mono.just, but
+ * their responses are written on another thread so do not get the headers.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String BUDGET_HEADER = "X-SQL-Statement-Budget";
+
+    private final SqlStatementBudget sqlStatementBudget;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !sqlStatementBudget.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+        final var recording = sqlStatementBudget.start();
+        final var budgetedResponse = new BudgetedResponse(request, response, recording);
+        try {
+            filterChain.doFilter(request, budgetedResponse);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The response is written on another thread, after this one has finished with the request
+                budgetedResponse.skipHeaders();
+            } else {
+                budgetedResponse.addHeaders();
+            }
+            sqlStatementBudget.finish(operation(request), recording);
+        }
+    }
+
+    static String operation(HttpServletRequest request) {
+        final var path = Optional.ofNullable(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+            .map(Object::toString)
+            .orElse("UNMATCHED");
+        return request.getMethod() + " " + path;
+    }
+
+    private class BudgetedResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private final Recording recording;
+        private boolean headersDone;
+
+        BudgetedResponse(HttpServletRequest request, HttpServletResponse response, Recording recording) {
+            super(response);
+            this.request = request;
+            this.recording = recording;
+        }
+
+        void skipHeaders() {
+            headersDone = true;
+        }
+
+        void addHeaders() {
+            if (headersDone || isCommitted() || request.isAsyncStarted()) {
+                return;
+            }
+            headersDone = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(recording.getStatementCount()));
+            setHeader(TIME_HEADER, String.valueOf(recording.getDatabaseTime().toMillis()));
+            setHeader(BUDGET_HEADER, String.valueOf(sqlStatementBudget.getBudget(operation(request))));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package uk.gov.justice.probation.courtcaseservice.application;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "telemetry")
+@Getter
+@Setter
+public class TelemetryProperties {
+
+    public enum Mode {
+        /** Send events to Application Insights on the calling thread */
+        SYNC,
+        /** Buffer events and send them from a background thread */
+        ASYNC,
+        /** Discard all events, for load testing */
+        NOOP
+    }
+
+    private Mode mode = Mode.ASYNC;
+
+    private int bufferCapacity = 10000;
+
+    private int batchSize = 100;
+
+    private long drainIntervalMs = 200;
+
+    /**
+     * Fraction of events to keep by TelemetryEventType name, e.g. COURT_CASE_UPDATED: 0.1. Types not listed are kept.
+     */
+    private final Map<String, Double> sampling = new HashMap<>();
+
+    public double getSampleRate(String eventType) {
+        return sampling.getOrDefault(eventType, 1.0);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
+import uk.gov.justice.probation.courtcaseservice.restclient.RequestHedger;
 import uk.gov.justice.probation.courtcaseservice.restclient.RestClientHelper;
 
 @Configuration
@@ -35,23 +36,23 @@ public class WebClientConfig {
 
 
     @Bean
-    public RestClientHelper documentApiClient(WebClient documentWebClient) {
-        return new RestClientHelper(documentWebClient, "community-api-client", disableAuthentication);
+    public RestClientHelper documentApiClient(WebClient documentWebClient, RequestHedger requestHedger) {
+        return new RestClientHelper(documentWebClient, "community-api-client", disableAuthentication, requestHedger, "community-api-documents");
     }
 
     @Bean
-    public RestClientHelper communityApiClient(WebClient communityWebClient) {
-        return new RestClientHelper(communityWebClient, "community-api-client", disableAuthentication);
+    public RestClientHelper communityApiClient(WebClient communityWebClient, RequestHedger requestHedger) {
+        return new RestClientHelper(communityWebClient, "community-api-client", disableAuthentication, requestHedger, "community-api");
     }
 
     @Bean
-    public RestClientHelper assessmentsApiClient(WebClient assessmentsWebClient) {
-        return new RestClientHelper(assessmentsWebClient, "offender-assessments-api-client", disableAuthentication);
+    public RestClientHelper assessmentsApiClient(WebClient assessmentsWebClient, RequestHedger requestHedger) {
+        return new RestClientHelper(assessmentsWebClient, "offender-assessments-api-client", disableAuthentication, requestHedger, "offender-assessments-api");
     }
 
     @Bean
-    public RestClientHelper prisonApiClient(WebClient prisonApiWebClient) {
-        return new RestClientHelper(prisonApiWebClient, "prison-api-client", disableAuthentication);
+    public RestClientHelper prisonApiClient(WebClient prisonApiWebClient, RequestHedger requestHedger) {
+        return new RestClientHelper(prisonApiWebClient, "prison-api-client", disableAuthentication, requestHedger, "prison-api");
     }
 
     @Bean
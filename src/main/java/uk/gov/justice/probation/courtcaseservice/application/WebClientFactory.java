@@ -1,5 +1,8 @@
 package uk.gov.justice.probation.courtcaseservice.application;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
@@ -7,6 +10,9 @@ import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.AutoTimer;
+import org.springframework.boot.actuate.metrics.web.reactive.client.MetricsWebClientFilterFunction;
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTags;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
@@ -19,11 +25,20 @@ import org.springframework.security.oauth2.client.endpoint.DefaultClientCredenti
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
+import uk.gov.justice.probation.courtcaseservice.application.jfr.DownstreamCallEvent;
+import uk.gov.justice.probation.courtcaseservice.restclient.RequestHedger;
 import uk.gov.justice.probation.courtcaseservice.restclient.RestClientHelper;
 import uk.gov.justice.probation.courtcaseservice.security.UserAwareEntityConverter;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -31,6 +46,8 @@ import java.util.concurrent.TimeUnit;
 @NoArgsConstructor
 public class WebClientFactory {
     private static final int DEFAULT_BYTE_BUFFER_SIZE = 262144;
+    private static final String CLIENT_REQUESTS_METRIC = "http.client.requests";
+    private static final int MAX_COMMUNITY_CLIENTS = 1000;
 
     @Value("${web.client.connect-timeout-ms}")
     private Integer connectTimeoutMs;
@@ -50,10 +67,29 @@ public class WebClientFactory {
     private ClientDetails clientDetails;
     @Autowired
     private ClientRegistrationRepository clientRegistrationRepository;
-
+    @Autowired
+    private RequestHedger requestHedger;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // By username, least recently used first, so each user's client and its token are reused across requests
+    private final Map<String, RestClientHelper> communityRestClientHelpers = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RestClientHelper> eldest) {
+                return size() > MAX_COMMUNITY_CLIENTS;
+            }
+        });
+
+    /**
+     * A community-api client which gets tokens on behalf of the given user. Clients are built once per user and kept
+     * for the most recent users.
+     */
     public RestClientHelper buildCommunityRestClientHelper(@Nullable String username) {
-        final var webClient = buildWebClient(communityApiBaseUrl, DEFAULT_BYTE_BUFFER_SIZE, username);
-        return new RestClientHelper(webClient, "community-api-client", disableAuthentication);
+        return communityRestClientHelpers.computeIfAbsent(username, key -> {
+            final var webClient = buildWebClient(communityApiBaseUrl, DEFAULT_BYTE_BUFFER_SIZE, key);
+            return new RestClientHelper(webClient, "community-api-client", disableAuthentication, requestHedger, "community-api");
+        });
     }
 
     public WebClient buildWebClient(String baseUrl, int bufferByteCount) {
@@ -77,9 +113,41 @@ public class WebClientFactory {
                 .baseUrl(baseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .filter(oauth2Client)
+                .filter(new MetricsWebClientFilterFunction(meterRegistry, WebClientFactory::clientRequestTags,
+                        CLIENT_REQUESTS_METRIC, AutoTimer.ENABLED))
+                .filter(WebClientFactory::recordDownstreamCall)
                 .build();
     }
 
+    private static Mono<ClientResponse> recordDownstreamCall(ClientRequest request, ExchangeFunction next) {
+        final var event = new DownstreamCallEvent();
+        if (!event.isEnabled()) {
+            return next.exchange(request);
+        }
+        return next.exchange(request)
+                .doOnSubscribe(subscription -> event.begin())
+                .doOnNext(response -> event.status = response.rawStatusCode())
+                .doOnError(throwable -> event.error = throwable.getClass().getSimpleName())
+                .doFinally(signal -> {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.method = request.method().name();
+                        event.host = request.url().getHost();
+                        event.uri = RestClientHelper.uriTemplate(request.url().getPath());
+                        event.commit();
+                    }
+                });
+    }
+
+    private static Iterable<Tag> clientRequestTags(ClientRequest request, ClientResponse response, Throwable throwable) {
+        return Tags.of(
+                WebClientExchangeTags.method(request),
+                Tag.of("uri", RestClientHelper.uriTemplate(request.url().getPath())),
+                WebClientExchangeTags.clientName(request),
+                WebClientExchangeTags.status(response, throwable),
+                WebClientExchangeTags.outcome(response));
+    }
+
     private OAuth2AuthorizedClientManager buildAuthorizedClientManager(@Nullable String username) {
 
         var converter = new UserAwareEntityConverter();
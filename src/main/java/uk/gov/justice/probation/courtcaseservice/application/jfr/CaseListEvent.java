@@ -0,0 +1,33 @@
+package uk.gov.justice.probation.courtcaseservice.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(CaseListEvent.NAME)
+@Label("Case List Build")
+@Description("Building the case list for a court on a date")
+@Category({"Court Case Service", "Hearings"})
+@StackTrace(false)
+public class CaseListEvent extends Event {
+    public static final String NAME = "uk.gov.justice.probation.courtcaseservice.CaseList";
+
+    @Label("Court Code")
+    public String courtCode;
+
+    @Label("Date")
+    public String date;
+
+    @Label("Hearings")
+    public int hearingCount;
+
+    @Label("Rows")
+    @Description("Cases in the response, one per hearing defendant")
+    public int rowCount;
+
+    @Label("Not Modified")
+    public boolean notModified;
+}
@@ -0,0 +1,27 @@
+package uk.gov.justice.probation.courtcaseservice.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(CustodyScoringEvent.NAME)
+@Label("Custody Scoring")
+@Category({"Court Case Service", "H2O"})
+@StackTrace(false)
+public class CustodyScoringEvent extends Event {
+    public static final String NAME = "uk.gov.justice.probation.courtcaseservice.CustodyScoring";
+
+    @Label("Court Name")
+    public String courtName;
+
+    @Label("Offence Code")
+    public String offenceCode;
+
+    @Label("Model Version")
+    public String modelVersion;
+
+    @Label("Score")
+    public double score;
+}
@@ -0,0 +1,30 @@
+package uk.gov.justice.probation.courtcaseservice.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(DownstreamCallEvent.NAME)
+@Label("Downstream Call")
+@Category({"Court Case Service", "Downstream"})
+@StackTrace(false)
+public class DownstreamCallEvent extends Event {
+    public static final String NAME = "uk.gov.justice.probation.courtcaseservice.DownstreamCall";
+
+    @Label("Method")
+    public String method;
+
+    @Label("Host")
+    public String host;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,195 @@
+package uk.gov.justice.probation.courtcaseservice.application.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for JDK Flight Recorder, secured to admins:
+ * <ul>
+ *     <li>GET /jfr dumps the continuous recording, which keeps the last few minutes at the default settings</li>
+ *     <li>POST /jfr starts an on-demand recording, by default with the profile settings</li>
+ *     <li>DELETE /jfr stops the on-demand recording and returns it</li>
+ * </ul>
+ * Recordings are returned as .jfr files for JDK Mission Control, and include the events in this package. The JDK's
+ * events of the environment variables and system properties at startup are left out, as they hold the database
+ * password and client secrets.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+    private static final String CONTINUOUS_RECORDING = "court-case-service-continuous";
+    private static final String ON_DEMAND_RECORDING = "court-case-service-on-demand";
+    private static final List<String> SECRET_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final boolean continuousEnabled;
+    private final Duration continuousMaxAge;
+    private final long continuousMaxSizeBytes;
+    private final String defaultOnDemandSettings;
+    private final Duration maxOnDemandDuration;
+
+    private Recording continuous;
+    private Recording onDemand;
+
+    @Autowired
+    public FlightRecorderEndpoint(@Value("${jfr.continuous.enabled:true}") boolean continuousEnabled,
+                                  @Value("${jfr.continuous.max-age-minutes:15}") long continuousMaxAgeMinutes,
+                                  @Value("${jfr.continuous.max-size-mb:100}") long continuousMaxSizeMb,
+                                  @Value("${jfr.on-demand.settings:profile}") String defaultOnDemandSettings,
+                                  @Value("${jfr.on-demand.max-duration-minutes:10}") long maxOnDemandDurationMinutes) {
+        this.continuousEnabled = continuousEnabled;
+        this.continuousMaxAge = Duration.ofMinutes(continuousMaxAgeMinutes);
+        this.continuousMaxSizeBytes = continuousMaxSizeMb * 1024 * 1024;
+        this.defaultOnDemandSettings = defaultOnDemandSettings;
+        this.maxOnDemandDuration = Duration.ofMinutes(maxOnDemandDurationMinutes);
+    }
+
+    @PostConstruct
+    public synchronized void startContinuous() throws IOException, ParseException {
+        if (!continuousEnabled) {
+            return;
+        }
+        continuous = new Recording(withoutSecrets(Configuration.getConfiguration("default")));
+        continuous.setName(CONTINUOUS_RECORDING);
+        continuous.setToDisk(true);
+        continuous.setMaxAge(continuousMaxAge);
+        continuous.setMaxSize(continuousMaxSizeBytes);
+        continuous.start();
+        log.info("Started continuous flight recording, keeping {}", continuousMaxAge);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (continuous != null) {
+            continuous.close();
+        }
+        if (onDemand != null) {
+            onDemand.close();
+        }
+    }
+
+    @ReadOperation
+    public synchronized WebEndpointResponse<Resource> dump() throws IOException {
+        if (continuous == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        final var file = createTempFile();
+        continuous.dump(file);
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    /**
+     * @param settings        JFR settings, "default" or "profile"
+     * @param durationSeconds stop recording after this long if not stopped before, up to the configured maximum
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable String settings, @Nullable Long durationSeconds)
+        throws IOException, ParseException {
+        if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(Map.of("error", "A recording is already running"), 409);
+        }
+        final var requestedDuration = durationSeconds == null ? maxOnDemandDuration : Duration.ofSeconds(durationSeconds);
+        final var duration = requestedDuration.compareTo(maxOnDemandDuration) < 0 ? requestedDuration : maxOnDemandDuration;
+        final var settingsName = settings == null ? defaultOnDemandSettings : settings;
+        final Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (NoSuchFileException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown settings " + settingsName), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (onDemand != null) {
+            onDemand.close();
+        }
+        onDemand = new Recording(withoutSecrets(configuration));
+        onDemand.setName(ON_DEMAND_RECORDING);
+        onDemand.setToDisk(true);
+        onDemand.setDuration(duration);
+        onDemand.start();
+        log.info("Started on-demand flight recording with {} settings for up to {}", settingsName, duration);
+        return new WebEndpointResponse<>(Map.of(
+            "settings", settingsName,
+            "startTime", onDemand.getStartTime().toString(),
+            "stopTime", Instant.now().plus(duration).toString()));
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Resource> stop() throws IOException {
+        if (onDemand == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        final var file = createTempFile();
+        try {
+            if (onDemand.getState() == RecordingState.RUNNING) {
+                onDemand.stop();
+            }
+            onDemand.dump(file);
+        } finally {
+            onDemand.close();
+            onDemand = null;
+        }
+        log.info("Stopped on-demand flight recording");
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    private static Map<String, String> withoutSecrets(Configuration configuration) {
+        final var settings = new HashMap<>(configuration.getSettings());
+        SECRET_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+        return settings;
+    }
+
+    private static Path createTempFile() throws IOException {
+        return Files.createTempFile("court-case-service-", ".jfr");
+    }
+
+    /**
+     * Deletes the recording once it has been streamed, as the heap dump endpoint does.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
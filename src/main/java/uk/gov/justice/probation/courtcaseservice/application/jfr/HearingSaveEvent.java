@@ -0,0 +1,33 @@
+package uk.gov.justice.probation.courtcaseservice.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(HearingSaveEvent.NAME)
+@Label("Hearing Save")
+@Description("Create or update of a hearing and its defendants, offences and hearing days")
+@Category({"Court Case Service", "Hearings"})
+@StackTrace(false)
+public class HearingSaveEvent extends Event {
+    public static final String NAME = "uk.gov.justice.probation.courtcaseservice.HearingSave";
+
+    @Label("Hearing Id")
+    public String hearingId;
+
+    @Label("Created")
+    @Description("Whether the hearing was new rather than updated")
+    public boolean created;
+
+    @Label("Defendants")
+    public int defendantCount;
+
+    @Label("Offences")
+    public int offenceCount;
+
+    @Label("Hearing Days")
+    public int hearingDayCount;
+}
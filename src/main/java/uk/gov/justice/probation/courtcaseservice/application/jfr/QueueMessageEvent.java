@@ -0,0 +1,23 @@
+package uk.gov.justice.probation.courtcaseservice.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(QueueMessageEvent.NAME)
+@Label("Queue Message")
+@Category({"Court Case Service", "SQS"})
+@StackTrace(false)
+public class QueueMessageEvent extends Event {
+    public static final String NAME = "uk.gov.justice.probation.courtcaseservice.QueueMessage";
+
+    @Label("Queue")
+    public String queue;
+
+    @Label("Messages")
+    @Description("Messages handled together, more than one for batched listeners")
+    public int messageCount;
+}
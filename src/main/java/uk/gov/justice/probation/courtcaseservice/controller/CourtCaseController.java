@@ -27,6 +27,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
 import reactor.core.publisher.Mono;
+import uk.gov.justice.probation.courtcaseservice.application.jfr.CaseListEvent;
 import uk.gov.justice.probation.courtcaseservice.controller.exceptions.ConflictingInputException;
 import uk.gov.justice.probation.courtcaseservice.controller.mapper.CourtCaseResponseMapper;
 import uk.gov.justice.probation.courtcaseservice.controller.model.CaseCommentRequest;
@@ -241,12 +242,16 @@ public class CourtCaseController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
             WebRequest webRequest
     ) {
+        final var caseListEvent = new CaseListEvent();
+        caseListEvent.begin();
         var partialResponse = ResponseEntity.ok();
         if (enableCacheableCaseList) {
             var lastModified = courtCaseService.filterHearingsLastModified(courtCode, date)
                     .orElse(NEVER_MODIFIED_DATE)
                     .toInstant(ZoneOffset.UTC);
             if (webRequest.checkNotModified(lastModified.toEpochMilli())) {
+                caseListEvent.notModified = true;
+                commitCaseListEvent(caseListEvent, courtCode, date);
                 return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
                         .cacheControl(CacheControl.maxAge(MAX_AGE, TimeUnit.SECONDS))
                         .build();
@@ -274,10 +279,22 @@ public class CourtCaseController {
                         .thenComparing(CourtCaseResponse::getName))
                 .collect(Collectors.toList());
 
+        caseListEvent.hearingCount = courtCases.size();
+        caseListEvent.rowCount = courtCaseResponses.size();
+        commitCaseListEvent(caseListEvent, courtCode, date);
         return partialResponse
                 .body(CaseListResponse.builder().cases(courtCaseResponses).build());
     }
 
+    private static void commitCaseListEvent(CaseListEvent caseListEvent, String courtCode, LocalDate date) {
+        caseListEvent.end();
+        if (caseListEvent.shouldCommit()) {
+            caseListEvent.courtCode = courtCode;
+            caseListEvent.date = date.toString();
+            caseListEvent.commit();
+        }
+    }
+
     private CourtCaseResponse buildCourtCaseResponseForCaseIdAndDefendantId(HearingEntity hearingEntity, String defendantId, List<CaseProgressHearing> caseHearings) {
         final var offenderMatchesCount = offenderMatchService.getMatchCountByCaseIdAndDefendant(hearingEntity.getCaseId(), defendantId)
                 .orElse(0);
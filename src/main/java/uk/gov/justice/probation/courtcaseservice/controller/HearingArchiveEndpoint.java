@@ -0,0 +1,39 @@
+package uk.gov.justice.probation.courtcaseservice.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.probation.courtcaseservice.service.HearingArchiver;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the hearing archive, secured to admins. POST /archive/{caseId} moves the archived court cases
+ * with that case ID and their archived hearings back to the live tables. It only ever restores the one case and cannot
+ * archive or delete anything, so it needs no dry run or batch limit: archiving is done by {@link HearingArchiver}'s
+ * nightly job alone.
+ */
+@Component
+@Endpoint(id = "archive")
+public class HearingArchiveEndpoint {
+
+    private final HearingArchiver hearingArchiver;
+
+    @Autowired
+    public HearingArchiveEndpoint(HearingArchiver hearingArchiver) {
+        this.hearingArchiver = hearingArchiver;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> restore(@Selector String caseId, Principal principal) {
+        final var restored = hearingArchiver.restore(caseId, principal.getName());
+        if (restored == 0) {
+            return new WebEndpointResponse<>(Map.of("error", "No archived hearings for case " + caseId), WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(Map.of("caseId", caseId, "hearingsRestored", restored));
+    }
+}
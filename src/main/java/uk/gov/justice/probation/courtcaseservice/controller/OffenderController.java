@@ -5,15 +5,17 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.justice.probation.courtcaseservice.application.FeatureFlags;
 import uk.gov.justice.probation.courtcaseservice.controller.model.BreachResponse;
 import uk.gov.justice.probation.courtcaseservice.controller.model.SentenceResponse;
@@ -22,16 +24,18 @@ import uk.gov.justice.probation.courtcaseservice.service.ConvictionService;
 import uk.gov.justice.probation.courtcaseservice.service.CustodyService;
 import uk.gov.justice.probation.courtcaseservice.service.DocumentService;
 import uk.gov.justice.probation.courtcaseservice.service.OffenderService;
+import uk.gov.justice.probation.courtcaseservice.service.ProbationRecordSnapshotService;
 import uk.gov.justice.probation.courtcaseservice.service.model.Conviction;
 import uk.gov.justice.probation.courtcaseservice.service.model.Custody;
 import uk.gov.justice.probation.courtcaseservice.service.model.OffenderDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecord;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.Registration;
 
 import javax.validation.constraints.NotNull;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -59,13 +63,30 @@ public class OffenderController {
     @Autowired
     private CustodyService custodyService;
 
+    @Autowired
+    private final ProbationRecordSnapshotService probationRecordSnapshotService;
+
     @Operation(summary = "Gets the offender probation record by CRN")
     @GetMapping(path="offender/{crn}/probation-record", produces = APPLICATION_JSON_VALUE)
     public @ResponseBody
-    ProbationRecord getProbationRecord(@Parameter(name = "crn", description = "CRN for the offender", example = "X320741", required = true) @UpperCasePathVariable("crn") String crn,
+    Mono<ResponseEntity<ProbationRecord>> getProbationRecord(@Parameter(name = "crn", description = "CRN for the offender", example = "X320741", required = true) @UpperCasePathVariable("crn") String crn,
         @Parameter(name = "applyDocTypeFilter", description = "Whether or not to apply document filter, optional and defaults to true", example = "true")
-        @RequestParam(value="applyDocTypeFilter", required = false, defaultValue = "true") boolean applyDocTypeFilter) {
-        return offenderService.getProbationRecord(crn, applyDocTypeFilter);
+        @RequestParam(value="applyDocTypeFilter", required = false, defaultValue = "true") boolean applyDocTypeFilter,
+        @Parameter(name = "include", description = "Comma separated sections of the record to fetch, optional and defaults to all sections. BREACHES, REQUIREMENTS, PSR_REPORTS and DOCUMENTS imply CONVICTIONS.", example = "CONVICTIONS,REQUIREMENTS")
+        @RequestParam(value="include", required = false) Set<ProbationRecordSection> include) {
+        final var sections = ProbationRecordSection.orAll(include);
+        if (!probationRecordSnapshotService.isEnabled()) {
+            return offenderService.getProbationRecord(crn, applyDocTypeFilter, sections)
+                .map(ResponseEntity::ok);
+        }
+
+        // Snapshots are assembled without user restrictions so access must be checked on every read
+        return offenderService.checkAccess(crn)
+            .then(Mono.fromCallable(() -> probationRecordSnapshotService.getProbationRecord(crn, applyDocTypeFilter, sections))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .map(snapshot -> ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(snapshot.getAge().toSeconds()))
+                .body(snapshot.getRecord()));
     }
 
     @Operation(summary = "Gets the basic offender probation status details by CRN")
@@ -92,7 +113,7 @@ public class OffenderController {
 
     @GetMapping(value = "/offender/{crn}/convictions/{convictionId}/sentence", produces = APPLICATION_JSON_VALUE)
     @Operation(summary = "Return the Sentence detail with attendances, Unpaid Work and current order details for a CRN, conviction id and sentence id  where enforcement is flagged")
-    public SentenceResponse getSentence(@UpperCasePathVariable("crn") String crn, @PathVariable Long convictionId) {
+    public Mono<SentenceResponse> getSentence(@UpperCasePathVariable("crn") String crn, @PathVariable Long convictionId) {
         if (!featureFlags.sentenceData()) {
             return convictionService.getConvictionOnly(crn, convictionId);
         }
@@ -108,18 +129,19 @@ public class OffenderController {
     @Operation(summary = "Gets Breach data by CRN, conviction ID and breach id.")
     @GetMapping(path="offender/{crn}/convictions/{convictionId}/breaches/{breachId}", produces = APPLICATION_JSON_VALUE)
     public @ResponseBody
-    BreachResponse getBreach(@UpperCasePathVariable("crn") String crn, @PathVariable Long convictionId, @PathVariable Long breachId) {
+    Mono<BreachResponse> getBreach(@UpperCasePathVariable("crn") String crn, @PathVariable Long convictionId, @PathVariable Long breachId) {
         return breachService.getBreach(crn, convictionId, breachId);
     }
 
-    @Operation(summary = "Gets a document by ID for a CRN.")
+    @Operation(summary = "Gets a document by ID for a CRN. Supports HTTP Range requests.")
     @GetMapping(path="offender/{crn}/documents/{documentId}")
-    public HttpEntity<Resource> getOffenderDocumentByCrn(
+    public Mono<ResponseEntity<StreamingResponseBody>> getOffenderDocumentByCrn(
         @Parameter(name = "crn", description = "CRN for the offender", example = "X320741", required = true) @NotNull final @UpperCasePathVariable("crn") String crn,
-        @Parameter(name = "documentId", description = "Document Id", example = "12312322", required = true) @NotNull final @PathVariable("documentId") String documentId) {
+        @Parameter(name = "documentId", description = "Document Id", example = "12312322", required = true) @NotNull final @PathVariable("documentId") String documentId,
+        @Parameter(name = "Range", description = "Optional byte range of the document to return", example = "bytes=0-1023") @RequestHeader(value = HttpHeaders.RANGE, required = false) final String range) {
 
-        return Optional.ofNullable(documentService.getDocument(crn, documentId))
-            .orElse(new ResponseEntity<>(NOT_FOUND));
+        return documentService.getDocument(crn, documentId, range)
+            .defaultIfEmpty(new ResponseEntity<>(NOT_FOUND));
     }
 
     @Operation(summary = "Gets the offender risk registrations by CRN")
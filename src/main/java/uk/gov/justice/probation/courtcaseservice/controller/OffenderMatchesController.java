@@ -13,8 +13,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.controller.model.GroupedOffenderMatchesRequest;
+import uk.gov.justice.probation.courtcaseservice.controller.model.OffenderMatchDetail;
 import uk.gov.justice.probation.courtcaseservice.controller.model.OffenderMatchDetailResponse;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.GroupedOffenderMatchesEntity;
 import uk.gov.justice.probation.courtcaseservice.service.OffenderMatchService;
@@ -24,6 +26,8 @@ import java.net.URI;
 import java.util.function.Function;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 @Tag(name = "Offender Matches Resources")
 @RestController
@@ -35,9 +39,18 @@ public class OffenderMatchesController {
     @GetMapping(value = "/defendant/{defendantId}/matchesDetail", produces = APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
     public @ResponseBody
-    OffenderMatchDetailResponse getOffenderMatchesDetailByDefendantId(@PathVariable String defendantId) {
+    Mono<OffenderMatchDetailResponse> getOffenderMatchesDetailByDefendantId(@PathVariable String defendantId) {
 
-        return OffenderMatchDetailResponse.builder().offenderMatchDetails(offenderMatchService.getOffenderMatchDetailsByDefendantId(defendantId)).build();
+        return offenderMatchService.getOffenderMatchDetailsByDefendantId(defendantId)
+                .map(offenderMatchDetails -> OffenderMatchDetailResponse.builder().offenderMatchDetails(offenderMatchDetails).build());
+    }
+
+    @Operation(description = "Streams the possible matches for a given defendant ID, each as soon as its details are fetched. " +
+        "Matches whose details can't be fetched are left out.")
+    @GetMapping(value = "/defendant/{defendantId}/matchesDetail", produces = {APPLICATION_NDJSON_VALUE, TEXT_EVENT_STREAM_VALUE})
+    public Flux<OffenderMatchDetail> streamOffenderMatchesDetailByDefendantId(@PathVariable String defendantId) {
+
+        return offenderMatchService.streamOffenderMatchDetailsByDefendantId(defendantId);
     }
 
     @Operation(description = "Gets an existing grouped-offender-match entity associated with a defendant and a group")
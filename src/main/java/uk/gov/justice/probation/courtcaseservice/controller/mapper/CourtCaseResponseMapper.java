@@ -121,6 +121,9 @@ public class CourtCaseResponseMapper {
             .act(offenceEntity.getAct())
             .sequenceNumber(offenceEntity.getSequence())
             .listNo(offenceEntity.getListNo())
+            .offenceCode(offenceEntity.getOffenceCode())
+            .shortTermCustodyPredictorScore(offenceEntity.getShortTermCustodyPredictorScore())
+            .shortTermCustodyPredictorModelVersion(offenceEntity.getShortTermCustodyPredictorModelVersion())
             .build();
     }
 
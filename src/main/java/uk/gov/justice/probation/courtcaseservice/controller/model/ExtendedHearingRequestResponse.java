@@ -120,6 +120,9 @@ public class ExtendedHearingRequestResponse {
                                                     .offenceTitle(offence.getTitle())
                                                     .offenceSummary(offence.getSummary())
                                                     .listNo(offence.getListNo())
+                                                    .offenceCode(offence.getOffenceCode())
+                                                    .shortTermCustodyPredictorScore(offence.getShortTermCustodyPredictorScore())
+                                                    .shortTermCustodyPredictorModelVersion(offence.getShortTermCustodyPredictorModelVersion())
                                                     .judicialResults(Optional.of(offence)
                                                             .map(OffenceEntity::getJudicialResults)
                                                             .orElse(Collections.emptyList()).stream()
@@ -237,6 +240,7 @@ public class ExtendedHearingRequestResponse {
                             .summary(offence.getOffenceSummary())
                             .act(offence.getAct())
                             .listNo(offence.getListNo())
+                            .offenceCode(offence.getOffenceCode())
                             .judicialResults(buildJudicialResults(offence.getJudicialResults()))
                             .build();
                 })
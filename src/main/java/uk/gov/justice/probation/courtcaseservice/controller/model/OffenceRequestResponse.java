@@ -24,6 +24,10 @@ public class OffenceRequestResponse {
     private final String offenceSummary;
     private final String act;
     private final Integer listNo;
+    private final String offenceCode;
+    // Set in responses only
+    private final Double shortTermCustodyPredictorScore;
+    private final String shortTermCustodyPredictorModelVersion;
     private List<JudicialResult> judicialResults;
 
 }
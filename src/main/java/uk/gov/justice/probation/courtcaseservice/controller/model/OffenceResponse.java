@@ -18,5 +18,8 @@ public class OffenceResponse {
     private final String act;
     private final int sequenceNumber;
     private final Integer listNo;
+    private final String offenceCode;
+    private final Double shortTermCustodyPredictorScore;
+    private final String shortTermCustodyPredictorModelVersion;
 
 }
@@ -0,0 +1,151 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.hibernate.HibernateException;
+import org.hibernate.Transaction;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.internal.ForeignKeys;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records inserts, updates and deletes of {@link Audited} entities, with their audited state, and writes them as one
+ * audit_change_log row when the transaction commits. Replaces Envers when audit.mode is change-log, see
+ * {@link AuditChangeLogIntegrator}: one insert per transaction in place of a REVINFO row and an _AUD row per entity.
+ * Associations are recorded by id and collections are left out, as each element is recorded as an entity of its own.
+ */
+public class AuditChangeLogListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+    static final String INSERT_SQL = "insert into audit_change_log (created_by, changes) values (?, cast(? as jsonb))";
+    private static final boolean[] NOT_AUDITED = new boolean[0];
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Map<Transaction, List<Map<String, Object>>> changesByTransaction = new ConcurrentHashMap<>();
+    private final Map<Class<?>, boolean[]> auditedPropertiesByClass = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId(), "INSERT", event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId(), "UPDATE", event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getPersister(), event.getId(), "DELETE", event.getDeletedState());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, EntityPersister persister, Serializable id, String operation, Object[] state) {
+        final var audited = auditedProperties(persister);
+        if (audited == null) {
+            return;
+        }
+        final var propertyNames = persister.getPropertyNames();
+        final var propertyTypes = persister.getPropertyTypes();
+        final var auditedState = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (!audited[i] || state == null) {
+                continue;
+            }
+            final var value = state[i];
+            if (value != null && propertyTypes[i] instanceof EntityType entityType) {
+                auditedState.put(propertyNames[i], ForeignKeys.getEntityIdentifierIfNotUnsaved(entityType.getAssociatedEntityName(), value, session));
+            } else {
+                auditedState.put(propertyNames[i], value);
+            }
+        }
+        final var change = new LinkedHashMap<String, Object>();
+        change.put("entity", persister.getMappedClass().getSimpleName());
+        change.put("id", id);
+        change.put("operation", operation);
+        change.put("state", auditedState);
+        changes(session).add(change);
+    }
+
+    private List<Map<String, Object>> changes(EventSource session) {
+        final var transaction = session.accessTransaction();
+        return changesByTransaction.computeIfAbsent(transaction, key -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::write);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> changesByTransaction.remove(key));
+            return new ArrayList<>();
+        });
+    }
+
+    private void write(SessionImplementor session) {
+        final var changes = changesByTransaction.remove(session.accessTransaction());
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        final String json;
+        try {
+            json = objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new HibernateException("Unable to write audit change log", e);
+        }
+        final var createdBy = changes.stream()
+            .map(change -> ((Map<?, ?>) change.get("state")).get("lastUpdatedBy"))
+            .filter(Objects::nonNull)
+            .map(Object::toString)
+            .reduce((first, last) -> last)
+            .orElse(null);
+        session.doWork(connection -> {
+            try (var statement = connection.prepareStatement(INSERT_SQL)) {
+                statement.setString(1, createdBy);
+                statement.setString(2, json);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * @return whether each property of the entity is audited, or null if the entity is not
+     */
+    private boolean[] auditedProperties(EntityPersister persister) {
+        final var audited = auditedPropertiesByClass.computeIfAbsent(persister.getMappedClass(), entityClass -> {
+            if (!AnnotatedElementUtils.hasAnnotation(entityClass, Audited.class)) {
+                return NOT_AUDITED;
+            }
+            final var propertyNames = persister.getPropertyNames();
+            final var propertyTypes = persister.getPropertyTypes();
+            final var properties = new boolean[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                final var field = ReflectionUtils.findField(entityClass, propertyNames[i]);
+                properties[i] = !propertyTypes[i].isCollectionType() && (field == null || !field.isAnnotationPresent(NotAudited.class));
+            }
+            return properties;
+        });
+        return audited == NOT_AUDITED ? null : audited;
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the replica's replay is behind the primary, for {@link ReplicaRoutingDataSource}. The replica counts
+ * as in sync while the last check succeeded and found it streaming from the primary and no more than maxLagMs behind.
+ * Until the first check, after a failed one, and once no check has succeeded for a few check intervals, e.g. because
+ * checks are stuck waiting for a connection, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    public static final String LAG_METRIC = "database.replica.lag";
+    // Checks which may be missed before the last measured lag is no longer trusted
+    private static final int STALE_AFTER_CHECKS = 4;
+
+    /**
+     * Zero when everything received from the primary has been replayed, otherwise the age of the last transaction
+     * replayed. Null before the replica has replayed anything, and while it has no WAL receiver streaming from the
+     * primary, as then it may be behind with nothing left to replay. A server which isn't a replica has no lag.
+     * The receiver's status is only shown to members of pg_read_all_stats, so without that role a running receiver
+     * counts as streaming.
+     */
+    static final String LAG_SQL = "select case when not pg_is_in_recovery() then 0 " +
+        "when not exists (select 1 from pg_stat_wal_receiver where coalesce(status, 'streaming') = 'streaming') then null " +
+        "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+        "else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 end";
+
+    private final DataSource replica;
+    private final long maxLagMs;
+    private final long staleAfterNanos;
+    private volatile Long lagMs;
+    private volatile long checkedAtNanos;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagMs, long checkIntervalMs, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMs * STALE_AFTER_CHECKS);
+        Gauge.builder(LAG_METRIC, this, monitor -> monitor.lagMs == null ? Double.NaN : monitor.lagMs)
+            .baseUnit("milliseconds")
+            .description("Replay lag of the read replica")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${database.replica.lag-check-interval-ms:500}")
+    public void checkLag() {
+        try (var connection = replica.getConnection();
+             var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(LAG_SQL)) {
+            resultSet.next();
+            final var lag = resultSet.getBigDecimal(1);
+            lagMs = lag == null ? null : lag.longValue();
+            checkedAtNanos = System.nanoTime();
+        } catch (SQLException e) {
+            log.warn("Unable to check replica lag, reading from primary", e);
+            lagMs = null;
+        }
+    }
+
+    public boolean isInSync() {
+        final var lag = lagMs;
+        return lag != null && lag <= maxLagMs && System.nanoTime() - checkedAtNanos <= staleAfterNanos;
+    }
+}
@@ -0,0 +1,52 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends the connections of read-only transactions to the replica, and every other connection to the primary. The
+ * replica is only used on threads where {@link #allowReplica()} has been called, so that reads which are followed by
+ * writes elsewhere, as in queue listeners and scheduled jobs, see the primary, and only while the replica is in sync.
+ * The lookup is made when the connection is first used, so this must be wrapped in a LazyConnectionDataSourceProxy:
+ * the transaction manager takes its connection before the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private final BooleanSupplier replicaInSync;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaInSync) {
+        this.replicaInSync = replicaInSync;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Lets read-only transactions on this thread use the replica, until {@link #clear()}.
+     */
+    public static void allowReplica() {
+        REPLICA_ALLOWED.set(true);
+    }
+
+    public static void clear() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get())
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && replicaInSync.getAsBoolean()
+            ? Target.REPLICA : Target.PRIMARY;
+    }
+}
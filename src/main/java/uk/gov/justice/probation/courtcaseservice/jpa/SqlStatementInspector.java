@@ -0,0 +1,19 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Passes each statement Hibernate prepares to the current {@link SqlStatementRecorder} recording, if there is one.
+ * Registered with hibernate.session_factory.statement_inspector.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        final var recording = SqlStatementRecorder.current();
+        if (recording != null) {
+            recording.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
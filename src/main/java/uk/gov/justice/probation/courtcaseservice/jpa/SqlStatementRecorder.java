@@ -0,0 +1,73 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and {@link Recording#stop()}, and
+ * the time spent executing them. Fed by {@link SqlStatementInspector} and {@link SqlStatementSessionListener}, which
+ * do nothing when no recording has been started. Statements run on other threads, e.g. by Reactor schedulers, are not
+ * counted.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    public static Recording start() {
+        final var recording = new Recording();
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    static Recording current() {
+        return CURRENT.get();
+    }
+
+    public static class Recording {
+        private final Map<String, Integer> executionsBySql = new HashMap<>();
+        private int statementCount;
+        private long databaseNanos;
+        private boolean stopped;
+
+        public Recording stop() {
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+            stopped = true;
+            return this;
+        }
+
+        void statementPrepared(String sql) {
+            if (!stopped) {
+                executionsBySql.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        void statementExecuted(long nanos) {
+            if (!stopped) {
+                statementCount++;
+                databaseNanos += nanos;
+            }
+        }
+
+        public int getStatementCount() {
+            return statementCount;
+        }
+
+        public Duration getDatabaseTime() {
+            return Duration.ofNanos(databaseNanos);
+        }
+
+        /**
+         * @return the statement prepared most often and how many times, the usual sign of an N+1
+         */
+        public Optional<Map.Entry<String, Integer>> getMostRepeatedStatement() {
+            return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+    }
+}
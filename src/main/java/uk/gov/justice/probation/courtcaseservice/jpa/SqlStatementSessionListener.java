@@ -0,0 +1,40 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times each statement and batch a Hibernate session executes for the current {@link SqlStatementRecorder} recording,
+ * if there is one. Hibernate creates one per session from hibernate.session.events.auto.
+ */
+public class SqlStatementSessionListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        final var recording = SqlStatementRecorder.current();
+        if (recording != null) {
+            recording.statementExecuted(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "DOMAIN_EVENT_OUTBOX")
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+@Builder
+@Getter
+@ToString(exclude = "message")
+public class DomainEventOutboxEntity implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID", updatable = false, nullable = false)
+    private final Long id;
+
+    @Column(name = "HEARING_ID", nullable = false)
+    private final String hearingId;
+
+    @Column(name = "EVENT_TYPE", nullable = false)
+    private final String eventType;
+
+    @Column(name = "DEDUPLICATION_KEY", nullable = false)
+    private final String deduplicationKey;
+
+    @Column(name = "MESSAGE", nullable = false)
+    private final String message;
+
+    @Column(name = "CREATED", nullable = false)
+    private final LocalDateTime created;
+
+    @Column(name = "PUBLISHED_AT")
+    private final LocalDateTime publishedAt;
+
+    @Column(name = "ATTEMPTS", nullable = false)
+    private final int attempts;
+
+    @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+    private final LocalDateTime nextAttemptAt;
+
+    @Column(name = "LAST_ERROR")
+    private final String lastError;
+
+    @Column(name = "FAILED_AT")
+    private final LocalDateTime failedAt;
+}
@@ -75,6 +75,7 @@ public class HearingDayEntity extends BaseAuditedEntity implements Serializable
     }
 
     public String loggableString(){
-        return String.format("%s|%s|%sT%s", courtCode, courtRoom, day, time);
+        // Called for every hearing day on every case update, so avoid String.format
+        return courtCode + "|" + courtRoom + "|" + day + "T" + time;
     }
 }
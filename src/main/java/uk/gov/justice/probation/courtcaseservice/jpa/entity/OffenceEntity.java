@@ -13,6 +13,7 @@ import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.LazyCollection;
 import org.hibernate.annotations.LazyCollectionOption;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -68,6 +69,20 @@ public class OffenceEntity extends BaseAuditedEntity implements Serializable  {
     @Column(name = "LIST_NO", nullable = false)
     private final Integer listNo;
 
+    @Column(name = "OFFENCE_CODE")
+    private final String offenceCode;
+
+    // Derived from the offence code, court and defendant's age when the hearing is saved
+    @Column(name = "SHORT_TERM_CUSTODY_PREDICTOR_SCORE")
+    @Setter
+    @NotAudited
+    private Double shortTermCustodyPredictorScore;
+
+    @Column(name = "SHORT_TERM_CUSTODY_PREDICTOR_MODEL_VERSION")
+    @Setter
+    @NotAudited
+    private String shortTermCustodyPredictorModelVersion;
+
     // Order column is managed by hibernate
     @LazyCollection(value = LazyCollectionOption.FALSE)
     @JsonIgnore
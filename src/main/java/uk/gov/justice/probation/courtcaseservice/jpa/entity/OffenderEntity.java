@@ -10,10 +10,12 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.With;
 import lombok.experimental.SuperBuilder;
+import uk.gov.justice.probation.courtcaseservice.service.KnownCrnEntityListener;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
@@ -25,6 +27,7 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "OFFENDER")
+@EntityListeners(KnownCrnEntityListener.class)
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
 @SuperBuilder
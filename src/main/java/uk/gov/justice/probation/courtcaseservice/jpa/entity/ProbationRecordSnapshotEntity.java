@@ -0,0 +1,41 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.TypeDef;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "PROBATION_RECORD_SNAPSHOT")
+@TypeDef(name = "jsonb", typeClass = JsonBinaryType.class)
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+@Builder
+@Getter
+@ToString(exclude = "record")
+public class ProbationRecordSnapshotEntity implements Serializable {
+
+    @Id
+    @Column(name = "CRN", updatable = false, nullable = false)
+    private final String crn;
+
+    @Type(type = "jsonb")
+    @Column(columnDefinition = "jsonb", name = "RECORD", nullable = false)
+    private final JsonNode record;
+
+    @Column(name = "ASSEMBLED_AT", nullable = false)
+    private final LocalDateTime assembledAt;
+}
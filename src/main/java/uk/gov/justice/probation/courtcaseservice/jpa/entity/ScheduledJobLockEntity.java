@@ -0,0 +1,35 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "SCHEDULED_JOB_LOCK")
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED, force = true)
+@Builder
+@Getter
+@ToString
+public class ScheduledJobLockEntity implements Serializable {
+
+    @Id
+    @Column(name = "NAME", updatable = false, nullable = false)
+    private final String name;
+
+    @Column(name = "LOCKED_UNTIL", nullable = false)
+    private final LocalDateTime lockedUntil;
+
+    @Column(name = "LOCKED_BY")
+    private final String lockedBy;
+}
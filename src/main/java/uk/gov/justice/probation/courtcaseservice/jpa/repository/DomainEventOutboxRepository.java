@@ -0,0 +1,74 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.DomainEventOutboxEntity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DomainEventOutboxRepository extends CrudRepository<DomainEventOutboxEntity, Long> {
+
+    /**
+     * Add an event to the outbox in the caller's transaction, unless an unpublished event with the same key is
+     * already waiting.
+     *
+     * @return 1 if the event was added, otherwise 0
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into domain_event_outbox (hearing_id, event_type, deduplication_key, message, created, next_attempt_at) " +
+        "values (:hearingId, :eventType, :deduplicationKey, :message, :created, :created) " +
+        "on conflict (deduplication_key) where published_at is null and failed_at is null do nothing",
+        nativeQuery = true)
+    int insertIfNotPending(String hearingId, String eventType, String deduplicationKey, String message, LocalDateTime created);
+
+    /**
+     * The oldest pending event of each hearing, where it is due to be attempted. Later events for a hearing are not
+     * returned until the earlier ones have been published or have failed, which keeps each hearing's events in order.
+     */
+    @Query(value = "select o.* from domain_event_outbox o " +
+        "where o.published_at is null and o.failed_at is null and o.next_attempt_at <= :now " +
+        "and not exists (select 1 from domain_event_outbox e " +
+        "   where e.hearing_id = o.hearing_id and e.published_at is null and e.failed_at is null and e.id < o.id) " +
+        "order by o.id limit :limit",
+        nativeQuery = true)
+    List<DomainEventOutboxEntity> findNextToPublish(LocalDateTime now, int limit);
+
+    @Query(value = "select min(created) from domain_event_outbox where published_at is null and failed_at is null", nativeQuery = true)
+    Optional<LocalDateTime> findOldestUnpublishedCreated();
+
+    @Modifying
+    @Transactional
+    @Query(value = "update domain_event_outbox set published_at = :publishedAt, last_error = null where id in (:ids)",
+        nativeQuery = true)
+    int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    /**
+     * Record a failed attempt to publish an event, to be attempted again at the given time, or never if failedAt is set.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update domain_event_outbox set attempts = attempts + 1, next_attempt_at = :nextAttemptAt, last_error = :error, " +
+        "failed_at = :failedAt where id = :id",
+        nativeQuery = true)
+    int markFailed(Long id, LocalDateTime nextAttemptAt, String error, LocalDateTime failedAt);
+
+    /**
+     * Delete up to limit events published before the given time.
+     *
+     * @return the number of events deleted, less than limit once none are left
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "delete from domain_event_outbox where id in " +
+        "(select id from domain_event_outbox where published_at < :publishedBefore limit :limit)",
+        nativeQuery = true)
+    int deletePublishedBefore(LocalDateTime publishedBefore, int limit);
+}
@@ -0,0 +1,36 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtCaseEntity;
+
+import java.time.LocalDate;
+
+/**
+ * Moves court cases and hearings between the live and archive tables, see V2147__add_hearing_archive.sql.
+ */
+@org.springframework.stereotype.Repository
+public interface HearingArchiveRepository extends Repository<CourtCaseEntity, Long> {
+
+    /**
+     * Check the next batch of court cases after the last one checked, archiving those deleted or with no hearing day on
+     * or after the given date, along with deleted hearings of the others.
+     *
+     * @return the number of court cases checked, less than the batch size once every court case has been checked
+     */
+    @Transactional
+    @Query(value = "select archive_next_court_cases(:batchSize, cast(:expiredBefore as date), :archivedBy)",
+        nativeQuery = true)
+    int archiveNextCourtCases(int batchSize, LocalDate expiredBefore, String archivedBy);
+
+    /**
+     * Move the archived court cases with the given case ID and their archived hearings back to the live tables.
+     *
+     * @return the number of hearings restored
+     */
+    @Transactional
+    @Query(value = "select restore_court_case(:caseId, :restoredBy)",
+        nativeQuery = true)
+    int restoreCourtCase(String caseId, String restoredBy);
+}
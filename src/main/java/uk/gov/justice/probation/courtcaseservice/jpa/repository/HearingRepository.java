@@ -18,45 +18,27 @@ public interface HearingRepository extends CrudRepository<HearingEntity, Long>{
     Optional<HearingEntity> findFirstByHearingDefendantsDefendantId(String defendantId);
 
 
-    @Query(value = "select h.* from court_case cc " +
-            "join hearing h on cc.id = h.fk_court_case_id " +
-            "join hearing_day hd on h.id = hd.fk_hearing_id " +
-            "inner join (select max(court_case.id) as max_id, court_case.case_no, hearing_day.court_code from court_case " +
-            "   join hearing on court_case.id = hearing.fk_court_case_id " +
-            "   join hearing_day on hearing.id = hearing_day.fk_hearing_id " +
-            "   where court_case.case_no = :caseNo " +
-            "   and hearing.list_no = :listNo " +
-            "   and hearing_day.court_code = :courtCode " +
-            "   group by court_case.case_no, hearing_day.court_code) grouped_cases " +
-            "on cc.id = grouped_cases.max_id " +
-            "and cc.case_no = grouped_cases.case_no " +
-            "where cc.deleted = false " +
-            "order by cc.id desc limit 1",
+    /**
+     * The latest hearing for a Libra case number at a court, from case_no_lookup. This is the hearing with the given
+     * list number if there is one, otherwise the latest for any list, which can be told apart by its list number. An
+     * empty listNo finds the latest for any list. Empty if the court case of the hearing has been deleted.
+     */
+    @Query(value = "select h.* from case_no_lookup l " +
+            "join court_case cc on cc.id = l.fk_court_case_id " +
+            "join hearing h on h.id = l.fk_hearing_id " +
+            "where l.court_code = :courtCode " +
+            "and l.case_no = :caseNo " +
+            "and l.list_no in (:listNo, '') " +
+            "and cc.deleted = false " +
+            "order by l.list_no = '' limit 1",
             nativeQuery = true)
-    Optional<HearingEntity> findByCourtCodeCaseNoAndListNo(String courtCode, String caseNo, String listNo);
-
-    @Query(value = "select h.* from court_case cc " +
-            "join hearing h on cc.id = h.fk_court_case_id " +
-            "join hearing_day hd on h.id = hd.fk_hearing_id " +
-            "inner join (select max(court_case.id) as max_id, court_case.case_no, hearing_day.court_code from court_case " +
-            "   join hearing on court_case.id = hearing.fk_court_case_id " +
-            "   join hearing_day on hearing.id = hearing_day.fk_hearing_id " +
-            "   where court_case.case_no = :caseNo " +
-            "   and hearing_day.court_code = :courtCode " +
-            "   group by court_case.case_no, hearing_day.court_code) grouped_cases " +
-            "on cc.id = grouped_cases.max_id " +
-            "and cc.case_no = grouped_cases.case_no " +
-            "where cc.deleted = false " +
-            "order by cc.id desc limit 1",
-            nativeQuery = true)
-    Optional<HearingEntity> findByCourtCodeAndCaseNo(String courtCode, String caseNo);
+    Optional<HearingEntity> findLatestByCourtCodeCaseNoAndListNo(String courtCode, String caseNo, String listNo);
 
     @Query(value = "select h.* as first_created " +
         "from hearing h " +
         "inner join hearing_day hday on hday.fk_hearing_id = h.id " +
-        "where h.created >= :createdAfter and h.created < :createdBefore " +
-        "and hday.court_code = :courtCode " +
-        "and hday.hearing_day = :hearingDay " +
+        "where hday.hearing_day = cast(:hearingDay as date) and hday.court_code = :courtCode " +
+        "and h.created >= :createdAfter and h.created < :createdBefore " +
         "and h.deleted = false",
         nativeQuery = true)
     List<HearingEntity> findByCourtCodeAndHearingDay(
@@ -69,7 +51,7 @@ public interface HearingRepository extends CrudRepository<HearingEntity, Long>{
     @Query(value = "select h.* as first_created  " +
         "from hearing h  " +
         "inner join hearing_day hday on hday.fk_hearing_id = h.id  " +
-        "where hday.hearing_day = :hearingDay and hday.court_code = :courtCode " +
+        "where hday.hearing_day = cast(:hearingDay as date) and hday.court_code = :courtCode " +
         "and h.deleted = false",
         nativeQuery = true)
     List<HearingEntity> findByCourtCodeAndHearingDay(
@@ -77,10 +59,12 @@ public interface HearingRepository extends CrudRepository<HearingEntity, Long>{
         LocalDate hearingDay
     );
 
-    @Query(value = "select hearing_day.created from hearing_day " +
-        "where hearing_day.court_code = :courtCode " +
-        "and hearing_day.hearing_day = :hearingDay " +
-        "order by created desc limit 1",
+    /**
+     * Reads only the hearing_day partition for the month of the given day.
+     */
+    @Query(value = "select max(hearing_day.created) from hearing_day " +
+        "where hearing_day.hearing_day = cast(:hearingDay as date) " +
+        "and hearing_day.court_code = :courtCode",
         nativeQuery = true)
     Optional<LocalDateTime> findLastModifiedByHearingDay(String courtCode, LocalDate hearingDay);
 
@@ -90,4 +74,48 @@ public interface HearingRepository extends CrudRepository<HearingEntity, Long>{
         "and h.fk_court_case_id = cc.id group by h.hearing_id)",
         nativeQuery = true)
     Optional<List<HearingEntity>> findHearingsByCaseId(String caseId);
+
+    /**
+     * Ids of hearings, after the given id, with offences created since the given time which have an offence code but
+     * were saved with neither a short term custody predictor score nor the version of a model, e.g. while the model
+     * was loading.
+     */
+    @Query(value = "select distinct hdef.fk_hearing_id from offence o " +
+        "join hearing_defendant hdef on hdef.id = o.fk_hearing_defendant_id " +
+        "join hearing h on h.id = hdef.fk_hearing_id " +
+        "where o.offence_code is not null " +
+        "and o.short_term_custody_predictor_score is null " +
+        "and o.short_term_custody_predictor_model_version is null " +
+        "and o.created >= :createdAfter " +
+        "and hdef.fk_hearing_id > :afterId " +
+        "and h.deleted = false " +
+        "order by hdef.fk_hearing_id limit :limit",
+        nativeQuery = true)
+    List<Long> findIdsWithUnscoredOffences(LocalDateTime createdAfter, long afterId, int limit);
+
+    /**
+     * CRNs of every defendant listed on the given day in any court, along with the candidate CRNs of unrejected
+     * offender matches for defendants who are not yet linked to an offender.
+     */
+    @Query(value = "select d.crn from hearing_day hd " +
+        "join hearing h on h.id = hd.fk_hearing_id " +
+        "join hearing_defendant hdef on hdef.fk_hearing_id = h.id " +
+        "join defendant d on d.id = hdef.fk_defendant_id " +
+        "where hd.hearing_day = cast(:hearingDay as date) " +
+        "and h.deleted = false " +
+        "and d.crn is not null " +
+        "union " +
+        "select om.crn from hearing_day hd " +
+        "join hearing h on h.id = hd.fk_hearing_id " +
+        "join court_case cc on cc.id = h.fk_court_case_id " +
+        "join hearing_defendant hdef on hdef.fk_hearing_id = h.id " +
+        "join defendant d on d.id = hdef.fk_defendant_id " +
+        "join offender_match_group omg on omg.case_id = cc.case_id and omg.defendant_id = d.defendant_id " +
+        "join offender_match om on om.group_id = omg.id " +
+        "where hd.hearing_day = cast(:hearingDay as date) " +
+        "and h.deleted = false " +
+        "and d.crn is null " +
+        "and om.rejected = false",
+        nativeQuery = true)
+    List<String> findCrnsByHearingDay(LocalDate hearingDay);
 }
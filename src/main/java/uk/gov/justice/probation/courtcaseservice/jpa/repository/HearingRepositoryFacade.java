@@ -1,5 +1,6 @@
 package uk.gov.justice.probation.courtcaseservice.jpa.repository;
 
+import io.micrometer.core.annotation.Timed;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -20,6 +21,7 @@ import java.util.Optional;
  * to Service layer consumers, abstracting away custom code required for maintaining immutable records.
  */
 public class HearingRepositoryFacade {
+    static final String TIMER_NAME = "hearing.repository.facade";
     private static final int MAX_YEAR_SUPPORTED_BY_DB = 294276;
     private static final int MIN_YEAR_SUPPORTED_BY_DB = -4712;
 
@@ -40,23 +42,25 @@ public class HearingRepositoryFacade {
         this.caseCommentsRepository = caseCommentsRepository;
     }
 
+    @Timed(TIMER_NAME)
+    @Transactional(readOnly = true)
     public Optional<HearingEntity> findFirstByHearingId(String hearingId) {
         return hearingRepository.findFirstByHearingId(hearingId);
     }
 
+    @Timed(TIMER_NAME)
+    @Transactional(readOnly = true)
     public Optional<HearingEntity> findByCourtCodeAndCaseNo(String courtCode, String caseNo, String listNo) {
-        Optional<HearingEntity> hearing;
         if(StringUtils.isEmpty(listNo)) {
-            hearing = hearingRepository.findByCourtCodeAndCaseNo(courtCode, caseNo);
-        } else {
-            hearing = hearingRepository.findByCourtCodeCaseNoAndListNo(courtCode, caseNo, listNo)
-                .or(
-                    () -> hearingRepository.findByCourtCodeAndCaseNo(courtCode, caseNo).map(hearingEntity -> hearingEntity.withHearingId(null))
-                );
+            return hearingRepository.findLatestByCourtCodeCaseNoAndListNo(courtCode, caseNo, StringUtils.EMPTY);
         }
-        return hearing;
+        // When there is no hearing for the list, the latest for any list is returned without its hearing ID
+        return hearingRepository.findLatestByCourtCodeCaseNoAndListNo(courtCode, caseNo, listNo)
+            .map(hearingEntity -> listNo.equals(hearingEntity.getListNo()) ? hearingEntity : hearingEntity.withHearingId(null));
     }
 
+    @Timed(TIMER_NAME)
+    @Transactional(readOnly = true)
     public Optional<HearingEntity> findByHearingIdAndDefendantId(String hearingId, String defendantId) {
         return hearingRepository.findFirstByHearingId(hearingId)
             .map(hearingEntity -> {
@@ -73,6 +77,8 @@ public class HearingRepositoryFacade {
      * @deprecated Deprecated in favour of the version without createdAfter and createdBefore parameters as the lookup is
      * significantly more efficient without these constraints.
      */
+    @Timed(TIMER_NAME)
+    @Transactional(readOnly = true)
     public List<HearingEntity> findByCourtCodeAndHearingDay(String courtCode, LocalDate hearingDay, LocalDateTime createdAfter, LocalDateTime createdBefore) {
 
         List<HearingEntity> hearingEntities = canIgnoreCreatedDates(createdAfter, createdBefore)
@@ -81,13 +87,18 @@ public class HearingRepositoryFacade {
         return hearingEntities;
     }
 
+    @Timed(TIMER_NAME)
+    @Transactional(readOnly = true)
     public List<HearingEntity> findByCourtCodeAndHearingDay(String courtCode, LocalDate hearingDay) {
         return hearingRepository.findByCourtCodeAndHearingDay(courtCode, hearingDay);
     }
 
+    @Timed(TIMER_NAME)
+    @Transactional(readOnly = true)
     public Optional<LocalDateTime> findLastModifiedByHearingDay(String courtCode, LocalDate hearingDay) {
         return hearingRepository.findLastModifiedByHearingDay(courtCode, hearingDay);
     }
+    @Timed(TIMER_NAME)
     public HearingEntity save(HearingEntity hearingEntity) {
 
         updateWithExistingOffenders(hearingEntity);
@@ -0,0 +1,46 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingDayEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Manages the monthly partitions of hearing_day and audit_change_log, see V2146__partition_hearing_day_by_month.sql and
+ * V2148__add_audit_change_log.sql.
+ */
+@org.springframework.stereotype.Repository
+public interface MonthlyPartitionRepository extends Repository<HearingDayEntity, Long> {
+
+    /**
+     * Create a partition of the table for each month from the given month to the given month that does not have one,
+     * moving in any of its rows which were written to the default partition.
+     *
+     * @return the number of partitions created
+     */
+    @Transactional
+    @Query(value = "select create_monthly_partitions(:table, :partitionColumn, cast(:fromMonth as date), cast(:toMonth as date))",
+        nativeQuery = true)
+    int createPartitions(String table, String partitionColumn, LocalDate fromMonth, LocalDate toMonth);
+
+    /**
+     * Detach the monthly partitions of the table which end on or before the given month, leaving each as a table of
+     * its own.
+     *
+     * @return the number of partitions detached
+     */
+    @Transactional
+    @Query(value = "select detach_monthly_partitions(:table, cast(:beforeMonth as date))",
+        nativeQuery = true)
+    int detachPartitions(String table, LocalDate beforeMonth);
+
+    @Query(value = "select c.relname from pg_inherits i " +
+        "join pg_class c on c.oid = i.inhrelid " +
+        "where i.inhparent = cast(:table as regclass) " +
+        "order by c.relname",
+        nativeQuery = true)
+    List<String> findPartitionNames(String table);
+}
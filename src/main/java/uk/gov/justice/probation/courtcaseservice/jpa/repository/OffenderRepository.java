@@ -1,6 +1,10 @@
 package uk.gov.justice.probation.courtcaseservice.jpa.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
@@ -8,4 +12,12 @@ import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
 @Repository
 public interface OffenderRepository extends CrudRepository<OffenderEntity, Long> {
     Optional<OffenderEntity> findByCrn(String crn);
+
+    List<OffenderEntity> findAllByCrnIn(Collection<String> crns);
+
+    @Query(value = "select crn from offender", nativeQuery = true)
+    List<String> findAllCrns();
+
+    @Query(value = "select crn from offender where created >= :since", nativeQuery = true)
+    List<String> findCrnsCreatedSince(LocalDateTime since);
 }
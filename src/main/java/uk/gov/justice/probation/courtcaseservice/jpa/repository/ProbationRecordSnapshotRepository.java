@@ -0,0 +1,33 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.ProbationRecordSnapshotEntity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProbationRecordSnapshotRepository extends CrudRepository<ProbationRecordSnapshotEntity, String> {
+
+    /**
+     * Insert or replace the snapshot for a CRN. Both replicas may refresh the same CRN at once so this must not fail
+     * on conflict, and an older assembly never replaces a newer one.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into probation_record_snapshot (crn, record, assembled_at) " +
+        "values (:crn, cast(:record as jsonb), :assembledAt) " +
+        "on conflict (crn) do update set record = excluded.record, assembled_at = excluded.assembled_at " +
+        "where probation_record_snapshot.assembled_at < excluded.assembled_at",
+        nativeQuery = true)
+    void upsert(String crn, String record, LocalDateTime assembledAt);
+
+    @Query(value = "select crn from probation_record_snapshot where crn in (:crns) and assembled_at >= :assembledAfter",
+        nativeQuery = true)
+    List<String> findCrnsAssembledAfter(Collection<String> crns, LocalDateTime assembledAfter);
+}
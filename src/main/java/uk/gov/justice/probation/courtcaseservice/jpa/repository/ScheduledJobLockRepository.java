@@ -0,0 +1,35 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.ScheduledJobLockEntity;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ScheduledJobLockRepository extends CrudRepository<ScheduledJobLockEntity, String> {
+
+    /**
+     * Take the named lock until the given time if it is not held by anyone else.
+     *
+     * @return 1 if the lock was taken, otherwise 0
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update scheduled_job_lock set locked_until = :lockedUntil, locked_by = :lockedBy " +
+        "where name = :name and locked_until < :now",
+        nativeQuery = true)
+    int tryLock(String name, LocalDateTime now, LocalDateTime lockedUntil, String lockedBy);
+
+    /**
+     * Give up the named lock early, if it is still held by the given holder.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update scheduled_job_lock set locked_until = :now where name = :name and locked_by = :lockedBy",
+        nativeQuery = true)
+    int release(String name, LocalDateTime now, String lockedBy);
+}
@@ -0,0 +1,52 @@
+package uk.gov.justice.probation.courtcaseservice.listener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing time and lag for SQS listeners. Lag is measured from when SNS accepted the message, so it includes any
+ * time spent waiting on the queue.
+ */
+@Slf4j
+@Component
+public class EventListenerMetrics {
+    static final String PROCESSING_METRIC = "sqs.listener.processing";
+    static final String LAG_METRIC = "sqs.listener.lag";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public EventListenerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordProcessing(String queue, long startNanos) {
+        Timer.builder(PROCESSING_METRIC)
+            .tag("queue", queue)
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLag(String queue, EventMessage eventMessage) {
+        if (eventMessage == null || eventMessage.getTimestamp() == null) {
+            return;
+        }
+        try {
+            final var lag = Duration.between(Instant.parse(eventMessage.getTimestamp()), Instant.now());
+            Timer.builder(LAG_METRIC)
+                .tag("queue", queue)
+                .register(meterRegistry)
+                .record(lag.isNegative() ? Duration.ZERO : lag);
+        } catch (DateTimeParseException e) {
+            log.debug("Unable to read SNS timestamp {}", eventMessage.getTimestamp());
+        }
+    }
+}
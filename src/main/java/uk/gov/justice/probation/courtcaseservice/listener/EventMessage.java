@@ -16,4 +16,6 @@ import lombok.NoArgsConstructor;
 public class EventMessage {
      @JsonProperty("Message")
      final String message;
+     @JsonProperty("Timestamp")
+     final String timestamp;
 }
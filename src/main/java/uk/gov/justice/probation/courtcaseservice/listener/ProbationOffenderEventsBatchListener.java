@@ -0,0 +1,220 @@
+package uk.gov.justice.probation.courtcaseservice.listener;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.hmpps.sqs.HmppsQueueService;
+import uk.gov.justice.hmpps.sqs.MissingQueueException;
+import uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudget;
+import uk.gov.justice.probation.courtcaseservice.application.jfr.QueueMessageEvent;
+import uk.gov.justice.probation.courtcaseservice.service.ProbationRecordSnapshotService;
+import uk.gov.justice.probation.courtcaseservice.service.UserAgnosticOffenderService;
+import uk.gov.justice.probation.courtcaseservice.service.model.event.ProbationOffenderEvent;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Alternative to {@link ProbationOffenderEventsListener} for when community-api republishes events in bulk. Messages
+ * are received 10 at a time and gathered for a short window, so that many events for the same CRN result in one
+ * probation status update. Messages are deleted in bulk once their CRN has been handled; messages which can't be read
+ * or whose CRN failed are left to become visible again, and so reach the dead letter queue as they would today.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "probation-offender-events.batch.enabled", havingValue = "true")
+public class ProbationOffenderEventsBatchListener {
+    static final String QUEUE_ID = "picprobationoffendereventsqueue";
+    // SQS limit for both receive and delete batches
+    private static final int MAX_MESSAGES_PER_REQUEST = 10;
+    private static final int LONG_POLL_SECONDS = 20;
+    private static final Duration ERROR_PAUSE = Duration.ofSeconds(5);
+
+    private final HmppsQueueService hmppsQueueService;
+    private final UserAgnosticOffenderService offenderService;
+    private final ProbationRecordSnapshotService probationRecordSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final EventListenerMetrics eventListenerMetrics;
+    private final SqlStatementBudget sqlStatementBudget;
+    private final Duration collapseWindow;
+    private final int maxBatchSize;
+    private final int statusConcurrency;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private volatile boolean running;
+
+    @Autowired
+    public ProbationOffenderEventsBatchListener(HmppsQueueService hmppsQueueService,
+                                                UserAgnosticOffenderService offenderService,
+                                                ProbationRecordSnapshotService probationRecordSnapshotService,
+                                                ObjectMapper objectMapper,
+                                                EventListenerMetrics eventListenerMetrics,
+                                                SqlStatementBudget sqlStatementBudget,
+                                                @Value("${probation-offender-events.batch.collapse-window-ms:2000}") long collapseWindowMs,
+                                                @Value("${probation-offender-events.batch.max-size:100}") int maxBatchSize,
+                                                @Value("${probation-offender-events.batch.status-concurrency:4}") int statusConcurrency) {
+        this.hmppsQueueService = hmppsQueueService;
+        this.offenderService = offenderService;
+        this.probationRecordSnapshotService = probationRecordSnapshotService;
+        this.objectMapper = objectMapper;
+        this.eventListenerMetrics = eventListenerMetrics;
+        this.sqlStatementBudget = sqlStatementBudget;
+        this.collapseWindow = Duration.ofMillis(collapseWindowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.statusConcurrency = statusConcurrency;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        final var queue = hmppsQueueService.findByQueueId(QUEUE_ID);
+        if (queue == null) {
+            throw new MissingQueueException(String.format("HmppsQueue %s not found", QUEUE_ID));
+        }
+        running = true;
+        executor.submit(() -> {
+            while (running) {
+                try {
+                    processBatch(queue.getSqsClient(), queue.getQueueUrl());
+                } catch (Exception e) {
+                    log.error("Unable to process probation offender events", e);
+                    pauseAfterError();
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        executor.shutdown();
+    }
+
+    private void pauseAfterError() {
+        try {
+            Thread.sleep(ERROR_PAUSE.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * @return the number of messages received
+     */
+    int processBatch(AmazonSQS sqsClient, String queueUrl) {
+        final var messages = receiveBatch(sqsClient, queueUrl);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        final var start = System.nanoTime();
+        final var sqlStatements = sqlStatementBudget.start();
+        final var queueMessageEvent = new QueueMessageEvent();
+        queueMessageEvent.begin();
+        // Batches which fail part way are timed too, so that slow failures show up in the processing time
+        try {
+            processMessages(sqsClient, queueUrl, messages);
+        } finally {
+            sqlStatementBudget.finish("SQS " + QUEUE_ID, sqlStatements);
+            eventListenerMetrics.recordProcessing(QUEUE_ID, start);
+            queueMessageEvent.queue = QUEUE_ID;
+            queueMessageEvent.messageCount = messages.size();
+            queueMessageEvent.commit();
+        }
+        return messages.size();
+    }
+
+    private void processMessages(AmazonSQS sqsClient, String queueUrl, List<Message> messages) {
+        final var toDelete = new ArrayList<Message>(messages.size());
+        final Map<String, List<Message>> messagesByCrn = new LinkedHashMap<>();
+        for (var message : messages) {
+            try {
+                final var crn = getProbationOffenderEvent(message.getBody()).getCrn();
+                if (crn == null || crn.isBlank()) {
+                    toDelete.add(message);
+                } else {
+                    messagesByCrn.computeIfAbsent(crn, key -> new ArrayList<>()).add(message);
+                }
+            } catch (JsonProcessingException e) {
+                log.error("Unable to read probation offender event with message id {}", message.getMessageId(), e);
+            }
+        }
+
+        final var failedCrns = messagesByCrn.isEmpty() ? Set.<String>of()
+            : offenderService.updateOffenderProbationStatuses(messagesByCrn.keySet(), statusConcurrency);
+        messagesByCrn.forEach((crn, crnMessages) -> {
+            if (!failedCrns.contains(crn)) {
+                probationRecordSnapshotService.refreshIfPresent(crn);
+                toDelete.addAll(crnMessages);
+            }
+        });
+
+        deleteMessages(sqsClient, queueUrl, toDelete);
+        log.debug("Processed {} probation offender events for {} CRNs, {} failed", messages.size(), messagesByCrn.size(), failedCrns.size());
+    }
+
+    /**
+     * Wait for a first message, then keep receiving until the queue is empty, the batch is full or the collapse window
+     * has passed.
+     */
+    private List<Message> receiveBatch(AmazonSQS sqsClient, String queueUrl) {
+        final var messages = new ArrayList<>(receive(sqsClient, queueUrl, LONG_POLL_SECONDS));
+        if (messages.isEmpty()) {
+            return messages;
+        }
+
+        final var deadline = System.nanoTime() + collapseWindow.toNanos();
+        while (messages.size() + MAX_MESSAGES_PER_REQUEST <= maxBatchSize && System.nanoTime() < deadline) {
+            final var received = receive(sqsClient, queueUrl, 1);
+            if (received.isEmpty()) {
+                break;
+            }
+            messages.addAll(received);
+        }
+        return messages;
+    }
+
+    private List<Message> receive(AmazonSQS sqsClient, String queueUrl, int waitTimeSeconds) {
+        return sqsClient.receiveMessage(new ReceiveMessageRequest(queueUrl)
+                .withMaxNumberOfMessages(MAX_MESSAGES_PER_REQUEST)
+                .withWaitTimeSeconds(waitTimeSeconds))
+            .getMessages();
+    }
+
+    private void deleteMessages(AmazonSQS sqsClient, String queueUrl, List<Message> messages) {
+        for (int start = 0; start < messages.size(); start += MAX_MESSAGES_PER_REQUEST) {
+            final var chunk = messages.subList(start, Math.min(start + MAX_MESSAGES_PER_REQUEST, messages.size()));
+            final var entries = IntStream.range(0, chunk.size())
+                .mapToObj(i -> new DeleteMessageBatchRequestEntry(String.valueOf(i), chunk.get(i).getReceiptHandle()))
+                .toList();
+            final var result = sqsClient.deleteMessageBatch(new DeleteMessageBatchRequest(queueUrl, entries));
+            result.getFailed().forEach(failure ->
+                log.warn("Unable to delete probation offender event: {} {}", failure.getCode(), failure.getMessage()));
+        }
+    }
+
+    private ProbationOffenderEvent getProbationOffenderEvent(String rawMessage) throws JsonProcessingException {
+        var eventMessage = objectMapper.readValue(rawMessage, EventMessage.class);
+        eventListenerMetrics.recordLag(QUEUE_ID, eventMessage);
+        return objectMapper.readValue(eventMessage.getMessage(), ProbationOffenderEvent.class);
+    }
+}
@@ -4,34 +4,64 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
+import uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudget;
+import uk.gov.justice.probation.courtcaseservice.application.jfr.QueueMessageEvent;
+import uk.gov.justice.probation.courtcaseservice.service.ProbationRecordSnapshotService;
 import uk.gov.justice.probation.courtcaseservice.service.UserAgnosticOffenderService;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.ProbationOffenderEvent;
 
 @Slf4j
 @Component
+@ConditionalOnProperty(value = "probation-offender-events.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class ProbationOffenderEventsListener {
+    private static final String QUEUE_ID = "picprobationoffendereventsqueue";
 
     private final UserAgnosticOffenderService offenderService;
+    private final ProbationRecordSnapshotService probationRecordSnapshotService;
     private final ObjectMapper objectMapper;
+    private final EventListenerMetrics eventListenerMetrics;
+    private final SqlStatementBudget sqlStatementBudget;
 
     @Autowired
-    public ProbationOffenderEventsListener(UserAgnosticOffenderService offenderService, ObjectMapper objectMapper) {
+    public ProbationOffenderEventsListener(UserAgnosticOffenderService offenderService,
+                                           ProbationRecordSnapshotService probationRecordSnapshotService,
+                                           ObjectMapper objectMapper,
+                                           EventListenerMetrics eventListenerMetrics,
+                                           SqlStatementBudget sqlStatementBudget) {
         this.offenderService = offenderService;
+        this.probationRecordSnapshotService = probationRecordSnapshotService;
         this.objectMapper = objectMapper;
+        this.eventListenerMetrics = eventListenerMetrics;
+        this.sqlStatementBudget = sqlStatementBudget;
     }
 
-    @JmsListener(destination = "picprobationoffendereventsqueue", containerFactory = "hmppsQueueContainerFactoryProxy")
+    @JmsListener(destination = QUEUE_ID, containerFactory = "hmppsQueueContainerFactoryProxy")
     public void processMessage(String rawMessage) throws JsonProcessingException {
-        ProbationOffenderEvent probationOffenderEvent = getProbationOffenderEvent(rawMessage);
-        if (probationOffenderEvent != null && !probationOffenderEvent.getCrn().isBlank()) {
-            offenderService.updateOffenderProbationStatus(probationOffenderEvent.getCrn());
+        final var start = System.nanoTime();
+        final var sqlStatements = sqlStatementBudget.start();
+        final var queueMessageEvent = new QueueMessageEvent();
+        queueMessageEvent.begin();
+        queueMessageEvent.queue = QUEUE_ID;
+        queueMessageEvent.messageCount = 1;
+        try {
+            ProbationOffenderEvent probationOffenderEvent = getProbationOffenderEvent(rawMessage);
+            if (probationOffenderEvent != null && !probationOffenderEvent.getCrn().isBlank()) {
+                offenderService.updateOffenderProbationStatus(probationOffenderEvent.getCrn());
+                probationRecordSnapshotService.refreshIfPresent(probationOffenderEvent.getCrn());
+            }
+        } finally {
+            eventListenerMetrics.recordProcessing(QUEUE_ID, start);
+            sqlStatementBudget.finish("SQS " + QUEUE_ID, sqlStatements);
+            queueMessageEvent.commit();
         }
     }
 
     private ProbationOffenderEvent getProbationOffenderEvent(String rawMessage) throws JsonProcessingException {
             var eventMessage = objectMapper.readValue(rawMessage, EventMessage.class);
+            eventListenerMetrics.recordLag(QUEUE_ID, eventMessage);
             return objectMapper.readValue(eventMessage.getMessage(), ProbationOffenderEvent.class);
     }
 }
@@ -28,10 +28,11 @@ public class AssessmentsRestClient {
     private RestClientHelper clientHelper;
 
     public Mono<List<Assessment>> getAssessmentsByCrn(String crn) {
-        return clientHelper.get(String.format(assessmentsUrlTemplate, crn))
+        final String path = String.format(assessmentsUrlTemplate, crn);
+        return clientHelper.hedge(path, clientHelper.get(path)
             .retrieve()
             .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleOffenderError(crn, clientResponse))
-            .bodyToMono(AssessmentsApiAssessmentsResponse.class)
+            .bodyToMono(AssessmentsApiAssessmentsResponse.class))
             .doOnError(e -> log.error(String.format("Unexpected exception when retrieving offender assessment data for CRN '%s'", crn), e))
             .map(AssessmentMapper::assessmentsFrom)
             ;
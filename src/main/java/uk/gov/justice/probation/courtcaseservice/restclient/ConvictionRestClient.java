@@ -109,10 +109,10 @@ public class ConvictionRestClient {
 
     public Mono<List<CourtReport>> getCourtReports(final String crn, final Long convictionId) {
         final String path = String.format(courtReportsUrlTemplate, crn, convictionId);
-        return clientHelper.get(path)
+        return clientHelper.hedge(path, clientHelper.get(path)
             .retrieve()
             .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleConvictionError(crn, convictionId, clientResponse))
-            .bodyToMono(CommunityApiCourtReportsResponse.class)
+            .bodyToMono(CommunityApiCourtReportsResponse.class))
             .onErrorMap(e1 -> {
                 log.error(String.format(ERROR_MSG_FORMAT, "court reports ", crn, convictionId), e1);
                 return e1;
@@ -1,32 +1,36 @@
 package uk.gov.justice.probation.courtcaseservice.restclient;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.restclient.communityapi.mapper.DocumentMapper;
 import uk.gov.justice.probation.courtcaseservice.restclient.communityapi.model.CommunityApiGroupedDocumentsResponse;
 import uk.gov.justice.probation.courtcaseservice.restclient.exception.DocumentNotFoundException;
 import uk.gov.justice.probation.courtcaseservice.service.model.document.GroupedDocuments;
 
+import java.util.List;
+import java.util.Optional;
+
 @Component
 @AllArgsConstructor
 @NoArgsConstructor
 @Slf4j
 public class DocumentRestClient {
 
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION);
+
     @Value("${community-api.grouped-documents-by-crn-url-template}")
     private String groupedDocumentsUrlTemplate;
     @Value("${community-api.offender-document-by-crn-url-template}")
@@ -38,6 +42,9 @@ public class DocumentRestClient {
     @Qualifier("documentApiClient")
     private RestClientHelper clientHelper;
 
+    /**
+     * Not hedged, the response can run to the size of the document buffer and a hedge would fetch all of it twice.
+     */
     public Mono<GroupedDocuments> getDocumentsByCrn(String crn) {
         return clientHelper.get(String.format(groupedDocumentsUrlTemplate, crn))
             .retrieve()
@@ -50,42 +57,34 @@ public class DocumentRestClient {
             .map(documentsResponse -> documentMapper.documentsFrom(documentsResponse));
     }
 
-    public Mono<ResponseEntity<Resource>> getDocument(String crn, String documentId)  {
+    /**
+     * Stream a document from community-api. The body is not buffered, it is passed on chunk by chunk as the
+     * subscriber requests it so that large documents are never held in memory.
+     *
+     * @param range optional HTTP Range header value which is forwarded to community-api
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getDocument(String crn, String documentId, @Nullable String range) {
+        final var spec = clientHelper.get(String.format(offenderDocumentUrlTemplate, crn, documentId), MediaType.ALL);
+        Optional.ofNullable(range).ifPresent(value -> spec.header(HttpHeaders.RANGE, value));
 
-        // We have to use exchange to get the header values which we need to forward.
-        // Unlike retrieve(), exchange() does not throw exceptions which means we have to handle our own
-        final Mono<ResponseEntity<Resource>> resourceMono = clientHelper.get(String.format(offenderDocumentUrlTemplate, crn, documentId), MediaType.ALL)
-            .exchange()
+        // A 416 is passed on as-is so the caller can see the range was unsatisfiable, any other 4xx means not found
+        return spec.retrieve()
+            .onStatus(status -> status.is4xxClientError() && status != HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, clientResponse -> {
+                log.error("Received HttpStatus {} for document request. Document ID: [{}],CRN: [{}]", clientResponse.rawStatusCode(), documentId, crn);
+                return Mono.error(new DocumentNotFoundException(documentId, crn));
+            })
+            .toEntityFlux(DataBuffer.class)
             .doOnError(e -> log.error(String.format("Unexpected exception when retrieving offender document ID '%s' for CRN '%s'", documentId, crn), e))
-            .flatMap(clientResponse -> clientResponse.toEntity(Resource.class));
-
-        // This puts work off to another thread and therefore won't block
-        final ResponseEntity<Resource> resp = resourceMono.toFuture().join();
-        handleError(resp, crn, documentId);
-        return Mono.just(resp);
-    }
-
-    private void handleError(ResponseEntity<Resource> responseEntity, String crn, String documentId) {
-        final HttpStatus httpStatus = responseEntity.getStatusCode();
-        if (!httpStatus.is2xxSuccessful()) {
-            log.error("Received HttpStatus {} for document request. Document ID: [{}],CRN: [{}]", httpStatus.value(), documentId, crn);
-            if (httpStatus.is4xxClientError()) {
-                throw new DocumentNotFoundException(documentId, crn);
-            }
-            throw WebClientResponseException.create(httpStatus.value(),
-                httpStatus.name(),
-                responseEntity.getHeaders(),
-                getBodyAsBytes(responseEntity.getBody()),
-                StandardCharsets.UTF_8);
-        }
+            .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                .headers(forwardableHeaders(entity.getHeaders()))
+                .body(entity.getBody()));
     }
 
-    private byte[] getBodyAsBytes(Resource resource) {
-        try (InputStream inputStream = resource.getInputStream()){
-            return inputStream.readAllBytes();
-        } catch (IOException e) {
-            return new byte[0];
-        }
+    private HttpHeaders forwardableHeaders(HttpHeaders headers) {
+        final var forwarded = new HttpHeaders();
+        forwarded.putAll(headers);
+        HOP_BY_HOP_HEADERS.forEach(forwarded::remove);
+        return forwarded;
     }
 
 }
@@ -81,10 +81,11 @@ public class OffenderRestClient {
     }
 
     public Mono<CommunityApiOffenderResponse> getOffender(String crn) {
-        return clientHelper.get(String.format(offenderUrlTemplate, crn))
+        final String path = String.format(offenderUrlTemplate, crn);
+        return clientHelper.hedge(path, clientHelper.get(path)
             .retrieve()
             .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleOffenderError(crn, clientResponse))
-            .bodyToMono(CommunityApiOffenderResponse.class)
+            .bodyToMono(CommunityApiOffenderResponse.class))
             .doOnError(e -> log.error(String.format("Unexpected exception when retrieving offender detail data for CRN '%s'", crn), e));
     }
 
@@ -98,10 +99,11 @@ public class OffenderRestClient {
     }
 
     public Mono<List<OffenderManager>> getOffenderManagers(String crn) {
-        return clientHelper.get(String.format(offenderManagersUrlTemplate, crn))
+        final String path = String.format(offenderManagersUrlTemplate, crn);
+        return clientHelper.hedge(path, clientHelper.get(path)
             .retrieve()
             .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleOffenderError(crn, clientResponse))
-            .bodyToMono(CommunityApiCommunityOrPrisonOffenderManagerResponse.class)
+            .bodyToMono(CommunityApiCommunityOrPrisonOffenderManagerResponse.class))
             .onErrorMap(e1 -> {
                 log.error(String.format("Unexpected exception when retrieving offender managers data for CRN '%s'", crn), e1);
                 return e1;
@@ -110,10 +112,11 @@ public class OffenderRestClient {
     }
 
     public Mono<List<Conviction>> getConvictionsByCrn(String crn) {
-        return clientHelper.get(String.format(convictionsUrlTemplate, crn))
+        final String path = String.format(convictionsUrlTemplate, crn);
+        return clientHelper.hedge(path, clientHelper.get(path)
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleOffenderError(crn, clientResponse))
-                .bodyToMono(CommunityApiConvictionsResponse.class)
+                .bodyToMono(CommunityApiConvictionsResponse.class))
                 .doOnError(e -> log.error(String.format("Unexpected exception when retrieving convictions data for CRN '%s'", crn), e))
                 .map(OffenderMapper::convictionsFrom);
     }
@@ -121,10 +124,11 @@ public class OffenderRestClient {
     public Mono<List<Breach>> getBreaches(String crn, Long convictionId) {
         final MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
         params.addAll(nsiCodesParam, nsiBreachCodes);
-        return clientHelper.get(String.format(nsisTemplate, crn, convictionId), params)
+        final String path = String.format(nsisTemplate, crn, convictionId);
+        return clientHelper.hedge(path, clientHelper.get(path, params)
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError, resp -> clientHelper.handleConvictionError(crn, convictionId, resp))
-                .bodyToMono(CommunityApiNsiResponse.class)
+                .bodyToMono(CommunityApiNsiResponse.class))
                 .doOnError(e1 -> {
                     log.error(String.format("Unexpected exception when retrieving breaches data for CRN '%s' and conviction id '%s'", crn, convictionId), e1);
                 })
@@ -132,30 +136,33 @@ public class OffenderRestClient {
     }
 
     public Mono<List<Requirement>> getConvictionRequirements(String crn, Long convictionId) {
-        return clientHelper.get(String.format(requirementsUrlTemplate, crn, convictionId))
+        final String path = String.format(requirementsUrlTemplate, crn, convictionId);
+        return clientHelper.hedge(path, clientHelper.get(path)
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleOffenderError(crn, clientResponse))
-                .bodyToMono(CommunityApiRequirementsResponse.class)
+                .bodyToMono(CommunityApiRequirementsResponse.class))
                 .doOnError(e -> log.error(String.format("Unexpected exception when retrieving requirements data for CONVICTIONID '%s'", convictionId), e))
                 .map(RequirementMapper::requirementsFrom)
                 .onErrorReturn(Collections.emptyList());
     }
 
     public Mono<List<PssRequirement>> getConvictionPssRequirements(String crn, Long convictionId) {
-        return clientHelper.get(String.format(pssRequirementsUrlTemplate, crn, convictionId))
+        final String path = String.format(pssRequirementsUrlTemplate, crn, convictionId);
+        return clientHelper.hedge(path, clientHelper.get(path)
             .retrieve()
             .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleOffenderError(crn, clientResponse))
-            .bodyToMono(CommunityApiPssRequirementsResponse.class)
+            .bodyToMono(CommunityApiPssRequirementsResponse.class))
             .doOnError(e -> log.error(String.format("Unexpected exception when retrieving PSS requirements data for CONVICTIONID '%s'", convictionId), e))
             .map(RequirementMapper::pssRequirementsFrom)
             .onErrorReturn(Collections.emptyList());
     }
 
     public Mono<List<LicenceCondition>> getConvictionLicenceConditions(String crn, Long convictionId) {
-        return clientHelper.get(String.format(licenceConditionsUrlTemplate, crn, convictionId))
+        final String path = String.format(licenceConditionsUrlTemplate, crn, convictionId);
+        return clientHelper.hedge(path, clientHelper.get(path)
             .retrieve()
             .onStatus(HttpStatus::is4xxClientError, (clientResponse) -> clientHelper.handleOffenderError(crn, clientResponse))
-            .bodyToMono(CommunityApiLicenceConditionsResponse.class)
+            .bodyToMono(CommunityApiLicenceConditionsResponse.class))
             .doOnError(e -> log.error(String.format("Unexpected exception when retrieving licence conditions data for CONVICTIONID '%s'", convictionId), e))
             .map(RequirementMapper::licenceConditionsFrom)
             .onErrorReturn(Collections.emptyList());
@@ -0,0 +1,166 @@
+package uk.gov.justice.probation.courtcaseservice.restclient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends a duplicate (hedged) request when an idempotent GET has not completed within the observed latency percentile
+ * for that endpoint of that downstream API. Whichever of the two requests signals first wins and the other is cancelled.
+ * Endpoints keep their own latencies as they differ by orders of magnitude, e.g. a small lookup and a list of documents.
+ *
+ * Hedges are paid for out of a single budget shared by all downstream APIs. Every request adds budget-ratio tokens
+ * to the budget (capped at max-burst) and every hedge spends one, so hedged load can never exceed budget-ratio of
+ * total load over any sustained period.
+ */
+@Component
+@Slf4j
+public class RequestHedger {
+    static final String HEDGED_REQUESTS_METRIC = "http.client.requests.hedged";
+    private static final long MILLI_TOKENS = 1000L;
+    private static final int WINDOW_SIZE = 128;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final int minSamples;
+    private final long tokensPerRequest;
+    private final long maxTokens;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong budget = new AtomicLong(0);
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RequestHedger(@Value("${web.client.hedging.enabled:false}") boolean enabled,
+                         @Value("${web.client.hedging.percentile:95}") double percentile,
+                         @Value("${web.client.hedging.min-delay-ms:50}") long minDelayMs,
+                         @Value("${web.client.hedging.max-delay-ms:2000}") long maxDelayMs,
+                         @Value("${web.client.hedging.min-samples:20}") int minSamples,
+                         @Value("${web.client.hedging.budget-ratio:0.05}") double budgetRatio,
+                         @Value("${web.client.hedging.max-burst:10}") int maxBurst,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelay = Duration.ofMillis(minDelayMs);
+        this.maxDelay = Duration.ofMillis(maxDelayMs);
+        this.minSamples = minSamples;
+        this.tokensPerRequest = Math.round(budgetRatio * MILLI_TOKENS);
+        this.maxTokens = maxBurst * MILLI_TOKENS;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Wrap an idempotent request so that it may be hedged. The source Mono must be cold (as those built by WebClient
+     * are) so that subscribing to it a second time issues a second request.
+     *
+     * @param downstream name of the downstream API, used to keep latency statistics and tag metrics
+     * @param endpoint   uri template of the endpoint, used to keep latency statistics
+     * @param request    the request to hedge
+     * @return a Mono which emits the first signal from either the original or the hedged request
+     */
+    public <T> Mono<T> hedge(String downstream, String endpoint, Mono<T> request) {
+        if (!enabled) {
+            return request;
+        }
+        final var window = latencies.computeIfAbsent(downstream + " " + endpoint, key -> new LatencyWindow());
+
+        return Mono.defer(() -> {
+            deposit();
+            final var timed = request.elapsed()
+                .doOnNext(tuple -> window.record(tuple.getT1()))
+                .map(tuple -> tuple.getT2());
+
+            final var delay = window.percentile(percentile, minSamples);
+            if (delay.isEmpty()) {
+                return timed;
+            }
+
+            final Mono<T> hedged = Mono.delay(clamp(delay.get()))
+                .flatMap(tick -> {
+                    if (!tryAcquire()) {
+                        count(downstream, "budget_exhausted");
+                        return Mono.never();
+                    }
+                    log.debug("Hedging request to {} {} after {}ms", downstream, endpoint, delay.get());
+                    count(downstream, "sent");
+                    return timed.doOnNext(value -> count(downstream, "won"));
+                });
+
+            return Mono.firstWithSignal(timed, hedged);
+        });
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    private Duration clamp(long delayMs) {
+        final var delay = Duration.ofMillis(delayMs);
+        if (delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private void deposit() {
+        budget.getAndUpdate(current -> Math.min(maxTokens, current + tokensPerRequest));
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            final var current = budget.get();
+            if (current < MILLI_TOKENS) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - MILLI_TOKENS)) {
+                return true;
+            }
+        }
+    }
+
+    private void count(String downstream, String outcome) {
+        meterRegistry.counter(HEDGED_REQUESTS_METRIC, "downstream", downstream, "outcome", outcome).increment();
+    }
+
+    /**
+     * Fixed size ring buffer of the most recent request latencies in milliseconds.
+     */
+    static class LatencyWindow {
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+        private final AtomicInteger next = new AtomicInteger(0);
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        void record(long latencyMs) {
+            samples.set(Math.floorMod(next.getAndIncrement(), WINDOW_SIZE), latencyMs);
+            count.updateAndGet(current -> Math.min(WINDOW_SIZE, current + 1));
+        }
+
+        Optional<Long> percentile(double percentile, int minSamples) {
+            final var size = count.get();
+            if (size < minSamples || size == 0) {
+                return Optional.empty();
+            }
+            final var sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            final var index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return Optional.of(sorted[Math.max(0, Math.min(size - 1, index))]);
+        }
+    }
+}
@@ -18,15 +18,26 @@ import uk.gov.justice.probation.courtcaseservice.restclient.exception.NsiNotFoun
 import uk.gov.justice.probation.courtcaseservice.restclient.exception.OffenderNotFoundException;
 
 import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
 
 import static org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction.clientRegistrationId;
 
 @Slf4j
 @AllArgsConstructor
 public class RestClientHelper {
+    private static final Pattern CRN_SEGMENT = Pattern.compile("[A-Z][0-9]{6}");
+    private static final Pattern ID_SEGMENT = Pattern.compile("[0-9]+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
     private WebClient client;
     private String oauthClient;
     private Boolean disableAuthentication;
+    private RequestHedger requestHedger;
+    // Tags hedging metrics, each endpoint of each downstream API has its own latencies to hedge by
+    private String downstream;
+
+    public RestClientHelper(WebClient client, String oauthClient, Boolean disableAuthentication) {
+        this(client, oauthClient, disableAuthentication, null, oauthClient);
+    }
 
     public WebClient.RequestHeadersSpec<?> get(final String path) {
         return get(path, new LinkedMultiValueMap<>(0));
@@ -57,6 +68,33 @@ public class RestClientHelper {
         return addSpecAuthAttribute(spec, path);
     }
 
+    /**
+     * Optionally hedge an idempotent GET built from this helper for the given path, see {@link RequestHedger}. Must
+     * not be used for requests with side effects, nor for those with large bodies which a hedge would fetch twice.
+     */
+    public <T> Mono<T> hedge(final String path, final Mono<T> request) {
+        if (requestHedger == null) {
+            return request;
+        }
+        return requestHedger.hedge(downstream, uriTemplate(path), request);
+    }
+
+    /**
+     * Paths are built with the CRN and ids already in place, so recover a template from them to keep the number of
+     * distinct uri tags on downstream request metrics small, e.g. /offenders/crn/{crn}/convictions/{id}.
+     */
+    public static String uriTemplate(final String path) {
+        final var segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (CRN_SEGMENT.matcher(segments[i]).matches()) {
+                segments[i] = "{crn}";
+            } else if (ID_SEGMENT.matcher(segments[i]).matches()) {
+                segments[i] = "{id}";
+            }
+        }
+        return String.join("/", segments);
+    }
+
     private RequestHeadersSpec<?> addSpecAuthAttribute(RequestHeadersSpec<?> spec, String path) {
         if (disableAuthentication) {
             log.info(String.format("Skipping authentication with community api for call to %s", path));
@@ -21,15 +21,18 @@ public class OAuth2SecurityConfig extends WebSecurityConfigurerAdapter {
                 .and().oauth2Client()
 
 
+                // /prometheus is denied by the ingress, so is only reachable from inside the cluster
                 .and().authorizeRequests(auth ->
                     auth
                         .mvcMatchers(
                                 "/health",
                                 "/ping",
+                                "/prometheus",
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**"
                         ).permitAll()
+                        .mvcMatchers("/jfr", "/jfr/**", "/archive", "/archive/**").hasRole("PREPARE_A_CASE_ADMIN")
                         .anyRequest().hasRole("PREPARE_A_CASE")
                 ).oauth2ResourceServer().jwt().jwtAuthenticationConverter(new AuthAwareTokenConverter());
     }
@@ -47,7 +47,7 @@ public class BreachService {
         this.sentenceAppearanceCode = sentenceAppearanceCode;
     }
 
-    public BreachResponse getBreach(String crn, Long convictionId, Long breachId) {
+    public Mono<BreachResponse> getBreach(String crn, Long convictionId, Long breachId) {
         return Mono.zip(
                 nsiRestClient.getNsiById(crn, convictionId, breachId),
                 convictionRestClient.getConviction(crn, convictionId),
@@ -58,8 +58,7 @@ public class BreachService {
                     CommunityApiNsi nsi = tuple.getT1();
                     validateBreach(nsi);
                     return NsiMapper.breachOf(nsi, tuple.getT2(), tuple.getT3(), findLatestSentencingCourt(tuple.getT4()));
-                })
-                .block();
+                });
     }
 
     String findLatestSentencingCourt(List<CourtAppearance> courtAppearances) {
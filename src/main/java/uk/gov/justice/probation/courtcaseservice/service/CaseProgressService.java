@@ -1,6 +1,7 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingNotesRepository;
 import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingRepository;
 import uk.gov.justice.probation.courtcaseservice.service.model.CaseProgressHearing;
@@ -20,6 +21,7 @@ public class CaseProgressService {
         this.hearingNotesRepository = hearingNotesRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<CaseProgressHearing> getCaseHearingProgress(String caseId) {
         return hearingRepository.findHearingsByCaseId(caseId)
             .map(hearingEntities -> hearingEntities.stream().map(
@@ -38,24 +38,21 @@ public class ConvictionService {
         this.deliusContactListUrlTemplate = deliusContactListUrlTemplate;
     }
 
-    public SentenceResponse getConvictionOnly(final String crn, final Long convictionId) {
+    public Mono<SentenceResponse> getConvictionOnly(final String crn, final Long convictionId) {
         return convictionRestClient.getConviction(crn, convictionId)
-                .blockOptional()
-                .map(conviction -> combineAttendancesAndUnpaidwork(Collections.emptyList(), conviction))
-                .orElseThrow(() -> new OffenderNotFoundException(crn));
+                .switchIfEmpty(Mono.error(() -> new OffenderNotFoundException(crn)))
+                .map(conviction -> combineAttendancesAndUnpaidwork(Collections.emptyList(), conviction));
     }
 
-    public SentenceResponse getSentence(final String crn, final Long convictionId) {
-        var sentenceMono = Mono.zip(
+    public Mono<SentenceResponse> getSentence(final String crn, final Long convictionId) {
+        return Mono.zip(
                 convictionRestClient.getAttendances(crn, convictionId),
                 convictionRestClient.getConviction(crn, convictionId),
                 convictionRestClient.getSentenceStatus(crn, convictionId),
                 offenderRestClient.getOffender(crn)
-        );
-
-        var tuple4 = sentenceMono.blockOptional().orElseThrow(() -> new OffenderNotFoundException(crn));
-
-        return combineOffenderAndConvictions(tuple4.getT1(), tuple4.getT2(), tuple4.getT3(), tuple4.getT4());
+        )
+                .switchIfEmpty(Mono.error(() -> new OffenderNotFoundException(crn)))
+                .map(tuple4 -> combineOffenderAndConvictions(tuple4.getT1(), tuple4.getT2(), tuple4.getT3(), tuple4.getT4()));
     }
 
     public SentenceStatus getSentenceStatus(final String crn, final Long convictionId) {
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.repository.CourtRepository;
 import uk.gov.justice.probation.courtcaseservice.service.exceptions.DuplicateEntityException;
@@ -26,6 +27,7 @@ public class CourtService {
         return courtRepository.save(courtEntity);
     }
 
+    @Transactional(readOnly = true)
     public List<CourtEntity> getCourts() {
         return courtRepository.findAll()
             .stream()
@@ -0,0 +1,95 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.probation.courtcaseservice.config.H2oModelLoader;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scores offences which were saved without a short term custody predictor score because no model was loaded, e.g.
+ * while the model was loading at startup or after it failed to load, each time a model is loaded. Runs on one replica
+ * at a time, one page of hearings per transaction. A page which fails, e.g. because one of its hearings was updated
+ * by an import while it was being scored, is skipped and left for the next model. Offences the model can't score are
+ * tried again with each model until they are older than the lookback.
+ */
+@Service
+@Slf4j
+public class CustodyRescoringService {
+    static final String JOB_NAME = "custody-rescore";
+    private static final Duration LOCK_DURATION = Duration.ofMinutes(30);
+
+    private final int lookbackDays;
+    private final int pageSize;
+    private final CustodyScoringService custodyScoringService;
+    private final HearingRepository hearingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledJobLock scheduledJobLock;
+
+    @Autowired
+    public CustodyRescoringService(@Value("${h2o.rescore.lookback-days:7}") int lookbackDays,
+                                   @Value("${h2o.rescore.page-size:100}") int pageSize,
+                                   H2oModelLoader modelLoader,
+                                   CustodyScoringService custodyScoringService,
+                                   HearingRepository hearingRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   ScheduledJobLock scheduledJobLock) {
+        this.lookbackDays = lookbackDays;
+        this.pageSize = pageSize;
+        this.custodyScoringService = custodyScoringService;
+        this.hearingRepository = hearingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.scheduledJobLock = scheduledJobLock;
+        modelLoader.onLoad(model -> rescoreUnscoredOffences());
+    }
+
+    public void rescoreUnscoredOffences() {
+        if (!scheduledJobLock.runExclusively(JOB_NAME, LOCK_DURATION, () -> rescore(LocalDateTime.now().minusDays(lookbackDays)))) {
+            log.info("Not scoring unscored offences, another replica is scoring them");
+        }
+    }
+
+    /**
+     * @return the number of hearings scored
+     */
+    int rescore(LocalDateTime createdAfter) {
+        var rescored = 0;
+        var failed = 0;
+        var afterId = Long.MIN_VALUE;
+        List<Long> hearingIds;
+        do {
+            hearingIds = hearingRepository.findIdsWithUnscoredOffences(createdAfter, afterId, pageSize);
+            if (hearingIds.isEmpty()) {
+                break;
+            }
+            final var pageIds = hearingIds;
+            try {
+                // Scores are set on the loaded offences, so are written when the transaction commits
+                transactionTemplate.execute(status -> {
+                    final var hearings = new ArrayList<HearingEntity>(pageIds.size());
+                    hearingRepository.findAllById(pageIds).forEach(hearings::add);
+                    custodyScoringService.scoreOffences(hearings);
+                    return hearings.size();
+                });
+                rescored += hearingIds.size();
+            } catch (RuntimeException e) {
+                log.warn("Unable to score offences of hearings {} to {}, leaving them for the next model", pageIds.get(0),
+                    pageIds.get(pageIds.size() - 1), e);
+                failed += hearingIds.size();
+            }
+            afterId = hearingIds.get(hearingIds.size() - 1);
+        } while (hearingIds.size() == pageSize);
+
+        log.info("Scored offences of {} hearings saved without a short term custody predictor score since {}, {} failed", rescored,
+            createdAfter, failed);
+        return rescored;
+    }
+}
@@ -0,0 +1,100 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.DefendantEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingDayEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenceEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.CourtRepository;
+import uk.gov.justice.probation.courtcaseservice.service.ShortTermCustodyPredictorService.ScoringKey;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sets the short term custody predictor score of offences when their hearing is saved, so that reads never run the
+ * model. Each offence is scored with the name of the court of its hearing's first day, the age of the defendant on
+ * that day and its offence code, and tagged with the version of the model. Offences without an offence code, or which
+ * the model can't score, have no score. Offences saved while no model is loaded are scored by
+ * {@link CustodyRescoringService} once one is.
+ */
+@Slf4j
+@Service
+public class CustodyScoringService {
+
+    private final ShortTermCustodyPredictorService predictorService;
+    private final CourtRepository courtRepository;
+    private final Map<String, String> courtNames = new ConcurrentHashMap<>();
+
+    public CustodyScoringService(ShortTermCustodyPredictorService predictorService, CourtRepository courtRepository) {
+        this.predictorService = predictorService;
+        this.courtRepository = courtRepository;
+    }
+
+    /**
+     * Scores the offences of all the given hearings in one batch, e.g. a hearing being saved or the case list for a
+     * court on a day.
+     */
+    public void scoreOffences(Collection<HearingEntity> hearings) {
+        final var offenceKeys = new ArrayList<Map.Entry<OffenceEntity, ScoringKey>>();
+        hearings.forEach(hearing -> firstHearingDay(hearing)
+            .ifPresent(hearingDay -> courtName(hearingDay.getCourtCode())
+                .ifPresent(courtName -> addOffenceKeys(hearing, hearingDay.getDay(), courtName, offenceKeys))));
+        if (offenceKeys.isEmpty()) {
+            return;
+        }
+
+        try {
+            final var modelScores = predictorService.calculateShortTermCustodyPredictorScores(offenceKeys.stream().map(Map.Entry::getValue).toList());
+            offenceKeys.forEach(offenceKey -> {
+                final var score = modelScores.getScores().get(offenceKey.getValue());
+                offenceKey.getKey().setShortTermCustodyPredictorScore(score);
+                offenceKey.getKey().setShortTermCustodyPredictorModelVersion(score == null ? null : modelScores.getModelVersion());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Unable to score {} offences, saving them without a short term custody predictor score", offenceKeys.size(), e);
+        }
+    }
+
+    private static void addOffenceKeys(HearingEntity hearing, LocalDate hearingDay, String courtName, List<Map.Entry<OffenceEntity, ScoringKey>> offenceKeys) {
+        Optional.ofNullable(hearing.getHearingDefendants()).orElse(Collections.emptyList())
+            .forEach(hearingDefendant -> {
+                final var offenderAge = Optional.ofNullable(hearingDefendant.getDefendant())
+                    .map(DefendantEntity::getDateOfBirth)
+                    .map(dateOfBirth -> Period.between(dateOfBirth, hearingDay).getYears())
+                    .orElse(null);
+                Optional.ofNullable(hearingDefendant.getOffences()).orElse(Collections.emptyList()).stream()
+                    .filter(offence -> offence.getOffenceCode() != null)
+                    .forEach(offence -> offenceKeys.add(Map.entry(offence, new ScoringKey(courtName, offenderAge, offence.getOffenceCode()))));
+            });
+    }
+
+    private static Optional<HearingDayEntity> firstHearingDay(HearingEntity hearing) {
+        return Optional.ofNullable(hearing.getHearingDays()).orElse(Collections.emptyList()).stream()
+            .filter(hearingDay -> hearingDay.getDay() != null && hearingDay.getCourtCode() != null)
+            .min(Comparator.comparing(HearingDayEntity::getDay));
+    }
+
+    // Courts are rarely added and never renamed, so names are kept once found
+    private Optional<String> courtName(String courtCode) {
+        return Optional.ofNullable(courtNames.get(courtCode))
+            .or(() -> courtRepository.findByCourtCode(courtCode)
+                .map(CourtEntity::getName)
+                .filter(Objects::nonNull)
+                .map(name -> {
+                    courtNames.put(courtCode, name);
+                    return name;
+                }));
+    }
+}
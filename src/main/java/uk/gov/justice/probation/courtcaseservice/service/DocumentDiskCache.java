@@ -0,0 +1,259 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.CachedDocument;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.OpenCachedDocument;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Size bounded, least recently used cache of offender documents on local disk. Documents are immutable once created in
+ * Delius so a cached copy never needs revalidating, only evicting.
+ *
+ * Each document is stored under a SHA-256 of its CRN and document ID, not of its content, with a sidecar file holding
+ * the response headers to replay. The index of cached documents is held in memory and rebuilt from the directory on
+ * startup.
+ *
+ * Files are only moved into place, opened and deleted while holding the lock on the cache, and a document is only
+ * opened while it is still the one cached under its key. So once opened, a document being served keeps its content
+ * and length even if it is evicted or downloaded again before it has been read.
+ */
+@Component
+@Slf4j
+public class DocumentDiskCache {
+    private static final String CONTENT_SUFFIX = ".content";
+    private static final String HEADERS_SUFFIX = ".headers";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final List<String> CACHED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_DISPOSITION,
+        HttpHeaders.LAST_MODIFIED, HttpHeaders.ETAG);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSizeBytes;
+
+    // Access ordered so iteration starts from the least recently used document
+    private final Map<String, CachedDocument> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes = 0;
+
+    public DocumentDiskCache(@Value("${offender-documents.cache.enabled:false}") boolean enabled,
+                             @Value("${offender-documents.cache.directory:${java.io.tmpdir}/offender-documents}") String directory,
+                             @Value("${offender-documents.cache.max-size-bytes:1073741824}") long maxSizeBytes) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.toString().endsWith(PARTIAL_SUFFIX))
+                .forEach(this::deleteQuietly);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.toString().endsWith(CONTENT_SUFFIX))
+                .sorted(Comparator.comparing(this::lastModified))
+                .forEach(this::loadEntry);
+        }
+        synchronized (this) {
+            evict();
+        }
+        log.info("Loaded {} cached documents ({} bytes) from {}", index.size(), sizeBytes, directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Optional<CachedDocument> get(String crn, String documentId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index.get(keyFor(crn, documentId)));
+    }
+
+    /**
+     * The document opened for reading, which the caller must close. Empty if it has been evicted or replaced since it
+     * was got from the cache.
+     */
+    public synchronized Optional<OpenCachedDocument> open(CachedDocument document) {
+        if (!document.equals(index.get(document.getKey()))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new OpenCachedDocument(document, FileChannel.open(document.getPath(), StandardOpenOption.READ)));
+        } catch (IOException e) {
+            // Deleted from outside the cache, so download it again
+            log.warn("Unable to open cached document {}", document.getKey(), e);
+            index.remove(document.getKey());
+            sizeBytes -= document.getLength();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write the document body to disk as it is received and add it to the cache once complete. The body is never
+     * held in memory.
+     */
+    public Mono<CachedDocument> put(String crn, String documentId, HttpHeaders headers, Flux<DataBuffer> body) {
+        final var key = keyFor(crn, documentId);
+        final var partial = directory.resolve(key + "." + UUID.randomUUID() + PARTIAL_SUFFIX);
+
+        return DataBufferUtils.write(body, partial)
+            .then(Mono.fromCallable(() -> commit(key, partial, headers)).subscribeOn(Schedulers.boundedElastic()))
+            .doOnError(e -> deleteQuietly(partial))
+            .doOnCancel(() -> deleteQuietly(partial));
+    }
+
+    synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    private CachedDocument commit(String key, Path partial, HttpHeaders headers) throws IOException {
+        final var content = contentPath(key);
+        writeHeaders(headersPath(key), headers);
+
+        synchronized (this) {
+            // Replacing the content of a document being read leaves the reader with the old file
+            Files.move(partial, content, ATOMIC_MOVE, REPLACE_EXISTING);
+            final var document = buildDocument(key, content, cacheableHeaders(headers));
+            Optional.ofNullable(index.put(key, document))
+                .ifPresent(previous -> sizeBytes -= previous.getLength());
+            sizeBytes += document.getLength();
+            evict();
+            return document;
+        }
+    }
+
+    // Always keeps the most recently used document, even if it alone exceeds the limit, as it is about to be served.
+    // Documents still being read are deleted too, as their open files stay readable until closed.
+    private void evict() {
+        final var iterator = index.values().iterator();
+        while (sizeBytes > maxSizeBytes && index.size() > 1) {
+            final var eldest = iterator.next();
+            iterator.remove();
+            sizeBytes -= eldest.getLength();
+            deleteQuietly(eldest.getPath());
+            deleteQuietly(headersPath(eldest.getKey()));
+            log.debug("Evicted cached document {} ({} bytes)", eldest.getKey(), eldest.getLength());
+        }
+    }
+
+    private void loadEntry(Path content) {
+        final var fileName = content.getFileName().toString();
+        final var key = fileName.substring(0, fileName.length() - CONTENT_SUFFIX.length());
+        try {
+            final var document = buildDocument(key, content, readHeaders(headersPath(key)));
+            synchronized (this) {
+                index.put(key, document);
+                sizeBytes += document.getLength();
+            }
+        } catch (IOException e) {
+            log.warn("Discarding unreadable cached document {}", key, e);
+            deleteQuietly(content);
+            deleteQuietly(headersPath(key));
+        }
+    }
+
+    private CachedDocument buildDocument(String key, Path content, HttpHeaders headers) throws IOException {
+        return CachedDocument.builder()
+            .key(key)
+            .path(content)
+            .length(Files.size(content))
+            .headers(headers)
+            .build();
+    }
+
+    private HttpHeaders cacheableHeaders(HttpHeaders headers) {
+        final var cacheable = new HttpHeaders();
+        CACHED_HEADERS.forEach(name -> Optional.ofNullable(headers.getFirst(name))
+            .ifPresent(value -> cacheable.set(name, value)));
+        return cacheable;
+    }
+
+    private void writeHeaders(Path path, HttpHeaders headers) throws IOException {
+        final var properties = new Properties();
+        cacheableHeaders(headers).toSingleValueMap().forEach(properties::setProperty);
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            properties.store(outputStream, null);
+        }
+    }
+
+    private HttpHeaders readHeaders(Path path) throws IOException {
+        final var properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            properties.load(inputStream);
+        }
+        final var headers = new HttpHeaders();
+        properties.stringPropertyNames().forEach(name -> headers.set(name, properties.getProperty(name)));
+        return headers;
+    }
+
+    private Path contentPath(String key) {
+        return directory.resolve(key + CONTENT_SUFFIX);
+    }
+
+    private Path headersPath(String key) {
+        return directory.resolve(key + HEADERS_SUFFIX);
+    }
+
+    private FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete cached document file {}", path, e);
+        }
+    }
+
+    static String keyFor(String crn, String documentId) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256")
+                .digest((crn + ":" + documentId).getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -2,23 +2,168 @@ package uk.gov.justice.probation.courtcaseservice.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.restclient.DocumentRestClient;
+import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClientFactory;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.CachedDocument;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class DocumentService {
 
+    private static final int DOCUMENT_BUFFER_PREFETCH = 4;
+
     private final DocumentRestClient documentRestClient;
+    private final OffenderRestClientFactory offenderRestClientFactory;
+    private final DocumentDiskCache documentDiskCache;
+
+    // Downloads into the cache under way, by cache key, so that concurrent requests for a document share one
+    private final Map<String, Mono<CachedDocument>> downloads = new ConcurrentHashMap<>();
 
     @Autowired
-    public DocumentService(final DocumentRestClient defaultClient) {
+    public DocumentService(final DocumentRestClient defaultClient,
+                           final OffenderRestClientFactory offenderRestClientFactory,
+                           final DocumentDiskCache documentDiskCache) {
         this.documentRestClient = defaultClient;
+        this.offenderRestClientFactory = offenderRestClientFactory;
+        this.documentDiskCache = documentDiskCache;
+    }
+
+    /**
+     * Get a document for streaming to the client. When the disk cache is enabled the document is served from disk,
+     * being downloaded in full first if it is not already cached, after checking with community-api that the current
+     * user may access the offender.
+     *
+     * Must be called on the request thread, as the access check is made on behalf of the current user.
+     */
+    public Mono<ResponseEntity<StreamingResponseBody>> getDocument(String crn, String documentId, @Nullable String range) {
+        if (!documentDiskCache.isEnabled()) {
+            return documentRestClient.getDocument(crn, documentId, range)
+                .map(document -> ResponseEntity.status(document.getStatusCode())
+                    .headers(document.getHeaders())
+                    .body(streamingBody(document.getBody())));
+        }
+
+        // Throws ForbiddenException if the user is excluded from this offender
+        final var accessCheck = offenderRestClientFactory.buildUserAwareOffenderRestClient().getOffender(crn);
+        return accessCheck
+            .then(Mono.defer(() -> documentDiskCache.get(crn, documentId)
+                .map(Mono::just)
+                .orElseGet(() -> fetchIntoCache(crn, documentId))))
+            .map(document -> fromCache(crn, documentId, document, range));
+    }
+
+    private Mono<CachedDocument> fetchIntoCache(String crn, String documentId) {
+        return downloads.computeIfAbsent(DocumentDiskCache.keyFor(crn, documentId), key -> {
+            log.debug("Document {} for CRN {} not cached, fetching from community-api", documentId, crn);
+            return documentRestClient.getDocument(crn, documentId, null)
+                .flatMap(document -> documentDiskCache.put(crn, documentId, document.getHeaders(), document.getBody()))
+                .doFinally(signal -> downloads.remove(key))
+                .share();
+        });
+    }
+
+    private ResponseEntity<StreamingResponseBody> fromCache(String crn, String documentId, CachedDocument document, @Nullable String range) {
+        final var length = document.getLength();
+        final var headers = new HttpHeaders();
+        headers.putAll(document.getHeaders());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        final Optional<HttpRange> httpRange;
+        try {
+            httpRange = Optional.ofNullable(range)
+                .map(HttpRange::parseRanges)
+                .filter(ranges -> ranges.size() == 1)
+                .map(ranges -> ranges.get(0));
+            httpRange.ifPresent(value -> value.getRangeStart(length));
+        } catch (IllegalArgumentException e) {
+            headers.set(HttpHeaders.CONTENT_RANGE, String.format("bytes */%d", length));
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+
+        // Multiple ranges are rare for documents so we return the whole document, which is permitted by RFC 7233
+        if (httpRange.isEmpty()) {
+            headers.setContentLength(length);
+            return ResponseEntity.ok().headers(headers).body(fileBody(crn, documentId, document, 0, length));
+        }
+
+        final var start = httpRange.get().getRangeStart(length);
+        final var end = httpRange.get().getRangeEnd(length);
+        headers.set(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, length));
+        headers.setContentLength(end - start + 1);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(fileBody(crn, documentId, document, start, end - start + 1));
+    }
+
+    /**
+     * Copies straight from the file to the response with FileChannel.transferTo, without staging through the heap.
+     * The file is only opened once the body is written, so nothing is left open if it never is, e.g. when the client
+     * has gone. A document evicted before then is streamed from community-api instead, as documents never change.
+     */
+    private StreamingResponseBody fileBody(String crn, String documentId, CachedDocument document, long position, long count) {
+        return outputStream -> {
+            if (count == 0) {
+                return;
+            }
+            final var opened = documentDiskCache.open(document);
+            if (opened.isEmpty()) {
+                log.debug("Document {} for CRN {} evicted before it was served, streaming from community-api", documentId, crn);
+                writeFromCommunityApi(crn, documentId, position, count, outputStream);
+                return;
+            }
+            try (var openedDocument = opened.get()) {
+                final var fileChannel = openedDocument.getChannel();
+                final var target = Channels.newChannel(outputStream);
+                var transferred = 0L;
+                while (transferred < count) {
+                    final var written = fileChannel.transferTo(position + transferred, count - transferred, target);
+                    if (written <= 0) {
+                        break;
+                    }
+                    transferred += written;
+                }
+            }
+        };
+    }
+
+    private void writeFromCommunityApi(String crn, String documentId, long position, long count, OutputStream outputStream) throws IOException {
+        final var range = String.format("bytes=%d-%d", position, position + count - 1);
+        final var document = documentRestClient.getDocument(crn, documentId, range)
+            .blockOptional()
+            .orElseThrow(() -> new IOException(String.format("Document %s for CRN %s is no longer available", documentId, crn)));
+        streamingBody(document.getBody()).writeTo(outputStream);
     }
 
-    public ResponseEntity<Resource> getDocument(String crn, String documentId) {
-        return documentRestClient.getDocument(crn, documentId).block();
+    /**
+     * Writes the document to the client as it arrives from community-api. Closing the stream cancels the upstream
+     * request, so a client disconnect stops the download and only a few buffers are ever held in memory.
+     */
+    private static StreamingResponseBody streamingBody(Flux<DataBuffer> body) {
+        return outputStream -> {
+            try (Stream<DataBuffer> buffers = body.toStream(DOCUMENT_BUFFER_PREFETCH)) {
+                final var iterator = buffers.iterator();
+                while (iterator.hasNext()) {
+                    try (var inputStream = iterator.next().asInputStream(true)) {
+                        inputStream.transferTo(outputStream);
+                    }
+                }
+            }
+        };
     }
 }
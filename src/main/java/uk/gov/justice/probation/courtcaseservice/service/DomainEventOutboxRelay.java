@@ -0,0 +1,210 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchRequestEntry;
+import com.amazonaws.services.sns.model.PublishBatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.justice.hmpps.sqs.HmppsTopic;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.DomainEventOutboxEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.DomainEventOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes domain events from the outbox to SNS, up to 10 per request. Runs on one replica at a time, and replicas
+ * which find another relaying poll less often until they take over. Each hearing's events are published in the order
+ * they were written, one per batch, and a hearing whose oldest event is failing waits for it to be retried. An event
+ * which fails max-attempts times is marked as failed and left for investigation, so that the hearing's later events
+ * are published. Events are published at least once: an event may be sent again if this replica stops between
+ * publishing it and marking it as published. Published events are purged each night once past their retention.
+ */
+@Service
+@Slf4j
+public class DomainEventOutboxRelay {
+    static final String JOB_NAME = "domain-event-outbox-relay";
+    static final String PURGE_JOB_NAME = "domain-event-outbox-purge";
+    static final String OUTBOX_LAG_METRIC = "domain.events.outbox.lag";
+    static final String FAILED_EVENTS_METRIC = "domain.events.outbox.failed";
+    // SNS limit for a publish batch
+    private static final int MAX_ENTRIES_PER_BATCH = 10;
+    private static final String EVENT_TYPE_KEY = "eventType";
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+    private static final Duration PURGE_LOCK_DURATION = Duration.ofMinutes(30);
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final boolean enabled;
+    private final int fetchSize;
+    private final Duration lockDuration;
+    private final Duration interval;
+    private final Duration maxBackOff;
+    private final int maxAttempts;
+    private final int retentionDays;
+    private final HmppsTopic topic;
+    private final DomainEventOutboxRepository domainEventOutboxRepository;
+    private final ScheduledJobLock scheduledJobLock;
+    private final Counter failedEvents;
+
+    private volatile LocalDateTime oldestUnpublished;
+    private Duration backOff = Duration.ZERO;
+    private LocalDateTime nextPollAt = LocalDateTime.MIN;
+
+    @Autowired
+    public DomainEventOutboxRelay(@Value("${domain-event-outbox.relay.enabled:true}") boolean enabled,
+                                  @Value("${domain-event-outbox.relay.fetch-size:100}") int fetchSize,
+                                  @Value("${domain-event-outbox.relay.lock-seconds:30}") long lockSeconds,
+                                  @Value("${domain-event-outbox.relay.interval-ms:1000}") long intervalMs,
+                                  @Value("${domain-event-outbox.relay.max-back-off-ms:30000}") long maxBackOffMs,
+                                  @Value("${domain-event-outbox.relay.max-attempts:20}") int maxAttempts,
+                                  @Value("${domain-event-outbox.purge.retention-days:7}") int retentionDays,
+                                  @Qualifier("hmppsDomainEventsTopic") HmppsTopic topic,
+                                  DomainEventOutboxRepository domainEventOutboxRepository,
+                                  ScheduledJobLock scheduledJobLock,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+        this.lockDuration = Duration.ofSeconds(lockSeconds);
+        this.interval = Duration.ofMillis(intervalMs);
+        this.maxBackOff = Duration.ofMillis(maxBackOffMs);
+        this.maxAttempts = maxAttempts;
+        this.retentionDays = retentionDays;
+        this.topic = topic;
+        this.domainEventOutboxRepository = domainEventOutboxRepository;
+        this.scheduledJobLock = scheduledJobLock;
+        Gauge.builder(OUTBOX_LAG_METRIC, this, DomainEventOutboxRelay::getLagSeconds)
+            .description("Age of the oldest domain event waiting to be published")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.failedEvents = Counter.builder(FAILED_EVENTS_METRIC)
+            .description("Domain events given up on after failing to publish max-attempts times")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${domain-event-outbox.relay.interval-ms:1000}")
+    public void relay() {
+        if (!enabled || LocalDateTime.now().isBefore(nextPollAt)) {
+            return;
+        }
+        // Leave time to mark the last batch before the lock runs out
+        if (scheduledJobLock.runExclusively(JOB_NAME, lockDuration, () -> publishPending(LocalDateTime.now().plus(lockDuration.dividedBy(2))))) {
+            backOff = Duration.ZERO;
+        } else {
+            // Another replica is relaying, so poll less often, doubling up to the maximum, until this one gets the lock
+            final var doubled = backOff.isZero() ? interval : backOff.multipliedBy(2);
+            backOff = doubled.compareTo(maxBackOff) < 0 ? doubled : maxBackOff;
+        }
+        nextPollAt = LocalDateTime.now().plus(backOff);
+        oldestUnpublished = domainEventOutboxRepository.findOldestUnpublishedCreated().orElse(null);
+    }
+
+    @Scheduled(cron = "${domain-event-outbox.purge.cron:0 15 2 * * *}")
+    public void purge() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        scheduledJobLock.runExclusively(PURGE_JOB_NAME, PURGE_LOCK_DURATION, () -> purgePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+    }
+
+    /**
+     * @return the number of published events deleted
+     */
+    int purgePublishedBefore(LocalDateTime publishedBefore) {
+        var purged = 0;
+        int batchPurged;
+        do {
+            batchPurged = domainEventOutboxRepository.deletePublishedBefore(publishedBefore, PURGE_BATCH_SIZE);
+            purged += batchPurged;
+        } while (batchPurged == PURGE_BATCH_SIZE);
+        log.info("Purged {} domain events published before {}", purged, publishedBefore);
+        return purged;
+    }
+
+    /**
+     * @return the number of events published
+     */
+    int publishPending(LocalDateTime deadline) {
+        var published = 0;
+        List<DomainEventOutboxEntity> events;
+        do {
+            events = domainEventOutboxRepository.findNextToPublish(LocalDateTime.now(), fetchSize);
+            for (int start = 0; start < events.size(); start += MAX_ENTRIES_PER_BATCH) {
+                published += publishBatch(events.subList(start, Math.min(start + MAX_ENTRIES_PER_BATCH, events.size())));
+            }
+        } while (!events.isEmpty() && LocalDateTime.now().isBefore(deadline));
+
+        if (published > 0) {
+            log.debug("Published {} domain events", published);
+        }
+        return published;
+    }
+
+    double getLagSeconds() {
+        final var oldest = oldestUnpublished;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0);
+    }
+
+    private int publishBatch(List<DomainEventOutboxEntity> events) {
+        final var entries = events.stream()
+            .map(event -> new PublishBatchRequestEntry()
+                .withId(String.valueOf(event.getId()))
+                .withMessage(event.getMessage())
+                .withMessageAttributes(Map.of(EVENT_TYPE_KEY,
+                    new MessageAttributeValue().withDataType("String").withStringValue(event.getEventType()))))
+            .toList();
+
+        final PublishBatchResult result;
+        try {
+            result = topic.getSnsClient().publishBatch(new PublishBatchRequest()
+                .withTopicArn(topic.getArn())
+                .withPublishBatchRequestEntries(entries));
+        } catch (AmazonClientException e) {
+            log.warn("Unable to publish {} domain events", events.size(), e);
+            events.forEach(event -> markFailed(event, e.getMessage()));
+            return 0;
+        }
+
+        final var publishedIds = result.getSuccessful().stream()
+            .map(entry -> Long.valueOf(entry.getId()))
+            .toList();
+        if (!publishedIds.isEmpty()) {
+            domainEventOutboxRepository.markPublished(publishedIds, LocalDateTime.now());
+        }
+
+        final var eventsById = events.stream()
+            .collect(Collectors.toMap(DomainEventOutboxEntity::getId, Function.identity()));
+        result.getFailed().forEach(failure ->
+            markFailed(eventsById.get(Long.valueOf(failure.getId())), failure.getCode() + ": " + failure.getMessage()));
+        return publishedIds.size();
+    }
+
+    private void markFailed(DomainEventOutboxEntity event, String error) {
+        final var attempts = event.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Domain event {} for hearing {} failed to publish {} times, giving up: {}",
+                event.getId(), event.getHearingId(), attempts, error);
+            final var now = LocalDateTime.now();
+            domainEventOutboxRepository.markFailed(event.getId(), now, error, now);
+            failedEvents.increment();
+            return;
+        }
+        final var delay = Duration.ofSeconds(1L << Math.min(attempts, 16));
+        final var nextAttemptAt = LocalDateTime.now().plus(delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY);
+        log.warn("Domain event {} for hearing {} failed to publish {} times, next attempt at {}: {}",
+            event.getId(), event.getHearingId(), attempts, nextAttemptAt, error);
+        domainEventOutboxRepository.markFailed(event.getId(), nextAttemptAt, error, null);
+    }
+}
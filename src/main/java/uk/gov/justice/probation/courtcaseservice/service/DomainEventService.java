@@ -1,27 +1,27 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
-import com.amazonaws.services.sns.model.MessageAttributeValue;
-import com.amazonaws.services.sns.model.PublishRequest;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import uk.gov.justice.hmpps.sqs.HmppsTopic;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.DefendantEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.DomainEventOutboxRepository;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.DomainEventMessage;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.DomainEventType;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.PersonReference;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.PersonReferenceType;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 
+/**
+ * Writes domain events to the outbox in the caller's transaction, so they are kept only if the hearing is saved.
+ * {@link DomainEventOutboxRelay} publishes them to SNS.
+ */
 @Slf4j
 @Service
 @NoArgsConstructor
@@ -29,15 +29,14 @@ public class DomainEventService {
     private  ObjectMapper objectMapper;
     @Value("${ingress.url}")
     private  String host;
-    private final String EVENT_TYPE_KEY = "eventType";
 
     final String HEARING_BY_HEARING_ID_TEMPLATE = "https://%s/hearing/%s";
-    private HmppsTopic topic;
+    private DomainEventOutboxRepository domainEventOutboxRepository;
 
     @Autowired
-    public DomainEventService(ObjectMapper objectMapper, @Qualifier("hmppsDomainEventsTopic") HmppsTopic topic) {
+    public DomainEventService(ObjectMapper objectMapper, DomainEventOutboxRepository domainEventOutboxRepository) {
         this.objectMapper = objectMapper;
-        this.topic = topic;
+        this.domainEventOutboxRepository = domainEventOutboxRepository;
     }
 
     void emitSentencedEvent(HearingEntity hearingEntity) {
@@ -59,13 +58,14 @@ public class DomainEventService {
                                     .build())
                             .build();
 
-                    var sentencedEventMessageAttribute = new MessageAttributeValue().withDataType("String").withStringValue(sentencedEventType.getEventTypeName());
+                    var deduplicationKey = String.join(":", sentencedEventType.getEventTypeName(),
+                            hearingEntity.getHearingId(), hearingDefendantEntity.getDefendantId());
 
                     try {
-                        PublishRequest publishRequest = new PublishRequest(topic.getArn(), objectMapper.writeValueAsString(sentencedEventMessage))
-                                .withMessageAttributes(Collections.singletonMap(EVENT_TYPE_KEY, sentencedEventMessageAttribute));
-
-                        topic.getSnsClient().publish(publishRequest);
+                        if (domainEventOutboxRepository.insertIfNotPending(hearingEntity.getHearingId(), sentencedEventType.getEventTypeName(),
+                                deduplicationKey, objectMapper.writeValueAsString(sentencedEventMessage), occurredAt) == 0) {
+                            log.debug("Sentenced event {} is already waiting to be published", deduplicationKey);
+                        }
                     } catch (JsonProcessingException e) {
                         log.error("Failed to emit a sentenced event %s", e);
                     }
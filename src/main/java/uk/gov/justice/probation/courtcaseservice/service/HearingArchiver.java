@@ -0,0 +1,96 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingArchiveRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Moves court cases with no hearings since the retention horizon, deleted court cases and deleted hearings out of the
+ * live tables each night, keeping the indexes behind the case list small. Runs on one replica at a time, one batch of
+ * court cases per transaction with a pause between, until every court case has been checked or the lock is half
+ * spent. A run which stops part way through is carried on by the next. Each court case archived or restored is
+ * recorded in ARCHIVE_LOG.
+ */
+@Service
+@Slf4j
+public class HearingArchiver {
+    static final String JOB_NAME = "hearing-archive";
+
+    private final boolean enabled;
+    private final int horizonMonths;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration lockDuration;
+    private final HearingArchiveRepository hearingArchiveRepository;
+    private final ScheduledJobLock scheduledJobLock;
+
+    @Autowired
+    public HearingArchiver(@Value("${hearing-archive.enabled:false}") boolean enabled,
+                           @Value("${hearing-archive.horizon-months:24}") int horizonMonths,
+                           @Value("${hearing-archive.batch-size:200}") int batchSize,
+                           @Value("${hearing-archive.pause-ms:500}") long pauseMs,
+                           @Value("${hearing-archive.lock-minutes:60}") long lockMinutes,
+                           HearingArchiveRepository hearingArchiveRepository,
+                           ScheduledJobLock scheduledJobLock) {
+        this.enabled = enabled;
+        this.horizonMonths = horizonMonths;
+        this.batchSize = batchSize;
+        this.pause = Duration.ofMillis(pauseMs);
+        this.lockDuration = Duration.ofMinutes(lockMinutes);
+        this.hearingArchiveRepository = hearingArchiveRepository;
+        this.scheduledJobLock = scheduledJobLock;
+    }
+
+    @Scheduled(cron = "${hearing-archive.cron:0 30 1 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        scheduledJobLock.runExclusively(JOB_NAME, lockDuration, () -> {
+            final var now = LocalDateTime.now();
+            archive(now.toLocalDate().minusMonths(horizonMonths), now.plus(lockDuration.dividedBy(2)));
+        });
+    }
+
+    /**
+     * @return the number of court cases checked
+     */
+    int archive(LocalDate expiredBefore, LocalDateTime deadline) {
+        var checked = 0;
+        int batchChecked;
+        do {
+            batchChecked = hearingArchiveRepository.archiveNextCourtCases(batchSize, expiredBefore, JOB_NAME + ":" + scheduledJobLock.getInstanceId());
+            checked += batchChecked;
+        } while (batchChecked == batchSize && LocalDateTime.now().isBefore(deadline) && pause());
+
+        log.info("Checked {} court cases for hearings before {} to archive{}", checked, expiredBefore,
+            batchChecked == batchSize ? ", the rest will be checked in the next run" : "");
+        return checked;
+    }
+
+    /**
+     * @return the number of hearings restored
+     */
+    public int restore(String caseId, String restoredBy) {
+        final var restored = hearingArchiveRepository.restoreCourtCase(caseId, restoredBy);
+        log.info("Restored {} archived hearings of case {} for {}", restored, caseId, restoredBy);
+        return restored;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
+import uk.gov.justice.probation.courtcaseservice.application.jfr.HearingSaveEvent;
 import uk.gov.justice.probation.courtcaseservice.controller.exceptions.ConflictingInputException;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.*;
 import uk.gov.justice.probation.courtcaseservice.jpa.repository.CourtCaseRepository;
@@ -39,6 +40,7 @@ public class ImmutableCourtCaseService implements CourtCaseService {
     private final GroupedOffenderMatchRepository matchRepository;
     private final DomainEventService domainEventService;
     private final CourtCaseRepository courtCaseRepository;
+    private final CustodyScoringService custodyScoringService;
 
     @Autowired
     public ImmutableCourtCaseService(CourtRepository courtRepository,
@@ -46,13 +48,15 @@ public class ImmutableCourtCaseService implements CourtCaseService {
                                      TelemetryService telemetryService,
                                      GroupedOffenderMatchRepository matchRepository,
                                      DomainEventService domainEventService,
-                                     CourtCaseRepository courtCaseRepository) {
+                                     CourtCaseRepository courtCaseRepository,
+                                     CustodyScoringService custodyScoringService) {
         this.courtRepository = courtRepository;
         this.hearingRepositoryFacade = hearingRepositoryFacade;
         this.telemetryService = telemetryService;
         this.matchRepository = matchRepository;
         this.domainEventService = domainEventService;
         this.courtCaseRepository = courtCaseRepository;
+        this.custodyScoringService = custodyScoringService;
     }
 
     @Override
@@ -80,6 +84,7 @@ public class ImmutableCourtCaseService implements CourtCaseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public HearingEntity getHearingByCaseNumber(String courtCode, String caseNo, String listNo) throws EntityNotFoundException {
         checkCourtExists(courtCode);
         log.info("Court case requested for court {} for case {}", courtCode, caseNo);
@@ -88,6 +93,7 @@ public class ImmutableCourtCaseService implements CourtCaseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public HearingEntity getHearingByHearingId(String hearingId) throws EntityNotFoundException {
         log.info("Court case requested for hearing ID {}", hearingId);
         return hearingRepositoryFacade.findFirstByHearingId(hearingId)
@@ -95,6 +101,7 @@ public class ImmutableCourtCaseService implements CourtCaseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public HearingEntity getHearingByHearingIdAndDefendantId(String hearingId, String defendantId) throws EntityNotFoundException {
         log.info("Court case requested for hearing ID {} and defendant ID {}", hearingId, defendantId);
         return hearingRepositoryFacade.findByHearingIdAndDefendantId(hearingId, defendantId)
@@ -102,6 +109,7 @@ public class ImmutableCourtCaseService implements CourtCaseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<HearingEntity> filterHearings(String courtCode, LocalDate hearingDay, LocalDateTime createdAfter, LocalDateTime createdBefore) {
         final var court = courtRepository.findByCourtCode(courtCode)
                 .orElseThrow(() -> new EntityNotFoundException("Court %s not found", courtCode));
@@ -109,12 +117,16 @@ public class ImmutableCourtCaseService implements CourtCaseService {
         return hearingRepositoryFacade.findByCourtCodeAndHearingDay(court.getCourtCode(), hearingDay, createdAfter, createdBefore);
     }
 
+    @Transactional(readOnly = true)
     public Optional<LocalDateTime> filterHearingsLastModified(String courtCode, LocalDate searchDate) {
         return hearingRepositoryFacade.findLastModifiedByHearingDay(courtCode, searchDate);
     }
 
     private Mono<HearingEntity> createOrUpdateHearing(String hearingId, final HearingEntity updatedHearing) {
-        var hearing = hearingRepositoryFacade.findFirstByHearingId(hearingId)
+        final var saveEvent = new HearingSaveEvent();
+        saveEvent.begin();
+        var existing = hearingRepositoryFacade.findFirstByHearingId(hearingId);
+        var hearing = existing
             .map(existingHearing -> {
                 trackUpdateEvents(existingHearing, updatedHearing);
                 return existingHearing.update(updatedHearing);
@@ -127,17 +139,33 @@ public class ImmutableCourtCaseService implements CourtCaseService {
                     });
                 return updatedHearing;
             });
+        custodyScoringService.scoreOffences(List.of(hearing));
         log.debug("Saving hearing with ID {}", hearingId);
 
         var savedHearing = hearingRepositoryFacade.save(hearing);
-        return Mono.just(savedHearing)
-            .map(saved -> {
-                if (hasSentencedEventType(saved)) {
-                    log.debug("Emitting sentenced event for hearing with ID {}", hearingId);
-                    domainEventService.emitSentencedEvent(saved);
-                }
-                return saved;
-            });
+        // Written to the outbox here rather than on subscription, so that it is part of this transaction
+        if (hasSentencedEventType(savedHearing)) {
+            log.debug("Emitting sentenced event for hearing with ID {}", hearingId);
+            domainEventService.emitSentencedEvent(savedHearing);
+        }
+        commitSaveEvent(saveEvent, savedHearing, existing.isEmpty());
+        return Mono.just(savedHearing);
+    }
+
+    private static void commitSaveEvent(HearingSaveEvent saveEvent, HearingEntity savedHearing, boolean created) {
+        saveEvent.end();
+        if (!saveEvent.shouldCommit()) {
+            return;
+        }
+        final var hearingDefendants = Optional.ofNullable(savedHearing.getHearingDefendants()).orElse(Collections.emptyList());
+        saveEvent.hearingId = savedHearing.getHearingId();
+        saveEvent.created = created;
+        saveEvent.defendantCount = hearingDefendants.size();
+        saveEvent.offenceCount = hearingDefendants.stream()
+            .mapToInt(hearingDefendant -> Optional.ofNullable(hearingDefendant.getOffences()).map(List::size).orElse(0))
+            .sum();
+        saveEvent.hearingDayCount = Optional.ofNullable(savedHearing.getHearingDays()).map(List::size).orElse(0);
+        saveEvent.commit();
     }
 
     private static void addHearingToCase(HearingEntity updatedHearing, CourtCaseEntity courtCaseEntity) {
@@ -0,0 +1,26 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
+
+import javax.persistence.PostPersist;
+
+/**
+ * Adds offenders to the {@link KnownCrnFilter} as they are created, whether saved directly or cascaded from a defendant.
+ */
+@Component
+public class KnownCrnEntityListener {
+
+    private final KnownCrnFilter knownCrnFilter;
+
+    @Autowired
+    public KnownCrnEntityListener(KnownCrnFilter knownCrnFilter) {
+        this.knownCrnFilter = knownCrnFilter;
+    }
+
+    @PostPersist
+    public void offenderCreated(OffenderEntity offender) {
+        knownCrnFilter.add(offender.getCrn());
+    }
+}
@@ -0,0 +1,134 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of the CRNs in the offender table, so that probation offender events for CRNs we don't hold can be
+ * dropped without a database lookup. A CRN which is not in the filter is certainly not held; one which is in the
+ * filter is held, or is a false positive at about the configured rate, and is looked up as before.
+ *
+ * Until the filter has been loaded it reports every CRN as possibly known. CRNs are never removed, as offenders are
+ * not deleted. Offenders created by other replicas are only added when the filter is refreshed, so a CRN which is not
+ * in the filter is checked again after the refresh set with {@link #refreshOnMiss(Runnable)} before it is rejected.
+ */
+@Component
+public class KnownCrnFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong filtered = new AtomicLong();
+
+    private volatile boolean loaded;
+    private volatile Runnable missRefresher = () -> { };
+
+    @Autowired
+    public KnownCrnFilter(@Value("${offender-service.known-crn-filter.expected-crns:2000000}") long expectedCrns,
+                          @Value("${offender-service.known-crn-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        // Standard Bloom filter sizing: m = -n ln(p) / (ln 2)^2 bits and k = (m / n) ln 2 hash functions
+        final var bits = (long) Math.ceil(-expectedCrns * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedCrns * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    /**
+     * @return false only if the CRN is certainly not in the offender table
+     */
+    public boolean mightBeKnown(String crn) {
+        checked.incrementAndGet();
+        if (!loaded || contains(crn)) {
+            return true;
+        }
+        missRefresher.run();
+        if (contains(crn)) {
+            return true;
+        }
+        filtered.incrementAndGet();
+        return false;
+    }
+
+    public void add(String crn) {
+        final var hash = hash(crn);
+        final var h1 = (int) hash;
+        final var h2 = (int) (hash >>> 32);
+        var added = false;
+        for (int i = 0; i < hashCount; i++) {
+            final var bit = Math.floorMod(h1 + i * h2, bitCount);
+            final var previous = bits.getAndUpdate(bit >>> 6, word -> word | (1L << bit));
+            added |= (previous & (1L << bit)) == 0;
+        }
+        if (added) {
+            size.incrementAndGet();
+        }
+    }
+
+    public void addAll(Collection<String> crns) {
+        crns.forEach(this::add);
+    }
+
+    /**
+     * Sets how CRNs added since the filter was last refreshed are found, before a CRN not in the filter is rejected.
+     */
+    void refreshOnMiss(Runnable missRefresher) {
+        this.missRefresher = missRefresher;
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return the number of distinct CRNs added, less any which were already false positives
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    public long getCheckedCount() {
+        return checked.get();
+    }
+
+    public long getFilteredCount() {
+        return filtered.get();
+    }
+
+    private boolean contains(String crn) {
+        final var hash = hash(crn);
+        final var h1 = (int) hash;
+        final var h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            final var bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a with a final mix so that both halves are usable for double hashing of short CRNs
+    private static long hash(String crn) {
+        var hash = 0xcbf29ce484222325L;
+        for (byte b : crn.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,99 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.OffenderRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Loads the {@link KnownCrnFilter} at startup and adds offenders created by other replicas as they appear, on a
+ * schedule and when a CRN is not found in the filter. Offenders created on this replica are added as they are
+ * persisted by {@link KnownCrnEntityListener}.
+ */
+@Service
+@Slf4j
+public class KnownCrnFilterLoader {
+    static final String CHECKED_METRIC = "offender.events.known.crn.filter.checked";
+    static final String FILTERED_METRIC = "offender.events.known.crn.filter.filtered";
+    static final String SIZE_METRIC = "offender.events.known.crn.filter.size";
+
+    // Offenders are stamped with their created time before their transaction commits, so look back further than that
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(5);
+
+    private final boolean enabled;
+    private final Duration missRefreshInterval;
+    private final KnownCrnFilter knownCrnFilter;
+    private final OffenderRepository offenderRepository;
+
+    private volatile LocalDateTime loadedUpTo;
+
+    @Autowired
+    public KnownCrnFilterLoader(@Value("${offender-service.known-crn-filter.enabled:true}") boolean enabled,
+                                @Value("${offender-service.known-crn-filter.miss-refresh-interval-ms:1000}") long missRefreshIntervalMs,
+                                KnownCrnFilter knownCrnFilter,
+                                OffenderRepository offenderRepository,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.missRefreshInterval = Duration.ofMillis(missRefreshIntervalMs);
+        this.knownCrnFilter = knownCrnFilter;
+        this.offenderRepository = offenderRepository;
+        knownCrnFilter.refreshOnMiss(this::refreshAfterMiss);
+        // The share of events dropped without a lookup is filtered / checked
+        FunctionCounter.builder(CHECKED_METRIC, knownCrnFilter, KnownCrnFilter::getCheckedCount)
+            .description("Probation offender events checked against the known CRN filter")
+            .register(meterRegistry);
+        FunctionCounter.builder(FILTERED_METRIC, knownCrnFilter, KnownCrnFilter::getFilteredCount)
+            .description("Probation offender events dropped as their CRN is not in the offender table")
+            .register(meterRegistry);
+        Gauge.builder(SIZE_METRIC, knownCrnFilter, KnownCrnFilter::getSize)
+            .description("Distinct CRNs in the known CRN filter")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        final var start = LocalDateTime.now();
+        final var crns = offenderRepository.findAllCrns();
+        knownCrnFilter.addAll(crns);
+        loadedUpTo = start;
+        knownCrnFilter.markLoaded();
+        log.info("Loaded {} CRNs into the known CRN filter", crns.size());
+    }
+
+    @Scheduled(fixedDelayString = "${offender-service.known-crn-filter.refresh-interval-ms:60000}",
+        initialDelayString = "${offender-service.known-crn-filter.refresh-interval-ms:60000}")
+    public synchronized void addNewOffenders() {
+        if (loadedUpTo == null) {
+            return;
+        }
+        final var start = LocalDateTime.now();
+        final var crns = offenderRepository.findCrnsCreatedSince(loadedUpTo.minus(COMMIT_LAG));
+        knownCrnFilter.addAll(crns);
+        loadedUpTo = start;
+        log.debug("Added {} recent CRNs to the known CRN filter, which has dropped {} of {} probation offender events",
+            crns.size(), knownCrnFilter.getFilteredCount(), knownCrnFilter.getCheckedCount());
+    }
+
+    /**
+     * Adds offenders created since the last refresh, unless that was within the miss refresh interval, so that events
+     * for an offender just created by another replica are not dropped. Misses within the interval share one refresh.
+     */
+    synchronized void refreshAfterMiss() {
+        if (loadedUpTo != null && !loadedUpTo.plus(missRefreshInterval).isAfter(LocalDateTime.now())) {
+            addNewOffenders();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.MonthlyPartitionRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Keeps monthly partitions of hearing_day and audit_change_log created ahead of the rows written to them, and detaches
+ * audit_change_log partitions older than its retention. Runs on one replica at a time, only in the nightly window and
+ * never at startup, as attaching or detaching a partition locks the whole table on Postgres 11. Partitions are made
+ * months ahead and rows beyond the last one are held in the default partition until their month is created, so a
+ * missed run costs pruning but not writes.
+ */
+@Service
+@Slf4j
+public class MonthlyPartitionMaintainer {
+    static final String JOB_NAME = "monthly-partitions";
+    static final String HEARING_DAY = "hearing_day";
+    static final String AUDIT_CHANGE_LOG = "audit_change_log";
+
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int auditRetentionMonths;
+    private final Duration lockDuration;
+    private final MonthlyPartitionRepository monthlyPartitionRepository;
+    private final ScheduledJobLock scheduledJobLock;
+
+    /**
+     * @param auditRetentionMonths months of audit_change_log to keep attached, or 0 to keep them all
+     */
+    @Autowired
+    public MonthlyPartitionMaintainer(@Value("${monthly-partitions.enabled:true}") boolean enabled,
+                                      @Value("${monthly-partitions.months-ahead:3}") int monthsAhead,
+                                      @Value("${monthly-partitions.audit-retention-months:0}") int auditRetentionMonths,
+                                      @Value("${monthly-partitions.lock-seconds:300}") long lockSeconds,
+                                      MonthlyPartitionRepository monthlyPartitionRepository,
+                                      ScheduledJobLock scheduledJobLock) {
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.auditRetentionMonths = auditRetentionMonths;
+        this.lockDuration = Duration.ofSeconds(lockSeconds);
+        this.monthlyPartitionRepository = monthlyPartitionRepository;
+        this.scheduledJobLock = scheduledJobLock;
+    }
+
+    @Scheduled(cron = "${monthly-partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        scheduledJobLock.runExclusively(JOB_NAME, lockDuration, this::createAndDetachPartitions);
+    }
+
+    private void createAndDetachPartitions() {
+        final var thisMonth = LocalDate.now().withDayOfMonth(1);
+        final var lastMonth = thisMonth.plusMonths(monthsAhead);
+        createPartitions(HEARING_DAY, HEARING_DAY, thisMonth, lastMonth);
+        createPartitions(AUDIT_CHANGE_LOG, "created", thisMonth, lastMonth);
+        if (auditRetentionMonths > 0) {
+            final var detached = monthlyPartitionRepository.detachPartitions(AUDIT_CHANGE_LOG, thisMonth.minusMonths(auditRetentionMonths));
+            if (detached > 0) {
+                log.info("Detached {} {} partitions older than {} months", detached, AUDIT_CHANGE_LOG, auditRetentionMonths);
+            }
+        }
+    }
+
+    private void createPartitions(String table, String partitionColumn, LocalDate fromMonth, LocalDate toMonth) {
+        final var created = monthlyPartitionRepository.createPartitions(table, partitionColumn, fromMonth, toMonth);
+        if (created > 0) {
+            log.info("Created {} {} partitions up to {}", created, table, toMonth);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.retry.annotation.Retryable;
@@ -9,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.annotation.RequestScope;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.controller.model.GroupedOffenderMatchesRequest;
 import uk.gov.justice.probation.courtcaseservice.controller.model.OffenderMatchDetail;
@@ -31,7 +34,6 @@ import uk.gov.justice.probation.courtcaseservice.service.model.Sentence;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -45,6 +47,10 @@ public class OffenderMatchService {
     private final CourtCaseRepository courtCaseRepository;
     private final HearingRepository hearingRepository;
 
+    @Setter
+    @Value("${offender-match.detail-concurrency:4}")
+    private int detailConcurrency = 4;
+
     @Autowired
     public OffenderMatchService(GroupedOffenderMatchRepository groupedOffenderMatchRepository, OffenderRestClientFactory offenderRestClientFactory, CourtCaseRepository courtCaseRepository, HearingRepository hearingRepository) {
         this.groupedOffenderMatchRepository = groupedOffenderMatchRepository;
@@ -53,31 +59,61 @@ public class OffenderMatchService {
         this.hearingRepository = hearingRepository;
     }
 
-    public List<OffenderMatchDetail> getOffenderMatchDetailsByDefendantId(String defendantId) {
+    /**
+     * @throws EntityNotFoundException immediately, rather than from the Mono, if the defendant has no matches
+     */
+    public Mono<List<OffenderMatchDetail>> getOffenderMatchDetailsByDefendantId(String defendantId) {
+
+        return Flux.fromIterable(getCandidateCrns(defendantId))
+                .flatMapSequential(this::getOffenderMatchDetailOrSkip, detailConcurrency)
+                .collectList();
+    }
+
+    /**
+     * Resolve the details of each candidate match concurrently, emitting each one as soon as it is available rather
+     * than in the order the candidates were matched. A candidate whose details can't be fetched is left out.
+     *
+     * @throws EntityNotFoundException immediately, rather than from the Flux, if the defendant has no matches
+     */
+    public Flux<OffenderMatchDetail> streamOffenderMatchDetailsByDefendantId(String defendantId) {
+
+        return Flux.fromIterable(getCandidateCrns(defendantId))
+                .flatMap(this::getOffenderMatchDetailOrSkip, detailConcurrency);
+    }
 
+    private List<String> getCandidateCrns(String defendantId) {
         return groupedOffenderMatchRepository.findFirstByDefendantIdOrderByIdDesc(defendantId)
                 .map(GroupedOffenderMatchesEntity::getOffenderMatches)
                 .map(offenderMatchEntities -> offenderMatchEntities
                         .stream()
                         .map(OffenderMatchEntity::getCrn)
-                        .map(this::getOffenderMatchDetail)
-                        .filter(Objects::nonNull)
                         .collect(Collectors.toList())
                 ).orElseThrow(() -> new EntityNotFoundException(String.format("Defendant %s not found", defendantId)));
     }
 
+    private Mono<OffenderMatchDetail> getOffenderMatchDetailOrSkip(String crn) {
+        return offenderMatchDetail(crn)
+                .onErrorResume(e -> {
+                    log.warn("Unable to get offender match detail for CRN {}, leaving it out of the matches", crn, e);
+                    return Mono.empty();
+                });
+    }
+
     public Optional<Integer> getMatchCountByCaseIdAndDefendant(String caseId, String defendantId) {
         return groupedOffenderMatchRepository.getMatchCountByCaseIdAndDefendant(caseId, defendantId);
     }
 
     OffenderMatchDetail getOffenderMatchDetail(String crn) {
+        return offenderMatchDetail(crn).block();
+    }
+
+    private Mono<OffenderMatchDetail> offenderMatchDetail(String crn) {
         log.debug("Looking for offender detail for CRN :{}", crn);
         return Mono.zip(offenderRestClient.getOffenderMatchDetailByCrn(crn),
                         offenderRestClient.getConvictionsByCrn(crn)
                                 .onErrorResume(OffenderNotFoundException.class, e -> Mono.just(Collections.emptyList())),
                         offenderRestClient.getProbationStatusByCrn(crn))
-                .map(tuple -> addMostRecentEventToOffenderMatch(tuple.getT1(), tuple.getT2(), tuple.getT3()))
-                .block();
+                .mapNotNull(tuple -> addMostRecentEventToOffenderMatch(tuple.getT1(), tuple.getT2(), tuple.getT3()));
     }
 
     private OffenderMatchDetail addMostRecentEventToOffenderMatch(OffenderMatchDetail offenderMatchDetail,
@@ -2,6 +2,7 @@ package uk.gov.justice.probation.courtcaseservice.service;
 
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.annotation.RequestScope;
@@ -9,6 +10,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple3;
+import uk.gov.justice.probation.courtcaseservice.application.ClientDetails;
 import uk.gov.justice.probation.courtcaseservice.controller.model.RequirementsResponse;
 import uk.gov.justice.probation.courtcaseservice.restclient.AssessmentsRestClient;
 import uk.gov.justice.probation.courtcaseservice.restclient.ConvictionRestClient;
@@ -27,6 +29,7 @@ import uk.gov.justice.probation.courtcaseservice.service.model.LicenceCondition;
 import uk.gov.justice.probation.courtcaseservice.service.model.OffenderDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.OffenderManager;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecord;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.PssRequirement;
 import uk.gov.justice.probation.courtcaseservice.service.model.Registration;
@@ -38,11 +41,19 @@ import uk.gov.justice.probation.courtcaseservice.service.model.document.Offender
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.ASSESSMENTS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.BREACHES;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.CONVICTIONS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.DOCUMENTS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.OFFENDER_MANAGERS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.PSR_REPORTS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.REQUIREMENTS;
 
 @SuppressWarnings("ALL")
 @Service
@@ -70,13 +81,28 @@ public class OffenderService {
     @Value("#{'${offender-service.psr-report-codes}'.split(',')}")
     private List<String> psrTypeCodes;
 
+    @Autowired
     public OffenderService(final OffenderRestClientFactory offenderRestClientFactory,
                            final AssessmentsRestClient assessmentsClient,
                            final ConvictionRestClient convictionRestClient,
                            final DocumentRestClient documentRestClient,
                            final DocumentTypeFilter documentTypeFilter,
                            final TelemetryService telemetryService) {
-        this.offenderRestClient = offenderRestClientFactory.buildUserAwareOffenderRestClient();
+        this(offenderRestClientFactory.buildUserAwareOffenderRestClient(), assessmentsClient, convictionRestClient,
+            documentRestClient, documentTypeFilter, telemetryService);
+    }
+
+    /**
+     * For use outside of a request, for example when assembling probation records in the background, with a client
+     * which is not restricted to the current user.
+     */
+    OffenderService(final OffenderRestClient offenderRestClient,
+                    final AssessmentsRestClient assessmentsClient,
+                    final ConvictionRestClient convictionRestClient,
+                    final DocumentRestClient documentRestClient,
+                    final DocumentTypeFilter documentTypeFilter,
+                    final TelemetryService telemetryService) {
+        this.offenderRestClient = offenderRestClient;
         this.convictionRestClient = convictionRestClient;
         this.assessmentsClient = assessmentsClient;
         this.documentRestClient = documentRestClient;
@@ -84,36 +110,53 @@ public class OffenderService {
         this.telemetryService = telemetryService;
     }
 
-    public ProbationRecord getProbationRecord(String crn, boolean applyDocumentFilter) {
+    public Mono<ProbationRecord> getProbationRecord(String crn, boolean applyDocumentFilter) {
+        return getProbationRecord(crn, applyDocumentFilter, ProbationRecordSection.ALL);
+    }
+
+    /**
+     * Get the probation record, fetching only the requested sections. Calls for sections which are not requested are
+     * never made and those sections are left null in the returned record.
+     */
+    public Mono<ProbationRecord> getProbationRecord(String crn, boolean applyDocumentFilter, Set<ProbationRecordSection> sections) {
+        final var includeConvictions = sections.stream()
+            .anyMatch(section -> section == CONVICTIONS || section.isConvictionDetail());
+
         // This Mono resolves to a list of convictions including a list of breaches for each conviction
-        var convictions = offenderRestClient.getConvictionsByCrn(crn)
+        final Mono<List<Conviction>> convictions = includeConvictions ? offenderRestClient.getConvictionsByCrn(crn)
             .flatMapMany(Flux::fromIterable)
             .flatMap(conviction -> {
                 log.debug("getting breaches, requirements and PSR detail for crn {} and conviction id {}", crn, conviction.getConvictionId());
-                return enrichConviction(crn, conviction);
+                return enrichConviction(crn, conviction, sections);
             })
             .collectSortedList(new ConvictionBySentenceComparator()
-                                .thenComparing(Conviction::getConvictionId));
+                                .thenComparing(Conviction::getConvictionId)) : Mono.just(emptyList());
+        final Mono<List<OffenderManager>> offenderManagers = sections.contains(OFFENDER_MANAGERS) ?
+            offenderRestClient.getOffenderManagers(crn) : Mono.just(emptyList());
+        final Mono<GroupedDocuments> documents = sections.contains(DOCUMENTS) ?
+            documentRestClient.getDocumentsByCrn(crn) : Mono.just(GroupedDocuments.builder().convictions(emptyList()).build());
+        final Mono<List<Assessment>> assessments = sections.contains(ASSESSMENTS) ?
+            getAssessments(crn) : Mono.just(emptyList());
 
         // This resolves to a 5 tuple containing the convictions (see above), offender managers, CRN documents and assessments
         // As a check against exclusions only we call getOffender which will return 403 status
-        var zippedResponses = Mono.zip(
+        return Mono.zip(
             convictions,
-            offenderRestClient.getOffenderManagers(crn),
-            documentRestClient.getDocumentsByCrn(crn),
-            getAssessments(crn),
+            offenderManagers,
+            documents,
+            assessments,
             offenderRestClient.getOffender(crn)
-        ).blockOptional()
-            .orElseThrow(() -> new OffenderNotFoundException(crn));
-
-        return buildProbationRecord(
+        )
+            .switchIfEmpty(Mono.error(() -> new OffenderNotFoundException(crn)))
+            .map(zippedResponses -> buildProbationRecord(
                 crn,
-                zippedResponses.getT1(),
-                zippedResponses.getT2(),
-                zippedResponses.getT3().getConvictions(),
+                includeConvictions ? zippedResponses.getT1() : null,
+                sections.contains(OFFENDER_MANAGERS) ? zippedResponses.getT2() : null,
+                sections.contains(DOCUMENTS) ? zippedResponses.getT3().getConvictions() : null,
                 zippedResponses.getT4(),
                 applyDocumentFilter
-        );
+            ))
+            .contextWrite(ClientDetails.currentContext());
     }
 
     private Mono<List<Assessment>> getAssessments(String crn) {
@@ -121,37 +164,52 @@ public class OffenderService {
                 // Degrade gracefully if the offender assessments call fails
                 // Currently any error is ignored. However there is an ongoing discussion about how we should
                 // populate the response based on the type of error we encounter - see PIC-432 for more details.
-                .doOnError(OffenderNotFoundException.class,
-                        e -> telemetryService.trackApplicationDegradationEvent("assessment data missing from probation record (CRN '" + crn + "' not found in oasys)", e, crn))
-                .doOnError(Exception.class,
-                        e -> telemetryService.trackApplicationDegradationEvent("call failed to get assessment data for for CRN '" + crn + "'", e, crn))
-                .onErrorResume((e) -> Mono.just(emptyList()));
+                .onErrorResume(e -> Mono.deferContextual(context -> {
+                    if (e instanceof OffenderNotFoundException notFound) {
+                        telemetryService.trackApplicationDegradationEvent("assessment data missing from probation record (CRN '" + crn + "' not found in oasys)", notFound, crn, context);
+                    }
+                    if (e instanceof Exception exception) {
+                        telemetryService.trackApplicationDegradationEvent("call failed to get assessment data for for CRN '" + crn + "'", exception, crn, context);
+                    }
+                    return Mono.just(emptyList());
+                }));
     }
 
-    private Mono<Conviction> enrichConviction(String crn, Conviction conviction) {
+    private Mono<Conviction> enrichConviction(String crn, Conviction conviction, Set<ProbationRecordSection> sections) {
 
         var convictionId = Long.valueOf(conviction.getConvictionId());
-        var enrichedConvictionMono = Mono.zip(
-            offenderRestClient.getBreaches(crn, convictionId),
-            getConvictionRequirements(crn, conviction),
-            getPsrDetail(crn, conviction));
+        final Mono<List<Breach>> breaches = sections.contains(BREACHES) ?
+            offenderRestClient.getBreaches(crn, convictionId) : Mono.just(emptyList());
+        final Mono<RequirementsResponse> requirements = sections.contains(REQUIREMENTS) ?
+            getConvictionRequirements(crn, conviction) : Mono.just(RequirementsResponse.builder().build());
+        final Mono<List<CourtReport>> psrReports = sections.contains(PSR_REPORTS) ?
+            getPsrDetail(crn, conviction) : Mono.just(emptyList());
+        var enrichedConvictionMono = Mono.zip(breaches, requirements, psrReports);
 
         return enrichedConvictionMono.map(tuple3 -> {
-            addBreachesToConviction(conviction, tuple3.getT1());
-            addRequirementsToConviction(conviction, tuple3.getT2());
-            addPsrCourtReportToConviction(conviction, tuple3.getT3());
+            if (sections.contains(BREACHES)) {
+                addBreachesToConviction(conviction, tuple3.getT1());
+            }
+            if (sections.contains(REQUIREMENTS)) {
+                addRequirementsToConviction(conviction, tuple3.getT2());
+            }
+            if (sections.contains(PSR_REPORTS)) {
+                addPsrCourtReportToConviction(conviction, tuple3.getT3());
+            }
             return conviction;
         });
     }
 
     private ProbationRecord buildProbationRecord(String crn, List<Conviction> convictions, List<OffenderManager> offenderManagers, List<ConvictionDocuments> convictionDocuments, List<Assessment> assessments, final boolean applyDocumentFilter) {
 
-        final ConcurrentMap<String, List<OffenderDocumentDetail>> allConvictionDocuments = groupFilteredDocuments(convictionDocuments, applyDocumentFilter);
-        convictions
-            .forEach((conviction) -> {
-                final String convictionId = conviction.getConvictionId();
-                conviction.setDocuments(allConvictionDocuments.getOrDefault(convictionId, emptyList()));
-            });
+        if (convictions != null && convictionDocuments != null) {
+            final ConcurrentMap<String, List<OffenderDocumentDetail>> allConvictionDocuments = groupFilteredDocuments(convictionDocuments, applyDocumentFilter);
+            convictions
+                .forEach((conviction) -> {
+                    final String convictionId = conviction.getConvictionId();
+                    conviction.setDocuments(allConvictionDocuments.getOrDefault(convictionId, emptyList()));
+                });
+        }
 
         return ProbationRecord.builder()
             .crn(crn)
@@ -196,7 +254,7 @@ public class OffenderService {
         return conviction;
     }
 
-    private ConcurrentMap<String, List<OffenderDocumentDetail>> groupFilteredDocuments(final List<ConvictionDocuments> convictionDocuments, boolean applyDocumentFilter) {
+    ConcurrentMap<String, List<OffenderDocumentDetail>> groupFilteredDocuments(final List<ConvictionDocuments> convictionDocuments, boolean applyDocumentFilter) {
         return convictionDocuments.stream()
             .map(convictionDocument -> ConvictionDocuments.builder()
                 .convictionId(convictionDocument.getConvictionId())
@@ -207,6 +265,14 @@ public class OffenderService {
             .collect(Collectors.toConcurrentMap(ConvictionDocuments::getConvictionId, ConvictionDocuments::getDocuments));
     }
 
+    /**
+     * Completes empty if the current user may see the offender, otherwise errors with ForbiddenException if they are
+     * excluded or restricted, or OffenderNotFoundException if there is no such offender.
+     */
+    public Mono<Void> checkAccess(String crn) {
+        return offenderRestClient.getOffender(crn).then();
+    }
+
     public Mono<OffenderDetail> getOffenderDetail(String crn) {
         return Mono.zip(offenderRestClient.getOffender(crn), offenderRestClient.getProbationStatusByCrn(crn))
                 .map((tuple2) -> OffenderMapper.offenderDetailFrom(tuple2.getT1(), tuple2.getT2()));
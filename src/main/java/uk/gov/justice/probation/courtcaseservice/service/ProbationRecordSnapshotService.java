@@ -0,0 +1,223 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.ProbationRecordSnapshotEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ProbationRecordSnapshotRepository;
+import uk.gov.justice.probation.courtcaseservice.restclient.AssessmentsRestClient;
+import uk.gov.justice.probation.courtcaseservice.restclient.ConvictionRestClient;
+import uk.gov.justice.probation.courtcaseservice.restclient.DocumentRestClient;
+import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClientFactory;
+import uk.gov.justice.probation.courtcaseservice.service.model.Conviction;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecord;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSnapshot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.ASSESSMENTS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.BREACHES;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.CONVICTIONS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.DOCUMENTS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.OFFENDER_MANAGERS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.PSR_REPORTS;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.REQUIREMENTS;
+
+/**
+ * Keeps a snapshot of the full probation record for each CRN in the database, shared by all replicas. Snapshots are
+ * served immediately, however old, and refreshed in the background once they are older than the maximum age or when
+ * a probation offender event arrives for the CRN.
+ *
+ * Snapshots are assembled without user restrictions and hold every section and every document, so callers must check
+ * the current user's access before serving one. Sections and the document filter are applied on read.
+ */
+@Service
+@Slf4j
+public class ProbationRecordSnapshotService {
+
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final ProbationRecordSnapshotRepository repository;
+    private final ObjectMapper objectMapper;
+    private final DocumentTypeFilter documentTypeFilter;
+    private final OffenderService recordAssembler;
+
+    // CRNs with a refresh under way on this replica
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ProbationRecordSnapshotService(@Value("${offender-service.probation-record-snapshot.enabled:false}") boolean enabled,
+                                          @Value("${offender-service.probation-record-snapshot.max-age-seconds:3600}") long maxAgeSeconds,
+                                          @Value("#{'${offender-service.assessment.included-statuses}'.split(',')}") List<String> assessmentStatuses,
+                                          @Value("#{'${offender-service.pss-rqmnt.descriptions-to-keep-subtype}'.split(',')}") List<String> pssRqmntDescriptionsKeepSubType,
+                                          @Value("#{'${offender-service.psr-report-codes}'.split(',')}") List<String> psrTypeCodes,
+                                          final ProbationRecordSnapshotRepository repository,
+                                          final ObjectMapper objectMapper,
+                                          final OffenderRestClientFactory offenderRestClientFactory,
+                                          final AssessmentsRestClient assessmentsClient,
+                                          final ConvictionRestClient convictionRestClient,
+                                          final DocumentRestClient documentRestClient,
+                                          final DocumentTypeFilter documentTypeFilter,
+                                          final TelemetryService telemetryService) {
+        this(enabled, Duration.ofSeconds(maxAgeSeconds), repository, objectMapper, documentTypeFilter,
+            new OffenderService(offenderRestClientFactory.buildUserAgnosticOffenderRestClient(), assessmentsClient,
+                convictionRestClient, documentRestClient, documentTypeFilter, telemetryService));
+        recordAssembler.setAssessmentStatuses(assessmentStatuses);
+        recordAssembler.setPssRqmntDescriptionsKeepSubType(pssRqmntDescriptionsKeepSubType);
+        recordAssembler.setPsrTypeCodes(psrTypeCodes);
+    }
+
+    ProbationRecordSnapshotService(boolean enabled,
+                                   Duration maxAge,
+                                   ProbationRecordSnapshotRepository repository,
+                                   ObjectMapper objectMapper,
+                                   DocumentTypeFilter documentTypeFilter,
+                                   OffenderService recordAssembler) {
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.documentTypeFilter = documentTypeFilter;
+        this.recordAssembler = recordAssembler;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the stored probation record, assembling it first if there is no snapshot for this CRN. A stale snapshot is
+     * returned as is and refreshed in the background.
+     */
+    public ProbationRecordSnapshot getProbationRecord(String crn, boolean applyDocumentFilter, Set<ProbationRecordSection> sections) {
+        final var snapshot = repository.findById(crn)
+            .flatMap(this::toSnapshot)
+            .map(existing -> {
+                if (existing.getAge().compareTo(maxAge) > 0) {
+                    refreshInBackground(crn);
+                }
+                return existing;
+            })
+            .orElseGet(() -> refresh(crn));
+
+        return snapshot.toBuilder()
+            .record(select(snapshot.getRecord(), applyDocumentFilter, sections))
+            .build();
+    }
+
+    /**
+     * Refresh the snapshot for this CRN in the background, if there is one. Offenders nobody has looked at are not
+     * assembled.
+     */
+    public void refreshIfPresent(String crn) {
+        if (enabled && repository.existsById(crn)) {
+            refreshInBackground(crn);
+        }
+    }
+
+    /**
+     * The given CRNs whose snapshots were assembled after the given time.
+     */
+    public Set<String> findAssembledAfter(Collection<String> crns, LocalDateTime assembledAfter) {
+        return crns.isEmpty() ? Set.of() : Set.copyOf(repository.findCrnsAssembledAfter(crns, assembledAfter));
+    }
+
+    void refreshInBackground(String crn) {
+        if (!refreshing.add(crn)) {
+            return;
+        }
+        Mono.fromCallable(() -> refresh(crn))
+            .subscribeOn(Schedulers.boundedElastic())
+            .doFinally(signal -> refreshing.remove(crn))
+            .subscribe(
+                snapshot -> log.debug("Refreshed probation record snapshot for CRN {}", crn),
+                e -> log.warn("Unable to refresh probation record snapshot for CRN {}", crn, e));
+    }
+
+    ProbationRecordSnapshot refresh(String crn) {
+        // Truncated as Postgres only stores microseconds
+        final var assembledAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        final var record = recordAssembler.getProbationRecord(crn, false, ProbationRecordSection.ALL).block();
+        try {
+            repository.upsert(crn, objectMapper.writeValueAsString(record), assembledAt);
+        } catch (JsonProcessingException e) {
+            log.error("Unable to store probation record snapshot for CRN {}", crn, e);
+        }
+        return ProbationRecordSnapshot.builder()
+            .record(record)
+            .assembledAt(assembledAt)
+            .build();
+    }
+
+    private Optional<ProbationRecordSnapshot> toSnapshot(ProbationRecordSnapshotEntity entity) {
+        try {
+            return Optional.of(ProbationRecordSnapshot.builder()
+                .record(objectMapper.treeToValue(entity.getRecord(), ProbationRecord.class))
+                .assembledAt(entity.getAssembledAt())
+                .build());
+        } catch (JsonProcessingException e) {
+            // Most likely the model has changed since the snapshot was stored, so treat it as missing
+            log.warn("Discarding unreadable probation record snapshot for CRN {}", entity.getCrn(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Trim a full, unfiltered record to the requested sections. Sections which are not requested are left null, as
+     * they would be if the record had been assembled with only the requested sections.
+     */
+    private ProbationRecord select(ProbationRecord record, boolean applyDocumentFilter, Set<ProbationRecordSection> sections) {
+        final var includeConvictions = sections.stream()
+            .anyMatch(section -> section == CONVICTIONS || section.isConvictionDetail());
+
+        final var convictions = includeConvictions ? Optional.ofNullable(record.getConvictions())
+            .map(all -> all.stream()
+                .map(conviction -> selectConviction(conviction, applyDocumentFilter, sections))
+                .collect(Collectors.toList()))
+            .orElse(null) : null;
+
+        return ProbationRecord.builder()
+            .crn(record.getCrn())
+            .convictions(convictions)
+            .offenderManagers(sections.contains(OFFENDER_MANAGERS) ? record.getOffenderManagers() : null)
+            .assessment(sections.contains(ASSESSMENTS) ? record.getAssessment() : null)
+            .build();
+    }
+
+    private Conviction selectConviction(Conviction conviction, boolean applyDocumentFilter, Set<ProbationRecordSection> sections) {
+        if (!sections.contains(BREACHES)) {
+            conviction.setBreaches(null);
+        }
+        if (!sections.contains(REQUIREMENTS)) {
+            conviction.setRequirements(null);
+            conviction.setPssRequirements(null);
+            conviction.setLicenceConditions(null);
+        }
+        if (!sections.contains(PSR_REPORTS)) {
+            conviction.setPsrReports(null);
+        }
+        if (!sections.contains(DOCUMENTS)) {
+            conviction.setDocuments(null);
+        }
+        else if (applyDocumentFilter && conviction.getDocuments() != null) {
+            conviction.setDocuments(conviction.getDocuments().stream()
+                .filter(documentTypeFilter)
+                .collect(Collectors.toList()));
+        }
+        return conviction;
+    }
+}
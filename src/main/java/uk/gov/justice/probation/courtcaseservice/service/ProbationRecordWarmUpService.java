@@ -0,0 +1,99 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assembles probation record snapshots each evening for every offender listed in any court the next day, so the first
+ * users in the morning are not waiting on community-api. CRNs whose snapshot was assembled recently are skipped.
+ * Runs on one replica only, once a day as the lock is kept until it runs out, with bounded concurrency and no more
+ * than the configured number of CRNs per second.
+ */
+@Service
+@Slf4j
+public class ProbationRecordWarmUpService {
+    static final String JOB_NAME = "probation-record-warm-up";
+    private static final ZoneId COURT_ZONE = ZoneId.of("Europe/London");
+
+    private final boolean enabled;
+    private final int concurrency;
+    private final Duration interval;
+    private final Duration lockDuration;
+    private final Duration freshFor;
+    private final HearingRepository hearingRepository;
+    private final ScheduledJobLock scheduledJobLock;
+    private final ProbationRecordSnapshotService probationRecordSnapshotService;
+    private final TelemetryService telemetryService;
+
+    @Autowired
+    public ProbationRecordWarmUpService(@Value("${probation-record-warm-up.enabled:false}") boolean enabled,
+                                        @Value("${probation-record-warm-up.concurrency:4}") int concurrency,
+                                        @Value("${probation-record-warm-up.max-crns-per-second:2}") int maxCrnsPerSecond,
+                                        @Value("${probation-record-warm-up.lock-minutes:120}") long lockMinutes,
+                                        @Value("${probation-record-warm-up.fresh-snapshot-hours:12}") long freshSnapshotHours,
+                                        HearingRepository hearingRepository,
+                                        ScheduledJobLock scheduledJobLock,
+                                        ProbationRecordSnapshotService probationRecordSnapshotService,
+                                        TelemetryService telemetryService) {
+        this.enabled = enabled;
+        this.concurrency = concurrency;
+        this.interval = Duration.ofMillis(1000L / Math.max(1, maxCrnsPerSecond));
+        this.lockDuration = Duration.ofMinutes(lockMinutes);
+        this.freshFor = Duration.ofHours(freshSnapshotHours);
+        this.hearingRepository = hearingRepository;
+        this.scheduledJobLock = scheduledJobLock;
+        this.probationRecordSnapshotService = probationRecordSnapshotService;
+        this.telemetryService = telemetryService;
+    }
+
+    @Scheduled(cron = "${probation-record-warm-up.cron:0 0 21 * * *}", zone = "Europe/London")
+    public void warmUpNextCourtDay() {
+        if (!enabled || !probationRecordSnapshotService.isEnabled()) {
+            return;
+        }
+        if (!scheduledJobLock.runOncePerLease(JOB_NAME, lockDuration, () -> warmUp(LocalDate.now(COURT_ZONE).plusDays(1)))) {
+            log.info("Probation record warm-up has already run, or is running, on another instance");
+        }
+    }
+
+    void warmUp(LocalDate hearingDay) {
+        final var start = System.nanoTime();
+        final var listedCrns = hearingRepository.findCrnsByHearingDay(hearingDay);
+        final var freshCrns = probationRecordSnapshotService.findAssembledAfter(listedCrns, LocalDateTime.now().minus(freshFor));
+        final var crns = listedCrns.stream().filter(crn -> !freshCrns.contains(crn)).toList();
+        log.info("Warming up probation records for {} CRNs listed on {}, {} more have fresh snapshots", crns.size(), hearingDay,
+            freshCrns.size());
+
+        final var warmed = new AtomicInteger();
+        final var failed = new AtomicInteger();
+        Flux.fromIterable(crns)
+            .delayElements(interval)
+            .flatMap(crn -> Mono.fromCallable(() -> probationRecordSnapshotService.refresh(crn))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSuccess(snapshot -> warmed.incrementAndGet())
+                .onErrorResume(e -> {
+                    log.warn("Unable to warm up probation record for CRN {}", crn, e);
+                    failed.incrementAndGet();
+                    return Mono.empty();
+                }), concurrency)
+            .blockLast();
+
+        final var duration = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Warmed up {} of {} probation records for {} in {}s, {} failed", warmed.get(), crns.size(), hearingDay,
+            duration.toSeconds(), failed.get());
+        telemetryService.trackProbationRecordWarmUpEvent(hearingDay, listedCrns.size(), freshCrns.size() + warmed.get(), failed.get(), duration);
+    }
+}
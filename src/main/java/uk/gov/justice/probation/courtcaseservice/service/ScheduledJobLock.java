@@ -0,0 +1,68 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ScheduledJobLockRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Runs scheduled jobs on one replica at a time, holding the job's row in scheduled_job_lock while it runs. A replica
+ * which stops part way through a job leaves the lock to run out, so jobs should finish well within their lock duration.
+ */
+@Component
+public class ScheduledJobLock {
+
+    private final ScheduledJobLockRepository scheduledJobLockRepository;
+    private final String instanceId = Objects.requireNonNullElseGet(System.getenv("HOSTNAME"), () -> UUID.randomUUID().toString());
+
+    @Autowired
+    public ScheduledJobLock(ScheduledJobLockRepository scheduledJobLockRepository) {
+        this.scheduledJobLockRepository = scheduledJobLockRepository;
+    }
+
+    /**
+     * Runs the task if the named lock can be taken for the given duration, releasing it when the task ends.
+     *
+     * @return false if the lock is held by another replica and the task was not run
+     */
+    public boolean runExclusively(String lockName, Duration lockDuration, Runnable task) {
+        final var now = LocalDateTime.now();
+        if (scheduledJobLockRepository.tryLock(lockName, now, now.plus(lockDuration), instanceId) != 1) {
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            scheduledJobLockRepository.release(lockName, LocalDateTime.now(), instanceId);
+        }
+        return true;
+    }
+
+    /**
+     * Runs the task if the named lock can be taken for the given duration, keeping it until it runs out whether or not
+     * the task succeeds. For jobs which every replica schedules at the same time but which should run once per
+     * schedule, e.g. daily, as a replica whose clock is a little behind would otherwise run the job again once the
+     * first has finished.
+     *
+     * @return false if the lock is held, by this or another replica, and the task was not run
+     */
+    public boolean runOncePerLease(String lockName, Duration leaseDuration, Runnable task) {
+        final var now = LocalDateTime.now();
+        if (scheduledJobLockRepository.tryLock(lockName, now, now.plus(leaseDuration), instanceId) != 1) {
+            return false;
+        }
+        task.run();
+        return true;
+    }
+
+    /**
+     * Identifies this replica, e.g. as the holder of a lock or in rows written by its jobs.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
@@ -0,0 +1,191 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import com.microsoft.applicationinsights.TelemetryClient;
+import com.microsoft.applicationinsights.telemetry.EventTelemetry;
+import com.microsoft.applicationinsights.web.internal.RequestTelemetryContext;
+import com.microsoft.applicationinsights.web.internal.ThreadContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.probation.courtcaseservice.application.TelemetryProperties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands telemetry events from request threads to a single background thread, which sends them to Application Insights
+ * in batches. The buffer is bounded and lock-free: when it is full, events are dropped and counted rather than
+ * blocking the caller. Callers check {@link #isSampled} before building an event, so that events which are sampled out
+ * or discarded in no-op mode cost nothing. The operation of the request an event is raised in is taken when the event
+ * is buffered, as the background thread has no request, so that events stay correlated with their request. The
+ * operation is the current OpenTelemetry span, which the Application Insights 3.x agent run in production sets, or
+ * else the request telemetry of the 2.x starter, e.g. when run without the agent.
+ */
+@Slf4j
+@Component
+public class TelemetryEventBuffer {
+    static final String DROPPED_EVENTS_METRIC = "telemetry.events.dropped";
+
+    private final TelemetryClient telemetryClient;
+    private final TelemetryProperties.Mode mode;
+    private final int capacity;
+    private final int batchSize;
+    private final long drainIntervalNanos;
+    private final double[] sampleRates;
+    private final Map<TelemetryEventType, Counter> droppedCounters = new EnumMap<>(TelemetryEventType.class);
+    private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    @Autowired
+    public TelemetryEventBuffer(TelemetryClient telemetryClient, TelemetryProperties properties, MeterRegistry meterRegistry) {
+        this.telemetryClient = telemetryClient;
+        this.mode = properties.getMode();
+        this.capacity = properties.getBufferCapacity();
+        this.batchSize = properties.getBatchSize();
+        this.drainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getDrainIntervalMs());
+        this.sampleRates = new double[TelemetryEventType.values().length];
+        for (var eventType : TelemetryEventType.values()) {
+            sampleRates[eventType.ordinal()] = mode == TelemetryProperties.Mode.NOOP ? 0 : properties.getSampleRate(eventType.name());
+            droppedCounters.put(eventType, meterRegistry.counter(DROPPED_EVENTS_METRIC, "eventType", eventType.name()));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (mode != TelemetryProperties.Mode.ASYNC) {
+            return;
+        }
+        running = true;
+        drainer = new Thread(this::drainUntilStopped, "telemetry-event-buffer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (drainer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(5));
+        telemetryClient.flush();
+    }
+
+    /**
+     * @return whether an event of this type should be tracked at all
+     */
+    public boolean isSampled(TelemetryEventType eventType) {
+        final var rate = sampleRates[eventType.ordinal()];
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public void offer(TelemetryEventType eventType, Map<String, String> properties, Map<String, Double> metrics) {
+        if (mode == TelemetryProperties.Mode.NOOP) {
+            return;
+        }
+        if (mode == TelemetryProperties.Mode.SYNC) {
+            telemetryClient.trackEvent(eventType.eventName, properties, metrics);
+            return;
+        }
+        if (!reserve()) {
+            droppedCounters.get(eventType).increment();
+            return;
+        }
+        final var operation = currentOperation();
+        events.offer(new Event(eventType, properties, metrics, operation.id(), operation.parentId()));
+    }
+
+    private static Operation currentOperation() {
+        final var spanContext = Span.current().getSpanContext();
+        if (spanContext.isValid()) {
+            return new Operation(spanContext.getTraceId(), spanContext.getSpanId());
+        }
+        return Optional.ofNullable(ThreadContext.getRequestTelemetryContext())
+            .map(RequestTelemetryContext::getHttpRequestTelemetry)
+            .map(request -> new Operation(request.getContext().getOperation().getId(), request.getId()))
+            .orElse(new Operation(null, null));
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private boolean reserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void drainUntilStopped() {
+        while (running) {
+            try {
+                if (drain() < batchSize) {
+                    LockSupport.parkNanos(drainIntervalNanos);
+                }
+            } catch (Exception e) {
+                log.warn("Unable to send telemetry events", e);
+                LockSupport.parkNanos(drainIntervalNanos);
+            }
+        }
+        while (drain() > 0) {
+            // Send what was buffered before stopping
+        }
+    }
+
+    /**
+     * Send up to one batch of buffered events.
+     *
+     * @return the number of events sent
+     */
+    int drain() {
+        var sent = 0;
+        Event event;
+        while (sent < batchSize && (event = events.poll()) != null) {
+            size.decrementAndGet();
+            track(event);
+            sent++;
+        }
+        return sent;
+    }
+
+    private void track(Event event) {
+        if (event.operationId() == null) {
+            telemetryClient.trackEvent(event.eventType().eventName, event.properties(), event.metrics());
+            return;
+        }
+        final var telemetry = new EventTelemetry(event.eventType().eventName);
+        telemetry.getProperties().putAll(event.properties());
+        telemetry.getMetrics().putAll(event.metrics());
+        telemetry.getContext().getOperation().setId(event.operationId());
+        telemetry.getContext().getOperation().setParentId(event.parentId());
+        telemetryClient.trackEvent(telemetry);
+    }
+
+    private record Operation(String id, String parentId) {
+    }
+
+    private record Event(TelemetryEventType eventType, Map<String, String> properties, Map<String, Double> metrics,
+                         String operationId, String parentId) {
+    }
+}
@@ -14,7 +14,8 @@ public enum TelemetryEventType {
     HEARING_NOTE_ADDED("PicHearingNoteCreated"),
     HEARING_NOTE_DELETED("PicHearingNoteDeleted"),
     OFFENDER_PROBATION_STATUS_UPDATED("PiCOffenderProbationStatusUpdated"),
-    OFFENDER_PROBATION_STATUS_NOT_UPDATED("PiCOffenderProbationStatusNotUpdated")
+    OFFENDER_PROBATION_STATUS_NOT_UPDATED("PiCOffenderProbationStatusNotUpdated"),
+    PROBATION_RECORD_WARM_UP_COMPLETED("PiCProbationRecordWarmUpCompleted")
     ;
 
     final String eventName;
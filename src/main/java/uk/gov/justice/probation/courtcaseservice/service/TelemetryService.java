@@ -1,8 +1,8 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
-import com.microsoft.applicationinsights.TelemetryClient;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.util.context.ContextView;
 import uk.gov.justice.probation.courtcaseservice.application.ClientDetails;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.CaseCommentEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtCaseEntity;
@@ -14,6 +14,8 @@ import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingNoteEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderMatchEntity;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -26,20 +28,43 @@ import static java.util.Optional.ofNullable;
 @Service
 @AllArgsConstructor
 public class TelemetryService {
-    private final TelemetryClient telemetryClient;
+    private final TelemetryEventBuffer telemetryEventBuffer;
 
     private final ClientDetails clientDetails;
 
     void trackApplicationDegradationEvent(String description, Exception exception, String crn) {
+        if (!telemetryEventBuffer.isSampled(TelemetryEventType.GRACEFUL_DEGRADE)) {
+            return;
+        }
 
         Map<String, String> properties = new HashMap<>(3);
         properties.put("description", description);
         properties.put("crn", crn);
         ofNullable(exception).ifPresent((code) -> properties.put("cause", exception.getMessage()));
-        telemetryClient.trackEvent(TelemetryEventType.GRACEFUL_DEGRADE.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(TelemetryEventType.GRACEFUL_DEGRADE, properties, Collections.emptyMap());
+    }
+
+    /**
+     * For use from within a Reactor pipeline, where the user is taken from the Reactor Context rather than the thread.
+     */
+    void trackApplicationDegradationEvent(String description, Exception exception, String crn, ContextView context) {
+        if (!telemetryEventBuffer.isSampled(TelemetryEventType.GRACEFUL_DEGRADE)) {
+            return;
+        }
+
+        Map<String, String> properties = new HashMap<>(5);
+        properties.put("description", description);
+        properties.put("crn", crn);
+        ofNullable(exception).ifPresent((code) -> properties.put("cause", exception.getMessage()));
+        ClientDetails.getUsername(context).ifPresent(username -> properties.put("username", username));
+        ClientDetails.getClientId(context).ifPresent(clientId -> properties.put("clientId", clientId));
+        telemetryEventBuffer.offer(TelemetryEventType.GRACEFUL_DEGRADE, properties, Collections.emptyMap());
     }
 
     void trackCourtCaseEvent(TelemetryEventType eventType, HearingEntity hearingEntity) {
+        if (!telemetryEventBuffer.isSampled(eventType)) {
+            return;
+        }
 
         Map<String, String> properties = new HashMap<>();
 
@@ -65,10 +90,13 @@ public class TelemetryService {
 
         addRequestProperties(properties);
 
-        telemetryClient.trackEvent(eventType.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(eventType, properties, Collections.emptyMap());
     }
 
     void trackCourtCaseCommentEvent(TelemetryEventType eventType, CaseCommentEntity caseCommentEntity) {
+        if (!telemetryEventBuffer.isSampled(eventType)) {
+            return;
+        }
 
         Map<String, String> properties = new HashMap<>();
 
@@ -80,7 +108,7 @@ public class TelemetryService {
 
         addRequestProperties(properties);
 
-        telemetryClient.trackEvent(eventType.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(eventType, properties, Collections.emptyMap());
     }
 
     void trackCreateHearingNoteEvent(TelemetryEventType eventType, HearingNoteEntity hearingNoteEntity) {
@@ -94,6 +122,9 @@ public class TelemetryService {
     }
 
     private void trackHearingNoteEvent(TelemetryEventType eventType, HearingNoteEntity hearingNoteEntity) {
+        if (!telemetryEventBuffer.isSampled(eventType)) {
+            return;
+        }
         Map<String, String> properties = new HashMap<>();
         properties.put("hearingId", hearingNoteEntity.getHearingId());
         properties.put("createdByUuid", hearingNoteEntity.getCreatedByUuid());
@@ -101,10 +132,13 @@ public class TelemetryService {
         properties.put("createdDateTime", hearingNoteEntity.getCreated().toString());
         properties.put("username", hearingNoteEntity.getCreatedBy());
         addRequestProperties(properties);
-        telemetryClient.trackEvent(eventType.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(eventType, properties, Collections.emptyMap());
     }
 
     void trackCourtCaseDefendantEvent(TelemetryEventType eventType, HearingDefendantEntity defendantEntity, String caseId) {
+        if (!telemetryEventBuffer.isSampled(eventType)) {
+            return;
+        }
 
         Map<String, String> properties = new HashMap<>();
 
@@ -119,10 +153,13 @@ public class TelemetryService {
 
         addRequestProperties(properties);
 
-        telemetryClient.trackEvent(eventType.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(eventType, properties, Collections.emptyMap());
     }
 
     public void trackMatchEvent(TelemetryEventType eventType, OffenderMatchEntity matchEntity, HearingEntity hearingEntity, String defendantId) {
+        if (!telemetryEventBuffer.isSampled(eventType)) {
+            return;
+        }
 
         Map<String, String> properties = new HashMap<>();
 
@@ -155,10 +192,13 @@ public class TelemetryService {
 
         addRequestProperties(properties);
 
-        telemetryClient.trackEvent(eventType.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(eventType, properties, Collections.emptyMap());
     }
 
     public void trackOffenderProbationStatusUpdateEvent(OffenderEntity offenderEntity) {
+        if (!telemetryEventBuffer.isSampled(TelemetryEventType.OFFENDER_PROBATION_STATUS_UPDATED)) {
+            return;
+        }
 
         Map<String, String> properties = new HashMap<>();
 
@@ -188,11 +228,14 @@ public class TelemetryService {
 
         addRequestProperties(properties);
 
-        telemetryClient.trackEvent(TelemetryEventType.OFFENDER_PROBATION_STATUS_UPDATED.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(TelemetryEventType.OFFENDER_PROBATION_STATUS_UPDATED, properties, Collections.emptyMap());
     }
 
 
     public void trackOffenderProbationStatusNotUpdateEvent(OffenderEntity offenderEntity) {
+        if (!telemetryEventBuffer.isSampled(TelemetryEventType.OFFENDER_PROBATION_STATUS_NOT_UPDATED)) {
+            return;
+        }
 
         Map<String, String> properties = new HashMap<>();
 
@@ -222,7 +265,23 @@ public class TelemetryService {
 
         addRequestProperties(properties);
 
-        telemetryClient.trackEvent(TelemetryEventType.OFFENDER_PROBATION_STATUS_NOT_UPDATED.eventName, properties, Collections.emptyMap());
+        telemetryEventBuffer.offer(TelemetryEventType.OFFENDER_PROBATION_STATUS_NOT_UPDATED, properties, Collections.emptyMap());
+    }
+
+    // Runs outside of any request so there are no user details to add
+    void trackProbationRecordWarmUpEvent(LocalDate hearingDay, int crns, int warmed, int failed, Duration duration) {
+        if (!telemetryEventBuffer.isSampled(TelemetryEventType.PROBATION_RECORD_WARM_UP_COMPLETED)) {
+            return;
+        }
+
+        Map<String, String> properties = Map.of("hearingDay", hearingDay.toString());
+        Map<String, Double> metrics = Map.of(
+            "crns", (double) crns,
+            "warmed", (double) warmed,
+            "failed", (double) failed,
+            "durationSeconds", (double) duration.toSeconds());
+
+        telemetryEventBuffer.offer(TelemetryEventType.PROBATION_RECORD_WARM_UP_COMPLETED, properties, metrics);
     }
 
     private void addRequestProperties(Map<String, String> properties) {
@@ -1,8 +1,11 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderProbationStatus;
@@ -11,25 +14,46 @@ import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClient;
 import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClientFactory;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class UserAgnosticOffenderService {
 
+    // Changed offenders are written in JDBC batches of this size. Only this update is batched, see updateOffenderProbationStatuses
+    static final int UPDATE_BATCH_SIZE = 50;
+
     private final OffenderRestClient userAgnosticOffenderRestClient;
 
     private final OffenderRepository offenderRepository;
 
     private final TelemetryService telemetryService;
 
+    private final KnownCrnFilter knownCrnFilter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
     @Autowired
     public UserAgnosticOffenderService(final OffenderRestClientFactory offenderRestClientFactory,
-                                       final OffenderRepository offenderRepository, TelemetryService telemetryService) {
+                                       final OffenderRepository offenderRepository, TelemetryService telemetryService,
+                                       final KnownCrnFilter knownCrnFilter, final TransactionTemplate transactionTemplate,
+                                       final EntityManager entityManager) {
         this.userAgnosticOffenderRestClient = offenderRestClientFactory.buildUserAgnosticOffenderRestClient();
         this.offenderRepository = offenderRepository;
         this.telemetryService = telemetryService;
+        this.knownCrnFilter = knownCrnFilter;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
     }
 
 
@@ -38,6 +62,9 @@ public class UserAgnosticOffenderService {
     }
 
     public Optional<OffenderEntity> updateOffenderProbationStatus(String crn) {
+        if (!knownCrnFilter.mightBeKnown(crn)) {
+            return Optional.empty();
+        }
         return offenderRepository.findByCrn(crn)
                 .map(offenderEntity -> {
                     ProbationStatusDetail probationStatusDetailFromCommunityApi = getProbationStatusWithoutRestrictions(crn).block();
@@ -55,6 +82,47 @@ public class UserAgnosticOffenderService {
                 });
     }
 
+    /**
+     * Batch equivalent of {@link #updateOffenderProbationStatus(String)}. Statuses are fetched for the offenders we hold
+     * with bounded parallelism, outside of any transaction. The offenders whose status has changed are then loaded again
+     * in one transaction and changed in place, so that the flush writes them as batched updates without a select each.
+     *
+     * @return the CRNs whose status could not be fetched, so that their events can be retried
+     */
+    public Set<String> updateOffenderProbationStatuses(Collection<String> crns, int concurrency) {
+        final Set<String> failedCrns = ConcurrentHashMap.newKeySet();
+        final var knownCrns = crns.stream()
+                .filter(knownCrnFilter::mightBeKnown)
+                .collect(Collectors.toList());
+        if (knownCrns.isEmpty()) {
+            return failedCrns;
+        }
+        final var changedStatuses = Flux.fromIterable(offenderRepository.findAllByCrnIn(knownCrns))
+                .flatMap(offenderEntity -> getProbationStatusWithoutRestrictions(offenderEntity.getCrn())
+                        .filter(probationStatusDetail -> !Objects.equals(probationStatusDetail, offenderEntity.getProbationStatusDetail()))
+                        .map(probationStatusDetail -> Map.entry(offenderEntity.getCrn(), probationStatusDetail))
+                        .switchIfEmpty(Mono.fromRunnable(() -> telemetryService.trackOffenderProbationStatusNotUpdateEvent(offenderEntity)))
+                        .onErrorResume(e -> {
+                            log.warn("Unable to get probation status for CRN {}", offenderEntity.getCrn(), e);
+                            failedCrns.add(offenderEntity.getCrn());
+                            return Mono.empty();
+                        }), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+
+        if (changedStatuses != null && !changedStatuses.isEmpty()) {
+            final var updatedOffenders = transactionTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(UPDATE_BATCH_SIZE);
+                final List<OffenderEntity> offenders = offenderRepository.findAllByCrnIn(changedStatuses.keySet());
+                offenders.forEach(offender -> updateProbationStatusDetails(changedStatuses.get(offender.getCrn()), offender));
+                return offenders;
+            });
+            Optional.ofNullable(updatedOffenders).orElse(List.of())
+                    .forEach(telemetryService::trackOffenderProbationStatusUpdateEvent);
+        }
+        return failedCrns;
+    }
+
     private OffenderEntity updateProbationStatusDetails(ProbationStatusDetail probationStatusDetail, OffenderEntity offender) {
         offender.setProbationStatus(OffenderProbationStatus.of(probationStatusDetail.getStatus()));
         offender.setPreviouslyKnownTerminationDate(probationStatusDetail.getPreviouslyKnownTerminationDate());
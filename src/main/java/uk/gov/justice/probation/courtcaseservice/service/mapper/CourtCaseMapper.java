@@ -102,6 +102,9 @@ public class CourtCaseMapper {
             .title(offenceEntity.getTitle())
             .sequence(offenceEntity.getSequence())
             .listNo(offenceEntity.getListNo())
+            .offenceCode(offenceEntity.getOffenceCode())
+            .shortTermCustodyPredictorScore(offenceEntity.getShortTermCustodyPredictorScore())
+            .shortTermCustodyPredictorModelVersion(offenceEntity.getShortTermCustodyPredictorModelVersion())
             .build();
     }
 }
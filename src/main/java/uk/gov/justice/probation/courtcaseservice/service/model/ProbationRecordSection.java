@@ -0,0 +1,43 @@
+package uk.gov.justice.probation.courtcaseservice.service.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The parts of a probation record which can be requested. Each section not requested saves one or more calls to
+ * community-api or assessments-api.
+ */
+public enum ProbationRecordSection {
+    CONVICTIONS(false),
+    BREACHES(true),
+    REQUIREMENTS(true),
+    PSR_REPORTS(true),
+    DOCUMENTS(true),
+    OFFENDER_MANAGERS(false),
+    ASSESSMENTS(false);
+
+    public static final Set<ProbationRecordSection> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProbationRecordSection.class));
+
+    // Sections which are attached to each conviction and so need the convictions to be fetched
+    private final boolean convictionDetail;
+
+    ProbationRecordSection(boolean convictionDetail) {
+        this.convictionDetail = convictionDetail;
+    }
+
+    public boolean isConvictionDetail() {
+        return convictionDetail;
+    }
+
+    /**
+     * @return all sections when none are requested, otherwise the requested sections
+     */
+    public static Set<ProbationRecordSection> orAll(Collection<ProbationRecordSection> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return ALL;
+        }
+        return Collections.unmodifiableSet(EnumSet.copyOf(requested));
+    }
+}
@@ -0,0 +1,18 @@
+package uk.gov.justice.probation.courtcaseservice.service.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Value
+@Builder(toBuilder = true)
+public class ProbationRecordSnapshot {
+    ProbationRecord record;
+    LocalDateTime assembledAt;
+
+    public Duration getAge() {
+        return Duration.between(assembledAt, LocalDateTime.now());
+    }
+}
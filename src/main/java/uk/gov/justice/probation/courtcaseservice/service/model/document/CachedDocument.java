@@ -0,0 +1,16 @@
+package uk.gov.justice.probation.courtcaseservice.service.model.document;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.file.Path;
+
+@Value
+@Builder
+public class CachedDocument {
+    String key;
+    Path path;
+    long length;
+    HttpHeaders headers;
+}
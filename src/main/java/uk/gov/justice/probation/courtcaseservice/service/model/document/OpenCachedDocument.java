@@ -0,0 +1,23 @@
+package uk.gov.justice.probation.courtcaseservice.service.model.document;
+
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * A cached document with its content file already open. The file is opened while the cache is locked, so the channel
+ * reads exactly the content described by the document even if it is evicted or replaced before or while it is read:
+ * both only unlink the file, which stays readable until the channel is closed. The reader must close it.
+ */
+@Value
+public class OpenCachedDocument implements Closeable {
+    CachedDocument document;
+    FileChannel channel;
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
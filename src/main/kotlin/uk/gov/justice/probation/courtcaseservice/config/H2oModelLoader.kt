@@ -0,0 +1,140 @@
+package uk.gov.justice.probation.courtcaseservice.config
+
+import hex.genmodel.MojoModel
+import hex.genmodel.MojoReaderBackendFactory
+import hex.genmodel.MojoReaderBackendFactory.CachingStrategy
+import hex.genmodel.easy.EasyPredictModelWrapper
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.core.io.Resource
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Component
+import java.io.IOException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicReference
+import java.util.function.Consumer
+import javax.annotation.PostConstruct
+
+/**
+ * Holds the H2O model used for scoring. The model zip is read from a stream into memory, so it can be on the
+ * classpath of a packaged jar, and is first loaded on a background thread so startup does not wait for it. When the
+ * zip at h2o.model-path changes, e.g. a file: path on a mounted volume, the new model is loaded and swapped in whole
+ * without a restart. The current model is kept if the new one fails to load.
+ */
+@Component
+class H2oModelLoader(@Value("\${h2o.model-path}") private val modelResource: Resource) {
+
+    companion object {
+        private val log = LoggerFactory.getLogger(this::class.java)
+        private const val UNKNOWN_MODIFIED = -1L
+    }
+
+    /**
+     * A loaded model, with the version every score from it is tagged with: the zip name and the model's UUID.
+     */
+    class VersionedModel(val version: String, val wrapper: EasyPredictModelWrapper)
+
+    private val model = AtomicReference<VersionedModel?>()
+    private val executor = Executors.newSingleThreadExecutor { runnable -> Thread(runnable, "h2o-model-loader").apply { isDaemon = true } }
+    private val loadListeners = CopyOnWriteArrayList<Consumer<VersionedModel>>()
+
+    @Volatile
+    private var loadedModified = UNKNOWN_MODIFIED
+
+    /**
+     * Completes when the model at h2o.model-path is first loaded.
+     */
+    val initialLoad = CompletableFuture<VersionedModel>()
+
+    @PostConstruct
+    fun loadInBackground() {
+        executor.execute {
+            try {
+                initialLoad.complete(swap(modelResource))
+            } catch (e: Exception) {
+                log.error("Unable to load H2O model from $modelResource, offences will not be scored until it is replaced", e)
+                initialLoad.completeExceptionally(e)
+            }
+        }
+    }
+
+    /**
+     * Loads the model on the loader's thread, so a large model never holds up the other scheduled jobs. Checks queued
+     * behind a load find the zip already loaded.
+     */
+    @Scheduled(fixedDelayString = "\${h2o.reload-interval-ms:60000}", initialDelayString = "\${h2o.reload-interval-ms:60000}")
+    fun reloadIfModified() {
+        if (!initialLoad.isDone) {
+            return
+        }
+        executor.execute { reloadNowIfModified() }
+    }
+
+    private fun reloadNowIfModified() {
+        val modified = lastModified(modelResource)
+        if (modified == UNKNOWN_MODIFIED || modified == loadedModified) {
+            return
+        }
+        try {
+            swap(modelResource)
+        } catch (e: Exception) {
+            log.error("Unable to reload H2O model from $modelResource, keeping version ${model.get()?.version}", e)
+            // Not retried until the zip changes again
+            loadedModified = modified
+        }
+    }
+
+    /**
+     * The model to score with.
+     *
+     * @throws IllegalStateException until a model is loaded
+     */
+    fun current(): VersionedModel = model.get() ?: throw IllegalStateException("H2O model is not loaded yet")
+
+    /**
+     * Calls the listener on the loader's thread with each model swapped in from now on, and with the current model if
+     * one is already loaded.
+     */
+    fun onLoad(listener: Consumer<VersionedModel>) {
+        loadListeners.add(listener)
+        model.get()?.let { loaded -> executor.execute { notify(listener, loaded) } }
+    }
+
+    /**
+     * Loads the model in the given zip and makes it the current model once it is fully loaded.
+     */
+    @Synchronized
+    fun swap(resource: Resource): VersionedModel {
+        val modified = lastModified(resource)
+        val loaded = load(resource)
+        val previous = model.getAndSet(loaded)
+        loadedModified = modified
+        log.info("Loaded H2O model version ${loaded.version} from $resource, replacing ${previous?.version ?: "none"}")
+        loadListeners.forEach { listener -> executor.execute { notify(listener, loaded) } }
+        return loaded
+    }
+
+    private fun load(resource: Resource): VersionedModel {
+        val mojo = resource.inputStream.use { stream ->
+            MojoModel.load(MojoReaderBackendFactory.createReaderBackend(stream, CachingStrategy.MEMORY))
+        }
+        val version = listOfNotNull(resource.filename?.removeSuffix(".zip"), mojo.getUUID()).joinToString(":")
+        return VersionedModel(version, EasyPredictModelWrapper(mojo))
+    }
+
+    private fun notify(listener: Consumer<VersionedModel>, loaded: VersionedModel) {
+        try {
+            listener.accept(loaded)
+        } catch (e: Exception) {
+            log.error("Unable to act on H2O model version ${loaded.version} being loaded", e)
+        }
+    }
+
+    private fun lastModified(resource: Resource): Long = try {
+        resource.lastModified()
+    } catch (e: IOException) {
+        UNKNOWN_MODIFIED
+    }
+}
@@ -1,37 +1,128 @@
 package uk.gov.justice.probation.courtcaseservice.service
 
-import hex.genmodel.easy.EasyPredictModelWrapper
 import hex.genmodel.easy.RowData
+import hex.genmodel.easy.exception.PredictException
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Service
+import uk.gov.justice.probation.courtcaseservice.application.jfr.CustodyScoringEvent
+import uk.gov.justice.probation.courtcaseservice.config.H2oModelLoader
+import uk.gov.justice.probation.courtcaseservice.config.H2oModelLoader.VersionedModel
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicReference
 
 @Service
-class ShortTermCustodyPredictorService(private val model: EasyPredictModelWrapper) {
+class ShortTermCustodyPredictorService(
+    private val modelLoader: H2oModelLoader,
+    private val meterRegistry: MeterRegistry,
+    @Value("\${h2o.score-cache-size:100000}") private val scoreCacheSize: Int
+) {
 
     companion object {
         val log: Logger = LoggerFactory.getLogger(this::class.java)
+        const val SCORING_METRIC = "h2o.scoring"
+        private const val NO_SCORE = Double.NaN
     }
 
+    /**
+     * The inputs to the model. Scores depend on nothing else, so are kept by these in [ModelState.scores].
+     */
+    data class ScoringKey(val courtName: String, val offenderAge: Int?, val offenceCode: String)
+
+    /**
+     * Scores of a batch, with the version of the model which gave all of them.
+     */
+    data class ModelScores(val modelVersion: String, val scores: Map<ScoringKey, Double?>)
+
+    // Replaced when a new model is swapped in, so scores of different models are never mixed
+    private class ModelState(val model: VersionedModel, val scoringTimer: Timer) {
+        // NO_SCORE for inputs the model can't score, e.g. an offence code it was not trained on
+        val scores = ConcurrentHashMap<ScoringKey, Double>()
+    }
+
+    private val state = AtomicReference<ModelState?>()
+
+    // The model only reads the row, so each thread fills and reuses its own
+    private val rowData = ThreadLocal.withInitial { RowData() }
+
     fun calculateShortTermCustodyPredictorScore(
         courtName: String,
         offenderAge: Int?,
         offenceCode: String) : Double {
 
-        log.debug("Entered calculateShortTermCustodyPredictorScore($courtName, $offenderAge, $offenceCode)")
+        val key = ScoringKey(courtName, offenderAge, offenceCode)
+        val modelState = currentState()
+        val score = predict(modelState, key)
+        log.debug("Calculated short term custody score of $score for $key with model ${modelState.model.version}")
+        return score
+    }
 
-        val rowData = RowData()
+    /**
+     * Scores each distinct key once, reusing scores from earlier calls with the same model. Keys the model can't
+     * score map to null. Scores on the calling thread, as a score takes microseconds and callers are often in a request
+     * transaction, where handing a few keys to the common pool would cost more than it saves.
+     *
+     * @throws IllegalStateException until the model is loaded
+     */
+    fun calculateShortTermCustodyPredictorScores(keys: Collection<ScoringKey>): ModelScores {
+        val modelState = currentState()
+        val keyScores = HashMap<ScoringKey, Double>()
+        val unscored = keys.distinct().filter { key ->
+            modelState.scores[key]?.let { keyScores[key] = it } == null
+        }
+        unscored.forEach { key ->
+            keyScores[key] = try {
+                predict(modelState, key)
+            } catch (e: PredictException) {
+                log.debug("Unable to score $key: ${e.message}")
+                NO_SCORE
+            }
+        }
+        if (modelState.scores.size + unscored.size > scoreCacheSize) {
+            modelState.scores.clear()
+        }
+        modelState.scores.putAll(keyScores)
+        log.debug("Scored ${keys.size} rows with model ${modelState.model.version}, ${unscored.size} not seen before")
+        return ModelScores(modelState.model.version, keys.associateWith { key -> keyScores.getValue(key).takeUnless { it.isNaN() } })
+    }
+
+    private fun currentState(): ModelState {
+        val model = modelLoader.current()
+        return state.updateAndGet { current ->
+            if (current?.model === model) current else ModelState(model, scoringTimer(model))
+        }!!
+    }
+
+    // Tagged with the model version so that a new model's latency can be compared with the last
+    private fun scoringTimer(model: VersionedModel): Timer = Timer.builder(SCORING_METRIC)
+        .description("Time to score a row with the short term custody predictor model")
+        .tag("model", model.version)
+        .register(meterRegistry)
 
-        rowData["court_name"] = courtName
-        offenderAge?.let {
-            rowData["offender_age"] = offenderAge.toString()
+    private fun predict(modelState: ModelState, key: ScoringKey): Double {
+        val row = rowData.get()
+        row.clear()
+        row["court_name"] = key.courtName
+        key.offenderAge?.let {
+            row["offender_age"] = it.toString()
         }
-        rowData["offence_code"] = offenceCode
+        row["offence_code"] = key.offenceCode
 
-        val prediction = model.predictBinomial(rowData)
+        val scoringEvent = CustodyScoringEvent()
+        scoringEvent.begin()
+        val prediction = modelState.scoringTimer.recordCallable { modelState.model.wrapper.predictBinomial(row) }!!
         val score = prediction.classProbabilities[0]
-        log.info("Calculated short term custody score of $score for court: $courtName, offender age: $offenderAge, offence code: $offenceCode")
-
+        scoringEvent.end()
+        if (scoringEvent.shouldCommit()) {
+            scoringEvent.courtName = key.courtName
+            scoringEvent.offenceCode = key.offenceCode
+            scoringEvent.modelVersion = modelState.model.version
+            scoringEvent.score = score
+            scoringEvent.commit()
+        }
         return score
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+BEGIN;
+
+-- Assembled probation records, keyed by CRN. Records are usually several kilobytes so a low toast_tuple_target
+-- means Postgres compresses almost every one of them rather than only those over the default of ~2kB.
+CREATE TABLE PROBATION_RECORD_SNAPSHOT (
+   CRN              TEXT        PRIMARY KEY,
+   RECORD           JSONB       NOT NULL,
+   ASSEMBLED_AT     TIMESTAMP   NOT NULL
+) WITH (toast_tuple_target = 256);
+
+ALTER TABLE PROBATION_RECORD_SNAPSHOT ALTER COLUMN RECORD SET STORAGE EXTENDED;
+
+COMMIT;
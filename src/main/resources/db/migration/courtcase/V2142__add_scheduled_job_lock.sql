@@ -0,0 +1,13 @@
+BEGIN;
+
+-- Ensures a scheduled job runs on only one replica. A replica takes the lock by moving LOCKED_UNTIL forward, which
+-- only succeeds once the previous holder's lock has expired.
+CREATE TABLE SCHEDULED_JOB_LOCK (
+   NAME             TEXT        PRIMARY KEY,
+   LOCKED_UNTIL     TIMESTAMP   NOT NULL,
+   LOCKED_BY        TEXT        NULL
+);
+
+INSERT INTO SCHEDULED_JOB_LOCK (NAME, LOCKED_UNTIL) VALUES ('probation-record-warm-up', '1970-01-01');
+
+COMMIT;
@@ -0,0 +1,2 @@
+-- Supports finding offenders created since a given time, to keep the known CRN filter current across replicas
+create index if not exists offender_created_idx on offender (created);
@@ -0,0 +1,26 @@
+BEGIN;
+
+-- Domain events are written here in the same transaction as the hearing which raised them, and published to SNS by
+-- the outbox relay. PUBLISHED_AT is null until the event has been accepted by SNS.
+CREATE TABLE DOMAIN_EVENT_OUTBOX (
+   ID                   BIGSERIAL   PRIMARY KEY,
+   HEARING_ID           TEXT        NOT NULL,
+   EVENT_TYPE           TEXT        NOT NULL,
+   DEDUPLICATION_KEY    TEXT        NOT NULL,
+   MESSAGE              TEXT        NOT NULL,
+   CREATED              TIMESTAMP   NOT NULL DEFAULT now(),
+   PUBLISHED_AT         TIMESTAMP   NULL,
+   ATTEMPTS             INT         NOT NULL DEFAULT 0,
+   NEXT_ATTEMPT_AT      TIMESTAMP   NOT NULL DEFAULT now(),
+   LAST_ERROR           TEXT        NULL
+);
+
+-- At most one unpublished event with the same key, so a hearing resulted twice before the relay runs emits once
+CREATE UNIQUE INDEX domain_event_outbox_pending_key_idx ON DOMAIN_EVENT_OUTBOX (DEDUPLICATION_KEY) WHERE PUBLISHED_AT IS NULL;
+-- Supports finding the oldest unpublished event for each hearing
+CREATE INDEX domain_event_outbox_pending_hearing_idx ON DOMAIN_EVENT_OUTBOX (HEARING_ID, ID) WHERE PUBLISHED_AT IS NULL;
+CREATE INDEX domain_event_outbox_pending_idx ON DOMAIN_EVENT_OUTBOX (ID) WHERE PUBLISHED_AT IS NULL;
+
+INSERT INTO SCHEDULED_JOB_LOCK (NAME, LOCKED_UNTIL) VALUES ('domain-event-outbox-relay', '1970-01-01');
+
+COMMIT;
@@ -0,0 +1,2 @@
+-- Supports the Libra lookup by court and case number, which otherwise reads the whole of court_case to find the latest case
+create index if not exists court_case_case_no_idx on court_case (case_no);
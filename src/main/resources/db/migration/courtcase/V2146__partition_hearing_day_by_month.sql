@@ -0,0 +1,66 @@
+BEGIN;
+
+-- HEARING_DAY becomes a table partitioned by month of HEARING_DAY, so that the case list and last modified queries,
+-- which are for one court on one day, read one month's partition and its indexes. Days before the first month go in
+-- HEARING_DAY_HISTORIC and days after the last in HEARING_DAY_DEFAULT, until create_hearing_day_partitions is run for
+-- their month by HearingDayPartitionMaintainer.
+
+ALTER TABLE hearing_day RENAME TO hearing_day_unpartitioned;
+
+CREATE TABLE hearing_day (LIKE hearing_day_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (hearing_day);
+
+ALTER SEQUENCE hearing_day_id_seq OWNED BY hearing_day.id;
+
+CREATE TABLE hearing_day_default PARTITION OF hearing_day DEFAULT;
+
+-- Creates a partition for each month from from_month to to_month that doesn't have one, moving in any rows for it from
+-- the default partition. Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION create_hearing_day_partitions(from_month DATE, to_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month);
+    month_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= to_month LOOP
+        month_end := month_start + INTERVAL '1 month';
+        partition_name := 'hearing_day_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE hearing_day INCLUDING DEFAULTS)', partition_name);
+            EXECUTE format('WITH moved AS (DELETE FROM hearing_day_default WHERE hearing_day >= %L AND hearing_day < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+            EXECUTE format('ALTER TABLE hearing_day ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', partition_name, month_start, month_end);
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A year of monthly partitions and three months ahead. Older hearings are rarely read, so share one partition.
+DO $$
+BEGIN
+    EXECUTE format('CREATE TABLE hearing_day_historic PARTITION OF hearing_day FOR VALUES FROM (MINVALUE) TO (%L)',
+                   date_trunc('month', now() - INTERVAL '12 months')::date);
+END $$;
+
+SELECT create_hearing_day_partitions((now() - INTERVAL '12 months')::date, (now() + INTERVAL '3 months')::date);
+
+INSERT INTO hearing_day SELECT * FROM hearing_day_unpartitioned;
+
+DROP TABLE hearing_day_unpartitioned;
+
+-- Keys and indexes on the parent are created on every partition, including those attached later. A primary key on a
+-- partitioned table must include the partition key.
+ALTER TABLE hearing_day ADD CONSTRAINT hearing_day_pkey PRIMARY KEY (id, hearing_day);
+ALTER TABLE hearing_day ADD CONSTRAINT fk_hearing_day_court_case FOREIGN KEY (fk_hearing_id) REFERENCES hearing (id) ON DELETE CASCADE;
+ALTER TABLE hearing_day ADD CONSTRAINT fk_hearing_day_court FOREIGN KEY (court_code) REFERENCES court (court_code);
+
+-- Serves both the case list for one court on a day and the CRNs for every court on a day
+CREATE INDEX hearing_day_hearing_day_court_code_idx ON hearing_day (hearing_day, court_code);
+CREATE INDEX hearing_day_fk_hearing_id_idx ON hearing_day (fk_hearing_id);
+
+INSERT INTO SCHEDULED_JOB_LOCK (NAME, LOCKED_UNTIL) VALUES ('hearing-day-partitions', '1970-01-01');
+
+COMMIT;
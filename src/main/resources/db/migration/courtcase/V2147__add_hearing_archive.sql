@@ -0,0 +1,185 @@
+BEGIN;
+
+-- Court cases with no hearing days since the retention horizon, or which have been deleted, are moved with their
+-- hearings into these tables by HearingArchiver, as are deleted hearings of live cases. The archive tables have the
+-- same columns in the same order as the live ones, so rows are moved with SELECT *: a migration adding a column to a
+-- live table must add it to the archive table too.
+CREATE TABLE court_case_archive (LIKE court_case);
+CREATE TABLE hearing_archive (LIKE hearing);
+CREATE TABLE hearing_day_archive (LIKE hearing_day);
+CREATE TABLE hearing_defendant_archive (LIKE hearing_defendant);
+CREATE TABLE defendant_archive (LIKE defendant);
+CREATE TABLE offence_archive (LIKE offence);
+CREATE TABLE judicial_result_archive (LIKE judicial_result);
+
+CREATE INDEX court_case_archive_case_id_idx ON court_case_archive (case_id);
+CREATE INDEX hearing_archive_fk_court_case_id_idx ON hearing_archive (fk_court_case_id);
+CREATE INDEX hearing_day_archive_fk_hearing_id_idx ON hearing_day_archive (fk_hearing_id);
+CREATE INDEX hearing_defendant_archive_fk_hearing_id_idx ON hearing_defendant_archive (fk_hearing_id);
+CREATE INDEX defendant_archive_id_idx ON defendant_archive (id);
+CREATE INDEX offence_archive_fk_hearing_defendant_id_idx ON offence_archive (fk_hearing_defendant_id);
+CREATE INDEX judicial_result_archive_offence_id_idx ON judicial_result_archive (offence_id);
+
+-- A defendant is archived when no live hearing refers to it
+CREATE INDEX IF NOT EXISTS hearing_defendant_fk_defendant_id_idx ON hearing_defendant (fk_defendant_id);
+
+-- Every court case archived or restored, with the number of its hearings moved
+CREATE TABLE ARCHIVE_LOG (
+   ID               BIGSERIAL   PRIMARY KEY,
+   ACTION           TEXT        NOT NULL,
+   REASON           TEXT        NOT NULL,
+   COURT_CASE_ID    BIGINT      NOT NULL,
+   CASE_ID          TEXT        NOT NULL,
+   HEARINGS         INT         NOT NULL,
+   CREATED          TIMESTAMP   NOT NULL DEFAULT now(),
+   CREATED_BY       TEXT        NULL
+);
+
+CREATE INDEX archive_log_case_id_idx ON ARCHIVE_LOG (CASE_ID);
+
+-- The last court case checked by the archiver, so a run stopped part way through carries on where it left off. Null
+-- once every court case has been checked, so the next run starts again from the first.
+CREATE TABLE ARCHIVE_PROGRESS (
+   NAME                 TEXT        PRIMARY KEY,
+   LAST_COURT_CASE_ID   BIGINT      NULL,
+   UPDATED              TIMESTAMP   NULL
+);
+
+INSERT INTO ARCHIVE_PROGRESS (NAME) VALUES ('hearing-archive');
+
+-- Checks the next batch_size court cases after the last one checked, archiving those with no hearing day on or after
+-- expired_before and those deleted, along with deleted hearings of the others. Returns the number checked, which is
+-- less than batch_size once the last court case has been checked.
+CREATE OR REPLACE FUNCTION archive_next_court_cases(batch_size INTEGER, expired_before DATE, archived_by TEXT) RETURNS INTEGER AS $$
+DECLARE
+    resume_after BIGINT;
+    checked_ids BIGINT[];
+    checked INTEGER;
+    case_ids BIGINT[];
+    hearing_ids BIGINT[];
+    defendant_ids BIGINT[];
+BEGIN
+    SELECT last_court_case_id INTO resume_after FROM archive_progress WHERE name = 'hearing-archive' FOR UPDATE;
+    resume_after := coalesce(resume_after, -9223372036854775807);
+
+    SELECT array_agg(id ORDER BY id), count(*) INTO checked_ids, checked
+    FROM (SELECT id FROM court_case WHERE id > resume_after ORDER BY id LIMIT batch_size) batch;
+
+    SELECT array_agg(cc.id) INTO case_ids FROM court_case cc
+    WHERE cc.id = ANY (checked_ids)
+      AND (cc.deleted OR (cc.created < expired_before AND NOT EXISTS (
+          SELECT 1 FROM hearing h JOIN hearing_day hd ON hd.fk_hearing_id = h.id
+          WHERE h.fk_court_case_id = cc.id AND hd.hearing_day >= expired_before)));
+
+    SELECT array_agg(h.id) INTO hearing_ids FROM hearing h
+    WHERE h.fk_court_case_id = ANY (checked_ids) AND (h.deleted OR h.fk_court_case_id = ANY (case_ids));
+
+    INSERT INTO archive_log (action, reason, court_case_id, case_id, hearings, created_by)
+    SELECT 'ARCHIVED',
+           CASE WHEN NOT coalesce(cc.id = ANY (case_ids), false) THEN 'HEARING_DELETED'
+                WHEN cc.deleted THEN 'CASE_DELETED'
+                ELSE 'EXPIRED' END,
+           cc.id, cc.case_id, count(h.id), archived_by
+    FROM court_case cc LEFT JOIN hearing h ON h.fk_court_case_id = cc.id AND h.id = ANY (hearing_ids)
+    WHERE cc.id = ANY (checked_ids)
+    GROUP BY cc.id
+    HAVING cc.id = ANY (case_ids) OR count(h.id) > 0;
+
+    INSERT INTO court_case_archive SELECT * FROM court_case WHERE id = ANY (case_ids);
+    INSERT INTO hearing_archive SELECT * FROM hearing WHERE id = ANY (hearing_ids);
+    INSERT INTO hearing_day_archive SELECT * FROM hearing_day WHERE fk_hearing_id = ANY (hearing_ids);
+    INSERT INTO hearing_defendant_archive SELECT * FROM hearing_defendant WHERE fk_hearing_id = ANY (hearing_ids);
+    INSERT INTO offence_archive SELECT o.* FROM offence o
+        JOIN hearing_defendant hdef ON hdef.id = o.fk_hearing_defendant_id
+        WHERE hdef.fk_hearing_id = ANY (hearing_ids);
+    INSERT INTO judicial_result_archive SELECT jr.* FROM judicial_result jr
+        JOIN offence o ON o.id = jr.offence_id
+        JOIN hearing_defendant hdef ON hdef.id = o.fk_hearing_defendant_id
+        WHERE hdef.fk_hearing_id = ANY (hearing_ids);
+
+    SELECT array_agg(DISTINCT fk_defendant_id) INTO defendant_ids FROM hearing_defendant WHERE fk_hearing_id = ANY (hearing_ids);
+
+    -- Cascades to hearing days, hearing defendants, offences and judicial results
+    DELETE FROM hearing WHERE id = ANY (hearing_ids);
+    DELETE FROM court_case WHERE id = ANY (case_ids);
+
+    SELECT array_agg(d.id) INTO defendant_ids FROM defendant d
+    WHERE d.id = ANY (defendant_ids)
+      AND NOT EXISTS (SELECT 1 FROM hearing_defendant hdef WHERE hdef.fk_defendant_id = d.id);
+    -- Replace any copy left from an earlier archive of a defendant since restored
+    DELETE FROM defendant_archive WHERE id = ANY (defendant_ids);
+    WITH moved AS (DELETE FROM defendant WHERE id = ANY (defendant_ids) RETURNING *)
+    INSERT INTO defendant_archive SELECT * FROM moved;
+
+    UPDATE archive_progress
+    SET last_court_case_id = CASE WHEN checked < batch_size THEN NULL ELSE checked_ids[checked] END,
+        updated = now()
+    WHERE name = 'hearing-archive';
+
+    RETURN checked;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moves the archived court cases with the given case ID and their archived hearings back to the live tables. Hearings
+-- received again since they were archived keep their newer copy, and defendants received again keep their new row.
+-- Returns the number of hearings restored.
+CREATE OR REPLACE FUNCTION restore_court_case(restore_case_id TEXT, restored_by TEXT) RETURNS INTEGER AS $$
+DECLARE
+    case_ids BIGINT[];
+    hearing_ids BIGINT[];
+    defendant_ids BIGINT[];
+BEGIN
+    INSERT INTO court_case SELECT * FROM court_case_archive a
+    WHERE a.case_id = restore_case_id AND NOT EXISTS (SELECT 1 FROM court_case cc WHERE cc.id = a.id);
+
+    SELECT array_agg(id) INTO case_ids FROM court_case WHERE case_id = restore_case_id;
+
+    SELECT array_agg(a.id) INTO hearing_ids FROM hearing_archive a
+    WHERE a.fk_court_case_id = ANY (case_ids) AND NOT EXISTS (SELECT 1 FROM hearing h WHERE h.hearing_id = a.hearing_id);
+
+    WITH restored AS (
+        INSERT INTO defendant SELECT * FROM defendant_archive a
+        WHERE a.id IN (SELECT fk_defendant_id FROM hearing_defendant_archive WHERE fk_hearing_id = ANY (hearing_ids))
+          AND NOT EXISTS (SELECT 1 FROM defendant d WHERE d.defendant_id = a.defendant_id)
+        RETURNING id)
+    SELECT array_agg(id) INTO defendant_ids FROM restored;
+
+    UPDATE hearing_defendant_archive hda SET fk_defendant_id = d.id
+    FROM defendant_archive da JOIN defendant d ON d.defendant_id = da.defendant_id
+    WHERE hda.fk_hearing_id = ANY (hearing_ids) AND da.id = hda.fk_defendant_id AND d.id <> da.id;
+
+    INSERT INTO archive_log (action, reason, court_case_id, case_id, hearings, created_by)
+    SELECT 'RESTORED', 'REQUESTED', cc.id, cc.case_id, count(h.id), restored_by
+    FROM court_case cc LEFT JOIN hearing_archive h ON h.fk_court_case_id = cc.id AND h.id = ANY (hearing_ids)
+    WHERE cc.id = ANY (case_ids)
+    GROUP BY cc.id
+    HAVING count(h.id) > 0 OR EXISTS (SELECT 1 FROM court_case_archive a WHERE a.id = cc.id);
+
+    INSERT INTO hearing SELECT * FROM hearing_archive WHERE id = ANY (hearing_ids);
+    INSERT INTO hearing_day SELECT * FROM hearing_day_archive WHERE fk_hearing_id = ANY (hearing_ids);
+    INSERT INTO hearing_defendant SELECT * FROM hearing_defendant_archive WHERE fk_hearing_id = ANY (hearing_ids);
+    INSERT INTO offence SELECT o.* FROM offence_archive o
+        JOIN hearing_defendant_archive hda ON hda.id = o.fk_hearing_defendant_id
+        WHERE hda.fk_hearing_id = ANY (hearing_ids);
+    INSERT INTO judicial_result SELECT jr.* FROM judicial_result_archive jr
+        JOIN offence_archive o ON o.id = jr.offence_id
+        JOIN hearing_defendant_archive hda ON hda.id = o.fk_hearing_defendant_id
+        WHERE hda.fk_hearing_id = ANY (hearing_ids);
+
+    DELETE FROM judicial_result_archive jr USING offence_archive o, hearing_defendant_archive hda
+    WHERE o.id = jr.offence_id AND hda.id = o.fk_hearing_defendant_id AND hda.fk_hearing_id = ANY (hearing_ids);
+    DELETE FROM offence_archive o USING hearing_defendant_archive hda
+    WHERE hda.id = o.fk_hearing_defendant_id AND hda.fk_hearing_id = ANY (hearing_ids);
+    DELETE FROM hearing_defendant_archive WHERE fk_hearing_id = ANY (hearing_ids);
+    DELETE FROM hearing_day_archive WHERE fk_hearing_id = ANY (hearing_ids);
+    DELETE FROM hearing_archive WHERE id = ANY (hearing_ids);
+    DELETE FROM defendant_archive WHERE id = ANY (defendant_ids);
+    DELETE FROM court_case_archive WHERE id = ANY (case_ids);
+
+    RETURN coalesce(array_length(hearing_ids, 1), 0);
+END;
+$$ LANGUAGE plpgsql;
+
+INSERT INTO SCHEDULED_JOB_LOCK (NAME, LOCKED_UNTIL) VALUES ('hearing-archive', '1970-01-01');
+
+COMMIT;
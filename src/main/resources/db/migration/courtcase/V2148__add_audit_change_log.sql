@@ -0,0 +1,69 @@
+BEGIN;
+
+-- Creates a partition of parent for each month from from_month to to_month that doesn't have one, moving in any rows
+-- for it from the parent's default partition. Returns the number of partitions created. Replaces
+-- create_hearing_day_partitions so that every monthly partitioned table is kept the same way.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, partition_column TEXT, from_month DATE, to_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month);
+    month_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= to_month LOOP
+        month_end := month_start + INTERVAL '1 month';
+        partition_name := parent || '_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS)', partition_name, parent);
+            EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                           parent || '_default', partition_column, month_start, partition_column, month_end, partition_name);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', parent, partition_name, month_start, month_end);
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches the monthly partitions of parent which end on or before before_month, leaving each as a table of its own to
+-- be exported and dropped. Returns the number of partitions detached.
+CREATE OR REPLACE FUNCTION detach_monthly_partitions(parent TEXT, before_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    partition_name TEXT;
+    detached INTEGER := 0;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = parent::regclass AND c.relname ~ ('^' || parent || '_\d{4}_\d{2}$')
+          AND to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= before_month
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, partition_name);
+        detached := detached + 1;
+    END LOOP;
+    RETURN detached;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP FUNCTION create_hearing_day_partitions(DATE, DATE);
+
+UPDATE SCHEDULED_JOB_LOCK SET NAME = 'monthly-partitions' WHERE NAME = 'hearing-day-partitions';
+
+-- With audit.mode set to change-log, each transaction which changes audited entities writes one row here in place of
+-- a REVINFO row and a row in the _AUD table of each entity changed. CHANGES holds the entity, id, operation and
+-- audited state of each. Partitioned by month of CREATED so that old months can be detached rather than deleted.
+CREATE TABLE AUDIT_CHANGE_LOG (
+   ID               BIGSERIAL   NOT NULL,
+   CREATED          TIMESTAMP   NOT NULL DEFAULT now(),
+   CREATED_BY       TEXT        NULL,
+   TRANSACTION_ID   BIGINT      NOT NULL DEFAULT txid_current(),
+   CHANGES          JSONB       NOT NULL,
+   PRIMARY KEY (ID, CREATED)
+) PARTITION BY RANGE (CREATED);
+
+CREATE TABLE audit_change_log_default PARTITION OF audit_change_log DEFAULT;
+
+SELECT create_monthly_partitions('audit_change_log', 'created', now()::date, (now() + INTERVAL '3 months')::date);
+
+COMMIT;
@@ -0,0 +1,73 @@
+BEGIN;
+
+-- The latest hearing for each Libra case number at a court, by list number and for any list (LIST_NO ''), so that
+-- HearingRepository.findLatestByCourtCodeCaseNoAndListNo reads one row by primary key instead of joining court_case,
+-- hearing and hearing_day twice. Latest is the hearing of the court case with the highest ID, as before. Kept up to
+-- date by the triggers below. A row goes when its hearing is deleted, e.g. by the archiver, and is made again when
+-- the case is next received.
+CREATE TABLE CASE_NO_LOOKUP (
+   COURT_CODE           TEXT        NOT NULL,
+   CASE_NO              TEXT        NOT NULL,
+   LIST_NO              TEXT        NOT NULL,
+   FK_COURT_CASE_ID     BIGINT      NOT NULL,
+   FK_HEARING_ID        BIGINT      NOT NULL,
+   PRIMARY KEY (COURT_CODE, CASE_NO, LIST_NO),
+   CONSTRAINT fk_case_no_lookup_hearing FOREIGN KEY (FK_HEARING_ID) REFERENCES hearing (id) ON DELETE CASCADE
+);
+
+CREATE INDEX case_no_lookup_fk_hearing_id_idx ON CASE_NO_LOOKUP (FK_HEARING_ID);
+
+-- Points the lookup rows for the case number of the given hearing at the given court at it, unless they already point
+-- at a later one
+CREATE OR REPLACE FUNCTION update_case_no_lookup(lookup_hearing_id BIGINT, lookup_court_code TEXT) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO case_no_lookup (court_code, case_no, list_no, fk_court_case_id, fk_hearing_id)
+    SELECT lookup_court_code, cc.case_no, list.list_no, cc.id, h.id
+    FROM hearing h
+    JOIN court_case cc ON cc.id = h.fk_court_case_id
+    CROSS JOIN LATERAL (VALUES (nullif(h.list_no, '')), ('')) list (list_no)
+    WHERE h.id = lookup_hearing_id AND cc.case_no IS NOT NULL AND list.list_no IS NOT NULL
+    ON CONFLICT (court_code, case_no, list_no) DO UPDATE
+        SET fk_court_case_id = excluded.fk_court_case_id, fk_hearing_id = excluded.fk_hearing_id
+        WHERE (case_no_lookup.fk_court_case_id, case_no_lookup.fk_hearing_id) <= (excluded.fk_court_case_id, excluded.fk_hearing_id);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION hearing_day_case_no_lookup() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM update_case_no_lookup(NEW.fk_hearing_id, NEW.court_code);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Hibernate inserts the new hearing days of an updated hearing before it updates the hearing, so a change of list
+-- number is picked up here
+CREATE OR REPLACE FUNCTION hearing_case_no_lookup() RETURNS TRIGGER AS $$
+DECLARE
+    day_court_code TEXT;
+BEGIN
+    DELETE FROM case_no_lookup WHERE fk_hearing_id = NEW.id AND list_no = OLD.list_no;
+    FOR day_court_code IN SELECT DISTINCT court_code FROM hearing_day WHERE fk_hearing_id = NEW.id LOOP
+        PERFORM update_case_no_lookup(NEW.id, day_court_code);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER hearing_day_case_no_lookup_trigger AFTER INSERT OR UPDATE OF court_code, fk_hearing_id ON hearing_day
+    FOR EACH ROW EXECUTE PROCEDURE hearing_day_case_no_lookup();
+
+CREATE TRIGGER hearing_case_no_lookup_trigger AFTER UPDATE OF list_no ON hearing
+    FOR EACH ROW WHEN (OLD.list_no IS DISTINCT FROM NEW.list_no) EXECUTE PROCEDURE hearing_case_no_lookup();
+
+-- The latest hearing of the latest court case for each key, as found by the queries this replaces
+INSERT INTO case_no_lookup (court_code, case_no, list_no, fk_court_case_id, fk_hearing_id)
+SELECT DISTINCT ON (hd.court_code, cc.case_no, list.list_no) hd.court_code, cc.case_no, list.list_no, cc.id, h.id
+FROM court_case cc
+JOIN hearing h ON h.fk_court_case_id = cc.id
+JOIN hearing_day hd ON hd.fk_hearing_id = h.id
+CROSS JOIN LATERAL (VALUES (nullif(h.list_no, '')), ('')) list (list_no)
+WHERE cc.case_no IS NOT NULL AND list.list_no IS NOT NULL
+ORDER BY hd.court_code, cc.case_no, list.list_no, cc.id DESC, h.id DESC;
+
+COMMIT;
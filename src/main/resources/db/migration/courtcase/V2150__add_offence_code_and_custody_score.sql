@@ -0,0 +1,12 @@
+BEGIN;
+
+-- OFFENCE_CODE is given by the court list where known. SHORT_TERM_CUSTODY_PREDICTOR_SCORE is set from it when the
+-- hearing is saved, so reads don't run the model, and is null where the model can't score the offence.
+ALTER TABLE offence ADD COLUMN offence_code TEXT NULL;
+ALTER TABLE offence ADD COLUMN short_term_custody_predictor_score DOUBLE PRECISION NULL;
+
+-- Archived offences are moved with SELECT *, so need the same columns
+ALTER TABLE offence_archive ADD COLUMN offence_code TEXT NULL;
+ALTER TABLE offence_archive ADD COLUMN short_term_custody_predictor_score DOUBLE PRECISION NULL;
+
+COMMIT;
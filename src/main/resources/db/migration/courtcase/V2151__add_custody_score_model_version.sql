@@ -0,0 +1,9 @@
+BEGIN;
+
+-- The version of the H2O model which gave SHORT_TERM_CUSTODY_PREDICTOR_SCORE, as models are swapped without a restart
+ALTER TABLE offence ADD COLUMN short_term_custody_predictor_model_version TEXT NULL;
+
+-- Archived offences are moved with SELECT *, so need the same columns
+ALTER TABLE offence_archive ADD COLUMN short_term_custody_predictor_model_version TEXT NULL;
+
+COMMIT;
@@ -0,0 +1,19 @@
+BEGIN;
+
+-- Set when an event has failed to publish the maximum number of times. Failed events are kept for investigation, but no
+-- longer count as pending, so they do not hold back later events for their hearing or block their deduplication key.
+ALTER TABLE DOMAIN_EVENT_OUTBOX ADD COLUMN FAILED_AT TIMESTAMP NULL;
+
+DROP INDEX domain_event_outbox_pending_key_idx;
+DROP INDEX domain_event_outbox_pending_hearing_idx;
+DROP INDEX domain_event_outbox_pending_idx;
+CREATE UNIQUE INDEX domain_event_outbox_pending_key_idx ON DOMAIN_EVENT_OUTBOX (DEDUPLICATION_KEY) WHERE PUBLISHED_AT IS NULL AND FAILED_AT IS NULL;
+CREATE INDEX domain_event_outbox_pending_hearing_idx ON DOMAIN_EVENT_OUTBOX (HEARING_ID, ID) WHERE PUBLISHED_AT IS NULL AND FAILED_AT IS NULL;
+CREATE INDEX domain_event_outbox_pending_idx ON DOMAIN_EVENT_OUTBOX (ID) WHERE PUBLISHED_AT IS NULL AND FAILED_AT IS NULL;
+
+-- Supports purging events published before the retention period
+CREATE INDEX domain_event_outbox_published_idx ON DOMAIN_EVENT_OUTBOX (PUBLISHED_AT) WHERE PUBLISHED_AT IS NOT NULL;
+
+INSERT INTO SCHEDULED_JOB_LOCK (NAME, LOCKED_UNTIL) VALUES ('domain-event-outbox-purge', '1970-01-01');
+
+COMMIT;
@@ -0,0 +1,5 @@
+BEGIN;
+
+INSERT INTO SCHEDULED_JOB_LOCK (NAME, LOCKED_UNTIL) VALUES ('custody-rescore', '1970-01-01');
+
+COMMIT;
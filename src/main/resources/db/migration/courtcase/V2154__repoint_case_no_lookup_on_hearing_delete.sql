@@ -0,0 +1,69 @@
+BEGIN;
+
+-- A case_no_lookup row used to go with its hearing, by ON DELETE CASCADE, so once the archiver deleted the latest
+-- hearing of a case, e.g. a deleted one, the case could no longer be found by its case number and was made again when
+-- next received. Rows now point at the next latest remaining hearing instead, as does the row for the old list number
+-- of a hearing whose list number changes.
+
+-- Points the lookup rows for the given case number at the given court at the latest remaining hearing, from scratch
+CREATE OR REPLACE FUNCTION rebuild_case_no_lookup(lookup_court_code TEXT, lookup_case_no TEXT) RETURNS VOID AS $$
+DECLARE
+    remaining_hearing_id BIGINT;
+BEGIN
+    FOR remaining_hearing_id IN
+        SELECT DISTINCT h.id
+        FROM court_case cc
+        JOIN hearing h ON h.fk_court_case_id = cc.id
+        JOIN hearing_day hd ON hd.fk_hearing_id = h.id
+        WHERE cc.case_no = lookup_case_no AND hd.court_code = lookup_court_code
+    LOOP
+        PERFORM update_case_no_lookup(remaining_hearing_id, lookup_court_code);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Runs once the whole statement has deleted its hearings, so none of them is pointed at again
+CREATE OR REPLACE FUNCTION hearing_delete_case_no_lookup() RETURNS TRIGGER AS $$
+DECLARE
+    lookup RECORD;
+BEGIN
+    FOR lookup IN
+        WITH deleted AS (DELETE FROM case_no_lookup WHERE fk_hearing_id = OLD.id RETURNING court_code, case_no)
+        SELECT DISTINCT court_code, case_no FROM deleted
+    LOOP
+        PERFORM rebuild_case_no_lookup(lookup.court_code, lookup.case_no);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION hearing_case_no_lookup() RETURNS TRIGGER AS $$
+DECLARE
+    lookup RECORD;
+    day_court_code TEXT;
+BEGIN
+    FOR lookup IN
+        WITH deleted AS (
+            DELETE FROM case_no_lookup WHERE fk_hearing_id = NEW.id AND list_no = OLD.list_no RETURNING court_code, case_no
+        )
+        SELECT DISTINCT court_code, case_no FROM deleted
+    LOOP
+        PERFORM rebuild_case_no_lookup(lookup.court_code, lookup.case_no);
+    END LOOP;
+    FOR day_court_code IN SELECT DISTINCT court_code FROM hearing_day WHERE fk_hearing_id = NEW.id LOOP
+        PERFORM update_case_no_lookup(NEW.id, day_court_code);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER hearing_delete_case_no_lookup_trigger AFTER DELETE ON hearing
+    FOR EACH ROW EXECUTE PROCEDURE hearing_delete_case_no_lookup();
+
+-- The trigger above now removes the rows of a deleted hearing. Cascading would remove them before it could find them,
+-- and an immediate check would fail before it ran, so the key is checked when the transaction commits
+ALTER TABLE case_no_lookup DROP CONSTRAINT fk_case_no_lookup_hearing;
+ALTER TABLE case_no_lookup ADD CONSTRAINT fk_case_no_lookup_hearing FOREIGN KEY (fk_hearing_id) REFERENCES hearing (id)
+    DEFERRABLE INITIALLY DEFERRED;
+
+COMMIT;
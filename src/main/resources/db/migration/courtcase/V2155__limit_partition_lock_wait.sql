@@ -0,0 +1,9 @@
+BEGIN;
+
+-- Attaching or detaching a partition takes an ACCESS EXCLUSIVE lock on the parent on Postgres 11. While it waits for
+-- that lock behind a long running query every other query of the table queues behind it, so give up after a few
+-- seconds instead and try again the next night. Partitions are made months ahead, so a missed night costs nothing.
+ALTER FUNCTION create_monthly_partitions(TEXT, TEXT, DATE, DATE) SET lock_timeout = '5s';
+ALTER FUNCTION detach_monthly_partitions(TEXT, DATE) SET lock_timeout = '5s';
+
+COMMIT;
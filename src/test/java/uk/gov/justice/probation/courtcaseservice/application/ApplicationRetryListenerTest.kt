@@ -1,5 +1,6 @@
 package uk.gov.justice.probation.courtcaseservice.application
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.assertj.core.api.Assertions.assertThat
 import org.assertj.core.api.Assertions.assertThatExceptionOfType
 import org.junit.jupiter.api.Test
@@ -15,8 +16,9 @@ class ApplicationRetryListenerTest {
     fun givenTemplateRetryService_whenCallWithException_thenRetry() {
 
         TestAppender.events.clear()
+        val meterRegistry = SimpleMeterRegistry()
         val retryTemplate = RetryTemplate();
-        retryTemplate.registerListener(ApplicationRetryListener())
+        retryTemplate.registerListener(ApplicationRetryListener(meterRegistry))
 
         assertThatExceptionOfType(RuntimeException::class.java)
             .isThrownBy {
@@ -36,5 +38,8 @@ class ApplicationRetryListenerTest {
             "Retry attempt 3 failed with error",
             "Retried 3 times"
         )
+        assertThat(meterRegistry.get(ApplicationRetryListener.RETRY_ATTEMPTS_METRIC).tag("exception", "RuntimeException").counter().count())
+            .isEqualTo(3.0)
+        assertThat(meterRegistry.get(ApplicationRetryListener.RETRY_EXHAUSTED_METRIC).counter().count()).isEqualTo(1.0)
     }
 }
@@ -0,0 +1,88 @@
+package uk.gov.justice.probation.courtcaseservice.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.probation.courtcaseservice.jpa.SqlStatementInspector;
+import uk.gov.justice.probation.courtcaseservice.jpa.SqlStatementSessionListener;
+import uk.gov.justice.probation.courtcaseservice.jpa.SqlStatementRecorder.Recording;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementBudgetTest {
+
+    private static final String OPERATION = "GET /hearing/{hearingId}";
+
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+    private final SqlStatementSessionListener sessionListener = new SqlStatementSessionListener();
+
+    private SqlStatementBudget budget;
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        budget = new SqlStatementBudget();
+        budget.setEnabled(true);
+        budget.setDefaultBudget(3);
+        budget.setRepeatedStatementThreshold(2);
+        budget.getOperations().put(OPERATION, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (recording != null) {
+            recording.stop();
+        }
+    }
+
+    @Test
+    void givenStatementsRun_whenFinish_thenCountThemAndTheirRepeats() {
+        recording = budget.start();
+
+        execute("select * from hearing where id = ?");
+        execute("select * from defendant where id = ?");
+        execute("select * from defendant where id = ?");
+
+        assertThat(budget.finish("SQS queue", recording)).isTrue();
+        assertThat(recording.getStatementCount()).isEqualTo(3);
+        assertThat(recording.getMostRepeatedStatement()).contains(Map.entry("select * from defendant where id = ?", 2));
+    }
+
+    @Test
+    void givenMoreStatementsThanOperationBudget_whenFinish_thenReportOverBudget() {
+        recording = budget.start();
+
+        execute("select * from hearing where id = ?");
+        execute("select * from defendant where id = ?");
+
+        assertThat(budget.getBudget(OPERATION)).isEqualTo(1);
+        assertThat(budget.finish(OPERATION, recording)).isFalse();
+    }
+
+    @Test
+    void givenRecordingStopped_whenStatementsRun_thenDoNotCountThem() {
+        recording = budget.start();
+        execute("select * from hearing where id = ?");
+        budget.finish(OPERATION, recording);
+
+        execute("select * from defendant where id = ?");
+
+        assertThat(recording.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenDisabled_whenStart_thenDoNotRecord() {
+        budget.setEnabled(false);
+
+        assertThat(budget.start()).isNull();
+        assertThat(budget.finish(OPERATION, null)).isTrue();
+    }
+
+    private void execute(String sql) {
+        assertThat(inspector.inspect(sql)).isEqualTo(sql);
+        sessionListener.jdbcExecuteStatementStart();
+        sessionListener.jdbcExecuteStatementEnd();
+    }
+}
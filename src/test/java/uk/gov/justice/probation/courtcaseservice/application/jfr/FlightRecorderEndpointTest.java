@@ -0,0 +1,107 @@
+package uk.gov.justice.probation.courtcaseservice.application.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderEndpointTest {
+
+    private FlightRecorderEndpoint endpoint;
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void givenOnDemandRecording_whenStop_thenReturnRecordingWithDomainEvents() throws IOException, ParseException {
+        endpoint = new FlightRecorderEndpoint(false, 15, 100, "default", 10);
+
+        assertThat(endpoint.start(null, 60L).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.start(null, 60L).getStatus()).isEqualTo(409);
+
+        final var event = new HearingSaveEvent();
+        event.begin();
+        event.hearingId = "hearing-1";
+        event.defendantCount = 2;
+        event.commit();
+
+        final var events = readEvents(endpoint.stop());
+
+        assertThat(events)
+            .filteredOn(recorded -> recorded.getEventType().getName().equals(HearingSaveEvent.NAME))
+            .singleElement()
+            .satisfies(recorded -> {
+                assertThat(recorded.getString("hearingId")).isEqualTo("hearing-1");
+                assertThat(recorded.getInt("defendantCount")).isEqualTo(2);
+            });
+        assertThat(endpoint.stop().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void givenUnknownSettings_whenStart_thenBadRequest() throws IOException, ParseException {
+        endpoint = new FlightRecorderEndpoint(false, 15, 100, "default", 10);
+
+        assertThat(endpoint.start("unknown", null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    @Test
+    void givenContinuousRecording_whenDump_thenReturnRecentEvents() throws IOException, ParseException {
+        endpoint = new FlightRecorderEndpoint(true, 15, 100, "profile", 10);
+        endpoint.startContinuous();
+
+        final var event = new CaseListEvent();
+        event.begin();
+        event.courtCode = "B10JQ";
+        event.rowCount = 7;
+        event.commit();
+
+        assertThat(readEvents(endpoint.dump()))
+            .extracting(recorded -> recorded.getEventType().getName())
+            .contains(CaseListEvent.NAME);
+    }
+
+    @Test
+    void givenContinuousRecording_whenDump_thenLeaveOutEnvironmentAndSystemProperties() throws IOException, ParseException {
+        endpoint = new FlightRecorderEndpoint(true, 15, 100, "profile", 10);
+        endpoint.startContinuous();
+
+        assertThat(readEvents(endpoint.dump()))
+            .extracting(recorded -> recorded.getEventType().getName())
+            .isNotEmpty()
+            .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+    }
+
+    @Test
+    void givenContinuousRecordingDisabled_whenDump_thenNotFound() throws IOException {
+        endpoint = new FlightRecorderEndpoint(false, 15, 100, "profile", 10);
+
+        assertThat(endpoint.dump().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private static List<RecordedEvent> readEvents(WebEndpointResponse<Resource> response) throws IOException {
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        final var file = Files.createTempFile("recording", ".jfr");
+        try (var inputStream = response.getBody().getInputStream()) {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        assertThat(Files.exists(Path.of(response.getBody().getFile().getPath()))).isFalse();
+        try {
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEventType;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderProbationStatus;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.PhoneNumberEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.repository.DefendantRepository;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.DomainEventOutboxRepository;
 import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingRepositoryFacade;
 import uk.gov.justice.probation.courtcaseservice.jpa.repository.OffenderRepository;
 import uk.gov.justice.probation.courtcaseservice.listener.EventMessage;
@@ -67,6 +68,9 @@ class CourtCaseControllerPutByHearingIdIntTest extends BaseIntTest {
     @Autowired
     DefendantRepository defendantRepository;
 
+    @Autowired
+    DomainEventOutboxRepository domainEventOutboxRepository;
+
     ObjectMapper objectMapper;
 
     private static final String CRN = "X320741";
@@ -538,7 +542,9 @@ class CourtCaseControllerPutByHearingIdIntTest extends BaseIntTest {
         courtCaseRepository.findFirstByHearingId(JSON_HEARING_ID)
                 .ifPresentOrElse(theCase -> assertThat(theCase.getHearingEventType()).isEqualTo(HearingEventType.RESULTED), () -> fail("Hearing event type should be Resulted"));
 
-        await().atLeast(Duration.ofMillis(100));
+        // Events are published from the outbox by the relay, which runs every second
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> domainEventOutboxRepository.findOldestUnpublishedCreated().isEmpty());
 
         assertEmittedEventMessages();
 
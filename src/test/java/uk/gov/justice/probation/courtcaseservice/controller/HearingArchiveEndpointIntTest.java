@@ -0,0 +1,41 @@
+package uk.gov.justice.probation.courtcaseservice.controller;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static uk.gov.justice.probation.courtcaseservice.testUtil.TokenHelper.getAdminToken;
+import static uk.gov.justice.probation.courtcaseservice.testUtil.TokenHelper.getToken;
+
+public class HearingArchiveEndpointIntTest extends BaseIntTest {
+
+    @Test
+    public void givenNoAdminRole_whenRestore_thenForbidden() {
+        given()
+                .when()
+                .post("/archive/1600028913")
+                .then()
+                .statusCode(401);
+
+        given()
+                .auth()
+                .oauth2(getToken())
+                .when()
+                .post("/archive/1600028913")
+                .then()
+                .statusCode(403);
+    }
+
+    @Test
+    public void givenAdminRole_whenRestoreCaseNotArchived_thenNotFound() {
+        given()
+                .auth()
+                .oauth2(getAdminToken())
+                .when()
+                .post("/archive/NOT-ARCHIVED")
+                .then()
+                .statusCode(404)
+                .body("error", equalTo("No archived hearings for case NOT-ARCHIVED"));
+    }
+}
@@ -17,7 +17,9 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.springframework.http.HttpHeaders.ACCEPT_RANGES;
 import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpHeaders.CONTENT_RANGE;
 import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.http.HttpHeaders.RANGE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static uk.gov.justice.probation.courtcaseservice.testUtil.DateHelper.standardDateOf;
 import static uk.gov.justice.probation.courtcaseservice.testUtil.TokenHelper.getToken;
@@ -205,6 +207,27 @@ class OffenderControllerIntTest extends BaseIntTest {
         ;
     }
 
+    @Test
+    void givenIncludedSections_whenCallMadeToGetProbationRecord_thenReturnOnlyThoseSections() {
+        given()
+            .auth()
+            .oauth2(getToken())
+            .accept(MediaType.APPLICATION_JSON_VALUE)
+        .when()
+                .get("/offender/X320741/probation-record?include=CONVICTIONS,DOCUMENTS")
+            .then()
+                .statusCode(200)
+                .body("crn",  equalTo("X320741"))
+                .body("convictions.size()", is(3))
+                .body("convictions[0].convictionId", equalTo("2500295345"))
+                .body("convictions[0].documents", hasSize(1))
+                .body("convictions[0]", not(hasKey("breaches")))
+                .body("convictions[0]", not(hasKey("requirements")))
+                .body("$", not(hasKey("offenderManagers")))
+                .body("$", not(hasKey("assessment")))
+        ;
+    }
+
     @Test
     void whenCallMadeToGetProbationStatusDetail_thenReturn() {
         given()
@@ -272,6 +295,25 @@ class OffenderControllerIntTest extends BaseIntTest {
         assertThat(bytes.length).isEqualTo(20992);
     }
 
+    @Test
+    void singleDocument_givenRangeThenReturn206AndPartialContent() {
+        final byte[] bytes =
+        given()
+            .auth()
+            .oauth2(getToken())
+            .header(RANGE, "bytes=0-9")
+        .when()
+            .get(String.format(GET_DOCUMENT_PATH, KNOWN_CRN, "abc-def"))
+        .then()
+            .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+            .header(CONTENT_RANGE, "bytes 0-9/20992")
+            .header(CONTENT_DISPOSITION, "attachment; filename=\"sample_word_doc.doc\"")
+            .extract()
+            .asByteArray();
+
+        assertThat(bytes.length).isEqualTo(10);
+    }
+
     @Test
     void singleDocument_givenUnknownDocumentIdThenReturn404() {
         given()
@@ -6,7 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.application.FeatureFlags;
 import uk.gov.justice.probation.courtcaseservice.controller.model.BreachResponse;
@@ -15,19 +18,30 @@ import uk.gov.justice.probation.courtcaseservice.service.BreachService;
 import uk.gov.justice.probation.courtcaseservice.service.ConvictionService;
 import uk.gov.justice.probation.courtcaseservice.service.CustodyService;
 import uk.gov.justice.probation.courtcaseservice.service.DocumentService;
+import uk.gov.justice.probation.courtcaseservice.restclient.exception.ForbiddenException;
 import uk.gov.justice.probation.courtcaseservice.service.OffenderService;
+import uk.gov.justice.probation.courtcaseservice.service.ProbationRecordSnapshotService;
 import uk.gov.justice.probation.courtcaseservice.service.model.Custody;
 import uk.gov.justice.probation.courtcaseservice.service.model.OffenderDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecord;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSnapshot;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.Registration;
 import uk.gov.justice.probation.courtcaseservice.service.model.UnpaidWork;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -52,6 +66,8 @@ class OffenderControllerTest {
     private BreachService breachService;
     @Mock
     private CustodyService custodyService;
+    @Mock
+    private ProbationRecordSnapshotService probationRecordSnapshotService;
 
     private FeatureFlags featureFlags;
 
@@ -62,16 +78,16 @@ class OffenderControllerTest {
     @BeforeEach
     void beforeEach() {
         featureFlags = new FeatureFlags();
-        controller = new OffenderController(offenderService, convictionService, breachService, featureFlags, documentService, custodyService);
+        controller = new OffenderController(offenderService, convictionService, breachService, featureFlags, documentService, custodyService, probationRecordSnapshotService);
     }
 
     @DisplayName("Normal sentence service call returns response")
     @Test
     void callReturnsResponse() {
         var attendancesResponse = SentenceResponse.builder().attendances(Collections.emptyList()).build();
-        when(convictionService.getSentence(CRN, SOME_EVENT_ID)).thenReturn(attendancesResponse);
+        when(convictionService.getSentence(CRN, SOME_EVENT_ID)).thenReturn(Mono.just(attendancesResponse));
 
-        assertThat(controller.getSentence(CRN, SOME_EVENT_ID)).isEqualTo(attendancesResponse);
+        assertThat(controller.getSentence(CRN, SOME_EVENT_ID).block()).isEqualTo(attendancesResponse);
 
         verify(convictionService).getSentence(CRN, SOME_EVENT_ID);
         verifyNoMoreInteractions(convictionService);
@@ -86,9 +102,9 @@ class OffenderControllerTest {
                 .attendances(Collections.emptyList())
                 .unpaidWork(UnpaidWork.builder().build())
                 .build();
-        when(convictionService.getConvictionOnly(CRN, SOME_EVENT_ID)).thenReturn(sentenceResponse);
+        when(convictionService.getConvictionOnly(CRN, SOME_EVENT_ID)).thenReturn(Mono.just(sentenceResponse));
 
-        assertThat(controller.getSentence(CRN, SOME_EVENT_ID)).usingRecursiveComparison().isEqualTo(sentenceResponse);
+        assertThat(controller.getSentence(CRN, SOME_EVENT_ID).block()).usingRecursiveComparison().isEqualTo(sentenceResponse);
         verify(convictionService).getConvictionOnly(CRN, SOME_EVENT_ID);
         verifyNoMoreInteractions(convictionService);
     }
@@ -98,23 +114,68 @@ class OffenderControllerTest {
     public void whenGetProbationRecord_thenReturnIt() {
 
         var applyFilter = true;
-        when(offenderService.getProbationRecord(CRN, applyFilter)).thenReturn(expectedProbationRecord);
+        when(offenderService.getProbationRecord(CRN, applyFilter, ProbationRecordSection.ALL)).thenReturn(Mono.just(expectedProbationRecord));
 
-        var probationRecordResponse = controller.getProbationRecord(CRN, applyFilter);
+        var probationRecordResponse = controller.getProbationRecord(CRN, applyFilter, null).block();
 
-        assertThat(probationRecordResponse).isNotNull();
-        assertThat(probationRecordResponse).isEqualTo(expectedProbationRecord);
-        verify(offenderService).getProbationRecord(CRN, applyFilter);
+        assertThat(probationRecordResponse.getBody()).isNotNull();
+        assertThat(probationRecordResponse.getBody()).isEqualTo(expectedProbationRecord);
+        assertThat(probationRecordResponse.getHeaders().containsKey(HttpHeaders.AGE)).isFalse();
+        verify(offenderService).getProbationRecord(CRN, applyFilter, ProbationRecordSection.ALL);
         verifyNoMoreInteractions(offenderService);
     }
 
+    @DisplayName("Ensures that the controller passes the requested sections of the probation record to the service")
+    @Test
+    public void givenIncludedSections_whenGetProbationRecord_thenRequestOnlyThoseSections() {
+
+        var sections = Set.of(ProbationRecordSection.CONVICTIONS, ProbationRecordSection.REQUIREMENTS);
+        when(offenderService.getProbationRecord(CRN, false, sections)).thenReturn(Mono.just(expectedProbationRecord));
+
+        var probationRecordResponse = controller.getProbationRecord(CRN, false, sections).block();
+
+        assertThat(probationRecordResponse.getBody()).isEqualTo(expectedProbationRecord);
+        verify(offenderService).getProbationRecord(CRN, false, sections);
+    }
+
+    @DisplayName("Ensures that a stored probation record is served with its age once the user's access is checked")
+    @Test
+    public void givenSnapshotsEnabled_whenGetProbationRecord_thenCheckAccessAndReturnSnapshotWithAge() {
+
+        when(probationRecordSnapshotService.isEnabled()).thenReturn(true);
+        when(offenderService.checkAccess(CRN)).thenReturn(Mono.empty());
+        when(probationRecordSnapshotService.getProbationRecord(CRN, true, ProbationRecordSection.ALL)).thenReturn(ProbationRecordSnapshot.builder()
+            .record(expectedProbationRecord)
+            .assembledAt(LocalDateTime.now().minusMinutes(5))
+            .build());
+
+        var probationRecordResponse = controller.getProbationRecord(CRN, true, null).block();
+
+        assertThat(probationRecordResponse.getBody()).isEqualTo(expectedProbationRecord);
+        assertThat(Long.parseLong(probationRecordResponse.getHeaders().getFirst(HttpHeaders.AGE))).isBetween(300L, 310L);
+        verify(offenderService).checkAccess(CRN);
+        verify(offenderService, never()).getProbationRecord(eq(CRN), anyBoolean(), any());
+    }
+
+    @DisplayName("Ensures that a stored probation record is not served to an excluded user")
+    @Test
+    public void givenSnapshotsEnabled_whenUserExcluded_thenThrowForbidden() {
+
+        when(probationRecordSnapshotService.isEnabled()).thenReturn(true);
+        when(offenderService.checkAccess(CRN)).thenReturn(Mono.error(new ForbiddenException("User is excluded")));
+
+        assertThatExceptionOfType(ForbiddenException.class)
+            .isThrownBy(() -> controller.getProbationRecord(CRN, true, null).block());
+        verify(probationRecordSnapshotService, never()).getProbationRecord(eq(CRN), anyBoolean(), any());
+    }
+
     @DisplayName("Ensures that the controller calls the service and returns the same breach")
     @Test
     public void whenGetBreach_thenReturnIt() {
 
-        when(breachService.getBreach(CRN, BREACH_CONVICTION_ID, BREACH_ID)).thenReturn(expectedBreach);
+        when(breachService.getBreach(CRN, BREACH_CONVICTION_ID, BREACH_ID)).thenReturn(Mono.just(expectedBreach));
 
-        var actualBreach = controller.getBreach(CRN, BREACH_CONVICTION_ID, BREACH_ID);
+        var actualBreach = controller.getBreach(CRN, BREACH_CONVICTION_ID, BREACH_ID).block();
 
         assertThat(actualBreach).isNotNull();
         assertThat(actualBreach).isEqualTo(expectedBreach);
@@ -124,14 +185,23 @@ class OffenderControllerTest {
     @DisplayName("Ensures that the controller calls the document service and returns the same document")
     @Test
     public void whenGetDocument_thenReturnIt() {
+        final ResponseEntity<StreamingResponseBody> expectedResponse = ResponseEntity.ok(mock(StreamingResponseBody.class));
+        when(documentService.getDocument(CRN, CONVICTION_ID, null)).thenReturn(Mono.just(expectedResponse));
 
-        var expectedResponse = mock(ResponseEntity.class);
-        when(documentService.getDocument(CRN, CONVICTION_ID)).thenReturn(expectedResponse);
-
-        var responseEntity = controller.getOffenderDocumentByCrn(CRN, CONVICTION_ID);
+        var responseEntity = controller.getOffenderDocumentByCrn(CRN, CONVICTION_ID, null).block();
 
         assertThat(responseEntity).isSameAs(expectedResponse);
-        verify(documentService).getDocument(CRN, CONVICTION_ID);
+        verify(documentService).getDocument(CRN, CONVICTION_ID, null);
+    }
+
+    @DisplayName("Ensures that the controller returns 404 when the document service returns nothing")
+    @Test
+    public void givenNoDocument_whenGetDocument_thenReturnNotFound() {
+        when(documentService.getDocument(CRN, CONVICTION_ID, "bytes=0-9")).thenReturn(Mono.empty());
+
+        var responseEntity = controller.getOffenderDocumentByCrn(CRN, CONVICTION_ID, "bytes=0-9").block();
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
     @DisplayName("Ensures that the controller calls the service and returns the same offender detail record")
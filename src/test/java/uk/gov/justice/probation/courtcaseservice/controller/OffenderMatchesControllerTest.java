@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.test.web.reactive.server.WebTestClient.BodyContentSpec;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.controller.model.Address;
 import uk.gov.justice.probation.courtcaseservice.controller.model.Event;
@@ -31,6 +32,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 
 @ExtendWith(MockitoExtension.class)
 class OffenderMatchesControllerTest {
@@ -88,7 +90,7 @@ class OffenderMatchesControllerTest {
         var detail1 = buildOffenderMatchDetail("Christopher", DefendantProbationStatus.PREVIOUSLY_KNOWN);
         var detail2 = buildOffenderMatchDetail("Christian", DefendantProbationStatus.CURRENT);
 
-        when(offenderMatchService.getOffenderMatchDetailsByDefendantId(DEFENDANT_ID)).thenReturn(List.of(detail1, detail2));
+        when(offenderMatchService.getOffenderMatchDetailsByDefendantId(DEFENDANT_ID)).thenReturn(Mono.just(List.of(detail1, detail2)));
 
         final var body = webTestClient.get()
                 .uri(String.format(OFFENDER_MATCHES_BY_DEFENDANT_ID_DETAIL_PATH, DEFENDANT_ID))
@@ -102,6 +104,30 @@ class OffenderMatchesControllerTest {
         validateBody(body);
     }
 
+    @Test
+    void givenMultipleMatches_whenStreamOffenderMatchDetailByDefendantId_thenReturnEachAsNdjson() {
+
+        var detail1 = buildOffenderMatchDetail("Christopher", DefendantProbationStatus.PREVIOUSLY_KNOWN);
+        var detail2 = buildOffenderMatchDetail("Christian", DefendantProbationStatus.CURRENT);
+
+        when(offenderMatchService.streamOffenderMatchDetailsByDefendantId(DEFENDANT_ID)).thenReturn(Flux.just(detail1, detail2));
+
+        final var details = webTestClient.get()
+                .uri(String.format(OFFENDER_MATCHES_BY_DEFENDANT_ID_DETAIL_PATH, DEFENDANT_ID))
+                .accept(APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(APPLICATION_NDJSON)
+                .returnResult(OffenderMatchDetail.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(details).extracting(OffenderMatchDetail::getForename).containsExactly("Christopher", "Christian");
+        verify(offenderMatchService).streamOffenderMatchDetailsByDefendantId(DEFENDANT_ID);
+        verifyNoMoreInteractions(offenderMatchService);
+    }
+
     @Test
     void givenDefendantIdMatch_whenGetOffenderMatchesByDefendantId_thenReturn() {
         // given
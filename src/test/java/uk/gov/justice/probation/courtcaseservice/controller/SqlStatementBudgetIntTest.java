@@ -0,0 +1,99 @@
+package uk.gov.justice.probation.courtcaseservice.controller;
+
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+import uk.gov.justice.probation.courtcaseservice.TestAppender;
+import uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudget;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+import static uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudgetFilter.BUDGET_HEADER;
+import static uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudgetFilter.STATEMENTS_HEADER;
+import static uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudgetFilter.TIME_HEADER;
+import static uk.gov.justice.probation.courtcaseservice.testUtil.TokenHelper.getToken;
+
+@Sql(scripts = "classpath:before-test.sql", config = @SqlConfig(transactionMode = ISOLATED))
+@Sql(scripts = "classpath:after-test.sql", config = @SqlConfig(transactionMode = ISOLATED), executionPhase = AFTER_TEST_METHOD)
+public class SqlStatementBudgetIntTest extends BaseIntTest {
+
+    private static final String PUT_HEARING = "PUT /hearing/{hearingId}";
+
+    @Autowired
+    SqlStatementBudget sqlStatementBudget;
+
+    @Value("classpath:integration/request/PUT_courtCaseExtended_success.json")
+    private Resource hearingResource;
+
+    @Test
+    public void givenHearing_whenGetHearing_thenReportStatementsWithinBudget() {
+        final var response = given()
+            .auth()
+            .oauth2(getToken())
+            .when()
+            .get("/hearing/{hearingId}", "1f93aa0a-7e46-4885-a1cb-f25a4be33a00")
+            .then()
+            .statusCode(200)
+            .extract();
+
+        final var statements = Integer.parseInt(response.header(STATEMENTS_HEADER));
+        final var budget = Integer.parseInt(response.header(BUDGET_HEADER));
+        assertThat(statements).isPositive();
+        assertThat(budget).isEqualTo(sqlStatementBudget.getBudget("GET /hearing/{hearingId}"));
+        assertThat(statements).isLessThanOrEqualTo(budget);
+        assertThat(Long.parseLong(response.header(TIME_HEADER))).isNotNegative();
+    }
+
+    @Test
+    public void givenUnknownHearing_whenGetHearing_thenReportStatementsOnErrorResponse() {
+        final var response = given()
+            .auth()
+            .oauth2(getToken())
+            .when()
+            .get("/hearing/{hearingId}", "does-not-exist")
+            .then()
+            .statusCode(404)
+            .extract();
+
+        assertThat(Integer.parseInt(response.header(STATEMENTS_HEADER))).isPositive();
+    }
+
+    @Test
+    public void givenHearingSavedBeforeMono_whenPutHearing_thenCountStatementsAgainstBudget() throws IOException {
+        sqlStatementBudget.getOperations().put(PUT_HEARING, 1);
+        TestAppender.events.clear();
+        try {
+            given()
+                .auth()
+                .oauth2(getToken())
+                .contentType(ContentType.JSON)
+                .body(Files.readString(hearingResource.getFile().toPath()))
+                .when()
+                .put("/hearing/{hearingId}", "75e63d6c-5487-4244-a5bc-7cf8a38992db")
+                .then()
+                .statusCode(201);
+
+            // Logged when the request thread leaves the filter, which may be after the response is sent
+            await().atMost(Duration.ofSeconds(5)).ignoreExceptions().untilAsserted(() ->
+                assertThat(new ArrayList<>(TestAppender.events))
+                    .anySatisfy(event -> assertThat(event.getFormattedMessage())
+                        .startsWith("SQL statement budget exceeded for " + PUT_HEARING + ": ")
+                        .endsWith(", budget 1")));
+        } finally {
+            sqlStatementBudget.getOperations().remove(PUT_HEARING);
+        }
+    }
+}
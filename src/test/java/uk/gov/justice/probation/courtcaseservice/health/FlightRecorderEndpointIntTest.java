@@ -0,0 +1,45 @@
+package uk.gov.justice.probation.courtcaseservice.health;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.justice.probation.courtcaseservice.testUtil.TokenHelper.getAdminToken;
+import static uk.gov.justice.probation.courtcaseservice.testUtil.TokenHelper.getToken;
+
+public class FlightRecorderEndpointIntTest extends BaseIntTest {
+
+    @Test
+    public void givenNoAdminRole_whenDumpRecording_thenForbidden() {
+        given()
+                .when()
+                .get("/jfr")
+                .then()
+                .statusCode(401);
+
+        given()
+                .auth()
+                .oauth2(getToken())
+                .when()
+                .get("/jfr")
+                .then()
+                .statusCode(403);
+    }
+
+    @Test
+    public void givenAdminRole_whenDumpRecording_thenReturnJfrFile() {
+        final var recording = given()
+                .auth()
+                .oauth2(getAdminToken())
+                .when()
+                .get("/jfr")
+                .then()
+                .statusCode(200)
+                .contentType("application/octet-stream")
+                .extract().asByteArray();
+
+        // JFR chunk header magic
+        assertThat(new String(recording, 0, 4)).isEqualTo("FLR\0");
+    }
+}
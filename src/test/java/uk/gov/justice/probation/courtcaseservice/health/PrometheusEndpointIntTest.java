@@ -0,0 +1,31 @@
+package uk.gov.justice.probation.courtcaseservice.health;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrometheusEndpointIntTest extends BaseIntTest {
+
+    @Test
+    public void shouldExposeHotPathMetrics() {
+        given()
+                .when()
+                .get("/health")
+                .then()
+                .statusCode(200);
+
+        String response = given()
+                .when()
+                .get("/prometheus")
+                .then()
+                .statusCode(200)
+                .extract().response().asString();
+
+        assertThat(response).contains("hikaricp_connections_active");
+        assertThat(response).contains("domain_events_outbox_lag_seconds");
+        // SLO buckets are published so that latency percentiles can be alerted on
+        assertThat(response).containsPattern("http_server_requests_seconds_bucket\\{.*le=\"0\\.25\"");
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_SQL)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+    }
+
+    @Test
+    void givenLagWithinMax_whenCheckLag_thenInSync() throws SQLException {
+        final var monitor = new ReplicaLagMonitor(replica, 1000, 500, new SimpleMeterRegistry());
+        when(resultSet.getBigDecimal(1)).thenReturn(BigDecimal.valueOf(200));
+
+        monitor.checkLag();
+
+        assertThat(monitor.isInSync()).isTrue();
+    }
+
+    @Test
+    void givenLagOverMax_whenCheckLag_thenNotInSync() throws SQLException {
+        final var monitor = new ReplicaLagMonitor(replica, 1000, 500, new SimpleMeterRegistry());
+        when(resultSet.getBigDecimal(1)).thenReturn(BigDecimal.valueOf(1500));
+
+        monitor.checkLag();
+
+        assertThat(monitor.isInSync()).isFalse();
+    }
+
+    @Test
+    void givenNoCheckForSeveralIntervals_whenIsInSync_thenNotInSync() throws SQLException {
+        final var monitor = new ReplicaLagMonitor(replica, 1000, 10, new SimpleMeterRegistry());
+        when(resultSet.getBigDecimal(1)).thenReturn(BigDecimal.ZERO);
+
+        monitor.checkLag();
+
+        assertThat(monitor.isInSync()).isTrue();
+        await().atMost(Duration.ofSeconds(1)).until(() -> !monitor.isInSync());
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.justice.probation.courtcaseservice.jpa.ReplicaRoutingDataSource.Target;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+
+    private boolean replicaInSync;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        replicaInSync = true;
+        dataSource = new ReplicaRoutingDataSource(primary, replica, () -> replicaInSync);
+        ReplicaRoutingDataSource.allowReplica();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.clear();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void givenReadOnlyTransaction_whenReplicaAllowedAndInSync_thenUseReplica() {
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Target.REPLICA);
+    }
+
+    @Test
+    void givenReadWriteTransaction_thenUsePrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+    }
+
+    @Test
+    void givenReplicaNotAllowed_thenUsePrimary() {
+        ReplicaRoutingDataSource.clear();
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+    }
+
+    @Test
+    void givenReplicaLagging_thenUsePrimary() {
+        replicaInSync = false;
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Target.PRIMARY);
+    }
+}
@@ -0,0 +1,206 @@
+package uk.gov.justice.probation.courtcaseservice.jpa;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+import uk.gov.justice.probation.courtcaseservice.application.ReplicaReadFilter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs a primary and a streaming replica in two containers, and checks which of them read-only and read-write
+ * transactions are given, with pg_is_in_recovery(), which is true only on the replica.
+ */
+class ReplicaRoutingIntTest {
+    private static final DockerImageName IMAGE = DockerImageName.parse("bitnami/postgresql:11");
+    private static final String PASSWORD = "itpass";
+    private static final Map<String, String> REPLICATION_ENV = Map.of(
+        "POSTGRESQL_REPLICATION_USER", "replicator",
+        "POSTGRESQL_REPLICATION_PASSWORD", "replpass",
+        "POSTGRESQL_PASSWORD", PASSWORD);
+
+    private static final Network network = Network.newNetwork();
+
+    private static final GenericContainer<?> primary = new GenericContainer<>(IMAGE)
+        .withNetwork(network)
+        .withNetworkAliases("primary")
+        .withEnv(REPLICATION_ENV)
+        .withEnv("POSTGRESQL_REPLICATION_MODE", "master")
+        .withExposedPorts(5432)
+        .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 1));
+
+    private static final GenericContainer<?> replica = new GenericContainer<>(IMAGE)
+        .withNetwork(network)
+        .withEnv(REPLICATION_ENV)
+        .withEnv("POSTGRESQL_REPLICATION_MODE", "slave")
+        .withEnv("POSTGRESQL_MASTER_HOST", "primary")
+        .withEnv("POSTGRESQL_MASTER_PORT_NUMBER", "5432")
+        .withExposedPorts(5432)
+        .dependsOn(primary)
+        .waitingFor(Wait.forLogMessage(".*database system is ready to accept read only connections.*", 1));
+
+    private static JdbcTemplate primaryJdbc;
+    private static JdbcTemplate replicaJdbc;
+    private static ReplicaLagMonitor lagMonitor;
+    private static JdbcTemplate routedJdbc;
+    private static TransactionTemplate readOnly;
+    private static TransactionTemplate readWrite;
+
+    @BeforeAll
+    static void startDatabases() {
+        replica.start();
+        primaryJdbc = new JdbcTemplate(dataSource(primary));
+        replicaJdbc = new JdbcTemplate(dataSource(replica));
+
+        primaryJdbc.execute("create table replica_check (id int)");
+        primaryJdbc.update("insert into replica_check values (1)");
+        await().atMost(Duration.ofSeconds(30)).ignoreExceptions()
+            .until(() -> replicaJdbc.queryForObject("select count(*) from replica_check", Integer.class) == 1);
+
+        lagMonitor = new ReplicaLagMonitor(dataSource(replica), 0, 500, new SimpleMeterRegistry());
+        final var routed = new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(dataSource(primary), dataSource(replica), lagMonitor::isInSync));
+        routedJdbc = new JdbcTemplate(routed);
+        final var transactionManager = new DataSourceTransactionManager(routed);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterAll
+    static void stopDatabases() {
+        replica.stop();
+        primary.stop();
+        network.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.clear();
+    }
+
+    @Test
+    void givenReplicaInSync_whenReadOnlyTransaction_thenReadFromReplica() {
+        awaitInSync();
+        ReplicaRoutingDataSource.allowReplica();
+
+        assertThat(readOnly.execute(status -> isReplica())).isTrue();
+    }
+
+    @Test
+    void givenReplicaInSync_whenReadWriteTransaction_thenUsePrimary() {
+        awaitInSync();
+        ReplicaRoutingDataSource.allowReplica();
+
+        assertThat(readWrite.execute(status -> isReplica())).isFalse();
+    }
+
+    @Test
+    void givenReplicaInSync_whenReplicaNotAllowed_thenReadFromPrimary() {
+        awaitInSync();
+
+        assertThat(readOnly.execute(status -> isReplica())).isFalse();
+    }
+
+    @Test
+    void givenGetRequest_whenReadYourWritesRequested_thenReadFromPrimary() throws Exception {
+        awaitInSync();
+        final var readFromReplica = new AtomicBoolean();
+        final var filter = new ReplicaReadFilter();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/hearing/1"), new MockHttpServletResponse(),
+            (request, response) -> readFromReplica.set(readOnly.execute(status -> isReplica())));
+        assertThat(readFromReplica).isTrue();
+
+        final var request = new MockHttpServletRequest("GET", "/hearing/1");
+        request.addHeader(ReplicaReadFilter.READ_YOUR_WRITES_HEADER, "true");
+        filter.doFilter(request, new MockHttpServletResponse(),
+            (req, response) -> readFromReplica.set(readOnly.execute(status -> isReplica())));
+        assertThat(readFromReplica).isFalse();
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/hearing/1"), new MockHttpServletResponse(),
+            (req, response) -> readFromReplica.set(readOnly.execute(status -> isReplica())));
+        assertThat(readFromReplica).isFalse();
+    }
+
+    @Test
+    void givenReplicaReplayPaused_whenWriteOnPrimary_thenReadFromPrimaryUntilReplayed() {
+        awaitInSync();
+        ReplicaRoutingDataSource.allowReplica();
+
+        replicaJdbc.execute("select pg_wal_replay_pause()");
+        try {
+            primaryJdbc.update("insert into replica_check values (2)");
+            await().atMost(Duration.ofSeconds(30)).until(() -> {
+                lagMonitor.checkLag();
+                return !lagMonitor.isInSync();
+            });
+
+            assertThat(readOnly.execute(status -> isReplica())).isFalse();
+            assertThat(readOnly.execute(status -> routedJdbc.queryForObject("select count(*) from replica_check", Integer.class))).isEqualTo(2);
+        } finally {
+            replicaJdbc.execute("select pg_wal_replay_resume()");
+        }
+
+        awaitInSync();
+        assertThat(readOnly.execute(status -> isReplica())).isTrue();
+    }
+
+    @Test
+    void givenReplicaDisconnectedFromPrimary_whenNothingLeftToReplay_thenReadFromPrimary() {
+        awaitInSync();
+        ReplicaRoutingDataSource.allowReplica();
+
+        // Keep the replica's WAL receiver from reconnecting once its connection is ended
+        primaryJdbc.execute("alter role replicator nologin");
+        try {
+            primaryJdbc.queryForList("select pg_terminate_backend(pid) from pg_stat_replication");
+            await().atMost(Duration.ofSeconds(30)).until(() -> {
+                lagMonitor.checkLag();
+                return !lagMonitor.isInSync();
+            });
+
+            assertThat(readOnly.execute(status -> isReplica())).isFalse();
+        } finally {
+            primaryJdbc.execute("alter role replicator login");
+        }
+
+        awaitInSync();
+        assertThat(readOnly.execute(status -> isReplica())).isTrue();
+    }
+
+    private static void awaitInSync() {
+        await().atMost(Duration.ofSeconds(30)).until(() -> {
+            lagMonitor.checkLag();
+            return lagMonitor.isInSync();
+        });
+    }
+
+    private static boolean isReplica() {
+        return routedJdbc.queryForObject("select pg_is_in_recovery()", Boolean.class);
+    }
+
+    private static DriverManagerDataSource dataSource(GenericContainer<?> container) {
+        return new DriverManagerDataSource(
+            String.format("jdbc:postgresql://%s:%d/postgres", container.getHost(), container.getMappedPort(5432)),
+            "postgres", PASSWORD);
+    }
+}
@@ -119,6 +119,23 @@ public class EntityHelper {
                 .build();
     }
 
+    /**
+     * A hearing whose defendant has a second offence with the given offence code, see {@link #codedOffence(HearingEntity)}.
+     */
+    public static HearingEntity aHearingEntityWithOffenceCode(String offenceCode) {
+        final var hearing = aHearingEntity(CRN, CASE_NO);
+        hearing.getHearingDefendants().get(0).getOffences().add(OffenceEntity.builder()
+                .title("OFFENCE TITLE 2")
+                .sequence(2)
+                .offenceCode(offenceCode)
+                .build());
+        return hearing;
+    }
+
+    public static OffenceEntity codedOffence(HearingEntity hearing) {
+        return hearing.getHearingDefendants().get(0).getOffences().get(1);
+    }
+
     public static HearingDefendantEntity aHearingDefendantEntity() {
         return aHearingDefendantEntity(DEFENDANT_ADDRESS, NAME);
     }
@@ -0,0 +1,47 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.transaction.TestTransaction;
+import uk.gov.justice.probation.courtcaseservice.application.AuditConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+@Sql(scripts = {
+        "classpath:sql/before-common.sql",
+        "classpath:sql/before-RepositoryTest.sql"
+}, config = @SqlConfig(transactionMode = ISOLATED))
+@Import(AuditConfig.class)
+@TestPropertySource(properties = "audit.mode=change-log")
+class AuditChangeLogIntTest extends BaseRepositoryIntTest {
+
+    @Autowired
+    private HearingRepository hearingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void givenChangeLogMode_whenHearingDeleted_thenWriteOneRowForTransaction() {
+        final var hearing = hearingRepository.findById(-1700028900L).orElseThrow();
+        hearingRepository.delete(hearing);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(count("select count(*) from audit_change_log")).isEqualTo(1);
+        assertThat(count("select count(*) from audit_change_log, jsonb_array_elements(changes) c " +
+            "where c->>'entity' = 'HearingEntity' and c->>'operation' = 'DELETE' and c->>'id' = '-1700028900'")).isEqualTo(1);
+        assertThat(count("select count(*) from audit_change_log, jsonb_array_elements(changes) c " +
+            "where c->>'entity' = 'HearingDayEntity' and c->'state'->>'hearing' = '-1700028900'")).isEqualTo(1);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
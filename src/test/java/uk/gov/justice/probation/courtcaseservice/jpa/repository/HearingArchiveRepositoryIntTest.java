@@ -0,0 +1,90 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+@Sql(scripts = {
+        "classpath:sql/before-common.sql",
+        "classpath:sql/before-RepositoryTest.sql"
+}, config = @SqlConfig(transactionMode = ISOLATED))
+class HearingArchiveRepositoryIntTest extends BaseRepositoryIntTest {
+    private static final LocalDate HORIZON = LocalDate.of(2020, 12, 1);
+
+    @Autowired
+    private HearingArchiveRepository hearingArchiveRepository;
+
+    @Autowired
+    private HearingRepository hearingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void archiveNextCourtCases_shouldArchiveCasesWithNoHearingsSinceHorizon_andRestoreThem() {
+        final var checked = hearingArchiveRepository.archiveNextCourtCases(1000, HORIZON, "test");
+
+        assertThat(checked).isEqualTo(5);
+        assertThat(count("select count(*) from hearing where id = -1700028900")).isZero();
+        assertThat(count("select count(*) from offence where fk_hearing_defendant_id = -1000000")).isZero();
+        assertThat(count("select count(*) from hearing_archive where id = -1700028900")).isEqualTo(1);
+        assertThat(count("select count(*) from hearing where id = -1700028904")).isEqualTo(1);
+
+        final var restored = hearingArchiveRepository.restoreCourtCase("created_clash_id_1", "test");
+
+        assertThat(restored).isEqualTo(1);
+        assertThat(count("select count(*) from court_case where id = -1700028900")).isEqualTo(1);
+        assertThat(count("select count(*) from hearing_day where fk_hearing_id = -1700028900")).isEqualTo(1);
+        assertThat(count("select count(*) from offence where fk_hearing_defendant_id = -1000000")).isEqualTo(2);
+        assertThat(count("select count(*) from hearing_archive where id = -1700028900")).isZero();
+        assertThat(jdbcTemplate.queryForList("select action from archive_log where case_id = 'created_clash_id_1' order by id", String.class))
+            .containsExactly("ARCHIVED", "RESTORED");
+    }
+
+    @Test
+    public void archiveNextCourtCases_shouldArchiveDeletedHearingsOfLiveCases() {
+        jdbcTemplate.update("update hearing set deleted = true where id = -1700028904");
+
+        hearingArchiveRepository.archiveNextCourtCases(1000, HORIZON, "test");
+
+        assertThat(count("select count(*) from hearing where id = -1700028904")).isZero();
+        assertThat(count("select count(*) from court_case where id = -1700028904")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select reason from archive_log where court_case_id = -1700028904", String.class))
+            .isEqualTo("HEARING_DELETED");
+    }
+
+    @Test
+    public void givenLatestHearingDeleted_whenArchived_thenFindCaseByItsNextLatestHearing() {
+        jdbcTemplate.update("update hearing set deleted = true where id = -1700028904");
+
+        hearingArchiveRepository.archiveNextCourtCases(1000, HORIZON, "test");
+
+        assertThat(count("select count(*) from hearing where id = -1700028904")).isZero();
+        assertThat(hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028914", "").get().getId()).isEqualTo(-1700028952L);
+    }
+
+    @Test
+    public void archiveNextCourtCases_shouldResumeAfterLastBatch() {
+        assertThat(hearingArchiveRepository.archiveNextCourtCases(3, HORIZON, "test")).isEqualTo(3);
+        assertThat(hearingArchiveRepository.archiveNextCourtCases(3, HORIZON, "test")).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select last_court_case_id from archive_progress where name = 'hearing-archive'", Long.class))
+            .isNull();
+    }
+
+    @Test
+    public void restoreCourtCase_shouldRestoreNothingForCaseNotArchived() {
+        assertThat(hearingArchiveRepository.restoreCourtCase("case_list_3", "test")).isZero();
+        assertThat(count("select count(*) from archive_log")).isZero();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -109,43 +109,52 @@ class HearingRepositoryFacadeTest {
         verifyNoMoreInteractions(hearingRepository, defendantRepository);
     }
 
+    @Test
+    void givenCaseExistsWithListNo_whenFindByCourtCodeCaseNoAndListNo_thenReturnWithHearingId() {
+        final var hearing = HEARING_WITH_MULTIPLE_DEFENDANTS.withListNo(LIST_NO);
+        when(hearingRepository.findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO)).thenReturn(Optional.of(hearing));
+
+        final var actual = facade.findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO, LIST_NO);
+
+        AssertionsForClassTypes.assertThat(actual).get().isEqualTo(hearing);
+        Assertions.assertThat(actual.get().getHearingId()).isEqualTo(HEARING_ID);
+        verify(hearingRepository).findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO);
+        verifyNoMoreInteractions(hearingRepository, defendantRepository);
+    }
+
     @Test
     void givenCaseDoesNotExistWithLisNo_whenFindByCourtCodeCaseNoAndListNo_thenFallbackAndFetchWithoutListNo() {
-        when(hearingRepository.findByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO)).thenReturn(Optional.empty());
-        when(hearingRepository.findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO)).thenReturn(Optional.of(HEARING_WITH_MULTIPLE_DEFENDANTS));
+        when(hearingRepository.findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO)).thenReturn(Optional.of(HEARING_WITH_MULTIPLE_DEFENDANTS));
 
         final var actual = facade.findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO, LIST_NO);
         Assertions.assertThat(actual.get().getHearingId()).isNull();
 
-        AssertionsForClassTypes.assertThat(actual).get().isEqualTo(HEARING_WITH_MULTIPLE_DEFENDANTS);
-        verify(hearingRepository).findByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO);
-        verify(hearingRepository).findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO);
+        AssertionsForClassTypes.assertThat(actual).get().isEqualTo(HEARING_WITH_MULTIPLE_DEFENDANTS.withHearingId(null));
+        verify(hearingRepository).findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO);
         verifyNoMoreInteractions(hearingRepository, defendantRepository);
     }
 
     @Test
     void givenCaseDoesNotExistWithCourtCodeAndCaseNo_whenFindByCourtCodeCaseNoAndListNo_thenReturnEmpty() {
-        when(hearingRepository.findByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO)).thenReturn(Optional.empty());
-        when(hearingRepository.findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO)).thenReturn(Optional.empty());
+        when(hearingRepository.findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO)).thenReturn(Optional.empty());
 
         var actual = facade.findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO, LIST_NO);
 
         AssertionsForClassTypes.assertThat(actual).isEmpty();
 
-        verify(hearingRepository).findByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO);
-        verify(hearingRepository).findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO);
+        verify(hearingRepository).findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, LIST_NO);
         verifyNoInteractions(defendantRepository);
         verifyNoMoreInteractions(hearingRepository);
     }
 
     @Test
     void whenFindByCourtCodeCaseNoAnd_NoListNoProvided_thenReturnDefendants() {
-        when(hearingRepository.findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO)).thenReturn(Optional.of(HEARING_WITH_MULTIPLE_DEFENDANTS));
+        when(hearingRepository.findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, "")).thenReturn(Optional.of(HEARING_WITH_MULTIPLE_DEFENDANTS));
         final var actual = facade.findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO, null);
         Assertions.assertThat(actual.get().getHearingId()).isEqualTo(HEARING_ID);
 
         AssertionsForClassTypes.assertThat(actual).get().isEqualTo(HEARING_WITH_MULTIPLE_DEFENDANTS);
-        verify(hearingRepository).findByCourtCodeAndCaseNo(COURT_CODE, CASE_NO);
+        verify(hearingRepository).findLatestByCourtCodeCaseNoAndListNo(COURT_CODE, CASE_NO, "");
         verifyNoMoreInteractions(hearingRepository, defendantRepository);
     }
 
@@ -2,6 +2,7 @@ package uk.gov.justice.probation.courtcaseservice.jpa.repository;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
 
@@ -18,14 +19,49 @@ import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.IS
 class HearingRepositoryIntTest extends BaseRepositoryIntTest {
     @Autowired
     private HearingRepository hearingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
-    public void findByCourtCodeAndCaseNo_shouldReturnOneResultWhereCreatedTimestampsClash() {
-        final var courtCase = hearingRepository.findByCourtCodeCaseNoAndListNo("B10JQ", "1600028913", "3rd");
+    public void findLatestByCourtCodeCaseNoAndListNo_shouldReturnOneResultWhereCreatedTimestampsClash() {
+        final var courtCase = hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028913", "3rd");
         assertThat(courtCase).isPresent();
         assertThat(courtCase.get().getId()).isEqualTo(-1700028900L);
     }
 
+    @Test
+    public void givenNoHearingForListNo_whenFindLatestByCourtCodeCaseNoAndListNo_thenReturnLatestCourtCaseForAnyList() {
+        assertThat(hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028914", "1st").get().getId()).isEqualTo(-1700028904L);
+        assertThat(hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028914", "").get().getId()).isEqualTo(-1700028904L);
+    }
+
+    @Test
+    public void givenListNoChanged_whenFindLatestByCourtCodeCaseNoAndListNo_thenFoundByNewListNo() {
+        jdbcTemplate.update("update hearing set list_no = '2nd' where id = -1700028900");
+
+        final var hearing = hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028913", "2nd");
+        assertThat(hearing.get().getId()).isEqualTo(-1700028900L);
+        assertThat(hearing.get().getListNo()).isEqualTo("2nd");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from case_no_lookup where fk_hearing_id = -1700028900 and list_no = '3rd'", Integer.class))
+            .isEqualTo(0);
+    }
+
+    @Test
+    public void givenOlderHearingWithOldListNo_whenListNoChanged_thenFindOlderHearingByOldListNo() {
+        jdbcTemplate.update("update hearing set list_no = '3rd' where id = -1700028901");
+        jdbcTemplate.update("update hearing set list_no = '2nd' where id = -1700028900");
+
+        assertThat(hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028913", "3rd").get().getId()).isEqualTo(-1700028901L);
+        assertThat(hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028913", "2nd").get().getId()).isEqualTo(-1700028900L);
+    }
+
+    @Test
+    public void givenLatestCourtCaseDeleted_whenFindLatestByCourtCodeCaseNoAndListNo_thenReturnEmpty() {
+        jdbcTemplate.update("update court_case set deleted = true where id = -1700028904");
+
+        assertThat(hearingRepository.findLatestByCourtCodeCaseNoAndListNo("B10JQ", "1600028914", "")).isEmpty();
+    }
+
     @Test
     public void findLastModifiedByHearingDay_shouldReturnOneResultWhereCreatedTimestampsClash() {
         final var lastModified = hearingRepository.findLastModifiedByHearingDay("B10JQ", LocalDate.of(2019, 12, 14));
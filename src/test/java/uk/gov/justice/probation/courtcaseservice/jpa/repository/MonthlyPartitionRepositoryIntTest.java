@@ -0,0 +1,61 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+@Sql(scripts = {
+        "classpath:sql/before-common.sql",
+        "classpath:sql/before-RepositoryTest.sql"
+}, config = @SqlConfig(transactionMode = ISOLATED))
+class MonthlyPartitionRepositoryIntTest extends BaseRepositoryIntTest {
+    private static final LocalDate FUTURE_MONTH = LocalDate.of(2099, 1, 1);
+
+    @Autowired
+    private MonthlyPartitionRepository monthlyPartitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void createPartitions_shouldCreateEachMissingMonthOnce() {
+        assertThat(monthlyPartitionRepository.createPartitions("hearing_day", "hearing_day", FUTURE_MONTH, FUTURE_MONTH.plusMonths(1))).isEqualTo(2);
+        assertThat(monthlyPartitionRepository.createPartitions("hearing_day", "hearing_day", FUTURE_MONTH, FUTURE_MONTH.plusMonths(1))).isZero();
+
+        assertThat(monthlyPartitionRepository.findPartitionNames("hearing_day"))
+            .contains("hearing_day_historic", "hearing_day_default", "hearing_day_2099_01", "hearing_day_2099_02");
+    }
+
+    @Test
+    public void createPartitions_shouldMoveHearingDaysFromDefaultPartition() {
+        jdbcTemplate.update("insert into hearing_day (id, fk_hearing_id, court_code, court_room, hearing_day, hearing_time, created) " +
+            "values (-1799000000, -1700028900, 'B10JQ', '1', ?, '09:00', now())", FUTURE_MONTH.plusDays(14));
+        assertThat(partitionOf(-1799000000L)).isEqualTo("hearing_day_default");
+
+        monthlyPartitionRepository.createPartitions("hearing_day", "hearing_day", FUTURE_MONTH, FUTURE_MONTH);
+
+        assertThat(partitionOf(-1799000000L)).isEqualTo("hearing_day_2099_01");
+    }
+
+    @Test
+    public void detachPartitions_shouldDetachMonthsEndingBeforeGivenMonth() {
+        monthlyPartitionRepository.createPartitions("audit_change_log", "created", FUTURE_MONTH, FUTURE_MONTH.plusMonths(1));
+
+        assertThat(monthlyPartitionRepository.detachPartitions("audit_change_log", FUTURE_MONTH.plusMonths(1))).isGreaterThanOrEqualTo(1);
+
+        assertThat(monthlyPartitionRepository.findPartitionNames("audit_change_log"))
+            .doesNotContain("audit_change_log_2099_01")
+            .contains("audit_change_log_2099_02", "audit_change_log_default");
+    }
+
+    private String partitionOf(long hearingDayId) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from hearing_day where id = ?", String.class, hearingDayId);
+    }
+}
@@ -0,0 +1,100 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * The plan Postgres chose for a query, from EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON), which runs it.
+ */
+class QueryPlan {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String PARTITION_SUFFIX = "(_\\d{4}_\\d{2}|_default|_historic)?";
+
+    private final JsonNode explain;
+    private final JsonNode root;
+
+    private QueryPlan(JsonNode explain) {
+        this.explain = explain;
+        this.root = explain.get(0).get("Plan");
+    }
+
+    @SneakyThrows
+    static QueryPlan explain(NamedParameterJdbcTemplate jdbcTemplate, String sql, Map<String, ?> params) {
+        final var json = jdbcTemplate.queryForObject("explain (analyze, buffers, format json) " + sql, params, String.class);
+        return new QueryPlan(OBJECT_MAPPER.readTree(json));
+    }
+
+    /**
+     * Shared buffers hit or read by the whole query, each one a page of table or index
+     */
+    long getBuffers() {
+        return buffers(root);
+    }
+
+    long getRows() {
+        return root.path("Actual Rows").asLong();
+    }
+
+    double getExecutionTimeMs() {
+        return explain.get(0).path("Execution Time").asDouble();
+    }
+
+    /**
+     * @return tables from the given ones which are read with a sequential scan anywhere in the plan, including their
+     * monthly, default and historic partitions. A scan of an empty partition reads no pages and is ignored.
+     */
+    List<String> getSequentialScans(Collection<String> tables) {
+        final var scanned = new ArrayList<String>();
+        collectSequentialScans(root, tables, scanned);
+        return scanned;
+    }
+
+    /**
+     * @return the partitions of the given table which the query read, after any pruning
+     */
+    Set<String> getPartitionsScanned(String table) {
+        final var partitions = new TreeSet<String>();
+        collectPartitionsScanned(root, table, partitions);
+        return partitions;
+    }
+
+    private static void collectSequentialScans(JsonNode node, Collection<String> tables, List<String> scanned) {
+        final var relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && buffers(node) > 0
+            && tables.stream().anyMatch(table -> isTableOrPartition(relation, table))) {
+            scanned.add(relation);
+        }
+        node.path("Plans").forEach(child -> collectSequentialScans(child, tables, scanned));
+    }
+
+    private static void collectPartitionsScanned(JsonNode node, String table, Set<String> partitions) {
+        final var relation = node.path("Relation Name").asText();
+        if (!relation.equals(table) && isTableOrPartition(relation, table) && node.path("Actual Loops").asLong() > 0) {
+            partitions.add(relation);
+        }
+        node.path("Plans").forEach(child -> collectPartitionsScanned(child, table, partitions));
+    }
+
+    private static boolean isTableOrPartition(String relation, String table) {
+        return relation.matches(Pattern.quote(table) + PARTITION_SUFFIX);
+    }
+
+    private static long buffers(JsonNode node) {
+        return node.path("Shared Hit Blocks").asLong() + node.path("Shared Read Blocks").asLong();
+    }
+
+    @SneakyThrows
+    String toPrettyString() {
+        return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(explain);
+    }
+}
@@ -0,0 +1,186 @@
+package uk.gov.justice.probation.courtcaseservice.jpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import uk.gov.justice.probation.courtcaseservice.testUtil.ScaleFixtureGenerator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the plans of the hot repository queries against a generated data set, failing if a plan reads one of the large
+ * tables sequentially or touches more buffers than its budget. Budgets are a fixed cost plus a cost per row returned,
+ * so they hold as the data set grows: run with -Pfixture.cases=2000000 to check at production volume. Plans are written
+ * to build/reports/query-plans. Queries for a hearing day must read only that month's hearing_day partition.
+ * <p>
+ * Does not extend {@link BaseRepositoryIntTest}, as the data set is generated once for the class rather than per test.
+ */
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanIntTest {
+    private static final Path REPORT_DIR = Path.of("build", "reports", "query-plans");
+    private static final List<String> LARGE_TABLES = List.of("court_case", "hearing", "hearing_day", "hearing_defendant", "defendant",
+        "offence", "offender", "offender_match_group", "offender_match");
+    // A Libra case with two hearings and offender matches for its defendant
+    private static final int CASE = 102;
+
+    private final ScaleFixtureGenerator.Scale scale = ScaleFixtureGenerator.Scale.ofCases(Integer.getInteger("fixture.cases", 20_000));
+
+    @Autowired
+    private DataSource dataSource;
+
+    private ScaleFixtureGenerator generator;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void generateFixtures() {
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        generator = new ScaleFixtureGenerator(dataSource);
+        generator.clear();
+        generator.generate(scale);
+    }
+
+    @AfterAll
+    void clearFixtures() {
+        generator.clear();
+    }
+
+    @Test
+    void findByCourtCodeAndHearingDay() {
+        final var plan = assertPlan("findByCourtCodeAndHearingDay", HearingRepository.class, Map.of(
+            "courtCode", courtCode(CASE),
+            "hearingDay", scale.hearingDay(CASE)), 200, 20, String.class, LocalDate.class);
+
+        assertReadsOneHearingDayPartition(plan);
+    }
+
+    @Test
+    void findByCourtCodeAndHearingDay_createdBetween() {
+        final var plan = assertPlan("findByCourtCodeAndHearingDay", HearingRepository.class, Map.of(
+            "courtCode", courtCode(CASE),
+            "hearingDay", scale.hearingDay(CASE),
+            "createdAfter", LocalDateTime.of(2000, 1, 1, 0, 0),
+            "createdBefore", LocalDateTime.now().plusYears(1)), 200, 20, String.class, LocalDate.class, LocalDateTime.class, LocalDateTime.class);
+
+        assertReadsOneHearingDayPartition(plan);
+    }
+
+    @Test
+    void findLastModifiedByHearingDay() {
+        final var plan = assertPlan("findLastModifiedByHearingDay", HearingRepository.class, Map.of(
+            "courtCode", courtCode(CASE),
+            "hearingDay", scale.hearingDay(CASE)), 200, 0, String.class, LocalDate.class);
+
+        assertReadsOneHearingDayPartition(plan);
+    }
+
+    @Test
+    void findLatestByCourtCodeCaseNoAndListNo() {
+        assertPlan("findLatestByCourtCodeCaseNoAndListNo", HearingRepository.class, Map.of(
+            "courtCode", courtCode(CASE),
+            "caseNo", scale.caseNo(CASE),
+            "listNo", "1st"), 30, 0, String.class, String.class, String.class);
+    }
+
+    @Test
+    void findHearingsByCaseId() {
+        assertPlan("findHearingsByCaseId", HearingRepository.class, Map.of(
+            "caseId", caseId(CASE)), 100, 20, String.class);
+    }
+
+    // Hibernate loads the days of a hearing by fk_hearing_id, which is not the partition key, so this probes the
+    // fk_hearing_id index of every hearing_day partition. A probe of a partition without the hearing's days reads two
+    // or three index pages, so the year of months, three ahead, historic and default partitions cost about 50 buffers
+    // and stay within the budget the case number lookups had before partitioning.
+    @Test
+    void findHearingDaysByHearingId() {
+        assertPlan("findHearingDaysByHearingId", "select * from hearing_day where fk_hearing_id = :hearingId",
+            Map.of("hearingId", ScaleFixtureGenerator.ID_BASE + CASE * 3L), 100, 0);
+    }
+
+    @Test
+    void findCrnsByHearingDay() {
+        final var plan = assertPlan("findCrnsByHearingDay", HearingRepository.class, Map.of(
+            "hearingDay", scale.hearingDay(CASE)), 500, 100, LocalDate.class);
+
+        assertReadsOneHearingDayPartition(plan);
+    }
+
+    @Test
+    void getMatchCountByCaseIdAndDefendant() {
+        final var defendantId = jdbcTemplate.queryForObject("select defendant_id from offender_match_group where id = :id",
+            Map.of("id", ScaleFixtureGenerator.ID_BASE + CASE * 2L), String.class);
+        assertPlan("getMatchCountByCaseIdAndDefendant", GroupedOffenderMatchRepository.class, Map.of(
+            "caseId", caseId(CASE),
+            "defendantId", defendantId), 50, 0, String.class, String.class);
+    }
+
+    private QueryPlan assertPlan(String methodName, Class<?> repository, Map<String, ?> params, long fixedBuffers, long buffersPerRow,
+                            Class<?>... parameterTypes) {
+        final String sql;
+        try {
+            sql = repository.getMethod(methodName, parameterTypes).getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return assertPlan(methodName + "_" + parameterTypes.length, sql, params, fixedBuffers, buffersPerRow);
+    }
+
+    private QueryPlan assertPlan(String name, String sql, Map<String, ?> params, long fixedBuffers, long buffersPerRow) {
+        final var plan = QueryPlan.explain(jdbcTemplate, sql, params);
+        write(name, plan);
+        log.info("{} returned {} rows in {}ms using {} buffers", name, plan.getRows(), plan.getExecutionTimeMs(), plan.getBuffers());
+
+        assertThat(plan.getSequentialScans(LARGE_TABLES))
+            .as("sequential scans in %s", name)
+            .isEmpty();
+        assertThat(plan.getBuffers())
+            .as("buffers used by %s returning %d rows", name, plan.getRows())
+            .isLessThanOrEqualTo(fixedBuffers + buffersPerRow * plan.getRows());
+        return plan;
+    }
+
+    private static void assertReadsOneHearingDayPartition(QueryPlan plan) {
+        assertThat(plan.getPartitionsScanned("hearing_day"))
+            .as("hearing_day partitions read")
+            .hasSize(1);
+    }
+
+    private String courtCode(int caseIndex) {
+        return scale.courtCode(caseIndex % scale.getCourts());
+    }
+
+    private String caseId(int caseIndex) {
+        return jdbcTemplate.queryForObject("select case_id from court_case where id = :id",
+            Map.of("id", ScaleFixtureGenerator.ID_BASE + caseIndex), String.class);
+    }
+
+    private static void write(String name, QueryPlan plan) {
+        try {
+            Files.createDirectories(REPORT_DIR);
+            Files.writeString(REPORT_DIR.resolve(name + ".json"), plan.toPrettyString());
+        } catch (IOException e) {
+            log.warn("Unable to write plan for {}", name, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package uk.gov.justice.probation.courtcaseservice.listener;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventListenerMetricsTest {
+
+    private static final String QUEUE = "picprobationoffendereventsqueue";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventListenerMetrics metrics = new EventListenerMetrics(meterRegistry);
+
+    @Test
+    void whenRecordProcessing_thenTimeByQueue() {
+        metrics.recordProcessing(QUEUE, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20));
+
+        final var timer = meterRegistry.get(EventListenerMetrics.PROCESSING_METRIC).tag("queue", QUEUE).timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    void givenSnsTimestamp_whenRecordLag_thenRecordTimeSincePublished() {
+        final var published = Instant.now().minusSeconds(30).toString();
+
+        metrics.recordLag(QUEUE, EventMessage.builder().message("{}").timestamp(published).build());
+
+        final var timer = meterRegistry.get(EventListenerMetrics.LAG_METRIC).tag("queue", QUEUE).timer();
+        assertThat(timer.totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(30);
+    }
+
+    @Test
+    void givenNoOrInvalidTimestamp_whenRecordLag_thenDoNotRecord() {
+        metrics.recordLag(QUEUE, EventMessage.builder().message("{}").build());
+        metrics.recordLag(QUEUE, EventMessage.builder().message("{}").timestamp("yesterday").build());
+
+        assertThat(meterRegistry.find(EventListenerMetrics.LAG_METRIC).timer()).isNull();
+    }
+}
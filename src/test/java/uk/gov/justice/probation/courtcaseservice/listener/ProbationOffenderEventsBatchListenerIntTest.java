@@ -0,0 +1,81 @@
+package uk.gov.justice.probation.courtcaseservice.listener;
+
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sqs.model.PurgeQueueRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.testcontainers.shaded.com.fasterxml.jackson.core.JsonProcessingException;
+import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderProbationStatus;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.OffenderRepository;
+import uk.gov.justice.probation.courtcaseservice.testUtil.OffenderEvent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+@Slf4j
+@Sql(scripts = "classpath:before-test.sql", config = @SqlConfig(transactionMode = ISOLATED))
+@Sql(scripts = "classpath:after-test.sql", config = @SqlConfig(transactionMode = ISOLATED), executionPhase = AFTER_TEST_METHOD)
+@TestPropertySource(properties = "probation-offender-events.batch.enabled=true")
+public class ProbationOffenderEventsBatchListenerIntTest extends BaseIntTest {
+
+    private static final int EVENT_COUNT = 200;
+
+    @Autowired
+    OffenderRepository offenderRepository;
+
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        getOffenderEventReceiverQueueSqsClient().purgeQueue(new PurgeQueueRequest(getOffenderEventReceiverQueueUrl()));
+    }
+
+    @Test
+    public void shouldProcess_BulkRepublishedEvents_AndUpdateOffenderProbationStatusOnce() throws JsonProcessingException {
+        String knownCrn = "X781345";
+
+        // Mostly events for CRNs we don't hold, with repeated events for one we do, as seen when community-api republishes
+        var start = System.nanoTime();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            publishOffenderProbationStatusChangeEvent(i % 10 == 0 ? knownCrn : String.format("Z%06d", i % 50));
+        }
+
+        assertOffenderEventReceiverQueueHasProcessedMessages();
+        var seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Processed {} probation offender events in {}s ({} per second)", EVENT_COUNT, seconds, EVENT_COUNT / seconds);
+
+        var updatedOffenderEntity = offenderRepository.findByCrn(knownCrn).get();
+        assertThat(updatedOffenderEntity.getProbationStatus()).isEqualTo(OffenderProbationStatus.PREVIOUSLY_KNOWN);
+        assertThat(updatedOffenderEntity.getPreviouslyKnownTerminationDate()).isEqualTo(LocalDate.of(2010, 4, 5));
+        assertThat(updatedOffenderEntity.getAwaitingPsr()).isEqualTo(false);
+    }
+
+    private void publishOffenderProbationStatusChangeEvent(String crn) throws JsonProcessingException {
+        var offenderEvent = OffenderEvent.builder()
+            .crn(crn)
+            .offenderId(1L)
+            .sourceId(2L)
+            .eventDateTime(LocalDateTime.now())
+            .build();
+
+        var messageAttribute = new MessageAttributeValue().withDataType("String").withStringValue("SENTENCE_CHANGED");
+        var offenderEventRequest = new PublishRequest(getOffenderEventTopic().getArn(), objectMapper.writeValueAsString(offenderEvent))
+            .withMessageAttributes(Collections.singletonMap("eventType", messageAttribute));
+
+        getOffenderEventTopic().getSnsClient().publish(offenderEventRequest);
+    }
+}
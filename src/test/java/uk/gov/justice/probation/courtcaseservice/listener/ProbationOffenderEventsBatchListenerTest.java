@@ -0,0 +1,166 @@
+package uk.gov.justice.probation.courtcaseservice.listener;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.hmpps.sqs.HmppsQueueService;
+import uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudget;
+import uk.gov.justice.probation.courtcaseservice.service.ProbationRecordSnapshotService;
+import uk.gov.justice.probation.courtcaseservice.service.UserAgnosticOffenderService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProbationOffenderEventsBatchListenerTest {
+
+    private static final String QUEUE_URL = "http://localhost:4566/000000000000/pic_probation_offender_events_queue";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    @Mock
+    private HmppsQueueService hmppsQueueService;
+
+    @Mock
+    private UserAgnosticOffenderService offenderService;
+
+    @Mock
+    private ProbationRecordSnapshotService probationRecordSnapshotService;
+
+    @Mock
+    private AmazonSQS sqsClient;
+
+    @Mock
+    private EventListenerMetrics eventListenerMetrics;
+
+    @Mock
+    private SqlStatementBudget sqlStatementBudget;
+
+    @Captor
+    private ArgumentCaptor<DeleteMessageBatchRequest> deleteRequestCaptor;
+
+    private ProbationOffenderEventsBatchListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new ProbationOffenderEventsBatchListener(hmppsQueueService, offenderService, probationRecordSnapshotService,
+            objectMapper, eventListenerMetrics, sqlStatementBudget, 2000, 100, 4);
+    }
+
+    @Test
+    void givenNoMessages_whenProcessBatch_thenDoNothing() {
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenReturn(new ReceiveMessageResult());
+
+        assertThat(listener.processBatch(sqsClient, QUEUE_URL)).isZero();
+
+        verify(offenderService, never()).updateOffenderProbationStatuses(any(), anyInt());
+        verify(sqsClient, never()).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+    }
+
+    @Test
+    void givenDuplicateCrns_whenProcessBatch_thenUpdateEachCrnOnceAndDeleteAllMessages() {
+        final var firstReceive = IntStream.range(0, 10)
+            .mapToObj(i -> message("m" + i, i % 2 == 0 ? "X111111" : "X222222"))
+            .collect(Collectors.toList());
+        final var secondReceive = List.of(message("m10", "X111111"), message("m11", "X333333"));
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+            .thenReturn(new ReceiveMessageResult().withMessages(firstReceive))
+            .thenReturn(new ReceiveMessageResult().withMessages(secondReceive))
+            .thenReturn(new ReceiveMessageResult());
+        when(offenderService.updateOffenderProbationStatuses(Set.of("X111111", "X222222", "X333333"), 4)).thenReturn(Collections.emptySet());
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class))).thenReturn(new DeleteMessageBatchResult());
+
+        assertThat(listener.processBatch(sqsClient, QUEUE_URL)).isEqualTo(12);
+
+        verify(offenderService).updateOffenderProbationStatuses(Set.of("X111111", "X222222", "X333333"), 4);
+        verify(probationRecordSnapshotService).refreshIfPresent("X111111");
+        verify(probationRecordSnapshotService).refreshIfPresent("X222222");
+        verify(probationRecordSnapshotService).refreshIfPresent("X333333");
+        verify(sqsClient, times(2)).deleteMessageBatch(deleteRequestCaptor.capture());
+        assertThat(deleteRequestCaptor.getAllValues())
+            .flatExtracting(DeleteMessageBatchRequest::getEntries)
+            .extracting(DeleteMessageBatchRequestEntry::getReceiptHandle)
+            .containsExactlyInAnyOrder("m0", "m1", "m2", "m3", "m4", "m5", "m6", "m7", "m8", "m9", "m10", "m11");
+    }
+
+    @Test
+    void givenFailedCrnAndUnreadableMessage_whenProcessBatch_thenLeaveThemOnTheQueue() {
+        final var unreadable = new Message().withMessageId("bad").withReceiptHandle("bad").withBody("not json");
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+            .thenReturn(new ReceiveMessageResult().withMessages(message("m0", "X111111"), message("m1", "X222222"), unreadable))
+            .thenReturn(new ReceiveMessageResult());
+        when(offenderService.updateOffenderProbationStatuses(Set.of("X111111", "X222222"), 4)).thenReturn(Set.of("X222222"));
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class))).thenReturn(new DeleteMessageBatchResult());
+
+        listener.processBatch(sqsClient, QUEUE_URL);
+
+        verify(probationRecordSnapshotService).refreshIfPresent("X111111");
+        verify(probationRecordSnapshotService, never()).refreshIfPresent("X222222");
+        verify(sqsClient).deleteMessageBatch(argThat(request -> request.getEntries().size() == 1
+            && request.getEntries().get(0).getReceiptHandle().equals("m0")));
+    }
+
+    @Test
+    void givenMessageWithoutCrn_whenProcessBatch_thenDeleteItWithoutUpdating() {
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+            .thenReturn(new ReceiveMessageResult().withMessages(message("m0", "")))
+            .thenReturn(new ReceiveMessageResult());
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class))).thenReturn(new DeleteMessageBatchResult());
+
+        listener.processBatch(sqsClient, QUEUE_URL);
+
+        verify(offenderService, never()).updateOffenderProbationStatuses(any(), anyInt());
+        verify(probationRecordSnapshotService, never()).refreshIfPresent(anyString());
+        verify(sqsClient).deleteMessageBatch(argThat(request -> request.getEntries().size() == 1));
+    }
+
+    @Test
+    void givenUpdateFails_whenProcessBatch_thenStillRecordProcessingTime() {
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+            .thenReturn(new ReceiveMessageResult().withMessages(message("m0", "X111111")))
+            .thenReturn(new ReceiveMessageResult());
+        when(offenderService.updateOffenderProbationStatuses(Set.of("X111111"), 4)).thenThrow(new IllegalStateException("failed"));
+
+        assertThatThrownBy(() -> listener.processBatch(sqsClient, QUEUE_URL)).isInstanceOf(IllegalStateException.class);
+
+        verify(eventListenerMetrics).recordProcessing(eq("picprobationoffendereventsqueue"), anyLong());
+        verify(sqsClient, never()).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+    }
+
+    private Message message(String id, String crn) {
+        final var body = String.format("{\"Type\":\"Notification\",\"Message\":\"{\\\"offenderId\\\":1,\\\"crn\\\":\\\"%s\\\"}\"}", crn);
+        return new Message().withMessageId(id).withReceiptHandle(id).withBody(body);
+    }
+}
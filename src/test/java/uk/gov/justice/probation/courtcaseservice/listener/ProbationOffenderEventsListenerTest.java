@@ -8,10 +8,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.application.SqlStatementBudget;
+import uk.gov.justice.probation.courtcaseservice.service.ProbationRecordSnapshotService;
 import uk.gov.justice.probation.courtcaseservice.service.UserAgnosticOffenderService;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.ProbationOffenderEvent;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -27,6 +30,15 @@ public class ProbationOffenderEventsListenerTest {
     @Mock
     private UserAgnosticOffenderService offenderService;
 
+    @Mock
+    private ProbationRecordSnapshotService probationRecordSnapshotService;
+
+    @Mock
+    private EventListenerMetrics eventListenerMetrics;
+
+    @Mock
+    private SqlStatementBudget sqlStatementBudget;
+
     private String offenderEventMessage;
 
 
@@ -48,6 +60,8 @@ public class ProbationOffenderEventsListenerTest {
         probationOffenderEventsListener.processMessage(offenderEventMessage);
 
         verify(offenderService).updateOffenderProbationStatus("crn");
+        verify(probationRecordSnapshotService).refreshIfPresent("crn");
+        verify(eventListenerMetrics).recordProcessing(eq("picprobationoffendereventsqueue"), anyLong());
         verifyNoMoreInteractions(offenderService);
     }
 
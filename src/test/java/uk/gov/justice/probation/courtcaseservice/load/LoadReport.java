@@ -0,0 +1,73 @@
+package uk.gov.justice.probation.courtcaseservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the results of a load test run and writes them as JSON to build/reports/load, one file per run plus
+ * latest.json, so that runs can be compared across releases.
+ */
+@Slf4j
+class LoadReport {
+    private static final Path REPORT_DIR = Path.of("build", "reports", "load");
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Instant started = Instant.now();
+    private final Map<String, Object> settings;
+    private final List<ScenarioResult> results = new ArrayList<>();
+    private final Map<String, Object> measurements = new LinkedHashMap<>();
+
+    LoadReport(Map<String, Object> settings) {
+        this.settings = settings;
+    }
+
+    void addAll(List<ScenarioResult> phaseResults) {
+        results.addAll(phaseResults);
+    }
+
+    void measure(String name, Object value) {
+        measurements.put(name, value);
+    }
+
+    List<ScenarioResult> getResults() {
+        return results;
+    }
+
+    Path write() throws IOException {
+        log.info(String.format("%n%-10s %-22s %8s %7s %9s %9s %9s %9s %9s %9s %7s",
+            "phase", "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms", "error%")
+            + results.stream()
+            .map(result -> String.format("%n%-10s %-22s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %7.2f",
+                result.getPhase(), result.getScenario(), result.getRequests(), result.getErrors(), result.getThroughputPerSecond(),
+                result.getP50Ms(), result.getP90Ms(), result.getP95Ms(), result.getP99Ms(), result.getMaxMs(), result.getErrorRate() * 100))
+            .reduce("", String::concat));
+        log.info("Measurements: {}", measurements);
+
+        final var report = new LinkedHashMap<String, Object>();
+        report.put("started", started.toString());
+        report.put("version", System.getProperty("load.version", "local"));
+        report.put("settings", settings);
+        report.put("results", results);
+        report.put("measurements", measurements);
+
+        Files.createDirectories(REPORT_DIR);
+        final var file = REPORT_DIR.resolve("load-test-" + FILE_TIMESTAMP.format(started) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        Files.copy(file, REPORT_DIR.resolve("latest.json"), StandardCopyOption.REPLACE_EXISTING);
+        log.info("Load test report written to {}", file.toAbsolutePath());
+        return file;
+    }
+}
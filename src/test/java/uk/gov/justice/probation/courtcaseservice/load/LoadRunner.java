@@ -0,0 +1,94 @@
+package uk.gov.justice.probation.courtcaseservice.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs scenarios side by side as a phase of the load test. Each scenario has a number of workers, standing for users
+ * or client threads, which repeat its action until the phase ends or the scenario runs out of work.
+ */
+@Slf4j
+class LoadRunner {
+
+    private final String phase;
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    LoadRunner(String phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * @param thinkTime pause between each worker's actions, varied by up to half either way so workers don't align
+     * @param limit     total actions to run, or 0 for as many as fit in the phase
+     * @param action    returns whether the action succeeded
+     */
+    LoadRunner scenario(String name, int workers, Duration thinkTime, long limit, Callable<Boolean> action) {
+        scenarios.add(new Scenario(new ScenarioRecorder(name), workers, thinkTime, limit, action));
+        return this;
+    }
+
+    List<ScenarioResult> run(Duration maxDuration) throws InterruptedException {
+        final var totalWorkers = scenarios.stream().mapToInt(Scenario::workers).sum();
+        final ExecutorService executor = Executors.newFixedThreadPool(totalWorkers);
+        final var start = System.nanoTime();
+        final var deadline = start + maxDuration.toNanos();
+        try {
+            final var futures = new ArrayList<CompletableFuture<Void>>();
+            for (var scenario : scenarios) {
+                final var started = new AtomicLong();
+                for (int i = 0; i < scenario.workers(); i++) {
+                    futures.add(CompletableFuture.runAsync(() -> work(scenario, started, deadline), executor));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Phase {} finished after {}", phase, elapsed);
+        return scenarios.stream()
+            .map(scenario -> scenario.recorder().result(phase, elapsed))
+            .toList();
+    }
+
+    private static void work(Scenario scenario, AtomicLong started, long deadline) {
+        while (System.nanoTime() < deadline && (scenario.limit() == 0 || started.incrementAndGet() <= scenario.limit())) {
+            final var start = System.nanoTime();
+            boolean success;
+            try {
+                success = scenario.action().call();
+            } catch (Exception e) {
+                log.debug("{} failed", scenario.recorder().getName(), e);
+                success = false;
+            }
+            scenario.recorder().record(start, success);
+            pause(scenario.thinkTime());
+        }
+    }
+
+    private static void pause(Duration thinkTime) {
+        if (thinkTime.isZero()) {
+            return;
+        }
+        final var millis = thinkTime.toMillis();
+        try {
+            Thread.sleep(millis / 2 + ThreadLocalRandom.current().nextLong(millis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Scenario(ScenarioRecorder recorder, int workers, Duration thinkTime, long limit, Callable<Boolean> action) {
+    }
+}
@@ -0,0 +1,56 @@
+package uk.gov.justice.probation.courtcaseservice.load;
+
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency and outcome of each request made by one load scenario. Safe to use from many workers.
+ */
+class ScenarioRecorder {
+    private static final long MAX_TRACKABLE_NANOS = Duration.ofMinutes(2).toNanos();
+
+    private final String name;
+    private final Recorder latencies = new Recorder(1, MAX_TRACKABLE_NANOS, 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    ScenarioRecorder(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void record(long startNanos, boolean success) {
+        latencies.recordValue(Math.min(System.nanoTime() - startNanos, MAX_TRACKABLE_NANOS));
+        requests.increment();
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    ScenarioResult result(String phase, Duration elapsed) {
+        final var histogram = latencies.getIntervalHistogram();
+        final var count = requests.sum();
+        return ScenarioResult.builder()
+            .phase(phase)
+            .scenario(name)
+            .requests(count)
+            .errors(errors.sum())
+            .errorRate(count == 0 ? 0 : (double) errors.sum() / count)
+            .throughputPerSecond(count / (elapsed.toMillis() / 1000.0))
+            .p50Ms(millis(histogram.getValueAtPercentile(50)))
+            .p90Ms(millis(histogram.getValueAtPercentile(90)))
+            .p95Ms(millis(histogram.getValueAtPercentile(95)))
+            .p99Ms(millis(histogram.getValueAtPercentile(99)))
+            .maxMs(millis(histogram.getMaxValue()))
+            .build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.justice.probation.courtcaseservice.load;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+class ScenarioResult {
+    String phase;
+    String scenario;
+    long requests;
+    long errors;
+    double errorRate;
+    double throughputPerSecond;
+    double p50Ms;
+    double p90Ms;
+    double p95Ms;
+    double p99Ms;
+    double maxMs;
+}
@@ -0,0 +1,283 @@
+package uk.gov.justice.probation.courtcaseservice.load;
+
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sqs.model.PurgeQueueRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+import uk.gov.justice.probation.courtcaseservice.TestConfig;
+import uk.gov.justice.probation.courtcaseservice.testUtil.OffenderEvent;
+import uk.gov.justice.probation.courtcaseservice.testUtil.TokenHelper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+/**
+ * Replays a day's traffic against the service, with Postgres, WireMock and LocalStack standing in for the database,
+ * community-api and AWS. Not part of the normal test run: use ./gradlew loadTest, with -Dload.* settings to change the
+ * shape of the load. Results are written to build/reports/load.
+ * <ol>
+ *     <li>Overnight import: a burst of hearing PUTs as the Libra feed sends them, including repeats of the same hearing</li>
+ *     <li>Daytime: users polling the case list and opening probation records while offender events arrive</li>
+ * </ol>
+ */
+@Slf4j
+@Sql(scripts = "classpath:before-test.sql", config = @SqlConfig(transactionMode = ISOLATED))
+@Sql(scripts = "classpath:after-test.sql", config = @SqlConfig(transactionMode = ISOLATED), executionPhase = AFTER_TEST_METHOD)
+public class ServiceLoadTest extends BaseIntTest {
+
+    private static final String COURT_CODE = "B10JQ";
+    private static final String CRN = "X320741";
+    private static final Duration TOKEN_LIFETIME = Duration.ofSeconds(30);
+    private static final String COMMUNITY_API_PATH = "/secure/";
+
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+    private final int importWorkers = Integer.getInteger("load.import-workers", 8);
+    private final int importHearings = Integer.getInteger("load.import-hearings", 500);
+    private final double importDuplicateRate = Double.parseDouble(System.getProperty("load.import-duplicate-rate", "0.2"));
+    private final int caseListUsers = Integer.getInteger("load.case-list-users", 50);
+    private final int caseListThinkMs = Integer.getInteger("load.case-list-think-ms", 2000);
+    private final int probationRecordUsers = Integer.getInteger("load.probation-record-users", 10);
+    private final int probationRecordThinkMs = Integer.getInteger("load.probation-record-think-ms", 5000);
+    private final int offenderEventsPerSecond = Integer.getInteger("load.offender-events-per-second", 5);
+    private final int downstreamLatencyMedianMs = Integer.getInteger("load.downstream-latency-median-ms", 100);
+    private final double downstreamLatencySigma = Double.parseDouble(System.getProperty("load.downstream-latency-sigma", "0.5"));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final WireMock wireMock = new WireMock("localhost", TestConfig.WIREMOCK_PORT);
+    private final ThreadLocal<String> caseListLastModified = new ThreadLocal<>();
+    private final AtomicInteger nextHearing = new AtomicInteger();
+
+    private volatile String token;
+    private volatile long tokenExpiresAt;
+
+    @BeforeEach
+    public void setUp() {
+        getOffenderEventReceiverQueueSqsClient().purgeQueue(new PurgeQueueRequest(getOffenderEventReceiverQueueUrl()));
+        // Only community-api is slowed, as a global delay would also hold up the token and JWKS calls to oauth
+        final var latency = new LogNormal(downstreamLatencyMedianMs, downstreamLatencySigma);
+        wireMock.allStubMappings().getMappings().stream()
+            .filter(ServiceLoadTest::isCommunityApiStub)
+            .forEach(stub -> {
+                wireMock.removeStubMapping(stub);
+                stub.setResponse(ResponseDefinitionBuilder.like(stub.getResponse()).withRandomDelay(latency).build());
+                wireMock.register(stub);
+            });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Back to the stubs in the mocks directory with no delays, so later tests are not slowed
+        wireMock.resetToDefaultMappings();
+        wireMock.updateGlobalSettings(GlobalSettings.builder().build());
+    }
+
+    @Test
+    public void replayDaysTraffic() throws Exception {
+        final var report = new LoadReport(settings());
+
+        report.addAll(new LoadRunner("import")
+            .scenario("put-hearing", importWorkers, Duration.ZERO, importHearings, this::putHearing)
+            .run(Duration.ofSeconds(durationSeconds)));
+
+        final var eventsPublished = new AtomicInteger();
+        report.addAll(new LoadRunner("daytime")
+            .scenario("get-case-list", caseListUsers, Duration.ofMillis(caseListThinkMs), 0, this::getCaseList)
+            .scenario("get-probation-record", probationRecordUsers, Duration.ofMillis(probationRecordThinkMs), 0, this::getProbationRecord)
+            .scenario("publish-offender-event", 1, Duration.ofMillis(1000L / Math.max(offenderEventsPerSecond, 1)), 0, () -> {
+                publishOffenderEvent();
+                eventsPublished.incrementAndGet();
+                return true;
+            })
+            .run(Duration.ofSeconds(durationSeconds)));
+
+        final var drainStart = System.nanoTime();
+        await().atMost(Duration.ofMinutes(5)).until(() -> queueDepth() == 0);
+        report.measure("offenderEventsPublished", eventsPublished.get());
+        report.measure("offenderEventQueueDrainMs", Duration.ofNanos(System.nanoTime() - drainStart).toMillis());
+
+        report.write();
+
+        assertThat(report.getResults())
+            .allSatisfy(result -> assertThat(result.getErrorRate())
+                .as("error rate for %s", result.getScenario())
+                .isLessThanOrEqualTo(maxErrorRate));
+    }
+
+    private boolean putHearing() throws Exception {
+        final int index;
+        if (nextHearing.get() > 0 && ThreadLocalRandom.current().nextDouble() < importDuplicateRate) {
+            index = ThreadLocalRandom.current().nextInt(nextHearing.get());
+        } else {
+            index = nextHearing.getAndIncrement();
+        }
+        final var hearingId = id("hearing", index);
+        final var request = authorised("/hearing/" + hearingId)
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(libraHearing(index, hearingId)), StandardCharsets.UTF_8))
+            .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+    }
+
+    private boolean getCaseList() throws Exception {
+        final var request = authorised("/court/" + COURT_CODE + "/cases?date=" + LocalDate.now());
+        final var lastModified = caseListLastModified.get();
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+        final var response = httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        response.headers().firstValue("Last-Modified").ifPresent(caseListLastModified::set);
+        return response.statusCode() == 200 || response.statusCode() == 304;
+    }
+
+    private boolean getProbationRecord() throws Exception {
+        final var request = authorised("/offender/" + CRN + "/probation-record").GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() == 200;
+    }
+
+    private void publishOffenderEvent() throws Exception {
+        // Mostly CRNs we don't hold, as most events on the topic are for people who aren't before the courts
+        final var crn = ThreadLocalRandom.current().nextInt(10) == 0 ? CRN : String.format("Z%06d", ThreadLocalRandom.current().nextInt(1000));
+        final var offenderEvent = OffenderEvent.builder()
+            .crn(crn)
+            .offenderId(1L)
+            .sourceId(2L)
+            .eventDateTime(LocalDateTime.now())
+            .build();
+
+        final var messageAttribute = new MessageAttributeValue().withDataType("String").withStringValue("SENTENCE_CHANGED");
+        final var offenderEventRequest = new PublishRequest(getOffenderEventTopic().getArn(), objectMapper.writeValueAsString(offenderEvent))
+            .withMessageAttributes(Collections.singletonMap("eventType", messageAttribute));
+
+        getOffenderEventTopic().getSnsClient().publish(offenderEventRequest);
+    }
+
+    private int queueDepth() {
+        final var attributes = getOffenderEventReceiverQueueSqsClient()
+            .getQueueAttributes(getOffenderEventReceiverQueueUrl(), List.of("ApproximateNumberOfMessages", "ApproximateNumberOfMessagesNotVisible"))
+            .getAttributes();
+        return attributes.values().stream().mapToInt(Integer::parseInt).sum();
+    }
+
+    private static boolean isCommunityApiStub(StubMapping stub) {
+        final var request = stub.getRequest();
+        return Stream.of(request.getUrl(), request.getUrlPath(), request.getUrlPattern(), request.getUrlPathPattern())
+            .anyMatch(url -> url != null && url.startsWith(COMMUNITY_API_PATH));
+    }
+
+    private HttpRequest.Builder authorised(String path) throws Exception {
+        if (token == null || System.nanoTime() - tokenExpiresAt > 0) {
+            synchronized (this) {
+                if (token == null || System.nanoTime() - tokenExpiresAt > 0) {
+                    token = TokenHelper.createToken(TokenHelper.TEST_UUID);
+                    tokenExpiresAt = System.nanoTime() + TOKEN_LIFETIME.toNanos();
+                }
+            }
+        }
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + token);
+    }
+
+    /**
+     * A hearing as sent by the Libra feed: one to three defendants, each with one to three offences. The same index
+     * always gives the same hearing, so repeats are true duplicates.
+     */
+    private static Map<String, Object> libraHearing(int index, String hearingId) {
+        final var caseNo = String.valueOf(1_000_000 + index);
+        final var defendants = IntStream.range(0, 1 + index % 3)
+            .mapToObj(defendant -> libraDefendant(index, defendant))
+            .toList();
+
+        final var hearing = new LinkedHashMap<String, Object>();
+        hearing.put("source", "LIBRA");
+        hearing.put("courtCode", COURT_CODE);
+        hearing.put("caseNo", caseNo);
+        hearing.put("caseId", id("case", index));
+        hearing.put("hearingId", hearingId);
+        hearing.put("hearingDays", List.of(Map.of(
+            "courtCode", COURT_CODE,
+            "courtRoom", String.valueOf(1 + index % 10),
+            "sessionStartTime", LocalDate.now().atTime(9 + index % 2 * 5, 0).toString(),
+            "listNo", index % 2 == 0 ? "1st" : "2nd")));
+        hearing.put("defendants", defendants);
+        return hearing;
+    }
+
+    private static Map<String, Object> libraDefendant(int index, int defendant) {
+        final var result = new LinkedHashMap<String, Object>();
+        result.put("defendantId", id("defendant-" + index, defendant));
+        result.put("name", Map.of("title", "Mr", "forename1", "Load", "surname", "TEST" + index + "X" + defendant));
+        result.put("dateOfBirth", LocalDate.of(1970, 1, 1).plusDays(index).toString());
+        result.put("type", "PERSON");
+        result.put("sex", "MALE");
+        if (index % 5 == 0 && defendant == 0) {
+            result.put("crn", CRN);
+        }
+        result.put("offences", IntStream.range(0, 1 + (index + defendant) % 3)
+            .mapToObj(offence -> Map.of(
+                "offenceTitle", "Theft from a shop",
+                "offenceSummary", "On 01/01/2015 at own, stole article, to the value of £987.00, belonging to person.",
+                "act", "Contrary to section 1(1) and 7 of the Theft Act 1968."))
+            .toList());
+        return result;
+    }
+
+    private static String id(String type, int index) {
+        return UUID.nameUUIDFromBytes((type + "-" + index).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private Map<String, Object> settings() {
+        final var settings = new LinkedHashMap<String, Object>();
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("importWorkers", importWorkers);
+        settings.put("importHearings", importHearings);
+        settings.put("importDuplicateRate", importDuplicateRate);
+        settings.put("caseListUsers", caseListUsers);
+        settings.put("caseListThinkMs", caseListThinkMs);
+        settings.put("probationRecordUsers", probationRecordUsers);
+        settings.put("probationRecordThinkMs", probationRecordThinkMs);
+        settings.put("offenderEventsPerSecond", offenderEventsPerSecond);
+        settings.put("downstreamLatencyMedianMs", downstreamLatencyMedianMs);
+        settings.put("downstreamLatencySigma", downstreamLatencySigma);
+        return settings;
+    }
+}
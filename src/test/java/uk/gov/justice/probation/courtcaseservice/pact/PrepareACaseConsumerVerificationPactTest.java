@@ -57,6 +57,7 @@ import uk.gov.justice.probation.courtcaseservice.service.model.OffenderDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.OffenderManager;
 import uk.gov.justice.probation.courtcaseservice.service.model.OtherIds;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecord;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.Registration;
 import uk.gov.justice.probation.courtcaseservice.service.model.Requirement;
@@ -160,7 +161,7 @@ class PrepareACaseConsumerVerificationPactTest extends BaseIntTest {
                 .thenReturn(Optional.of(3));
 
         when(offenderMatchService.getOffenderMatchDetailsByDefendantId(defendantId))
-                .thenReturn(Collections.singletonList(OffenderMatchDetail.builder()
+                .thenReturn(Mono.just(Collections.singletonList(OffenderMatchDetail.builder()
                                 .title("Mr")
                                 .forename("Aadland")
                                 .middleNames(List.of("Felix", "Hope"))
@@ -186,7 +187,7 @@ class PrepareACaseConsumerVerificationPactTest extends BaseIntTest {
                                         .lengthUnits("Years")
                                         .text("CJA - Indeterminate Public Prot.")
                                         .build())
-                                .build()));
+                                .build())));
 
         String createdByUuid = "cc2285f2-91b0-4e00-bd5e-9bdc35896bb6";
         when(authenticationHelper.getAuthUserUuid(any())).thenReturn(createdByUuid);
@@ -399,7 +400,7 @@ class PrepareACaseConsumerVerificationPactTest extends BaseIntTest {
                 .convictions(List.of(conviction))
                 .build();
 
-        when(offenderService.getProbationRecord(CRN, true)).thenReturn(probationRecord);
+        when(offenderService.getProbationRecord(CRN, true, ProbationRecordSection.ALL)).thenReturn(Mono.just(probationRecord));
     }
 
     @State({"the defendant has an existing risk assessment"})
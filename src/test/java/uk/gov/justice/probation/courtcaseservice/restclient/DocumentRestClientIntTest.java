@@ -2,16 +2,18 @@ package uk.gov.justice.probation.courtcaseservice.restclient;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
 import uk.gov.justice.probation.courtcaseservice.restclient.exception.DocumentNotFoundException;
 import uk.gov.justice.probation.courtcaseservice.restclient.exception.OffenderNotFoundException;
 import uk.gov.justice.probation.courtcaseservice.service.model.document.GroupedDocuments;
 
-import java.io.IOException;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,24 +53,45 @@ class DocumentRestClientIntTest extends BaseIntTest {
     }
 
     @Test
-    void whenGetDocument_thenReturnDocument() throws IOException {
-        final ResponseEntity<Resource> responseEntity = restClient.getDocument(CRN, "abc-def").blockOptional().get();
+    void whenGetDocument_thenReturnDocument() {
+        final ResponseEntity<Flux<DataBuffer>> responseEntity = restClient.getDocument(CRN, "abc-def", null).blockOptional().get();
 
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(responseEntity.getBody().contentLength()).isEqualTo(20992);
+        assertThat(responseEntity.getHeaders().getContentLength()).isEqualTo(20992);
+        assertThat(bodyLength(responseEntity)).isEqualTo(20992);
+    }
+
+    @Test
+    void givenRange_whenGetDocument_thenReturnPartialContent() {
+        final ResponseEntity<Flux<DataBuffer>> responseEntity = restClient.getDocument(CRN, "abc-def", "bytes=0-9").blockOptional().get();
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-9/20992");
+        assertThat(bodyLength(responseEntity)).isEqualTo(10);
     }
 
     @Test
     void givenDocumentDoesNotExist_whenGetDocument_thenThrowException()  {
         assertThrows(DocumentNotFoundException.class, () ->
-            restClient.getDocument(CRN, "xxx").blockOptional().get()
+            restClient.getDocument(CRN, "xxx", null).blockOptional().get()
         );
     }
 
     @Test
     void whenGetDocument_ServerError_thenFailFastAndThrowException() {
         assertThrows(WebClientResponseException.class, () ->
-            restClient.getDocument(SERVER_ERROR_CRN, "abc-def").blockOptional()
+            restClient.getDocument(SERVER_ERROR_CRN, "abc-def", null).blockOptional()
         );
     }
+
+    private int bodyLength(ResponseEntity<Flux<DataBuffer>> responseEntity) {
+        return responseEntity.getBody()
+            .map(buffer -> {
+                final var length = buffer.readableByteCount();
+                DataBufferUtils.release(buffer);
+                return length;
+            })
+            .reduce(0, Integer::sum)
+            .block();
+    }
 }
@@ -0,0 +1,110 @@
+package uk.gov.justice.probation.courtcaseservice.restclient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.justice.probation.courtcaseservice.restclient.RequestHedger.HEDGED_REQUESTS_METRIC;
+
+class RequestHedgerTest {
+
+    private static final String DOWNSTREAM = "community-api-client";
+    private static final String ENDPOINT = "/offenders/crn/{crn}/all";
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger subscriptions;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriptions = new AtomicInteger(0);
+    }
+
+    @Test
+    void givenHedgingDisabled_thenReturnRequestUnchanged() {
+        final var hedger = new RequestHedger(false, 95, 10, 100, 1, 1.0, 10, meterRegistry);
+        final var request = Mono.just("response");
+
+        assertThat(hedger.hedge(DOWNSTREAM, ENDPOINT, request)).isSameAs(request);
+    }
+
+    @Test
+    void givenNotEnoughSamples_thenDoNotHedge() {
+        final var hedger = new RequestHedger(true, 95, 10, 100, 20, 1.0, 10, meterRegistry);
+
+        final var result = hedger.hedge(DOWNSTREAM, ENDPOINT, slowOnSubscription(1)).block();
+
+        assertThat(result).isEqualTo("slow");
+        assertThat(subscriptions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void givenSlowRequest_whenBudgetAvailable_thenHedgedRequestWins() {
+        final var hedger = new RequestHedger(true, 95, 10, 100, 1, 1.0, 10, meterRegistry);
+        warmUp(hedger);
+
+        final var result = hedger.hedge(DOWNSTREAM, ENDPOINT, slowOnSubscription(subscriptions.get() + 1)).block();
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(meterRegistry.counter(HEDGED_REQUESTS_METRIC, "downstream", DOWNSTREAM, "outcome", "sent").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(HEDGED_REQUESTS_METRIC, "downstream", DOWNSTREAM, "outcome", "won").count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenSlowRequest_whenBudgetExhausted_thenWaitForOriginalRequest() {
+        final var hedger = new RequestHedger(true, 95, 10, 100, 1, 0.0, 10, meterRegistry);
+        warmUp(hedger);
+
+        final var result = hedger.hedge(DOWNSTREAM, ENDPOINT, slowOnSubscription(subscriptions.get() + 1)).block();
+
+        assertThat(result).isEqualTo("slow");
+        assertThat(meterRegistry.counter(HEDGED_REQUESTS_METRIC, "downstream", DOWNSTREAM, "outcome", "budget_exhausted").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(HEDGED_REQUESTS_METRIC, "downstream", DOWNSTREAM, "outcome", "sent").count()).isEqualTo(0);
+    }
+
+    @Test
+    void givenSamplesOfAnotherEndpoint_thenDoNotHedge() {
+        final var hedger = new RequestHedger(true, 95, 10, 100, 1, 1.0, 10, meterRegistry);
+        warmUp(hedger);
+
+        final var result = hedger.hedge(DOWNSTREAM, "/offenders/crn/{crn}/documents/grouped", slowOnSubscription(subscriptions.get() + 1)).block();
+
+        assertThat(result).isEqualTo("slow");
+        assertThat(meterRegistry.find(HEDGED_REQUESTS_METRIC).counters()).isEmpty();
+    }
+
+    @Test
+    void givenLatencyWindow_thenReturnRequestedPercentile() {
+        final var window = new RequestHedger.LatencyWindow();
+        for (long latency = 1; latency <= 100; latency++) {
+            window.record(latency);
+        }
+
+        assertThat(window.percentile(95, 1)).hasValue(95L);
+        assertThat(window.percentile(50, 1)).hasValue(50L);
+        assertThat(window.percentile(95, 101)).isEmpty();
+    }
+
+    private void warmUp(RequestHedger hedger) {
+        for (int i = 0; i < 5; i++) {
+            hedger.hedge(DOWNSTREAM, ENDPOINT, slowOnSubscription(-1)).block();
+        }
+    }
+
+    /**
+     * A cold Mono which takes 1 second to respond on the given subscription and responds immediately on all others
+     */
+    private Mono<String> slowOnSubscription(int slowSubscription) {
+        return Mono.defer(() -> {
+            if (subscriptions.incrementAndGet() == slowSubscription) {
+                return Mono.just("slow").delayElement(Duration.ofSeconds(1));
+            }
+            return Mono.just("fast");
+        });
+    }
+}
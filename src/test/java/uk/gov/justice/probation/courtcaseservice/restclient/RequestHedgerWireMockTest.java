@@ -0,0 +1,94 @@
+package uk.gov.justice.probation.courtcaseservice.restclient;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static uk.gov.justice.probation.courtcaseservice.restclient.RequestHedger.HEDGED_REQUESTS_METRIC;
+
+/**
+ * Hedges real HTTP requests through {@link RestClientHelper}, with the first request for the slow CRN held by WireMock.
+ */
+class RequestHedgerWireMockTest {
+
+    private static final String DOWNSTREAM = "community-api";
+    private static final int SLOW_DELAY_MS = 3000;
+    private static final String FAST_PATH = "/offenders/crn/X320741";
+    private static final String SLOW_PATH = "/offenders/crn/X320742";
+
+    private final WireMockServer wireMock = new WireMockServer(wireMockConfig().dynamicPort());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RestClientHelper helper;
+
+    @BeforeEach
+    void setUp() {
+        wireMock.start();
+        wireMock.stubFor(get(urlEqualTo(FAST_PATH)).willReturn(aResponse().withBody("fast")));
+        wireMock.stubFor(get(urlEqualTo(SLOW_PATH))
+            .inScenario("hedge")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willSetStateTo("hedged")
+            .willReturn(aResponse().withBody("original").withFixedDelay(SLOW_DELAY_MS)));
+        wireMock.stubFor(get(urlEqualTo(SLOW_PATH))
+            .inScenario("hedge")
+            .whenScenarioStateIs("hedged")
+            .willReturn(aResponse().withBody("hedged")));
+
+        final var hedger = new RequestHedger(true, 95, 10, 500, 5, 1.0, 10, meterRegistry);
+        helper = new RestClientHelper(WebClient.create(wireMock.baseUrl()), "community-api-client", true, hedger, DOWNSTREAM);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMock.stop();
+    }
+
+    @Test
+    void givenFirstCallSlow_thenHedgedRequestWinsAndOriginalIsCancelled() {
+        // Another CRN, so the same endpoint
+        for (int i = 0; i < 10; i++) {
+            helper.hedge(FAST_PATH, helper.get(FAST_PATH).retrieve().bodyToMono(String.class)).block();
+        }
+        final var cancelled = new AtomicInteger();
+        final var start = System.nanoTime();
+
+        final var result = helper.hedge(SLOW_PATH, helper.get(SLOW_PATH).retrieve().bodyToMono(String.class)
+                .doOnCancel(cancelled::incrementAndGet))
+            .block(Duration.ofMillis(SLOW_DELAY_MS * 2));
+
+        assertThat(result).isEqualTo("hedged");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(SLOW_DELAY_MS));
+        assertThat(cancelled.get()).isPositive();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> wireMock.verify(2, getRequestedFor(urlEqualTo(SLOW_PATH))));
+        assertThat(meterRegistry.counter(HEDGED_REQUESTS_METRIC, "downstream", DOWNSTREAM, "outcome", "sent").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(HEDGED_REQUESTS_METRIC, "downstream", DOWNSTREAM, "outcome", "won").count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenSlowEndpoint_thenFastEndpointIsNotHedgedByItsLatencies() {
+        wireMock.stubFor(get(urlEqualTo("/documents")).willReturn(aResponse().withBody("documents").withFixedDelay(200)));
+        for (int i = 0; i < 5; i++) {
+            helper.hedge("/documents", helper.get("/documents").retrieve().bodyToMono(String.class)).block();
+        }
+
+        // Too few samples of its own to hedge, whatever the document latencies are
+        final var result = helper.hedge(SLOW_PATH, helper.get(SLOW_PATH).retrieve().bodyToMono(String.class)).block(Duration.ofMillis(SLOW_DELAY_MS * 2));
+
+        assertThat(result).isEqualTo("original");
+        assertThat(meterRegistry.find(HEDGED_REQUESTS_METRIC).counters()).isEmpty();
+    }
+}
@@ -11,6 +11,7 @@ import uk.gov.justice.probation.courtcaseservice.restclient.exception.ForbiddenE
 import uk.gov.justice.probation.courtcaseservice.restclient.exception.NsiNotFoundException;
 import uk.gov.justice.probation.courtcaseservice.restclient.exception.OffenderNotFoundException;
 
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -67,4 +68,15 @@ class RestClientHelperTest {
 
         assertThrows(WebClientResponseException.class, () -> restClientHelper.handleOffenderError("CRN", clientResponse).block());
     }
+
+    @DisplayName("Downstream paths are reduced to a template for request metrics")
+    @Test
+    void uriTemplate() {
+        assertThat(RestClientHelper.uriTemplate("/secure/offenders/crn/X320741/convictions/2500297061/requirements"))
+            .isEqualTo("/secure/offenders/crn/{crn}/convictions/{id}/requirements");
+        assertThat(RestClientHelper.uriTemplate("/secure/offenders/crn/X320741/documents/1e593ff6-d5d6-4048-a671-cdeb8f65608b"))
+            .isEqualTo("/secure/offenders/crn/{crn}/documents/{id}");
+        assertThat(RestClientHelper.uriTemplate("/offenders/crn/X320741/assessments/summary"))
+            .isEqualTo("/offenders/crn/{crn}/assessments/summary");
+    }
 }
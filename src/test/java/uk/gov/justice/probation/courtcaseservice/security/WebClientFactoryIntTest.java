@@ -1,5 +1,6 @@
 package uk.gov.justice.probation.courtcaseservice.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,7 @@ import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepo
 import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
 import uk.gov.justice.probation.courtcaseservice.application.ClientDetails;
 import uk.gov.justice.probation.courtcaseservice.application.WebClientFactory;
+import uk.gov.justice.probation.courtcaseservice.restclient.RequestHedger;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -35,12 +37,16 @@ class WebClientFactoryIntTest extends BaseIntTest {
     private ClientRegistrationRepository clientRegistrationRepository;
     @Autowired
     private OAuth2AuthorizedClientRepository authorizedClientRepository;
+    @Autowired
+    private RequestHedger requestHedger;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     private WebClientFactory webClientFactory;
 
     @BeforeEach
     void beforeEach(){
-        webClientFactory = new WebClientFactory(connectTimeoutMs, readTimeoutMs, writeTimeoutMs, communityApiBaseUrl, disableAuthentication, clientDetails, clientRegistrationRepository);
+        webClientFactory = new WebClientFactory(connectTimeoutMs, readTimeoutMs, writeTimeoutMs, communityApiBaseUrl, disableAuthentication, clientDetails, clientRegistrationRepository, requestHedger, meterRegistry);
     }
 
     @Test
@@ -53,6 +59,14 @@ class WebClientFactoryIntTest extends BaseIntTest {
         assertThat(responseString).isEqualTo("pong");
     }
 
+    @Test
+    void shouldReuseCommunityApiClientForTheSameUser() {
+        final var client = webClientFactory.buildCommunityRestClientHelper("username");
+
+        assertThat(webClientFactory.buildCommunityRestClientHelper("username")).isSameAs(client);
+        assertThat(webClientFactory.buildCommunityRestClientHelper("other-username")).isNotSameAs(client);
+    }
+
     @Test
     void shouldReturnWorkingGenericClient() {
         final var client = webClientFactory.buildWebClient(String.format("http://localhost:%s", this.port), 262144);
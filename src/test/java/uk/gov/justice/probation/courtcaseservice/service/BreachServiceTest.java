@@ -78,7 +78,7 @@ class BreachServiceTest {
         when(nsiType.getCode()).thenReturn("BRE");
         mockForGetBreach();
 
-        BreachResponse actualBreachResponse = breachService.getBreach(CRN, CONVICTION_ID, BREACH_ID);
+        BreachResponse actualBreachResponse = breachService.getBreach(CRN, CONVICTION_ID, BREACH_ID).block();
 
         assertThat(actualBreachResponse).isEqualTo(expectedBreachResponse);
     }
@@ -88,7 +88,7 @@ class BreachServiceTest {
         when(nsiType.getCode()).thenReturn("BRES");
         mockForGetBreach();
 
-        BreachResponse actualBreachResponse = breachService.getBreach(CRN, CONVICTION_ID, BREACH_ID);
+        BreachResponse actualBreachResponse = breachService.getBreach(CRN, CONVICTION_ID, BREACH_ID).block();
 
         assertThat(actualBreachResponse).isEqualTo(expectedBreachResponse);
     }
@@ -100,7 +100,7 @@ class BreachServiceTest {
         mockForGetBreach();
 
         assertThatExceptionOfType(NsiNotFoundException.class)
-                .isThrownBy(() -> breachService.getBreach(CRN, CONVICTION_ID, BREACH_ID))
+                .isThrownBy(() -> breachService.getBreach(CRN, CONVICTION_ID, BREACH_ID).block())
                 .withMessage("Breach with id '1267523687' does not exist");
     }
 
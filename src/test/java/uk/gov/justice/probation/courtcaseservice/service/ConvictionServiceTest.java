@@ -87,7 +87,7 @@ class ConvictionServiceTest {
         when(convictionRestClient.getSentenceStatus(CRN, SOME_CONVICTION_ID)).thenReturn(Mono.just(sentenceStatusResponse));
         when(offenderRestClient.getOffender(CRN)).thenReturn(Mono.just(OFFENDER_DETAIL));
 
-        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID);
+        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID).block();
 
         assertThat(response.getLinks().getDeliusContactList()).isEqualTo(String.format(DELIUS_LINK_TEMPLATE, SOME_OFFENDER_ID, SOME_CONVICTION_ID));
         assertThat(response.getAttendances()).isSameAs(attendancesResponse);
@@ -106,7 +106,7 @@ class ConvictionServiceTest {
         when(convictionRestClient.getSentenceStatus(CRN, SOME_CONVICTION_ID)).thenReturn(Mono.just(sentenceStatusResponse));
         when(offenderRestClient.getOffender(CRN)).thenReturn(Mono.just(OFFENDER_DETAIL));
 
-        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID);
+        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID).block();
 
         assertThat(response.getLinks().getDeliusContactList()).isEqualTo(String.format(DELIUS_LINK_TEMPLATE, SOME_OFFENDER_ID, SOME_CONVICTION_ID));
         assertThat(response.getAttendances()).isSameAs(attendancesResponse);
@@ -138,7 +138,7 @@ class ConvictionServiceTest {
         when(convictionRestClient.getSentenceStatus(CRN, SOME_CONVICTION_ID)).thenReturn(Mono.just(sentenceStatusResponse));
         when(offenderRestClient.getOffender(CRN)).thenReturn(Mono.just(OFFENDER_DETAIL));
 
-        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID);
+        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID).block();
 
         assertThat(response.getLinks().getDeliusContactList()).isEqualTo(String.format(DELIUS_LINK_TEMPLATE, SOME_OFFENDER_ID, SOME_CONVICTION_ID));
         assertThat(response.getAttendances()).isSameAs(attendancesResponse);
@@ -157,7 +157,7 @@ class ConvictionServiceTest {
         when(convictionRestClient.getSentenceStatus(CRN, SOME_CONVICTION_ID)).thenReturn(Mono.just(sentenceStatusResponse));
         when(offenderRestClient.getOffender(CRN)).thenReturn(Mono.just(OFFENDER_DETAIL));
 
-        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID);
+        final SentenceResponse response = service.getSentence(CRN, SOME_CONVICTION_ID).block();
 
         assertThat(response.getLinks().getDeliusContactList()).isEqualTo(String.format(DELIUS_LINK_TEMPLATE, SOME_OFFENDER_ID, SOME_CONVICTION_ID));
         assertThat(response.getAttendances()).isEmpty();
@@ -177,7 +177,7 @@ class ConvictionServiceTest {
         when(offenderRestClient.getOffender(CRN)).thenReturn(Mono.error(new OffenderNotFoundException(CRN)));
 
         assertThatExceptionOfType(OffenderNotFoundException.class)
-            .isThrownBy(() -> service.getSentence(CRN, SOME_CONVICTION_ID))
+            .isThrownBy(() -> service.getSentence(CRN, SOME_CONVICTION_ID).block())
             .withMessageContaining(CRN);
     }
 
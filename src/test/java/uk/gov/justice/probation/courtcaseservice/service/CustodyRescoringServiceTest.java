@@ -0,0 +1,130 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.probation.courtcaseservice.config.H2oModelLoader;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.CourtRepository;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingRepository;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ScheduledJobLockRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.COURT_CODE;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.aHearingEntityWithOffenceCode;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.codedOffence;
+import static uk.gov.justice.probation.courtcaseservice.service.CustodyRescoringService.JOB_NAME;
+
+@ExtendWith(MockitoExtension.class)
+class CustodyRescoringServiceTest {
+
+    private static final String COURT_NAME = "Cardiff";
+    private static final LocalDateTime CREATED_AFTER = LocalDateTime.of(2022, 12, 1, 0, 0);
+
+    @Mock
+    private CourtRepository courtRepository;
+    @Mock
+    private HearingRepository hearingRepository;
+    @Mock
+    private ScheduledJobLockRepository scheduledJobLockRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private CustodyScoringService custodyScoringService;
+
+    private final H2oModelLoader modelLoader = new H2oModelLoader(new ClassPathResource("h2o/20221207_model.zip"));
+
+    @Test
+    void givenHearingSavedWhileModelLoading_whenModelLoaded_thenScoreItsOffences() throws Exception {
+        final var predictorService = new ShortTermCustodyPredictorService(modelLoader, new SimpleMeterRegistry(), 100);
+        final var scoringService = new CustodyScoringService(predictorService, courtRepository);
+        final var hearing = aHearingEntityWithOffenceCode("80702");
+        when(courtRepository.findByCourtCode(COURT_CODE)).thenReturn(Optional.of(CourtEntity.builder().courtCode(COURT_CODE).name(COURT_NAME).build()));
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(), any(), any())).thenReturn(1);
+        when(hearingRepository.findIdsWithUnscoredOffences(any(), eq(Long.MIN_VALUE), eq(100))).thenReturn(List.of(-1L));
+        when(hearingRepository.findAllById(List.of(-1L))).thenReturn(List.of(hearing));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        new CustodyRescoringService(7, 100, modelLoader, scoringService, hearingRepository, transactionTemplate, new ScheduledJobLock(scheduledJobLockRepository));
+
+        // Saved before the model is loaded
+        scoringService.scoreOffences(List.of(hearing));
+        assertThat(codedOffence(hearing).getShortTermCustodyPredictorScore()).isNull();
+
+        modelLoader.loadInBackground();
+        final var model = modelLoader.getInitialLoad().get(30, TimeUnit.SECONDS);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(codedOffence(hearing).getShortTermCustodyPredictorModelVersion()).isEqualTo(model.getVersion());
+            assertThat(codedOffence(hearing).getShortTermCustodyPredictorScore())
+                .isEqualTo(predictorService.calculateShortTermCustodyPredictorScore(COURT_NAME, 61, "80702"));
+        });
+    }
+
+    @Test
+    void givenPagesOfHearings_whenRescore_thenScoreEachPageInItsOwnTransaction() {
+        final var firstPage = List.of(aHearingEntityWithOffenceCode("80702"), aHearingEntityWithOffenceCode("80702"));
+        final var secondPage = List.of(aHearingEntityWithOffenceCode("80702"));
+        when(hearingRepository.findIdsWithUnscoredOffences(CREATED_AFTER, Long.MIN_VALUE, 2)).thenReturn(List.of(-3L, -2L));
+        when(hearingRepository.findIdsWithUnscoredOffences(CREATED_AFTER, -2L, 2)).thenReturn(List.of(-1L));
+        when(hearingRepository.findAllById(List.of(-3L, -2L))).thenReturn(firstPage);
+        when(hearingRepository.findAllById(List.of(-1L))).thenReturn(secondPage);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        final var service = new CustodyRescoringService(7, 2, modelLoader, custodyScoringService, hearingRepository, transactionTemplate, new ScheduledJobLock(scheduledJobLockRepository));
+
+        final var rescored = service.rescore(CREATED_AFTER);
+
+        assertThat(rescored).isEqualTo(3);
+        verify(custodyScoringService).scoreOffences(firstPage);
+        verify(custodyScoringService).scoreOffences(secondPage);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void givenPageFails_whenRescore_thenCarryOnWithNextPage() {
+        final var firstPage = List.of(aHearingEntityWithOffenceCode("80702"), aHearingEntityWithOffenceCode("80702"));
+        final var secondPage = List.of(aHearingEntityWithOffenceCode("80702"));
+        when(hearingRepository.findIdsWithUnscoredOffences(CREATED_AFTER, Long.MIN_VALUE, 2)).thenReturn(List.of(-3L, -2L));
+        when(hearingRepository.findIdsWithUnscoredOffences(CREATED_AFTER, -2L, 2)).thenReturn(List.of(-1L));
+        when(hearingRepository.findAllById(List.of(-3L, -2L))).thenReturn(firstPage);
+        when(hearingRepository.findAllById(List.of(-1L))).thenReturn(secondPage);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        doThrow(new ObjectOptimisticLockingFailureException(HearingEntity.class, -2L)).when(custodyScoringService).scoreOffences(firstPage);
+        final var service = new CustodyRescoringService(7, 2, modelLoader, custodyScoringService, hearingRepository, transactionTemplate, new ScheduledJobLock(scheduledJobLockRepository));
+
+        final var rescored = service.rescore(CREATED_AFTER);
+
+        assertThat(rescored).isEqualTo(1);
+        verify(custodyScoringService).scoreOffences(secondPage);
+    }
+
+    @Test
+    void givenLockHeldByAnotherReplica_whenRescoreUnscoredOffences_thenDoNothing() {
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(), any(), any())).thenReturn(0);
+        final var service = new CustodyRescoringService(7, 100, modelLoader, custodyScoringService, hearingRepository, transactionTemplate, new ScheduledJobLock(scheduledJobLockRepository));
+
+        service.rescoreUnscoredOffences();
+
+        verifyNoInteractions(hearingRepository, custodyScoringService, transactionTemplate);
+    }
+}
@@ -0,0 +1,101 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.CourtRepository;
+import uk.gov.justice.probation.courtcaseservice.service.ShortTermCustodyPredictorService.ModelScores;
+import uk.gov.justice.probation.courtcaseservice.service.ShortTermCustodyPredictorService.ScoringKey;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.CASE_NO;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.COURT_CODE;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.CRN;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.aHearingEntityWithOffenceCode;
+import static uk.gov.justice.probation.courtcaseservice.jpa.entity.EntityHelper.codedOffence;
+
+@ExtendWith(MockitoExtension.class)
+class CustodyScoringServiceTest {
+
+    private static final String COURT_NAME = "Cardiff";
+    // EntityHelper's defendant was born on 14/12/1958 and the hearing day is 26/02/2020
+    private static final ScoringKey KEY = new ScoringKey(COURT_NAME, 61, "80702");
+    private static final String MODEL_VERSION = "20221207_model:1234";
+
+    @Mock
+    private ShortTermCustodyPredictorService predictorService;
+    @Mock
+    private CourtRepository courtRepository;
+
+    private CustodyScoringService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CustodyScoringService(predictorService, courtRepository);
+    }
+
+    @Test
+    void givenOffencesWithOffenceCodes_whenScoreOffences_thenScoreInOneBatch() {
+        final var hearing = aHearingEntityWithOffenceCode("80702");
+        final var otherHearing = aHearingEntityWithOffenceCode("80702");
+        when(courtRepository.findByCourtCode(COURT_CODE)).thenReturn(Optional.of(CourtEntity.builder().courtCode(COURT_CODE).name(COURT_NAME).build()));
+        when(predictorService.calculateShortTermCustodyPredictorScores(List.of(KEY, KEY))).thenReturn(new ModelScores(MODEL_VERSION, Map.of(KEY, 0.87)));
+
+        service.scoreOffences(List.of(hearing, otherHearing));
+
+        assertThat(codedOffence(hearing).getShortTermCustodyPredictorScore()).isEqualTo(0.87);
+        assertThat(codedOffence(hearing).getShortTermCustodyPredictorModelVersion()).isEqualTo(MODEL_VERSION);
+        assertThat(codedOffence(otherHearing).getShortTermCustodyPredictorScore()).isEqualTo(0.87);
+        assertThat(hearing.getHearingDefendants().get(0).getOffences().get(0).getShortTermCustodyPredictorScore()).isNull();
+        verify(courtRepository, times(1)).findByCourtCode(COURT_CODE);
+    }
+
+    @Test
+    void givenUnscorableOffence_whenScoreOffences_thenNoScore() {
+        final var hearing = aHearingEntityWithOffenceCode("9X9X9X9X");
+        final var key = new ScoringKey(COURT_NAME, 61, "9X9X9X9X");
+        final var scores = new HashMap<ScoringKey, Double>();
+        scores.put(key, null);
+        when(courtRepository.findByCourtCode(COURT_CODE)).thenReturn(Optional.of(CourtEntity.builder().courtCode(COURT_CODE).name(COURT_NAME).build()));
+        when(predictorService.calculateShortTermCustodyPredictorScores(List.of(key))).thenReturn(new ModelScores(MODEL_VERSION, scores));
+
+        service.scoreOffences(List.of(hearing));
+
+        assertThat(codedOffence(hearing).getShortTermCustodyPredictorScore()).isNull();
+        assertThat(codedOffence(hearing).getShortTermCustodyPredictorModelVersion()).isNull();
+    }
+
+    @Test
+    void givenNoOffenceCodes_whenScoreOffences_thenDoNotCallModel() {
+        when(courtRepository.findByCourtCode(COURT_CODE)).thenReturn(Optional.of(CourtEntity.builder().courtCode(COURT_CODE).name(COURT_NAME).build()));
+
+        service.scoreOffences(List.of(EntityHelper.aHearingEntity(CRN, CASE_NO)));
+
+        verifyNoInteractions(predictorService);
+    }
+
+    @Test
+    void givenModelFails_whenScoreOffences_thenLeaveOffencesUnscored() {
+        final var hearing = aHearingEntityWithOffenceCode("80702");
+        when(courtRepository.findByCourtCode(COURT_CODE)).thenReturn(Optional.of(CourtEntity.builder().courtCode(COURT_CODE).name(COURT_NAME).build()));
+        when(predictorService.calculateShortTermCustodyPredictorScores(any())).thenThrow(new IllegalStateException("H2O model is not loaded yet"));
+
+        service.scoreOffences(List.of(hearing));
+
+        assertThat(codedOffence(hearing).getShortTermCustodyPredictorScore()).isNull();
+    }
+}
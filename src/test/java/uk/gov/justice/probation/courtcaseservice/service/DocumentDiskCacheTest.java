@@ -0,0 +1,175 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.CachedDocument;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.OpenCachedDocument;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentDiskCacheTest {
+
+    private static final String CRN = "X320741";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenDisabled_whenGet_thenReturnEmpty() {
+        final var cache = new DocumentDiskCache(false, directory.toString(), 100);
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.get(CRN, "doc-1")).isEmpty();
+    }
+
+    @Test
+    void whenPut_thenStoreContentAndHeaders() throws IOException {
+        final var cache = enabledCache(100);
+        final var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.set(HttpHeaders.SERVER, "Apache-Coyote/1.1");
+
+        final var document = cache.put(CRN, "doc-1", headers, body(10)).block();
+
+        assertThat(document.getLength()).isEqualTo(10);
+        assertThat(Files.size(document.getPath())).isEqualTo(10);
+        assertThat(document.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PDF);
+        assertThat(document.getHeaders().containsKey(HttpHeaders.SERVER)).isFalse();
+        assertThat(get(cache, "doc-1")).isEqualTo(document);
+        assertThat(cache.get("OTHER_CRN", "doc-1")).isEmpty();
+        try (var opened = cache.open(document).orElseThrow()) {
+            assertThat(opened.getChannel().size()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    void givenCacheFull_whenPut_thenEvictLeastRecentlyUsed() throws IOException {
+        final var cache = enabledCache(25);
+        final var first = put(cache, "doc-1", body(10));
+        put(cache, "doc-2", body(10));
+        // Touch the first document so the second becomes least recently used
+        get(cache, "doc-1");
+
+        put(cache, "doc-3", body(10));
+
+        assertThat(get(cache, "doc-1")).isEqualTo(first);
+        assertThat(cache.get(CRN, "doc-2")).isEmpty();
+        assertThat(get(cache, "doc-3")).isNotNull();
+        assertThat(cache.getSizeBytes()).isEqualTo(20);
+        try (var files = Files.list(directory)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".content")).count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void givenDocumentsOnDisk_whenLoadIndex_thenServeThemAndDiscardPartialDownloads() throws IOException {
+        put(enabledCache(100), "doc-1", body(10));
+        Files.writeString(directory.resolve("abc.partial"), "incomplete");
+
+        final var restarted = enabledCache(100);
+
+        assertThat(get(restarted, "doc-1")).isNotNull();
+        assertThat(restarted.getSizeBytes()).isEqualTo(10);
+        assertThat(Files.exists(directory.resolve("abc.partial"))).isFalse();
+    }
+
+    @Test
+    void givenDocumentOpen_whenEvicted_thenReadWholeOriginalContent() throws IOException {
+        final var cache = enabledCache(15);
+        put(cache, "doc-1", body(10, (byte) 1));
+
+        try (var opened = cache.open(get(cache, "doc-1")).orElseThrow()) {
+            put(cache, "doc-2", body(10, (byte) 2));
+
+            assertThat(Files.exists(opened.getDocument().getPath())).isFalse();
+            assertThat(read(opened)).containsOnly(1).hasSize(10);
+        }
+    }
+
+    @Test
+    void givenDocumentOpen_whenDownloadedAgain_thenReadOriginalContentAndLength() throws IOException {
+        final var cache = enabledCache(100);
+        put(cache, "doc-1", body(10, (byte) 1));
+
+        try (var opened = cache.open(get(cache, "doc-1")).orElseThrow()) {
+            put(cache, "doc-1", body(20, (byte) 2));
+
+            assertThat(opened.getDocument().getLength()).isEqualTo(10);
+            assertThat(read(opened)).containsOnly(1).hasSize(10);
+        }
+        assertThat(get(cache, "doc-1").getLength()).isEqualTo(20);
+    }
+
+    @Test
+    void givenDocumentEvicted_whenOpen_thenReturnEmpty() throws IOException {
+        final var cache = enabledCache(15);
+        final var document = put(cache, "doc-1", body(10));
+        put(cache, "doc-2", body(10));
+
+        assertThat(cache.open(document)).isEmpty();
+    }
+
+    @Test
+    void givenDocumentDownloadedAgain_whenOpenEarlierDocument_thenReturnEmpty() throws IOException {
+        final var cache = enabledCache(100);
+        final var document = put(cache, "doc-1", body(10));
+        put(cache, "doc-1", body(20));
+
+        assertThat(cache.open(document)).isEmpty();
+    }
+
+    @Test
+    void givenContentDeletedOutsideCache_whenOpen_thenReturnEmptyAndForgetDocument() throws IOException {
+        final var cache = enabledCache(100);
+        final var document = put(cache, "doc-1", body(10));
+        Files.delete(document.getPath());
+
+        assertThat(cache.open(document)).isEmpty();
+        assertThat(cache.get(CRN, "doc-1")).isEmpty();
+        assertThat(cache.getSizeBytes()).isZero();
+    }
+
+    private static CachedDocument put(DocumentDiskCache cache, String documentId, Flux<DataBuffer> body) {
+        return cache.put(CRN, documentId, new HttpHeaders(), body).block();
+    }
+
+    private static CachedDocument get(DocumentDiskCache cache, String documentId) {
+        return cache.get(CRN, documentId).orElseThrow();
+    }
+
+    private static byte[] read(OpenCachedDocument opened) throws IOException {
+        final var buffer = ByteBuffer.allocate((int) opened.getChannel().size());
+        var read = 0;
+        while (buffer.hasRemaining() && read >= 0) {
+            read = opened.getChannel().read(buffer, buffer.position());
+        }
+        return buffer.array();
+    }
+
+    private DocumentDiskCache enabledCache(long maxSizeBytes) throws IOException {
+        final var cache = new DocumentDiskCache(true, directory.toString(), maxSizeBytes);
+        cache.loadIndex();
+        return cache;
+    }
+
+    private static Flux<DataBuffer> body(int length) {
+        return body(length, (byte) 0);
+    }
+
+    private static Flux<DataBuffer> body(int length, byte value) {
+        final var content = new byte[length];
+        Arrays.fill(content, value);
+        return Flux.just(new DefaultDataBufferFactory().wrap(content));
+    }
+}
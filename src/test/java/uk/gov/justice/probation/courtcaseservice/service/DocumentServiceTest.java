@@ -1,21 +1,44 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import uk.gov.justice.probation.courtcaseservice.restclient.DocumentRestClient;
+import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClient;
+import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClientFactory;
+import uk.gov.justice.probation.courtcaseservice.restclient.communityapi.model.CommunityApiOffenderResponse;
+import uk.gov.justice.probation.courtcaseservice.restclient.exception.ForbiddenException;
 
 @ExtendWith(MockitoExtension.class)
 class DocumentServiceTest {
@@ -24,37 +47,195 @@ class DocumentServiceTest {
 
     private static final String KNOWN_DOCUMENT_ID = "abc-def";
 
+    private static final String CONTENT = "0123456789";
+
     @Mock
     private DocumentRestClient documentRestClient;
 
-    @InjectMocks
+    @Mock
+    private OffenderRestClientFactory offenderRestClientFactory;
+
+    @Mock
+    private OffenderRestClient offenderRestClient;
+
     private DocumentService documentService;
 
-    @BeforeEach
-    void setUp() {
+    @Nested
+    class CacheDisabled {
+
+        @BeforeEach
+        void setUp() {
+            documentService = new DocumentService(documentRestClient, offenderRestClientFactory, new DocumentDiskCache(false, "unused", 0));
+        }
+
+        @DisplayName("Normal successful execution to fetch document")
+        @Test
+        void whenDocumentGet_ThenStreamDocumentWithHeaders() throws IOException {
+            final var headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null))
+                .thenReturn(Mono.just(ResponseEntity.ok().headers(headers).body(body())));
+
+            final ResponseEntity<StreamingResponseBody> actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null).block();
+
+            assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(actual.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PDF);
+            assertThat(write(actual.getBody())).isEqualTo(CONTENT);
+            verify(offenderRestClientFactory, never()).buildUserAwareOffenderRestClient();
+        }
+
+        @DisplayName("The rest client returns an empty Mono.")
+        @Test
+        void whenDocumentGetEmptyMono_ThenReturnNull() {
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, "bytes=0-9")).thenReturn(Mono.empty());
+
+            final ResponseEntity<StreamingResponseBody> actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, "bytes=0-9").block();
+
+            assertThat(actual).isNull();
+            verify(documentRestClient).getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, "bytes=0-9");
+        }
     }
 
-    @DisplayName("Normal successful execution to fetch document")
-    @Test
-    void whenDocumentGet_ThenReturnDocument() {
-        final ResponseEntity<Resource> responseEntity = mock(ResponseEntity.class);
-        final Mono<ResponseEntity<Resource>> mono =Mono.just(responseEntity);
-        when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID)).thenReturn(mono);
+    @Nested
+    class CacheEnabled {
+
+        @TempDir
+        Path cacheDirectory;
+
+        private DocumentDiskCache cache;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            cache = new DocumentDiskCache(true, cacheDirectory.toString(), 1024);
+            cache.loadIndex();
+            documentService = new DocumentService(documentRestClient, offenderRestClientFactory, cache);
+            when(offenderRestClientFactory.buildUserAwareOffenderRestClient()).thenReturn(offenderRestClient);
+        }
+
+        @DisplayName("A document is downloaded once and then served from disk")
+        @Test
+        void givenDocumentNotCached_whenGetTwice_ThenDownloadOnceAndServeFromDisk() throws IOException {
+            when(offenderRestClient.getOffender(KNOWN_CRN)).thenReturn(Mono.just(CommunityApiOffenderResponse.builder().build()));
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null))
+                .thenReturn(Mono.just(ResponseEntity.ok().header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"doc.doc\"").body(body())));
+
+            final var first = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null).block();
+            final var second = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null).block();
+
+            assertThat(write(first.getBody())).isEqualTo(CONTENT);
+            assertThat(write(second.getBody())).isEqualTo(CONTENT);
+            assertThat(second.getHeaders().getContentLength()).isEqualTo(10);
+            assertThat(second.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"doc.doc\"");
+            verify(documentRestClient).getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null);
+        }
 
-        final ResponseEntity<Resource> actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID);
+        @DisplayName("A range of a cached document is served from disk")
+        @Test
+        void givenRange_whenGet_ThenReturnPartialContent() throws IOException {
+            when(offenderRestClient.getOffender(KNOWN_CRN)).thenReturn(Mono.just(CommunityApiOffenderResponse.builder().build()));
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null)).thenReturn(Mono.just(ResponseEntity.ok().body(body())));
 
-        assertThat(responseEntity).isSameAs(actual);
-        verify(documentRestClient).getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID);
+            final var actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, "bytes=2-4").block();
+
+            assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+            assertThat(actual.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-4/10");
+            assertThat(write(actual.getBody())).isEqualTo("234");
+        }
+
+        @DisplayName("A document evicted while it is streaming is served whole")
+        @Test
+        void givenDocumentEvictedWhileStreaming_whenGet_ThenServeWholeDocument() throws IOException {
+            final var content = "a".repeat(20_000);
+            when(offenderRestClient.getOffender(KNOWN_CRN)).thenReturn(Mono.just(CommunityApiOffenderResponse.builder().build()));
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null)).thenReturn(Mono.just(ResponseEntity.ok().body(body(content))));
+            final var actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null).block();
+            final var contentPath = cacheDirectory.resolve(DocumentDiskCache.keyFor(KNOWN_CRN, KNOWN_DOCUMENT_ID) + ".content");
+
+            // Another request caches a document, evicting this one, after the first chunk has been written
+            final var evicted = new AtomicBoolean();
+            final var outputStream = new ByteArrayOutputStream() {
+                @Override
+                public synchronized void write(byte[] bytes, int offset, int length) {
+                    if (evicted.compareAndSet(false, true)) {
+                        CompletableFuture.runAsync(() -> cache.put(KNOWN_CRN, "other", new HttpHeaders(), body("b".repeat(2_000))).block()).join();
+                        assertThat(Files.exists(contentPath)).isFalse();
+                    }
+                    super.write(bytes, offset, length);
+                }
+            };
+            actual.getBody().writeTo(outputStream);
+
+            assertThat(evicted).isTrue();
+            assertThat(actual.getHeaders().getContentLength()).isEqualTo(20_000);
+            assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(content);
+        }
+
+        @DisplayName("A document evicted before it is streamed is served from community-api")
+        @Test
+        void givenDocumentEvictedBeforeStreaming_whenGet_ThenStreamRangeFromCommunityApi() throws IOException {
+            when(offenderRestClient.getOffender(KNOWN_CRN)).thenReturn(Mono.just(CommunityApiOffenderResponse.builder().build()));
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null)).thenReturn(Mono.just(ResponseEntity.ok().body(body())));
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, "bytes=2-4")).thenReturn(Mono.just(ResponseEntity.ok().body(body("234"))));
+            final var actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, "bytes=2-4").block();
+
+            cache.put(KNOWN_CRN, "other", new HttpHeaders(), body("b".repeat(1_020))).block();
+
+            assertThat(cache.get(KNOWN_CRN, KNOWN_DOCUMENT_ID)).isEmpty();
+            assertThat(actual.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-4/10");
+            assertThat(write(actual.getBody())).isEqualTo("234");
+        }
+
+        @DisplayName("Concurrent requests for a document not yet cached download it once")
+        @Test
+        void givenDocumentNotCached_whenGetConcurrently_ThenDownloadOnce() throws Exception {
+            final Sinks.One<ResponseEntity<Flux<DataBuffer>>> download = Sinks.one();
+            when(offenderRestClient.getOffender(KNOWN_CRN)).thenReturn(Mono.just(CommunityApiOffenderResponse.builder().build()));
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null)).thenReturn(download.asMono());
+
+            final var first = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null).toFuture();
+            final var second = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null).toFuture();
+            download.tryEmitValue(ResponseEntity.ok().body(body()));
+
+            assertThat(write(first.get(10, TimeUnit.SECONDS).getBody())).isEqualTo(CONTENT);
+            assertThat(write(second.get(10, TimeUnit.SECONDS).getBody())).isEqualTo(CONTENT);
+            verify(documentRestClient).getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null);
+        }
+
+        @DisplayName("An unsatisfiable range returns 416")
+        @Test
+        void givenUnsatisfiableRange_whenGet_ThenReturn416() {
+            when(offenderRestClient.getOffender(KNOWN_CRN)).thenReturn(Mono.just(CommunityApiOffenderResponse.builder().build()));
+            when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null)).thenReturn(Mono.just(ResponseEntity.ok().body(body())));
+
+            final var actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, "bytes=20-30").block();
+
+            assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            assertThat(actual.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        }
+
+        @DisplayName("An excluded user cannot read a cached document")
+        @Test
+        void givenUserExcluded_whenGet_ThenThrowForbidden() {
+            when(offenderRestClient.getOffender(KNOWN_CRN)).thenReturn(Mono.error(new ForbiddenException("User is excluded")));
+
+            final var result = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID, null);
+
+            assertThatExceptionOfType(ForbiddenException.class).isThrownBy(result::block);
+            verify(documentRestClient, never()).getDocument(eq(KNOWN_CRN), eq(KNOWN_DOCUMENT_ID), any());
+        }
     }
 
-    @DisplayName("The rest client returns an empty Mono.")
-    @Test
-    void whenDocumentGetEmptyMono_ThenReturnNull() {
-        when(documentRestClient.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID)).thenReturn(Mono.empty());
+    private static Flux<DataBuffer> body() {
+        return body(CONTENT);
+    }
 
-        final ResponseEntity<Resource> actual = documentService.getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID);
+    private static Flux<DataBuffer> body(String content) {
+        return Flux.just(new DefaultDataBufferFactory().wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
 
-        assertThat(actual).isNull();
-        verify(documentRestClient).getDocument(KNOWN_CRN, KNOWN_DOCUMENT_ID);
+    private static String write(StreamingResponseBody body) throws IOException {
+        final var outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,107 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.PurgeQueueRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.DomainEventOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+@Sql(scripts = "classpath:after-test.sql", config = @SqlConfig(transactionMode = ISOLATED), executionPhase = AFTER_TEST_METHOD)
+@TestPropertySource(properties = "domain-event-outbox.relay.enabled=false")
+public class DomainEventOutboxRelayIntTest extends BaseIntTest {
+
+    private static final String SENTENCED_EVENT_TYPE = "court.case.sentenced";
+
+    @Autowired
+    DomainEventOutboxRepository domainEventOutboxRepository;
+
+    @Autowired
+    DomainEventOutboxRelay domainEventOutboxRelay;
+
+    @BeforeEach
+    public void setUp() {
+        getEmittedEventsQueueSqsClient().purgeQueue(new PurgeQueueRequest(getEmittedEventsQueueUrl()));
+    }
+
+    @Test
+    public void shouldPublish_AllPendingEvents_InBatches_AndSuppressDuplicates() {
+        final var created = LocalDateTime.now();
+        // Three events for one hearing, which need three rounds to keep them in order
+        for (int i = 0; i < 3; i++) {
+            assertThat(insert("hearing-1", "defendant-" + i, created)).isEqualTo(1);
+        }
+        for (int i = 2; i <= 10; i++) {
+            assertThat(insert("hearing-" + i, "defendant-1", created)).isEqualTo(1);
+        }
+        assertThat(insert("hearing-2", "defendant-1", created)).isZero();
+
+        assertThat(domainEventOutboxRelay.publishPending(LocalDateTime.now().plusSeconds(15))).isEqualTo(12);
+
+        assertThat(domainEventOutboxRepository.findOldestUnpublishedCreated()).isEmpty();
+        assertThat(receiveAll()).hasSize(12);
+
+        // Once published, the same event may be written again
+        assertThat(insert("hearing-2", "defendant-1", LocalDateTime.now())).isEqualTo(1);
+    }
+
+    @Test
+    public void givenFailedEvent_whenPublishPending_thenPublishLaterEventsForHearing() {
+        final var created = LocalDateTime.now();
+        insert("hearing-1", "defendant-1", created);
+        insert("hearing-1", "defendant-2", created);
+        final var poisonEvent = domainEventOutboxRepository.findNextToPublish(LocalDateTime.now(), 10).get(0);
+        domainEventOutboxRepository.markFailed(poisonEvent.getId(), LocalDateTime.now(), "InvalidParameter: Bad message", LocalDateTime.now());
+
+        assertThat(domainEventOutboxRelay.publishPending(LocalDateTime.now().plusSeconds(15))).isEqualTo(1);
+
+        assertThat(receiveAll()).extracting(Message::getBody).singleElement().asString().contains("defendant-2");
+        // The failed event no longer blocks the same event being written again
+        assertThat(insert("hearing-1", "defendant-1", LocalDateTime.now())).isEqualTo(1);
+    }
+
+    @Test
+    public void givenPublishedEvents_whenPurgePublishedBefore_thenDeleteThem() {
+        insert("hearing-1", "defendant-1", LocalDateTime.now());
+        insert("hearing-2", "defendant-1", LocalDateTime.now());
+        assertThat(domainEventOutboxRelay.publishPending(LocalDateTime.now().plusSeconds(15))).isEqualTo(2);
+        insert("hearing-3", "defendant-1", LocalDateTime.now());
+
+        assertThat(domainEventOutboxRelay.purgePublishedBefore(LocalDateTime.now().plusMinutes(1))).isEqualTo(2);
+
+        assertThat(domainEventOutboxRepository.count()).isEqualTo(1);
+    }
+
+    private int insert(String hearingId, String defendantId, LocalDateTime created) {
+        final var message = String.format("{\"eventType\":\"%s\",\"detailUrl\":\"https://localhost/hearing/%s\",\"defendant\":\"%s\"}",
+            SENTENCED_EVENT_TYPE, hearingId, defendantId);
+        return domainEventOutboxRepository.insertIfNotPending(hearingId, SENTENCED_EVENT_TYPE,
+            String.join(":", SENTENCED_EVENT_TYPE, hearingId, defendantId), message, created);
+    }
+
+    private List<Message> receiveAll() {
+        final var messages = new ArrayList<Message>();
+        List<Message> received;
+        do {
+            received = getEmittedEventsQueueSqsClient().receiveMessage(new ReceiveMessageRequest(getEmittedEventsQueueUrl())
+                    .withMaxNumberOfMessages(10)
+                    .withWaitTimeSeconds(1))
+                .getMessages();
+            messages.addAll(received);
+        } while (!received.isEmpty());
+        return messages;
+    }
+}
@@ -0,0 +1,240 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.sns.AmazonSNS;
+import com.amazonaws.services.sns.model.BatchResultErrorEntry;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchRequestEntry;
+import com.amazonaws.services.sns.model.PublishBatchResult;
+import com.amazonaws.services.sns.model.PublishBatchResultEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.hmpps.sqs.HmppsTopic;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.DomainEventOutboxEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.DomainEventOutboxRepository;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ScheduledJobLockRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DomainEventOutboxRelayTest {
+
+    private static final String TOPIC_ARN = "arn:aws:sns:eu-west-2:000000000000:hmpps-domain-events";
+
+    @Mock
+    private DomainEventOutboxRepository domainEventOutboxRepository;
+
+    @Mock
+    private ScheduledJobLockRepository scheduledJobLockRepository;
+
+    @Mock
+    private AmazonSNS snsClient;
+
+    @Captor
+    private ArgumentCaptor<PublishBatchRequest> publishBatchRequestCaptor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DomainEventOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new DomainEventOutboxRelay(true, 100, 30, 1000, 30000, 3, 7, new HmppsTopic("hmppsdomainevents", TOPIC_ARN, snsClient),
+            domainEventOutboxRepository, new ScheduledJobLock(scheduledJobLockRepository), meterRegistry);
+    }
+
+    @Test
+    void givenLockHeldByAnotherInstance_whenRelay_thenDoNotPublish() {
+        when(scheduledJobLockRepository.tryLock(eq(DomainEventOutboxRelay.JOB_NAME), any(), any(), anyString())).thenReturn(0);
+        when(domainEventOutboxRepository.findOldestUnpublishedCreated()).thenReturn(Optional.empty());
+
+        relay.relay();
+
+        verify(domainEventOutboxRepository, never()).findNextToPublish(any(), anyInt());
+        verify(scheduledJobLockRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void givenDisabled_whenRelay_thenDoNothing() {
+        relay = new DomainEventOutboxRelay(false, 100, 30, 1000, 30000, 3, 7, new HmppsTopic("hmppsdomainevents", TOPIC_ARN, snsClient),
+            domainEventOutboxRepository, new ScheduledJobLock(scheduledJobLockRepository), meterRegistry);
+
+        relay.relay();
+
+        verify(scheduledJobLockRepository, never()).tryLock(any(), any(), any(), any());
+    }
+
+    @Test
+    void givenLockTaken_whenRelay_thenPublishAndReleaseLock() {
+        when(scheduledJobLockRepository.tryLock(eq(DomainEventOutboxRelay.JOB_NAME), any(), any(), anyString())).thenReturn(1);
+        when(domainEventOutboxRepository.findNextToPublish(any(), eq(100)))
+            .thenReturn(List.of(event(1L, "hearing1")))
+            .thenReturn(Collections.emptyList());
+        when(snsClient.publishBatch(any(PublishBatchRequest.class)))
+            .thenReturn(new PublishBatchResult().withSuccessful(new PublishBatchResultEntry().withId("1")));
+        when(domainEventOutboxRepository.findOldestUnpublishedCreated()).thenReturn(Optional.empty());
+
+        relay.relay();
+
+        verify(domainEventOutboxRepository).markPublished(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(scheduledJobLockRepository).release(eq(DomainEventOutboxRelay.JOB_NAME), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    void givenMoreThanTenEvents_whenPublishPending_thenPublishInBatchesOfTen() {
+        final var events = LongStream.rangeClosed(1, 12)
+            .mapToObj(id -> event(id, "hearing" + id))
+            .collect(Collectors.toList());
+        when(domainEventOutboxRepository.findNextToPublish(any(), eq(100)))
+            .thenReturn(events)
+            .thenReturn(Collections.emptyList());
+        when(snsClient.publishBatch(any(PublishBatchRequest.class)))
+            .thenAnswer(invocation -> {
+                final PublishBatchRequest request = invocation.getArgument(0);
+                return new PublishBatchResult().withSuccessful(request.getPublishBatchRequestEntries().stream()
+                    .map(entry -> new PublishBatchResultEntry().withId(entry.getId()))
+                    .collect(Collectors.toList()));
+            });
+
+        assertThat(relay.publishPending(LocalDateTime.now().plusSeconds(15))).isEqualTo(12);
+
+        verify(snsClient, times(2)).publishBatch(publishBatchRequestCaptor.capture());
+        final var requests = publishBatchRequestCaptor.getAllValues();
+        assertThat(requests).extracting(PublishBatchRequest::getTopicArn).containsOnly(TOPIC_ARN);
+        assertThat(requests.get(0).getPublishBatchRequestEntries()).hasSize(10);
+        assertThat(requests.get(1).getPublishBatchRequestEntries())
+            .extracting(PublishBatchRequestEntry::getId)
+            .containsExactly("11", "12");
+        final var entry = requests.get(0).getPublishBatchRequestEntries().get(0);
+        assertThat(entry.getMessage()).isEqualTo("{\"id\":1}");
+        assertThat(entry.getMessageAttributes().get("eventType").getStringValue()).isEqualTo("court.case.sentenced");
+
+        verify(domainEventOutboxRepository).markPublished(eq(LongStream.rangeClosed(1, 10).boxed().toList()), any(LocalDateTime.class));
+        verify(domainEventOutboxRepository).markPublished(eq(List.of(11L, 12L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void givenSomeEntriesFail_whenPublishPending_thenMarkThemForRetry() {
+        when(domainEventOutboxRepository.findNextToPublish(any(), eq(100)))
+            .thenReturn(List.of(event(1L, "hearing1"), event(2L, "hearing2")))
+            .thenReturn(Collections.emptyList());
+        when(snsClient.publishBatch(any(PublishBatchRequest.class)))
+            .thenReturn(new PublishBatchResult()
+                .withSuccessful(new PublishBatchResultEntry().withId("1"))
+                .withFailed(new BatchResultErrorEntry().withId("2").withCode("InternalError").withMessage("Try again")));
+
+        final var before = LocalDateTime.now();
+        assertThat(relay.publishPending(LocalDateTime.now().plusSeconds(15))).isEqualTo(1);
+
+        verify(domainEventOutboxRepository).markPublished(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(domainEventOutboxRepository).markFailed(eq(2L), argThat(nextAttemptAt -> nextAttemptAt.isAfter(before)),
+            eq("InternalError: Try again"), isNull());
+    }
+
+    @Test
+    void givenSnsUnavailable_whenPublishPending_thenMarkAllForRetry() {
+        when(domainEventOutboxRepository.findNextToPublish(any(), eq(100)))
+            .thenReturn(List.of(event(1L, "hearing1"), event(2L, "hearing2")))
+            .thenReturn(Collections.emptyList());
+        when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenThrow(new AmazonServiceException("Unavailable"));
+
+        assertThat(relay.publishPending(LocalDateTime.now().plusSeconds(15))).isZero();
+
+        verify(domainEventOutboxRepository, never()).markPublished(any(), any());
+        verify(domainEventOutboxRepository).markFailed(eq(1L), any(LocalDateTime.class), anyString(), isNull());
+        verify(domainEventOutboxRepository).markFailed(eq(2L), any(LocalDateTime.class), anyString(), isNull());
+    }
+
+    @Test
+    void givenUnpublishedEvents_whenRelay_thenReportLag() {
+        when(scheduledJobLockRepository.tryLock(eq(DomainEventOutboxRelay.JOB_NAME), any(), any(), anyString())).thenReturn(0);
+        when(domainEventOutboxRepository.findOldestUnpublishedCreated()).thenReturn(Optional.of(LocalDateTime.now().minusMinutes(1)));
+
+        assertThat(meterRegistry.get(DomainEventOutboxRelay.OUTBOX_LAG_METRIC).gauge().value()).isZero();
+
+        relay.relay();
+
+        assertThat(meterRegistry.get(DomainEventOutboxRelay.OUTBOX_LAG_METRIC).gauge().value()).isGreaterThanOrEqualTo(60);
+    }
+
+    @Test
+    void givenLockHeldByAnotherInstance_whenRelayAgainWithinBackOff_thenDoNotTryLock() {
+        when(scheduledJobLockRepository.tryLock(eq(DomainEventOutboxRelay.JOB_NAME), any(), any(), anyString())).thenReturn(0);
+        when(domainEventOutboxRepository.findOldestUnpublishedCreated()).thenReturn(Optional.empty());
+
+        relay.relay();
+        relay.relay();
+
+        verify(scheduledJobLockRepository, times(1)).tryLock(any(), any(), any(), any());
+    }
+
+    @Test
+    void givenEventFailedMaxAttempts_whenPublishFails_thenMarkItFailed() {
+        final var event = event(1L, "hearing1", 2);
+        when(domainEventOutboxRepository.findNextToPublish(any(), eq(100)))
+            .thenReturn(List.of(event))
+            .thenReturn(Collections.emptyList());
+        when(snsClient.publishBatch(any(PublishBatchRequest.class)))
+            .thenReturn(new PublishBatchResult()
+                .withFailed(new BatchResultErrorEntry().withId("1").withCode("InvalidParameter").withMessage("Bad message")));
+
+        assertThat(relay.publishPending(LocalDateTime.now().plusSeconds(15))).isZero();
+
+        verify(domainEventOutboxRepository).markFailed(eq(1L), any(LocalDateTime.class), eq("InvalidParameter: Bad message"),
+            any(LocalDateTime.class));
+        assertThat(meterRegistry.get(DomainEventOutboxRelay.FAILED_EVENTS_METRIC).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenMoreThanOneBatchPublishedBeforeRetention_whenPurge_thenDeleteInBatches() {
+        when(scheduledJobLockRepository.tryLock(eq(DomainEventOutboxRelay.PURGE_JOB_NAME), any(), any(), anyString())).thenReturn(1);
+        when(domainEventOutboxRepository.deletePublishedBefore(argThat(before -> before.isBefore(LocalDateTime.now().minusDays(6))), eq(1000)))
+            .thenReturn(1000, 12);
+
+        relay.purge();
+
+        verify(domainEventOutboxRepository, times(2)).deletePublishedBefore(any(), eq(1000));
+        verify(scheduledJobLockRepository).release(eq(DomainEventOutboxRelay.PURGE_JOB_NAME), any(LocalDateTime.class), anyString());
+    }
+
+    private static DomainEventOutboxEntity event(Long id, String hearingId) {
+        return event(id, hearingId, 0);
+    }
+
+    private static DomainEventOutboxEntity event(Long id, String hearingId, int attempts) {
+        return DomainEventOutboxEntity.builder()
+            .id(id)
+            .hearingId(hearingId)
+            .eventType("court.case.sentenced")
+            .deduplicationKey("court.case.sentenced:" + hearingId + ":defendant")
+            .message("{\"id\":" + id + "}")
+            .created(LocalDateTime.now())
+            .nextAttemptAt(LocalDateTime.now())
+            .attempts(attempts)
+            .build();
+    }
+}
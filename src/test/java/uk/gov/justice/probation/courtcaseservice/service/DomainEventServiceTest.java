@@ -1,23 +1,19 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
-import com.amazonaws.services.sns.AmazonSNSClient;
-import com.amazonaws.services.sns.model.PublishRequest;
-import com.amazonaws.services.sns.model.PublishResult;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.ArgumentMatchers;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import uk.gov.justice.hmpps.sqs.HmppsTopic;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtCaseEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.DefendantEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingDefendantEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.HearingEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.DomainEventOutboxRepository;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.DomainEventMessage;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.DomainEventType;
 import uk.gov.justice.probation.courtcaseservice.service.model.event.PersonReference;
@@ -39,58 +35,57 @@ public class DomainEventServiceTest {
     private ObjectMapper objectMapper;
 
     @Mock
-    private AmazonSNSClient snsClient;
+    private DomainEventOutboxRepository domainEventOutboxRepository;
 
     @Captor
-    private ArgumentCaptor<PublishRequest> publishRequestArgumentCaptor;
+    private ArgumentCaptor<String> deduplicationKeyCaptor;
+
+    @Captor
+    private ArgumentCaptor<String> messageCaptor;
 
     @BeforeEach
     public void beforeClass() {
-        HmppsTopic hmppsTopic = new HmppsTopic("id", "arn", snsClient);
-        domainEventService = new DomainEventService(objectMapper, hmppsTopic);
+        domainEventService = new DomainEventService(objectMapper, domainEventOutboxRepository);
     }
 
 
     @Test
-    public void shouldEmit_SentencedEvent_ForEachDefendant() throws JsonProcessingException {
+    public void shouldWrite_SentencedEvent_ToOutbox_ForEachDefendant() throws JsonProcessingException {
         when(objectMapper.writeValueAsString(any())).thenReturn
                         (String.valueOf(buildDomainEventMessage("crn1", "cro1", "pnc1","personId1")))
                 .thenReturn(String.valueOf(buildDomainEventMessage("crn2", "cro2", "pnc2","personId2")));
 
         var hearingEntity = buildHearingEntity();
 
-        var result = new PublishResult().withMessageId("messageId");
-
-        when(snsClient.publish(ArgumentMatchers.any(PublishRequest.class))).thenReturn(result);
+        when(domainEventOutboxRepository.insertIfNotPending(eq("abc123"), eq("court.case.sentenced"), anyString(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
 
         domainEventService.emitSentencedEvent(hearingEntity);
 
-        verify(snsClient, times(2)).publish(publishRequestArgumentCaptor.capture());
-
-        var actualPublishedRequest1 = publishRequestArgumentCaptor.getAllValues().get(0);
-        var actualPublishedRequest2 = publishRequestArgumentCaptor.getAllValues().get(1);
-
-        assertThat(actualPublishedRequest1.getMessageAttributes().get("eventType").getDataType()).isEqualTo("String");
-        assertThat(actualPublishedRequest1.getMessageAttributes().get("eventType").getStringValue()).isEqualTo("court.case.sentenced");
+        verify(domainEventOutboxRepository, times(2)).insertIfNotPending(eq("abc123"), eq("court.case.sentenced"),
+                deduplicationKeyCaptor.capture(), messageCaptor.capture(), any(LocalDateTime.class));
 
-        assertThat(actualPublishedRequest1.getMessage()).contains("crn1");
-        assertThat(actualPublishedRequest1.getMessage()).contains("cro1");
-        assertThat(actualPublishedRequest1.getMessage()).contains("pnc1");
-        assertThat(actualPublishedRequest1.getMessage()).contains("personId1");
+        assertThat(deduplicationKeyCaptor.getAllValues())
+                .containsExactly("court.case.sentenced:abc123:defendantId1", "court.case.sentenced:abc123:defendantId2");
 
+        var actualMessage1 = messageCaptor.getAllValues().get(0);
+        var actualMessage2 = messageCaptor.getAllValues().get(1);
 
-        assertThat(actualPublishedRequest2.getMessageAttributes().get("eventType").getDataType()).isEqualTo("String");
-        assertThat(actualPublishedRequest2.getMessageAttributes().get("eventType").getStringValue()).isEqualTo("court.case.sentenced");
+        assertThat(actualMessage1).contains("crn1");
+        assertThat(actualMessage1).contains("cro1");
+        assertThat(actualMessage1).contains("pnc1");
+        assertThat(actualMessage1).contains("personId1");
 
-        assertThat(actualPublishedRequest2.getMessage()).contains("crn2");
-        assertThat(actualPublishedRequest2.getMessage()).contains("cro2");
-        assertThat(actualPublishedRequest2.getMessage()).contains("pnc2");
-        assertThat(actualPublishedRequest2.getMessage()).contains("personId2");
+        assertThat(actualMessage2).contains("crn2");
+        assertThat(actualMessage2).contains("cro2");
+        assertThat(actualMessage2).contains("pnc2");
+        assertThat(actualMessage2).contains("personId2");
     }
 
     private HearingEntity buildHearingEntity() {
 
         var defendantEntity1 = HearingDefendantEntity.builder()
+                .defendantId("defendantId1")
                 .defendant(DefendantEntity.builder()
                         .crn("crn1")
                         .cro("cro1")
@@ -100,6 +95,7 @@ public class DomainEventServiceTest {
                 .build();
 
         var defendantEntity2 = HearingDefendantEntity.builder()
+                .defendantId("defendantId2")
                 .defendant(DefendantEntity.builder()
                         .crn("crn2")
                         .cro("cro2")
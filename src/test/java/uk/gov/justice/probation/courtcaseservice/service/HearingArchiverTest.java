@@ -0,0 +1,81 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingArchiveRepository;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ScheduledJobLockRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HearingArchiverTest {
+    private static final LocalDate HORIZON = LocalDate.of(2020, 12, 1);
+
+    @Mock
+    private HearingArchiveRepository hearingArchiveRepository;
+    @Mock
+    private ScheduledJobLockRepository scheduledJobLockRepository;
+
+    @Test
+    void whenArchive_thenCheckBatchesUntilLastCourtCase() {
+        final var archiver = new HearingArchiver(true, 24, 2, 0, 60, hearingArchiveRepository, new ScheduledJobLock(scheduledJobLockRepository));
+        when(hearingArchiveRepository.archiveNextCourtCases(eq(2), eq(HORIZON), anyString())).thenReturn(2, 2, 1);
+
+        final var checked = archiver.archive(HORIZON, LocalDateTime.now().plusMinutes(1));
+
+        assertThat(checked).isEqualTo(5);
+        verify(hearingArchiveRepository, times(3)).archiveNextCourtCases(eq(2), eq(HORIZON), anyString());
+    }
+
+    @Test
+    void givenDeadlinePassed_whenArchive_thenStopAfterOneBatch() {
+        final var archiver = new HearingArchiver(true, 24, 2, 0, 60, hearingArchiveRepository, new ScheduledJobLock(scheduledJobLockRepository));
+        when(hearingArchiveRepository.archiveNextCourtCases(eq(2), eq(HORIZON), anyString())).thenReturn(2);
+
+        final var checked = archiver.archive(HORIZON, LocalDateTime.now().minusMinutes(1));
+
+        assertThat(checked).isEqualTo(2);
+        verify(hearingArchiveRepository, times(1)).archiveNextCourtCases(eq(2), eq(HORIZON), anyString());
+    }
+
+    @Test
+    void givenLockTaken_whenScheduledArchive_thenArchiveAndRelease() {
+        final var archiver = new HearingArchiver(true, 24, 2, 0, 60, hearingArchiveRepository, new ScheduledJobLock(scheduledJobLockRepository));
+        when(scheduledJobLockRepository.tryLock(eq(HearingArchiver.JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+            .thenReturn(1);
+        when(hearingArchiveRepository.archiveNextCourtCases(eq(2), eq(LocalDate.now().minusMonths(24)), anyString())).thenReturn(0);
+
+        archiver.archive();
+
+        verify(scheduledJobLockRepository).release(eq(HearingArchiver.JOB_NAME), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    void givenDisabled_whenScheduledArchive_thenDoNothing() {
+        final var archiver = new HearingArchiver(false, 24, 2, 0, 60, hearingArchiveRepository, new ScheduledJobLock(scheduledJobLockRepository));
+
+        archiver.archive();
+
+        verifyNoInteractions(hearingArchiveRepository, new ScheduledJobLock(scheduledJobLockRepository));
+    }
+
+    @Test
+    void whenRestore_thenReturnHearingsRestored() {
+        final var archiver = new HearingArchiver(true, 24, 2, 0, 60, hearingArchiveRepository, new ScheduledJobLock(scheduledJobLockRepository));
+        when(hearingArchiveRepository.restoreCourtCase("case-id", "admin")).thenReturn(3);
+
+        assertThat(archiver.restore("case-id", "admin")).isEqualTo(3);
+    }
+}
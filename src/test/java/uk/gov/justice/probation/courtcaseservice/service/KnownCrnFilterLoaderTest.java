@@ -0,0 +1,94 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.OffenderRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KnownCrnFilterLoaderTest {
+
+    @Mock
+    private OffenderRepository offenderRepository;
+
+    private KnownCrnFilter knownCrnFilter;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        knownCrnFilter = new KnownCrnFilter(1000, 0.01);
+    }
+
+    @Test
+    void whenLoadAndAddNewOffenders_thenFilterHoldsAllCrns() {
+        final var loader = new KnownCrnFilterLoader(true, 60_000, knownCrnFilter, offenderRepository, meterRegistry);
+        when(offenderRepository.findAllCrns()).thenReturn(List.of("X320741"));
+        when(offenderRepository.findCrnsCreatedSince(any(LocalDateTime.class))).thenReturn(List.of("X781345"));
+
+        loader.load();
+        loader.addNewOffenders();
+
+        assertThat(knownCrnFilter.isLoaded()).isTrue();
+        assertThat(knownCrnFilter.mightBeKnown("X320741")).isTrue();
+        assertThat(knownCrnFilter.mightBeKnown("X781345")).isTrue();
+    }
+
+    @Test
+    void givenDisabled_whenLoad_thenEveryCrnMightBeKnown() {
+        final var loader = new KnownCrnFilterLoader(false, 60_000, knownCrnFilter, offenderRepository, meterRegistry);
+
+        loader.load();
+        loader.addNewOffenders();
+
+        assertThat(knownCrnFilter.isLoaded()).isFalse();
+        verifyNoInteractions(offenderRepository);
+    }
+
+    @Test
+    void givenCrnCreatedByAnotherReplica_whenCheckedBeforeRefresh_thenRefreshAndPass() {
+        final var loader = new KnownCrnFilterLoader(true, 0, knownCrnFilter, offenderRepository, meterRegistry);
+        when(offenderRepository.findAllCrns()).thenReturn(List.of("X320741"));
+        loader.load();
+        when(offenderRepository.findCrnsCreatedSince(any(LocalDateTime.class))).thenReturn(List.of("X781345"));
+
+        assertThat(knownCrnFilter.mightBeKnown("X781345")).isTrue();
+        assertThat(knownCrnFilter.getFilteredCount()).isZero();
+    }
+
+    @Test
+    void givenRefreshedWithinMissRefreshInterval_whenCrnNotInFilter_thenDropWithoutRefresh() {
+        final var loader = new KnownCrnFilterLoader(true, 60_000, knownCrnFilter, offenderRepository, meterRegistry);
+        when(offenderRepository.findAllCrns()).thenReturn(List.of("X320741"));
+        loader.load();
+
+        assertThat(knownCrnFilter.mightBeKnown("X781345")).isFalse();
+        verify(offenderRepository, never()).findCrnsCreatedSince(any(LocalDateTime.class));
+    }
+
+    @Test
+    void whenCheckCrns_thenCountCheckedAndFilteredEvents() {
+        final var loader = new KnownCrnFilterLoader(true, 60_000, knownCrnFilter, offenderRepository, meterRegistry);
+        when(offenderRepository.findAllCrns()).thenReturn(List.of("X320741"));
+        loader.load();
+
+        knownCrnFilter.mightBeKnown("X320741");
+        knownCrnFilter.mightBeKnown("X781345");
+
+        assertThat(meterRegistry.get(KnownCrnFilterLoader.CHECKED_METRIC).functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(KnownCrnFilterLoader.FILTERED_METRIC).functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(KnownCrnFilterLoader.SIZE_METRIC).gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,46 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KnownCrnFilterTest {
+
+    @Test
+    void givenNotLoaded_whenCheck_thenEveryCrnMightBeKnown() {
+        final var filter = new KnownCrnFilter(1000, 0.01);
+
+        assertThat(filter.mightBeKnown("X320741")).isTrue();
+        assertThat(filter.getFilteredCount()).isZero();
+    }
+
+    @Test
+    void givenLoaded_whenCheck_thenKnownCrnsPassAndMostUnknownCrnsAreFiltered() {
+        final var filter = new KnownCrnFilter(10_000, 0.01);
+        filter.addAll(IntStream.range(0, 10_000).mapToObj(i -> String.format("X%06d", i)).collect(Collectors.toList()));
+        filter.markLoaded();
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightBeKnown(String.format("X%06d", i)))).isTrue();
+
+        final var falsePositives = IntStream.range(0, 10_000)
+            .filter(i -> filter.mightBeKnown(String.format("Y%06d", i)))
+            .count();
+        assertThat(falsePositives).isLessThan(200);
+        assertThat(filter.getCheckedCount()).isEqualTo(20_000);
+        assertThat(filter.getFilteredCount()).isEqualTo(10_000 - falsePositives);
+        assertThat(filter.getSize()).isGreaterThan(9_900);
+    }
+
+    @Test
+    void whenAddAfterLoad_thenCrnIsKnown() {
+        final var filter = new KnownCrnFilter(1000, 0.01);
+        filter.markLoaded();
+
+        filter.add("X320741");
+
+        assertThat(filter.mightBeKnown("X320741")).isTrue();
+    }
+}
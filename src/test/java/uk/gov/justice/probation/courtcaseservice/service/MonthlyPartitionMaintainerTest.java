@@ -0,0 +1,77 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.MonthlyPartitionRepository;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ScheduledJobLockRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MonthlyPartitionMaintainerTest {
+
+    @Mock
+    private MonthlyPartitionRepository monthlyPartitionRepository;
+    @Mock
+    private ScheduledJobLockRepository scheduledJobLockRepository;
+
+    @Test
+    void givenLockTaken_whenMaintainPartitions_thenCreateFromThisMonthAndRelease() {
+        final var maintainer = new MonthlyPartitionMaintainer(true, 3, 0, 300, monthlyPartitionRepository, new ScheduledJobLock(scheduledJobLockRepository));
+        final var thisMonth = LocalDate.now().withDayOfMonth(1);
+        givenLockTaken(1);
+
+        maintainer.maintainPartitions();
+
+        verify(monthlyPartitionRepository).createPartitions("hearing_day", "hearing_day", thisMonth, thisMonth.plusMonths(3));
+        verify(monthlyPartitionRepository).createPartitions("audit_change_log", "created", thisMonth, thisMonth.plusMonths(3));
+        verify(monthlyPartitionRepository, never()).detachPartitions(anyString(), any(LocalDate.class));
+        verify(scheduledJobLockRepository).release(eq(MonthlyPartitionMaintainer.JOB_NAME), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    void givenAuditRetention_whenMaintainPartitions_thenDetachOlderAuditPartitions() {
+        final var maintainer = new MonthlyPartitionMaintainer(true, 3, 12, 300, monthlyPartitionRepository, new ScheduledJobLock(scheduledJobLockRepository));
+        final var thisMonth = LocalDate.now().withDayOfMonth(1);
+        givenLockTaken(1);
+
+        maintainer.maintainPartitions();
+
+        verify(monthlyPartitionRepository).detachPartitions("audit_change_log", thisMonth.minusMonths(12));
+    }
+
+    @Test
+    void givenLockHeldElsewhere_whenMaintainPartitions_thenDoNothing() {
+        final var maintainer = new MonthlyPartitionMaintainer(true, 3, 0, 300, monthlyPartitionRepository, new ScheduledJobLock(scheduledJobLockRepository));
+        givenLockTaken(0);
+
+        maintainer.maintainPartitions();
+
+        verifyNoInteractions(monthlyPartitionRepository);
+    }
+
+    @Test
+    void givenDisabled_whenMaintainPartitions_thenDoNothing() {
+        final var maintainer = new MonthlyPartitionMaintainer(false, 3, 0, 300, monthlyPartitionRepository, new ScheduledJobLock(scheduledJobLockRepository));
+
+        maintainer.maintainPartitions();
+
+        verifyNoInteractions(monthlyPartitionRepository, new ScheduledJobLock(scheduledJobLockRepository));
+    }
+
+    private void givenLockTaken(int result) {
+        when(scheduledJobLockRepository.tryLock(eq(MonthlyPartitionMaintainer.JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), anyString()))
+            .thenReturn(result);
+    }
+}
@@ -185,12 +185,39 @@ class OffenderMatchServiceTest {
             mockOffenderDetailMatch(crn1, matchDetail1, Collections.emptyList());
             mockOffenderDetailMatch(crn2, matchDetail2, List.of(inactiveConviction, activeConviction));
 
-            final var response = service.getOffenderMatchDetailsByDefendantId(DEFENDANT_ID);
+            final var response = service.getOffenderMatchDetailsByDefendantId(DEFENDANT_ID).block();
 
             assertThat(response).hasSize(2);
             assertThat(response).extracting("forename").containsExactlyInAnyOrder("Chris", "Dave");
         }
 
+        @Test
+        void givenOneCandidateFails_whenStreamOffenderMatchDetailsByDefendantId_thenReturnTheOthers() {
+
+            String crn1 = "X320741";
+            String crn2 = "X320742";
+
+            when(offenderMatchRepository.findFirstByDefendantIdOrderByIdDesc(DEFENDANT_ID)).thenReturn(
+                Optional.ofNullable(buildGroupedOffenderMatchesEntity(List.of(crn1, crn2))));
+
+            mockOffenderDetailMatch(crn1, OffenderMatchDetail.builder().forename("Chris").build(), Collections.emptyList());
+            when(offenderRestClient.getOffenderMatchDetailByCrn(crn2)).thenReturn(Mono.error(new RuntimeException("community-api unavailable")));
+            when(offenderRestClient.getConvictionsByCrn(crn2)).thenReturn(Mono.just(Collections.emptyList()));
+            when(offenderRestClient.getProbationStatusByCrn(crn2)).thenReturn(Mono.just(ProbationStatusDetail.builder().status("CURRENT").build()));
+
+            final var response = service.streamOffenderMatchDetailsByDefendantId(DEFENDANT_ID).collectList().block();
+
+            assertThat(response).extracting("forename").containsExactly("Chris");
+        }
+
+        @Test
+        void givenNoMatches_whenStreamOffenderMatchDetailsByDefendantId_thenThrowImmediately() {
+
+            when(offenderMatchRepository.findFirstByDefendantIdOrderByIdDesc(DEFENDANT_ID)).thenReturn(Optional.empty());
+
+            assertThrows(EntityNotFoundException.class, () -> service.streamOffenderMatchDetailsByDefendantId(DEFENDANT_ID));
+        }
+
         private GroupedOffenderMatchesEntity buildGroupedOffenderMatchesEntity(List<String> crns) {
 
             List<OffenderMatchEntity> offenderMatchEntities = crns.stream()
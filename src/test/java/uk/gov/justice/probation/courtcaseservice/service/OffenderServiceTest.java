@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.DefendantProbationStatus;
 import uk.gov.justice.probation.courtcaseservice.restclient.AssessmentsRestClient;
 import uk.gov.justice.probation.courtcaseservice.restclient.ConvictionRestClient;
@@ -25,6 +26,7 @@ import uk.gov.justice.probation.courtcaseservice.service.model.CourtReport.Repor
 import uk.gov.justice.probation.courtcaseservice.service.model.CustodialStatus;
 import uk.gov.justice.probation.courtcaseservice.service.model.KeyValue;
 import uk.gov.justice.probation.courtcaseservice.service.model.LicenceCondition;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 import uk.gov.justice.probation.courtcaseservice.service.model.PssRequirement;
 import uk.gov.justice.probation.courtcaseservice.service.model.Registration;
@@ -42,6 +44,7 @@ import java.time.Month;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -161,7 +164,7 @@ class  OffenderServiceTest {
             mockForStandardClientCalls(List.of(breach, breachMostRecent, breachNullStatusDate));
             when(offenderRestClient.getConvictionRequirements(CRN, CONVICTION_ID)).thenReturn(Mono.just(List.of(this.requirement)));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
 
             assertThat(probationRecord).isNotNull();
             assertThat(probationRecord.getConvictions()).hasSize(1);
@@ -185,6 +188,40 @@ class  OffenderServiceTest {
             verifyNoMoreInteractions(offenderRestClient, convictionRestClient);
         }
 
+        @DisplayName("Only the requested sections of the probation record are fetched")
+        @Test
+        void givenOnlyConvictionsRequested_whenGetProbationRecord_thenDoNotFetchOtherSections() {
+            when(offenderRestClient.getConvictionsByCrn(CRN)).thenReturn(Mono.just(singletonList(conviction)));
+            when(offenderRestClient.getOffender(CRN)).thenReturn(Mono.just(communityApiOffenderResponse));
+
+            var probationRecord = service.getProbationRecord(CRN, true, Set.of(ProbationRecordSection.CONVICTIONS)).block();
+
+            assertThat(probationRecord.getConvictions()).hasSize(1);
+            var conviction = probationRecord.getConvictions().get(0);
+            assertThat(conviction.getBreaches()).isNull();
+            assertThat(conviction.getRequirements()).isNull();
+            assertThat(conviction.getDocuments()).isNull();
+            assertThat(probationRecord.getOffenderManagers()).isNull();
+            assertThat(probationRecord.getAssessment()).isNull();
+            verify(offenderRestClient).getConvictionsByCrn(CRN);
+            verify(offenderRestClient).getOffender(CRN);
+            verifyNoMoreInteractions(offenderRestClient, convictionRestClient, documentRestClient, assessmentsRestClient);
+        }
+
+        @DisplayName("Requesting a conviction detail section fetches convictions but not the other sections")
+        @Test
+        void givenOnlyBreachesRequested_whenGetProbationRecord_thenFetchConvictionsAndBreaches() {
+            when(offenderRestClient.getConvictionsByCrn(CRN)).thenReturn(Mono.just(singletonList(conviction)));
+            when(offenderRestClient.getBreaches(CRN, CONVICTION_ID)).thenReturn(Mono.just(singletonList(breach)));
+            when(offenderRestClient.getOffender(CRN)).thenReturn(Mono.just(communityApiOffenderResponse));
+
+            var probationRecord = service.getProbationRecord(CRN, true, Set.of(ProbationRecordSection.BREACHES)).block();
+
+            assertThat(probationRecord.getConvictions().get(0).getBreaches()).containsExactly(breach);
+            assertThat(probationRecord.getConvictions().get(0).getRequirements()).isNull();
+            verifyNoMoreInteractions(convictionRestClient, documentRestClient, assessmentsRestClient);
+        }
+
         @DisplayName("An offender on post sentence supervision has PSS requirements with no subtype description and but no licence conditions")
         @Test
         void givenPssCustodialStatus_whenGetProbationRecord_returnActivePssRequirementsStripSubTypeDescription() {
@@ -203,7 +240,7 @@ class  OffenderServiceTest {
             when(offenderRestClient.getConvictionRequirements(eq(CRN), any(Long.class))).thenReturn(Mono.just(List.of(requirement)));
             when(offenderRestClient.getConvictionPssRequirements(CRN, CONVICTION_ID)).thenReturn(Mono.just(List.of(pssRqmnt1, pssRqmnt2, pssRqmnt3)));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
 
             var conviction = probationRecord.getConvictions().get(0);
             assertThat(conviction.getRequirements()).hasSize(1);
@@ -230,7 +267,7 @@ class  OffenderServiceTest {
             when(offenderRestClient.getConvictionRequirements(eq(CRN), any(Long.class))).thenReturn(Mono.just(List.of(requirement)));
             when(offenderRestClient.getConvictionLicenceConditions(CRN, CONVICTION_ID)).thenReturn(Mono.just(List.of(licenceCondition1, licenceCondition2)));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
 
             var conviction = probationRecord.getConvictions().get(0);
             assertThat(conviction.getRequirements()).hasSize(1);
@@ -245,7 +282,7 @@ class  OffenderServiceTest {
             mockForStandardClientCalls(singletonList(conviction), singletonList(assessment));
             when(offenderRestClient.getConvictionRequirements(CRN, CONVICTION_ID)).thenReturn(Mono.just(List.of(requirement)));
 
-            var probationRecord = service.getProbationRecord(CRN, true);
+            var probationRecord = service.getProbationRecord(CRN, true).block();
 
             var conviction = probationRecord.getConvictions().get(0);
             assertThat(conviction.getDocuments()).hasSize(1);
@@ -269,7 +306,7 @@ class  OffenderServiceTest {
             mockForStandardClientCalls(List.of(conviction2, conviction3, conviction), singletonList(assessment));
             when(offenderRestClient.getConvictionRequirements(CRN, 123L)).thenReturn(Mono.just(emptyList()));
 
-            var probationRecord = service.getProbationRecord(CRN, true);
+            var probationRecord = service.getProbationRecord(CRN, true).block();
 
             assertThat(probationRecord.getConvictions()).hasSize(3);
             assertThat(probationRecord.getConvictions()).containsExactly(conviction, conviction2, conviction3);
@@ -291,7 +328,7 @@ class  OffenderServiceTest {
             when(assessmentsRestClient.getAssessmentsByCrn(CRN)).thenReturn(Mono.empty());
 
             assertThatExceptionOfType(OffenderNotFoundException.class)
-                .isThrownBy(() -> service.getProbationRecord(CRN, true))
+                .isThrownBy(() -> service.getProbationRecord(CRN, true).block())
                 .withMessageContaining(CRN);
         }
 
@@ -305,7 +342,7 @@ class  OffenderServiceTest {
             when(assessmentsRestClient.getAssessmentsByCrn(CRN)).thenReturn(Mono.empty());
 
             assertThatExceptionOfType(OffenderNotFoundException.class)
-                .isThrownBy(() -> service.getProbationRecord(CRN, true))
+                .isThrownBy(() -> service.getProbationRecord(CRN, true).block())
                 .withMessageContaining(CRN);
         }
 
@@ -321,7 +358,7 @@ class  OffenderServiceTest {
             // throw OffenderNotFoundException to simulate a 404 returned by assessments api
             when(assessmentsRestClient.getAssessmentsByCrn(CRN)).thenReturn(Mono.error(new OffenderNotFoundException(CRN)));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
             assertThat(probationRecord).isNotNull();
 
             // the assessment field should just be empty
@@ -335,7 +372,8 @@ class  OffenderServiceTest {
             verify(telemetryService)
                 .trackApplicationDegradationEvent(eq("assessment data missing from probation record (CRN '" + CRN + "' not found in oasys)"),
                                                 any(OffenderNotFoundException.class),
-                                                eq(CRN));
+                                                eq(CRN),
+                                                any(ContextView.class));
         }
 
         @DisplayName("Getting probation record does not throw exception when assessment api fails for any reason")
@@ -350,7 +388,7 @@ class  OffenderServiceTest {
             // throw ConnectException to simulate server side connection issues
             when(assessmentsRestClient.getAssessmentsByCrn(CRN)).thenReturn(Mono.error(new ConnectException("Connection refused")));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
             assertThat(probationRecord).isNotNull();
 
             // the assessment field should just be empty
@@ -364,7 +402,8 @@ class  OffenderServiceTest {
             verify(telemetryService)
                 .trackApplicationDegradationEvent(eq("call failed to get assessment data for for CRN '" + CRN + "'"),
                     any(Exception.class),
-                    eq(CRN));
+                    eq(CRN),
+                    any(ContextView.class));
         }
 
         @DisplayName("Get the most recent COMPLETE assessment, ignore the more recent PENDING one")
@@ -384,7 +423,7 @@ class  OffenderServiceTest {
             mockForStandardClientCalls(List.of(conviction), List.of(assessmentPending, assessment, assessmentComplete));
             when(offenderRestClient.getConvictionRequirements(CRN, CONVICTION_ID)).thenReturn(Mono.just(Collections.emptyList()));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
 
             assertThat(probationRecord.getAssessment()).isSameAs(assessmentComplete);
         }
@@ -401,7 +440,7 @@ class  OffenderServiceTest {
             mockForStandardClientCalls(List.of(conviction), List.of(assessmentPending));
             when(offenderRestClient.getConvictionRequirements(CRN, CONVICTION_ID)).thenReturn(Mono.just(Collections.emptyList()));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
 
             assertThat(probationRecord.getAssessment()).isNull();
         }
@@ -413,7 +452,7 @@ class  OffenderServiceTest {
             mockForStandardClientCalls(List.of(conviction), List.of());
             when(offenderRestClient.getConvictionRequirements(CRN, CONVICTION_ID)).thenReturn(Mono.just(emptyList()));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
 
             assertThat(probationRecord.getAssessment()).isNull();
         }
@@ -433,7 +472,7 @@ class  OffenderServiceTest {
             when(offenderRestClient.getBreaches(CRN, CONVICTION_ID)).thenReturn(Mono.error(new OffenderNotFoundException(CRN)));
 
             assertThatExceptionOfType(OffenderNotFoundException.class)
-                .isThrownBy(() -> service.getProbationRecord(CRN, true))
+                .isThrownBy(() -> service.getProbationRecord(CRN, true).block())
                 .withMessageContaining(CRN);
         }
 
@@ -452,7 +491,7 @@ class  OffenderServiceTest {
             // this actually throws `<reactor.core.Exceptions$ReactiveException: java.net.ConnectException: Connection refused>`
             // but i can't figure out how to test for that
             assertThatExceptionOfType(RuntimeException.class)
-                .isThrownBy(() -> service.getProbationRecord(CRN, true));
+                .isThrownBy(() -> service.getProbationRecord(CRN, true).block());
         }
 
         @DisplayName("An offender which is awaiting PST will include PSR reports in the conviction")
@@ -479,7 +518,7 @@ class  OffenderServiceTest {
             when(convictionRestClient.getCourtReports(CRN, CONVICTION_ID)).thenReturn(Mono.just(List.of(nonPsrCourtReport, psrCourtReport)));
             when(offenderRestClient.getConvictionRequirements(CRN, CONVICTION_ID)).thenReturn(Mono.just(emptyList()));
 
-            var probationRecord = service.getProbationRecord(CRN, false);
+            var probationRecord = service.getProbationRecord(CRN, false).block();
 
             var conviction = probationRecord.getConvictions().get(0);
             assertThat(conviction.isAwaitingPsr()).isTrue();
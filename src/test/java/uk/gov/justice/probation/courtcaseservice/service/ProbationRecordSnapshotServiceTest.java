@@ -0,0 +1,160 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.ProbationRecordSnapshotEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ProbationRecordSnapshotRepository;
+import uk.gov.justice.probation.courtcaseservice.service.model.Breach;
+import uk.gov.justice.probation.courtcaseservice.service.model.Conviction;
+import uk.gov.justice.probation.courtcaseservice.service.model.KeyValue;
+import uk.gov.justice.probation.courtcaseservice.service.model.OffenderManager;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecord;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.DocumentType;
+import uk.gov.justice.probation.courtcaseservice.service.model.document.OffenderDocumentDetail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSection.ALL;
+
+@ExtendWith(MockitoExtension.class)
+class ProbationRecordSnapshotServiceTest {
+
+    private static final String CRN = "X320741";
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+        .findAndAddModules()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    @Mock
+    private ProbationRecordSnapshotRepository repository;
+
+    @Mock
+    private OffenderService recordAssembler;
+
+    private ProbationRecordSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        final var documentTypeFilter = new DocumentTypeFilter(List.of(DocumentType.COURT_REPORT_DOCUMENT), List.of("CJS"));
+        service = new ProbationRecordSnapshotService(true, Duration.ofHours(1), repository, OBJECT_MAPPER, documentTypeFilter, recordAssembler);
+    }
+
+    @Test
+    void givenNoSnapshot_whenGet_thenAssembleAndStore() {
+        when(repository.findById(CRN)).thenReturn(Optional.empty());
+        when(recordAssembler.getProbationRecord(CRN, false, ALL)).thenReturn(Mono.just(probationRecord()));
+
+        final var snapshot = service.getProbationRecord(CRN, false, ALL);
+
+        assertThat(snapshot.getRecord().getConvictions()).hasSize(1);
+        assertThat(snapshot.getAge()).isLessThan(Duration.ofMinutes(1));
+        verify(repository).upsert(eq(CRN), anyString(), eq(snapshot.getAssembledAt()));
+    }
+
+    @Test
+    void givenFreshSnapshot_whenGet_thenServeItWithoutAssembling() throws Exception {
+        when(repository.findById(CRN)).thenReturn(Optional.of(entity(LocalDateTime.now().minusMinutes(5))));
+
+        final var snapshot = service.getProbationRecord(CRN, false, ALL);
+
+        assertThat(snapshot.getRecord().getOffenderManagers()).hasSize(1);
+        assertThat(snapshot.getRecord().getConvictions().get(0).getBreaches()).hasSize(1);
+        assertThat(snapshot.getAge()).isBetween(Duration.ofMinutes(5), Duration.ofMinutes(6));
+        verify(recordAssembler, never()).getProbationRecord(anyString(), eq(false), any());
+    }
+
+    @Test
+    void givenStaleSnapshot_whenGet_thenServeItAndRefreshInBackground() throws Exception {
+        final var assembledAt = LocalDateTime.now().minusHours(2);
+        when(repository.findById(CRN)).thenReturn(Optional.of(entity(assembledAt)));
+        when(recordAssembler.getProbationRecord(CRN, false, ALL)).thenReturn(Mono.just(probationRecord()));
+
+        final var snapshot = service.getProbationRecord(CRN, false, ALL);
+
+        assertThat(snapshot.getAssembledAt()).isEqualTo(assembledAt);
+        verify(repository, timeout(1000)).upsert(eq(CRN), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void givenSectionsAndDocumentFilter_whenGet_thenReturnOnlyRequestedSectionsAndDocuments() throws Exception {
+        when(repository.findById(CRN)).thenReturn(Optional.of(entity(LocalDateTime.now())));
+
+        final var record = service.getProbationRecord(CRN, true, Set.of(ProbationRecordSection.DOCUMENTS)).getRecord();
+
+        assertThat(record.getOffenderManagers()).isNull();
+        final var conviction = record.getConvictions().get(0);
+        assertThat(conviction.getBreaches()).isNull();
+        assertThat(conviction.getDocuments()).extracting(OffenderDocumentDetail::getDocumentId).containsExactly("psr");
+    }
+
+    @Test
+    void givenSnapshot_whenRefreshIfPresent_thenRefreshInBackground() {
+        when(repository.existsById(CRN)).thenReturn(true);
+        when(recordAssembler.getProbationRecord(CRN, false, ALL)).thenReturn(Mono.just(probationRecord()));
+
+        service.refreshIfPresent(CRN);
+
+        verify(repository, timeout(1000)).upsert(eq(CRN), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void givenNoSnapshot_whenRefreshIfPresent_thenDoNothing() {
+        when(repository.existsById(CRN)).thenReturn(false);
+
+        service.refreshIfPresent(CRN);
+
+        verify(recordAssembler, never()).getProbationRecord(anyString(), eq(false), any());
+    }
+
+    private ProbationRecordSnapshotEntity entity(LocalDateTime assembledAt) throws Exception {
+        return ProbationRecordSnapshotEntity.builder()
+            .crn(CRN)
+            .record(OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsString(probationRecord())))
+            .assembledAt(assembledAt)
+            .build();
+    }
+
+    private static ProbationRecord probationRecord() {
+        final var conviction = Conviction.builder()
+            .convictionId("2500295345")
+            .active(true)
+            .build();
+        conviction.setBreaches(List.of(Breach.builder().breachId(1L).build()));
+        conviction.setDocuments(List.of(
+            OffenderDocumentDetail.builder()
+                .documentId("psr")
+                .type(DocumentType.COURT_REPORT_DOCUMENT)
+                .subType(new KeyValue("CJS", "Pre-Sentence Report - Standard"))
+                .build(),
+            OffenderDocumentDetail.builder()
+                .documentId("other")
+                .type(DocumentType.CONVICTION_DOCUMENT)
+                .build()));
+        return ProbationRecord.builder()
+            .crn(CRN)
+            .convictions(List.of(conviction))
+            .offenderManagers(List.of(OffenderManager.builder().provider("Essex").build()))
+            .build();
+    }
+}
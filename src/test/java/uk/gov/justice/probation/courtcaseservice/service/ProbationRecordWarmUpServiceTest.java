@@ -0,0 +1,105 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.HearingRepository;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ScheduledJobLockRepository;
+import uk.gov.justice.probation.courtcaseservice.restclient.exception.OffenderNotFoundException;
+import uk.gov.justice.probation.courtcaseservice.service.model.ProbationRecordSnapshot;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProbationRecordWarmUpServiceTest {
+
+    private static final LocalDate HEARING_DAY = LocalDate.of(2022, 11, 1);
+
+    @Mock
+    private HearingRepository hearingRepository;
+
+    @Mock
+    private ScheduledJobLockRepository scheduledJobLockRepository;
+
+    @Mock
+    private ProbationRecordSnapshotService probationRecordSnapshotService;
+
+    @Mock
+    private TelemetryService telemetryService;
+
+    private ProbationRecordWarmUpService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProbationRecordWarmUpService(true, 2, 1000, 60, 12, hearingRepository, new ScheduledJobLock(scheduledJobLockRepository),
+            probationRecordSnapshotService, telemetryService);
+    }
+
+    @Test
+    void whenWarmUp_thenRefreshEveryCrnAndReportCoverage() {
+        when(hearingRepository.findCrnsByHearingDay(HEARING_DAY)).thenReturn(List.of("X320741", "D991494", "E123456"));
+        when(probationRecordSnapshotService.findAssembledAfter(eq(List.of("X320741", "D991494", "E123456")), any())).thenReturn(Set.of());
+        when(probationRecordSnapshotService.refresh("X320741")).thenReturn(ProbationRecordSnapshot.builder().build());
+        when(probationRecordSnapshotService.refresh("D991494")).thenThrow(new OffenderNotFoundException("D991494"));
+        when(probationRecordSnapshotService.refresh("E123456")).thenReturn(ProbationRecordSnapshot.builder().build());
+
+        service.warmUp(HEARING_DAY);
+
+        verify(telemetryService).trackProbationRecordWarmUpEvent(eq(HEARING_DAY), eq(3), eq(2), eq(1), any());
+    }
+
+    @Test
+    void givenFreshSnapshot_whenWarmUp_thenSkipItsCrn() {
+        when(hearingRepository.findCrnsByHearingDay(HEARING_DAY)).thenReturn(List.of("X320741", "E123456"));
+        when(probationRecordSnapshotService.findAssembledAfter(eq(List.of("X320741", "E123456")), any())).thenReturn(Set.of("X320741"));
+        when(probationRecordSnapshotService.refresh("E123456")).thenReturn(ProbationRecordSnapshot.builder().build());
+
+        service.warmUp(HEARING_DAY);
+
+        verify(probationRecordSnapshotService, never()).refresh("X320741");
+        verify(telemetryService).trackProbationRecordWarmUpEvent(eq(HEARING_DAY), eq(2), eq(2), eq(0), any());
+    }
+
+    @Test
+    void givenLockTaken_whenWarmUpNextCourtDay_thenKeepLockUntilItRunsOut() {
+        when(probationRecordSnapshotService.isEnabled()).thenReturn(true);
+        when(scheduledJobLockRepository.tryLock(eq(ProbationRecordWarmUpService.JOB_NAME), any(), any(), any())).thenReturn(1);
+        when(hearingRepository.findCrnsByHearingDay(any())).thenReturn(List.of());
+        when(probationRecordSnapshotService.findAssembledAfter(eq(List.of()), any())).thenReturn(Set.of());
+
+        service.warmUpNextCourtDay();
+
+        verify(scheduledJobLockRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void givenLockHeldByAnotherInstance_whenWarmUpNextCourtDay_thenDoNothing() {
+        when(probationRecordSnapshotService.isEnabled()).thenReturn(true);
+        when(scheduledJobLockRepository.tryLock(eq(ProbationRecordWarmUpService.JOB_NAME), any(), any(), any())).thenReturn(0);
+
+        service.warmUpNextCourtDay();
+
+        verifyNoInteractions(hearingRepository);
+    }
+
+    @Test
+    void givenSnapshotsDisabled_whenWarmUpNextCourtDay_thenDoNothing() {
+        when(probationRecordSnapshotService.isEnabled()).thenReturn(false);
+
+        service.warmUpNextCourtDay();
+
+        verify(scheduledJobLockRepository, never()).tryLock(any(), any(), any(), any());
+        verifyNoInteractions(hearingRepository);
+    }
+}
@@ -0,0 +1,101 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.ScheduledJobLockRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledJobLockTest {
+
+    private static final String JOB_NAME = "job";
+
+    @Mock
+    private ScheduledJobLockRepository scheduledJobLockRepository;
+
+    private ScheduledJobLock scheduledJobLock;
+
+    @BeforeEach
+    void setUp() {
+        scheduledJobLock = new ScheduledJobLock(scheduledJobLockRepository);
+    }
+
+    @Test
+    void givenLockTaken_whenRunExclusively_thenRunAndReleaseAsThisInstance() {
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), eq(scheduledJobLock.getInstanceId()))).thenReturn(1);
+        final var ran = new AtomicBoolean();
+
+        assertThat(scheduledJobLock.runExclusively(JOB_NAME, Duration.ofMinutes(1), () -> ran.set(true))).isTrue();
+
+        assertThat(ran).isTrue();
+        verify(scheduledJobLockRepository).release(eq(JOB_NAME), any(LocalDateTime.class), eq(scheduledJobLock.getInstanceId()));
+    }
+
+    @Test
+    void givenLockHeldElsewhere_whenRunExclusively_thenDoNotRun() {
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), any())).thenReturn(0);
+        final var ran = new AtomicBoolean();
+
+        assertThat(scheduledJobLock.runExclusively(JOB_NAME, Duration.ofMinutes(1), () -> ran.set(true))).isFalse();
+
+        assertThat(ran).isFalse();
+        verify(scheduledJobLockRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void givenTaskFails_whenRunExclusively_thenReleaseLock() {
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> scheduledJobLock.runExclusively(JOB_NAME, Duration.ofMinutes(1), () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(scheduledJobLockRepository).release(eq(JOB_NAME), any(LocalDateTime.class), eq(scheduledJobLock.getInstanceId()));
+    }
+
+    @Test
+    void givenLockTaken_whenRunOncePerLease_thenRunAndKeepLock() {
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), eq(scheduledJobLock.getInstanceId()))).thenReturn(1);
+        final var ran = new AtomicBoolean();
+
+        assertThat(scheduledJobLock.runOncePerLease(JOB_NAME, Duration.ofMinutes(1), () -> ran.set(true))).isTrue();
+
+        assertThat(ran).isTrue();
+        verify(scheduledJobLockRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void givenLockHeld_whenRunOncePerLease_thenDoNotRun() {
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), any())).thenReturn(0);
+        final var ran = new AtomicBoolean();
+
+        assertThat(scheduledJobLock.runOncePerLease(JOB_NAME, Duration.ofMinutes(1), () -> ran.set(true))).isFalse();
+
+        assertThat(ran).isFalse();
+    }
+
+    @Test
+    void givenTaskFails_whenRunOncePerLease_thenKeepLock() {
+        when(scheduledJobLockRepository.tryLock(eq(JOB_NAME), any(LocalDateTime.class), any(LocalDateTime.class), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> scheduledJobLock.runOncePerLease(JOB_NAME, Duration.ofMinutes(1), () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(scheduledJobLockRepository, never()).release(any(), any(), any());
+    }
+}
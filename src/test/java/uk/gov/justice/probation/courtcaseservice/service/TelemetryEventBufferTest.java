@@ -0,0 +1,179 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import com.microsoft.applicationinsights.TelemetryClient;
+import com.microsoft.applicationinsights.telemetry.EventTelemetry;
+import com.microsoft.applicationinsights.web.internal.RequestTelemetryContext;
+import com.microsoft.applicationinsights.web.internal.ThreadContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.probation.courtcaseservice.application.TelemetryProperties;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryEventBufferTest {
+
+    @Mock
+    private TelemetryClient telemetryClient;
+
+    @Captor
+    private ArgumentCaptor<EventTelemetry> eventTelemetryCaptor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void givenAsyncMode_whenOffer_thenSendOnDrainInBatches() {
+        final var buffer = buffer(properties(TelemetryProperties.Mode.ASYNC, 100, 2));
+
+        IntStream.range(0, 3).forEach(i -> buffer.offer(TelemetryEventType.COURT_CASE_UPDATED, Map.of("caseId", "case" + i), Collections.emptyMap()));
+
+        verify(telemetryClient, never()).trackEvent(anyString(), anyMap(), anyMap());
+        assertThat(buffer.size()).isEqualTo(3);
+
+        assertThat(buffer.drain()).isEqualTo(2);
+        assertThat(buffer.drain()).isEqualTo(1);
+        assertThat(buffer.drain()).isZero();
+
+        verify(telemetryClient, times(3)).trackEvent(eq("PiCCourtCaseUpdated"), anyMap(), anyMap());
+        verify(telemetryClient).trackEvent("PiCCourtCaseUpdated", Map.of("caseId", "case2"), Collections.emptyMap());
+    }
+
+    @Test
+    void givenFullBuffer_whenOffer_thenDropAndCount() {
+        final var buffer = buffer(properties(TelemetryProperties.Mode.ASYNC, 2, 100));
+
+        IntStream.range(0, 5).forEach(i -> buffer.offer(TelemetryEventType.DEFENDANT_LINKED, Map.of(), Collections.emptyMap()));
+
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(meterRegistry.get(TelemetryEventBuffer.DROPPED_EVENTS_METRIC).tag("eventType", "DEFENDANT_LINKED").counter().count())
+            .isEqualTo(3);
+
+        buffer.drain();
+        buffer.offer(TelemetryEventType.DEFENDANT_LINKED, Map.of(), Collections.emptyMap());
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void givenSyncMode_whenOffer_thenSendImmediately() {
+        final var buffer = buffer(properties(TelemetryProperties.Mode.SYNC, 100, 100));
+
+        buffer.offer(TelemetryEventType.MATCH_CONFIRMED, Map.of("crn", "X123456"), Collections.emptyMap());
+
+        verify(telemetryClient).trackEvent("PiCMatchConfirmed", Map.of("crn", "X123456"), Collections.emptyMap());
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void givenNoopMode_whenTrack_thenNothingIsSampledOrSent() {
+        final var buffer = buffer(properties(TelemetryProperties.Mode.NOOP, 100, 100));
+
+        assertThat(buffer.isSampled(TelemetryEventType.COURT_CASE_CREATED)).isFalse();
+        buffer.offer(TelemetryEventType.COURT_CASE_CREATED, Map.of(), Collections.emptyMap());
+
+        verify(telemetryClient, never()).trackEvent(anyString(), anyMap(), anyMap());
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void givenSamplingRates_whenIsSampled_thenApplyRatePerEventType() {
+        final var properties = properties(TelemetryProperties.Mode.ASYNC, 100, 100);
+        properties.getSampling().put("COURT_CASE_UPDATED", 0.0);
+        properties.getSampling().put("DEFENDANT_LINKED", 0.5);
+        final var buffer = buffer(properties);
+
+        final var sampled = IntStream.range(0, 10000)
+            .filter(i -> buffer.isSampled(TelemetryEventType.DEFENDANT_LINKED))
+            .count();
+
+        assertThat(buffer.isSampled(TelemetryEventType.COURT_CASE_UPDATED)).isFalse();
+        assertThat(buffer.isSampled(TelemetryEventType.COURT_CASE_CREATED)).isTrue();
+        assertThat(sampled).isBetween(4000L, 6000L);
+    }
+
+    @Test
+    void givenAsyncMode_whenStopped_thenSendBufferedEventsAndFlush() throws InterruptedException {
+        final var buffer = buffer(properties(TelemetryProperties.Mode.ASYNC, 100, 100));
+        buffer.start();
+
+        buffer.offer(TelemetryEventType.HEARING_NOTE_ADDED, Map.of(), Collections.emptyMap());
+        buffer.stop();
+
+        verify(telemetryClient).trackEvent(eq("PicHearingNoteCreated"), any(), any());
+        verify(telemetryClient).flush();
+    }
+
+    @Test
+    void givenRequestInProgress_whenOffer_thenSendWithOperationOfRequest() {
+        final var buffer = buffer(properties(TelemetryProperties.Mode.ASYNC, 100, 100));
+        final var requestContext = new RequestTelemetryContext(System.currentTimeMillis());
+        requestContext.getHttpRequestTelemetry().getContext().getOperation().setId("operation-id");
+        requestContext.getHttpRequestTelemetry().setId("request-id");
+        ThreadContext.setRequestTelemetryContext(requestContext);
+        try {
+            buffer.offer(TelemetryEventType.COURT_CASE_UPDATED, Map.of("caseId", "case1"), Map.of("hearings", 2.0));
+        } finally {
+            ThreadContext.remove();
+        }
+
+        // Drained with no request, as on the background thread
+        buffer.drain();
+
+        verify(telemetryClient).trackEvent(eventTelemetryCaptor.capture());
+        final var telemetry = eventTelemetryCaptor.getValue();
+        assertThat(telemetry.getName()).isEqualTo("PiCCourtCaseUpdated");
+        assertThat(telemetry.getProperties()).containsEntry("caseId", "case1");
+        assertThat(telemetry.getMetrics()).containsEntry("hearings", 2.0);
+        assertThat(telemetry.getContext().getOperation().getId()).isEqualTo("operation-id");
+        assertThat(telemetry.getContext().getOperation().getParentId()).isEqualTo("request-id");
+    }
+
+    @Test
+    void givenSpanOfRequestInProgress_whenOffer_thenSendWithOperationOfSpan() {
+        final var buffer = buffer(properties(TelemetryProperties.Mode.ASYNC, 100, 100));
+        final var span = Span.wrap(SpanContext.create("0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331",
+            TraceFlags.getSampled(), TraceState.getDefault()));
+        try (var ignored = span.makeCurrent()) {
+            buffer.offer(TelemetryEventType.COURT_CASE_UPDATED, Map.of("caseId", "case1"), Map.of());
+        }
+
+        buffer.drain();
+
+        verify(telemetryClient).trackEvent(eventTelemetryCaptor.capture());
+        final var telemetry = eventTelemetryCaptor.getValue();
+        assertThat(telemetry.getContext().getOperation().getId()).isEqualTo("0af7651916cd43dd8448eb211c80319c");
+        assertThat(telemetry.getContext().getOperation().getParentId()).isEqualTo("b7ad6b7169203331");
+    }
+
+    private TelemetryEventBuffer buffer(TelemetryProperties properties) {
+        return new TelemetryEventBuffer(telemetryClient, properties, meterRegistry);
+    }
+
+    private static TelemetryProperties properties(TelemetryProperties.Mode mode, int capacity, int batchSize) {
+        final var properties = new TelemetryProperties();
+        properties.setMode(mode);
+        properties.setBufferCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        return properties;
+    }
+}
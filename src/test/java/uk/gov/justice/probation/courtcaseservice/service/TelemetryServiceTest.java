@@ -1,14 +1,16 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
 import com.microsoft.applicationinsights.TelemetryClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.justice.probation.courtcaseservice.application.ClientDetails;
+import uk.gov.justice.probation.courtcaseservice.application.TelemetryProperties;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.CaseCommentEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.CourtCaseEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.DefendantEntity;
@@ -59,9 +61,15 @@ class TelemetryServiceTest {
     @Captor
     private ArgumentCaptor<Map<String, Double>> metricsCaptor;
 
-    @InjectMocks
     private TelemetryService service;
 
+    @BeforeEach
+    void setUp() {
+        var telemetryProperties = new TelemetryProperties();
+        telemetryProperties.setMode(TelemetryProperties.Mode.SYNC);
+        service = new TelemetryService(new TelemetryEventBuffer(telemetryClient, telemetryProperties, new SimpleMeterRegistry()), clientDetails);
+    }
+
     @Test
     void givenUserDetailsAvailable_whenTrackMatchEvent_thenAddAllProperties() {
         when(clientDetails.getUsername()).thenReturn("Arthur");
@@ -169,6 +177,23 @@ class TelemetryServiceTest {
         verify(telemetryClient).trackEvent(TelemetryEventType.GRACEFUL_DEGRADE.eventName, properties, Collections.emptyMap());
     }
 
+    @Test
+    void givenClientDetailsInContext_whenTrackApplicationDegradationEvent_thenAddUserProperties() {
+
+        var e = new OffenderNotFoundException(CRN);
+        var requestClientDetails = new ClientDetails();
+        requestClientDetails.setClientDetails("prepare-a-case", "a-user");
+        var context = ClientDetails.currentContext();
+        requestClientDetails.clear();
+
+        service.trackApplicationDegradationEvent("desc", e, CRN, context);
+
+        var properties = Map.of("description", "desc", "crn", CRN, "cause", "Offender with CRN 'CRN' not found",
+            "username", "a-user", "clientId", "prepare-a-case");
+
+        verify(telemetryClient).trackEvent(TelemetryEventType.GRACEFUL_DEGRADE.eventName, properties, Collections.emptyMap());
+    }
+
     @Test
     void whenTrackDefendantEvent_thenCallService() {
 
@@ -0,0 +1,49 @@
+package uk.gov.justice.probation.courtcaseservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import uk.gov.justice.probation.courtcaseservice.BaseIntTest;
+import uk.gov.justice.probation.courtcaseservice.jpa.SqlStatementRecorder;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
+import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderProbationStatus;
+import uk.gov.justice.probation.courtcaseservice.jpa.repository.OffenderRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
+
+@Sql(scripts = "classpath:before-test.sql", config = @SqlConfig(transactionMode = ISOLATED))
+@Sql(scripts = "classpath:after-test.sql", config = @SqlConfig(transactionMode = ISOLATED), executionPhase = AFTER_TEST_METHOD)
+public class UserAgnosticOffenderServiceIntTest extends BaseIntTest {
+
+    // NOT_SENTENCED in before-test.sql and PREVIOUSLY_KNOWN from community-api
+    private static final List<String> CRNS = List.of("X320742", "X320743", "X320744", "X320745", "X320746");
+
+    @Autowired
+    private UserAgnosticOffenderService service;
+
+    @Autowired
+    private OffenderRepository offenderRepository;
+
+    @Test
+    public void givenChangedStatuses_whenUpdateOffenderProbationStatuses_thenWriteThemWithoutStatementsPerOffender() {
+        final var recording = SqlStatementRecorder.start();
+
+        final var failedCrns = service.updateOffenderProbationStatuses(CRNS, 2);
+
+        recording.stop();
+        assertThat(failedCrns).isEmpty();
+        assertThat(offenderRepository.findAllByCrnIn(CRNS))
+            .extracting(OffenderEntity::getProbationStatus)
+            .containsOnly(OffenderProbationStatus.PREVIOUSLY_KNOWN)
+            .hasSize(CRNS.size());
+        // A select or an unbatched update per offender would be prepared once for each of them
+        assertThat(recording.getMostRepeatedStatement()).map(Map.Entry::getValue).hasValueSatisfying(count -> assertThat(count).isLessThan(CRNS.size()));
+        assertThat(recording.getStatementCount()).isLessThan(CRNS.size());
+    }
+}
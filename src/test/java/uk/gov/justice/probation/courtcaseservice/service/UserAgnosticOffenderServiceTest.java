@@ -1,5 +1,6 @@
 package uk.gov.justice.probation.courtcaseservice.service;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderEntity;
 import uk.gov.justice.probation.courtcaseservice.jpa.entity.OffenderProbationStatus;
@@ -16,8 +19,11 @@ import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClient;
 import uk.gov.justice.probation.courtcaseservice.restclient.OffenderRestClientFactory;
 import uk.gov.justice.probation.courtcaseservice.service.model.ProbationStatusDetail;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -39,6 +45,15 @@ public class UserAgnosticOffenderServiceTest {
     private OffenderRestClient userAgnosticOffenderRestClient;
     @Mock
     private TelemetryService telemetryService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Session session;
+
+    // Not loaded, so every CRN might be known
+    private final KnownCrnFilter knownCrnFilter = new KnownCrnFilter(1000, 0.01);
 
     private UserAgnosticOffenderService service;
 
@@ -48,7 +63,7 @@ public class UserAgnosticOffenderServiceTest {
     @BeforeEach
     void beforeEach() {
         when(offenderRestClientFactory.buildUserAgnosticOffenderRestClient()).thenReturn(userAgnosticOffenderRestClient);
-        service = new UserAgnosticOffenderService(offenderRestClientFactory, offenderRepository, telemetryService);
+        service = new UserAgnosticOffenderService(offenderRestClientFactory, offenderRepository, telemetryService, knownCrnFilter, transactionTemplate, entityManager);
     }
 
     @Test
@@ -262,4 +277,65 @@ public class UserAgnosticOffenderServiceTest {
         assertThat(entityToUpdate.isPreSentenceActivity()).isEqualTo(true);
         assertThat(entityToUpdate.isBreach()).isEqualTo(true);
     }
+
+    @Test
+    void givenSeveralCrns_whenUpdateOffenderProbationStatuses_thenUpdateOnlyChangedOffendersTogether() {
+
+        final var currentStatus = ProbationStatusDetail.builder()
+                .status(OffenderProbationStatus.CURRENT.getName())
+                .inBreach(false)
+                .awaitingPsr(false)
+                .preSentenceActivity(false)
+                .build();
+        final var changedOffender = OffenderEntity.builder()
+                .crn(CRN)
+                .probationStatus(OffenderProbationStatus.NOT_SENTENCED)
+                .build();
+        final var unchangedOffender = OffenderEntity.builder()
+                .crn("X456")
+                .probationStatus(OffenderProbationStatus.CURRENT)
+                .awaitingPsr(false)
+                .build();
+        final var failingOffender = OffenderEntity.builder()
+                .crn("X789")
+                .probationStatus(OffenderProbationStatus.CURRENT)
+                .build();
+        final var crns = List.of(CRN, "X456", "X789", "UNKNOWN");
+
+        when(offenderRepository.findAllByCrnIn(crns)).thenReturn(List.of(changedOffender, unchangedOffender, failingOffender));
+        when(userAgnosticOffenderRestClient.getProbationStatusByCrn(CRN)).thenReturn(Mono.just(currentStatus));
+        when(userAgnosticOffenderRestClient.getProbationStatusByCrn("X456")).thenReturn(Mono.just(currentStatus));
+        when(userAgnosticOffenderRestClient.getProbationStatusByCrn("X789")).thenReturn(Mono.error(new RuntimeException("Connection refused")));
+        // Loaded again in the transaction, as the entities the status was checked against are detached by then
+        final var managedOffender = OffenderEntity.builder()
+                .crn(CRN)
+                .probationStatus(OffenderProbationStatus.NOT_SENTENCED)
+                .build();
+        when(offenderRepository.findAllByCrnIn(Set.of(CRN))).thenReturn(List.of(managedOffender));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+
+        final var failedCrns = service.updateOffenderProbationStatuses(crns, 2);
+
+        assertThat(failedCrns).containsExactly("X789");
+        assertThat(managedOffender.getProbationStatus()).isEqualTo(OffenderProbationStatus.CURRENT);
+        assertThat(managedOffender.getAwaitingPsr()).isFalse();
+        verify(session).setJdbcBatchSize(UserAgnosticOffenderService.UPDATE_BATCH_SIZE);
+        verify(offenderRepository, never()).saveAll(any());
+        verify(telemetryService).trackOffenderProbationStatusUpdateEvent(managedOffender);
+        verify(telemetryService).trackOffenderProbationStatusNotUpdateEvent(unchangedOffender);
+        verify(offenderRepository, never()).save(any(OffenderEntity.class));
+    }
+
+    @Test
+    void givenCrnNotInLoadedFilter_whenUpdateOffenderProbationStatus_thenDoNotLookItUp() {
+        knownCrnFilter.add("X999999");
+        knownCrnFilter.markLoaded();
+
+        assertThat(service.updateOffenderProbationStatus(CRN)).isEmpty();
+        assertThat(service.updateOffenderProbationStatuses(List.of(CRN), 2)).isEmpty();
+
+        verifyNoInteractions(offenderRepository, userAgnosticOffenderRestClient);
+        assertThat(knownCrnFilter.getFilteredCount()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,255 @@
+package uk.gov.justice.probation.courtcaseservice.testUtil;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fills the database with a realistic volume of courts, cases, hearings, defendants, offences, offender matches and
+ * Envers audit rows, so that query plans can be checked at production scale. Rows are generated in Postgres with
+ * generate_series, a chunk of cases at a time, and are deterministic for a given scale.
+ * <p>
+ * Generated rows have ids from {@link #ID_BASE} and courts with codes of the form Z000F, so they can be told apart from
+ * other data and removed with {@link #clear()}. To fill a local database, run
+ * <pre>./gradlew generateFixtures -Pfixture.cases=2000000</pre>
+ */
+@Slf4j
+public class ScaleFixtureGenerator {
+    public static final long ID_BASE = 1_000_000_000L;
+    private static final long CASE_NO_BASE = 3_000_000_000L;
+    private static final int REVISION = 2_000_000_000;
+    private static final int CHUNK_SIZE = 100_000;
+    private static final List<String> AUDITED_TABLES = List.of("court_case", "hearing", "hearing_day", "defendant", "hearing_defendant", "offence");
+    private static final List<String> TABLES = List.of("court", "court_case", "hearing", "hearing_day", "offender", "defendant", "hearing_defendant",
+        "offence", "offender_match_group", "offender_match");
+
+    // Per case: 1 to 3 hearings, 1 or 2 defendants, and 1 to 3 offences per defendant per hearing
+    private static final String HEARINGS = "generate_series(0, 2) k";
+    private static final String HAS_HEARING = "k < 1 + (i % 3 = 0)::int + (i % 7 = 0)::int";
+    private static final String DEFENDANTS = "generate_series(0, 1) d";
+    private static final String HAS_DEFENDANT = "d < 1 + (i % 4 = 0)::int";
+    private static final String OFFENCES = "generate_series(0, 2) o";
+    private static final String HAS_OFFENCE = "o < 1 + (i + d + k) % 3";
+    // Two in five defendants are known to probation, and half of the rest have candidate matches
+    private static final String HAS_CRN = "(i + d) % 5 < 2";
+    private static final String HAS_MATCHES = "(i + d) % 5 >= 2 and i % 2 = 0";
+    private static final String COURT_CODE = "'Z' || lpad((i % :courts)::text, 3, '0') || 'F'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ScaleFixtureGenerator(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Value
+    @Builder
+    public static class Scale {
+        int cases;
+        int courts;
+        int days;
+        LocalDate lastDay;
+
+        /**
+         * About 1.5 hearings and 2.5 offences per case. One court per thousand cases, between 20 and 500, with hearings
+         * spread over a year up to a month ahead.
+         */
+        public static Scale ofCases(int cases) {
+            return Scale.builder()
+                .cases(cases)
+                .courts(Math.max(20, Math.min(500, cases / 1000)))
+                .days(365)
+                .lastDay(LocalDate.now().plusDays(30))
+                .build();
+        }
+
+        public String courtCode(int court) {
+            return String.format("Z%03dF", court);
+        }
+
+        public String caseNo(int caseIndex) {
+            return String.valueOf(CASE_NO_BASE + caseIndex);
+        }
+
+        /**
+         * Hearing day of the first hearing for a case, which is at the court {@code caseIndex % courts}
+         */
+        public LocalDate hearingDay(int caseIndex) {
+            return lastDay.minusDays((caseIndex * 7L) % days);
+        }
+    }
+
+    public void generate(Scale scale) {
+        final var start = System.nanoTime();
+        final var params = new MapSqlParameterSource()
+            .addValue("base", ID_BASE)
+            .addValue("caseNoBase", CASE_NO_BASE)
+            .addValue("courts", scale.getCourts())
+            .addValue("days", scale.getDays())
+            .addValue("lastDay", scale.getLastDay());
+
+        jdbcTemplate.update("insert into court (name, court_code) " +
+            "select 'Fixture court ' || i, " + COURT_CODE + " from generate_series(0, :courts - 1) i " +
+            "on conflict do nothing", params);
+
+        for (int from = 0; from < scale.getCases(); from += CHUNK_SIZE) {
+            params.addValue("from", from).addValue("to", Math.min(from + CHUNK_SIZE, scale.getCases()) - 1);
+            insertChunk(params);
+            log.info("Generated {} of {} cases", Math.min(from + CHUNK_SIZE, scale.getCases()), scale.getCases());
+        }
+        insertAudit();
+
+        TABLES.forEach(table -> jdbcTemplate.getJdbcTemplate().execute("analyze " + table));
+        log.info("Generated {} in {}s", scale, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private void insertChunk(MapSqlParameterSource params) {
+        final var cases = " from generate_series(:from, :to) i";
+
+        jdbcTemplate.update("insert into court_case (id, case_id, case_no, source_type, created, deleted) " +
+            "select :base + i, md5('case' || i)::uuid::text, (:caseNoBase + i)::text, " +
+            "case when i % 4 = 0 then 'COMMON_PLATFORM' else 'LIBRA' end, " +
+            ":lastDay - make_interval(days => i * 7 % :days + 7), i % 50 = 0" + cases, params);
+
+        jdbcTemplate.update("insert into hearing (id, fk_court_case_id, hearing_id, list_no, hearing_type, created, deleted) " +
+            "select :base + i * 3 + k, :base + i, md5('hearing' || i || '-' || k)::uuid::text, " +
+            "case when k = 0 then '1st' else '2nd' end, 'sentence', " +
+            ":lastDay - make_interval(days => (i * 7 + k * 14) % :days + 7), i % 50 = 0" +
+            cases + ", " + HEARINGS + " where " + HAS_HEARING, params);
+
+        jdbcTemplate.update("insert into hearing_day (id, fk_hearing_id, court_code, court_room, hearing_day, hearing_time, created) " +
+            "select :base + i * 3 + k, :base + i * 3 + k, " + COURT_CODE + ", (1 + i % 10)::text, " +
+            ":lastDay - (i * 7 + k * 14) % :days, case when i % 2 = 0 then time '09:00' else time '14:00' end, " +
+            ":lastDay - make_interval(days => (i * 7 + k * 14) % :days + 1)" +
+            cases + ", " + HEARINGS + " where " + HAS_HEARING, params);
+
+        jdbcTemplate.update("insert into offender (id, crn, probation_status, created_by) " +
+            "select :base + i * 2 + d, 'F' || lpad((i * 2 + d)::text, 8, '0'), " +
+            "case when i % 3 = 0 then 'CURRENT' else 'PREVIOUSLY_KNOWN' end, 'fixture'" +
+            cases + ", " + DEFENDANTS + " where " + HAS_DEFENDANT + " and " + HAS_CRN, params);
+
+        jdbcTemplate.update("insert into defendant (id, defendant_id, person_id, defendant_name, name, type, date_of_birth, sex, crn, fk_offender_id) " +
+            "select :base + i * 2 + d, md5('defendant' || i || '-' || d)::uuid::text, md5('person' || i || '-' || d)::uuid, " +
+            "'Mr Fixture DEFENDANT' || i, " +
+            "jsonb_build_object('title', 'Mr', 'forename1', 'Fixture', 'surname', 'DEFENDANT' || i), 'PERSON', " +
+            "date '1960-01-01' + (i * 37 + d) % 15000, case when d = 0 then 'MALE' else 'FEMALE' end, " +
+            "case when " + HAS_CRN + " then 'F' || lpad((i * 2 + d)::text, 8, '0') end, " +
+            "case when " + HAS_CRN + " then :base + i * 2 + d end" +
+            cases + ", " + DEFENDANTS + " where " + HAS_DEFENDANT, params);
+
+        jdbcTemplate.update("insert into hearing_defendant (id, fk_hearing_id, defendant_id, fk_defendant_id) " +
+            "select :base + (i * 3 + k) * 2 + d, :base + i * 3 + k, md5('defendant' || i || '-' || d)::uuid::text, :base + i * 2 + d" +
+            cases + ", " + HEARINGS + ", " + DEFENDANTS + " where " + HAS_HEARING + " and " + HAS_DEFENDANT, params);
+
+        jdbcTemplate.update("insert into offence (id, fk_hearing_defendant_id, title, summary, act, sequence, list_no) " +
+            "select :base + ((i * 3 + k) * 2 + d) * 3 + o, :base + (i * 3 + k) * 2 + d, 'Theft from a shop', " +
+            "'On 01/01/2015 at own, stole article, to the value of £987.00, belonging to person.', " +
+            "'Contrary to section 1(1) and 7 of the Theft Act 1968.', o + 1, 1 + k" +
+            cases + ", " + HEARINGS + ", " + DEFENDANTS + ", " + OFFENCES +
+            " where " + HAS_HEARING + " and " + HAS_DEFENDANT + " and " + HAS_OFFENCE, params);
+
+        jdbcTemplate.update("insert into offender_match_group (id, case_id, defendant_id) " +
+            "select :base + i * 2 + d, md5('case' || i)::uuid::text, md5('defendant' || i || '-' || d)::uuid::text" +
+            cases + ", " + DEFENDANTS + " where " + HAS_DEFENDANT + " and " + HAS_MATCHES, params);
+
+        jdbcTemplate.update("insert into offender_match (group_id, crn, pnc, match_type, confirmed, rejected) " +
+            "select :base + i * 2 + d, 'F' || lpad(((i * 2 + d + m * 10) % (:to * 2 + 1))::text, 8, '0'), null, " +
+            "case when m = 0 then 'NAME_DOB' else 'PARTIAL_NAME' end, false, m = 2" +
+            cases + ", " + DEFENDANTS + ", generate_series(0, 2) m " +
+            "where " + HAS_DEFENDANT + " and " + HAS_MATCHES + " and m <= i % 3", params);
+    }
+
+    /**
+     * A creation revision for every generated row, and an update revision for one in three, as hearing updates replace
+     * their children.
+     */
+    private void insertAudit() {
+        if (!tableExists("revinfo")) {
+            log.info("No audit tables, skipping audit rows");
+            return;
+        }
+        final var params = new MapSqlParameterSource()
+            .addValue("base", ID_BASE)
+            .addValue("revision", REVISION)
+            .addValue("timestamp", System.currentTimeMillis());
+        jdbcTemplate.update("insert into revinfo (rev, revtstmp) values (:revision, :timestamp), (:revision + 1, :timestamp)", params);
+
+        for (var table : AUDITED_TABLES) {
+            if (!tableExists(table + "_aud")) {
+                continue;
+            }
+            final var columns = columns(table);
+            columns.retainAll(columns(table + "_aud"));
+            columns.removeAll(List.of("rev", "revtype"));
+            final var columnList = String.join(", ", columns);
+            jdbcTemplate.update(String.format("insert into %1$s_aud (%2$s, rev, revtype) " +
+                "select %2$s, :revision, 0 from %1$s where id >= :base", table, columnList), params);
+            jdbcTemplate.update(String.format("insert into %1$s_aud (%2$s, rev, revtype) " +
+                "select %2$s, :revision + 1, 1 from %1$s where id >= :base and id %% 3 = 0", table, columnList), params);
+            jdbcTemplate.getJdbcTemplate().execute("analyze " + table + "_aud");
+        }
+    }
+
+    /**
+     * Remove generated rows, leaving any other data in place.
+     */
+    public void clear() {
+        final var params = new MapSqlParameterSource()
+            .addValue("base", ID_BASE)
+            .addValue("revision", REVISION);
+        if (tableExists("revinfo")) {
+            for (var table : AUDITED_TABLES) {
+                if (tableExists(table + "_aud")) {
+                    jdbcTemplate.update("delete from " + table + "_aud where rev in (:revision, :revision + 1)", params);
+                }
+            }
+            jdbcTemplate.update("delete from revinfo where rev in (:revision, :revision + 1)", params);
+        }
+        jdbcTemplate.update("delete from offender_match where group_id >= :base", params);
+        jdbcTemplate.update("delete from offender_match_group where id >= :base", params);
+        jdbcTemplate.update("delete from offence where id >= :base", params);
+        jdbcTemplate.update("delete from hearing_defendant where id >= :base", params);
+        jdbcTemplate.update("delete from defendant where id >= :base", params);
+        jdbcTemplate.update("delete from offender where id >= :base", params);
+        jdbcTemplate.update("delete from hearing_day where id >= :base", params);
+        jdbcTemplate.update("delete from hearing where id >= :base", params);
+        jdbcTemplate.update("delete from court_case where id >= :base", params);
+        jdbcTemplate.update("delete from court where court_code like 'Z___F' and name like 'Fixture court %'", params);
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select exists (select 1 from information_schema.tables " +
+            "where table_schema = current_schema() and table_name = :table)", new MapSqlParameterSource("table", table), Boolean.class));
+    }
+
+    private LinkedHashSet<String> columns(String table) {
+        return jdbcTemplate.queryForList("select column_name from information_schema.columns " +
+                "where table_schema = current_schema() and table_name = :table order by ordinal_position",
+                new MapSqlParameterSource("table", table), String.class)
+            .stream()
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Fill the database given by the fixture.url system property, by default the docker-compose database, or remove
+     * generated rows from it with fixture.clear
+     */
+    public static void main(String[] args) {
+        final var url = System.getProperty("fixture.url",
+            "jdbc:postgresql://localhost:5432/postgres?currentSchema=courtcaseservice&user=root&password=dev&stringtype=unspecified");
+        final var generator = new ScaleFixtureGenerator(new DriverManagerDataSource(url));
+        if (Boolean.getBoolean("fixture.clear")) {
+            generator.clear();
+            return;
+        }
+        generator.generate(Scale.ofCases(Integer.getInteger("fixture.cases", 1_000_000)));
+    }
+}
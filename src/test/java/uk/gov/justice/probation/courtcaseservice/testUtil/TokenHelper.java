@@ -24,6 +24,7 @@ import java.security.spec.RSAMultiPrimePrivateCrtKeySpec;
 import java.text.ParseException;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static uk.gov.justice.probation.courtcaseservice.Constants.USER_UUID_CLAIM_NAME;
 
@@ -49,7 +50,19 @@ public class TokenHelper {
         return getToken(TEST_UUID);
     }
 
+    public static String getAdminToken() {
+        try {
+            return createToken(TEST_UUID, List.of("ROLE_PREPARE_A_CASE", "ROLE_PREPARE_A_CASE_ADMIN"));
+        } catch (IOException | ParseException | NoSuchAlgorithmException | InvalidKeySpecException | JOSEException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static String createToken(final String uuid) throws IOException, ParseException, NoSuchAlgorithmException, InvalidKeySpecException, JOSEException {
+        return createToken(uuid, Collections.singletonList("ROLE_PREPARE_A_CASE"));
+    }
+
+    public static String createToken(final String uuid, final List<String> authorities) throws IOException, ParseException, NoSuchAlgorithmException, InvalidKeySpecException, JOSEException {
         JWKSet localKeys = JWKSet.load(new ClassPathResource("mocks/test_keypair_jwks.json").getFile());
         RSAKey jwk = (RSAKey) localKeys.getKeyByKeyId(CourtCaseControllerIntTest.KEY_ID);
 
@@ -63,7 +76,7 @@ public class TokenHelper {
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
                 .subject("TEST.USER")
                 .issuer("http://localhost:8090/auth/issuer")
-                .claim("authorities", Collections.singletonList("ROLE_PREPARE_A_CASE"))
+                .claim("authorities", authorities)
                 .claim(USER_UUID_CLAIM_NAME, uuid)
                 .expirationTime(new Date(new Date().getTime() + 60 * 1000))
                 .build();
@@ -3,9 +3,13 @@ package uk.gov.justice.probation.courtcaseservice.service
 import hex.genmodel.easy.exception.PredictUnknownCategoricalLevelException
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.core.io.ClassPathResource
 import uk.gov.justice.probation.courtcaseservice.BaseIntTest
+import uk.gov.justice.probation.courtcaseservice.config.H2oModelLoader
+import java.util.concurrent.TimeUnit
 
 
 class ShortTermCustodyPredictorServiceTest : BaseIntTest() {
@@ -13,6 +17,15 @@ class ShortTermCustodyPredictorServiceTest : BaseIntTest() {
     @Autowired
     lateinit var predictorService: ShortTermCustodyPredictorService
 
+    @Autowired
+    lateinit var modelLoader: H2oModelLoader
+
+    @BeforeEach
+    fun awaitModel() {
+        // The model is loaded in the background at startup
+        modelLoader.initialLoad.get(30, TimeUnit.SECONDS)
+    }
+
     @Test
     fun `should calculate predictor score for valid parameters`() {
         // Given
@@ -106,4 +119,55 @@ class ShortTermCustodyPredictorServiceTest : BaseIntTest() {
         assertThat(custodyPredictorScore).isEqualTo(0.9081075078820396)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun `should score each key in a batch once and map unscorable keys to null`() {
+        // Given
+        val cardiff = ShortTermCustodyPredictorService.ScoringKey("Cardiff", 25, "80702")
+        val cardiffNoAge = ShortTermCustodyPredictorService.ScoringKey("Cardiff", null, "80702")
+        val nonsense = ShortTermCustodyPredictorService.ScoringKey("Nonsense", 25, "80702")
+
+        // When
+        val modelScores = predictorService.calculateShortTermCustodyPredictorScores(listOf(cardiff, nonsense, cardiffNoAge, cardiff))
+        val scores = modelScores.scores
+
+        // Then
+        assertThat(scores).hasSize(3)
+        assertThat(scores[cardiff]).isEqualTo(0.8756383297739117)
+        assertThat(scores[cardiffNoAge]).isEqualTo(0.9081075078820396)
+        assertThat(scores).containsEntry(nonsense, null)
+        assertThat(modelScores.modelVersion).isEqualTo(modelLoader.current().version).startsWith("20221207_model")
+    }
+
+    @Test
+    fun `should return the same scores for a batch scored again`() {
+        // Given
+        val keys = listOf(
+            ShortTermCustodyPredictorService.ScoringKey("Cardiff", 25, "80702"),
+            ShortTermCustodyPredictorService.ScoringKey("Cardiff", 25, "9X9X9X9X")
+        )
+
+        // When
+        val first = predictorService.calculateShortTermCustodyPredictorScores(keys)
+        val second = predictorService.calculateShortTermCustodyPredictorScores(keys)
+
+        // Then
+        assertThat(second).isEqualTo(first)
+        assertThat(second.scores[keys[1]]).isNull()
+    }
+
+    @Test
+    fun `should score with a new model once it is swapped in`() {
+        // Given
+        val key = ShortTermCustodyPredictorService.ScoringKey("Cardiff", 25, "80702")
+        val before = modelLoader.current()
+
+        // When
+        val swapped = modelLoader.swap(ClassPathResource("h2o/20221207_model.zip"))
+        val modelScores = predictorService.calculateShortTermCustodyPredictorScores(listOf(key))
+
+        // Then
+        assertThat(modelLoader.current()).isSameAs(swapped).isNotSameAs(before)
+        assertThat(modelScores.modelVersion).isEqualTo(swapped.version)
+        assertThat(modelScores.scores[key]).isEqualTo(0.8756383297739117)
+    }
+}
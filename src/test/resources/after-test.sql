@@ -6,3 +6,9 @@ TRUNCATE courtcaseservicetest.hearing CASCADE;
 TRUNCATE courtcaseservicetest.hearing_notes CASCADE;
 TRUNCATE courtcaseservicetest.court_case CASCADE;
 TRUNCATE courtcaseservicetest.court CASCADE;
+TRUNCATE courtcaseservicetest.domain_event_outbox;
+TRUNCATE courtcaseservicetest.court_case_archive, courtcaseservicetest.hearing_archive, courtcaseservicetest.hearing_day_archive,
+    courtcaseservicetest.hearing_defendant_archive, courtcaseservicetest.defendant_archive, courtcaseservicetest.offence_archive,
+    courtcaseservicetest.judicial_result_archive, courtcaseservicetest.archive_log;
+UPDATE courtcaseservicetest.archive_progress SET last_court_case_id = NULL;
+TRUNCATE courtcaseservicetest.audit_change_log;